@@ -583,6 +583,17 @@ public class CMSConfig {
     )
     private int linkDescMaxLength = 400;
 
+    /**
+     * Maximum total size (in bytes) of the scaled images stored by the
+     * {@link org.librecms.assets.ImageRenditionStore}. If the limit is
+     * exceeded the least recently used images are removed.
+     */
+    @Setting(
+        descKey = "imageRenditionStoreMaxSize.desc",
+        labelKey = "imageRenditionStoreMaxSize.label"
+    )
+    private long imageRenditionStoreMaxSize = 256L * 1024L * 1024L;
+
     public static CMSConfig getConfig() {
         final ConfigurationManager confManager = CdiUtil.createCdiUtil()
             .findBean(ConfigurationManager.class);
@@ -1136,6 +1147,15 @@ public class CMSConfig {
         this.linkDescMaxLength = linkDescMaxLength;
     }
 
+    public long getImageRenditionStoreMaxSize() {
+        return imageRenditionStoreMaxSize;
+    }
+
+    public void setImageRenditionStoreMaxSize(
+        final long imageRenditionStoreMaxSize) {
+        this.imageRenditionStoreMaxSize = imageRenditionStoreMaxSize;
+    }
+
     public String getCategoryAuthoringAddForm() {
         return categoryAuthoringAddForm;
     }
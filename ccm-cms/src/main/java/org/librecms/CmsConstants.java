@@ -72,6 +72,17 @@ public class CmsConstants {
 
     public final static String SCHEDULE_PUBLICATION = "schedule_publication";
 
+    /**
+     * Region of the second level cache for lifecycle definitions.
+     */
+    public static final String LIFECYCLES_CACHE_REGION = "librecms.lifecycles";
+
+    /**
+     * Region of the query cache for queries for content types.
+     */
+    public static final String CONTENT_TYPES_QUERY_REGION
+                                   = "librecms.queries.contenttypes";
+
     private CmsConstants() {
         //Nothing
     }
@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.assets;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.configuration.ConfigurationManager;
+import org.libreccm.files.CcmFiles;
+import org.libreccm.files.CcmFilesNotConfiguredException;
+import org.libreccm.files.DirectoryNotEmptyException;
+import org.libreccm.files.FileAccessException;
+import org.libreccm.files.FileAlreadyExistsException;
+import org.libreccm.files.FileDoesNotExistException;
+import org.libreccm.files.InsufficientPermissionsException;
+import org.librecms.CMSConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Stores scaled renditions of {@link Image} assets in the data directory of
+ * LibreCCM using {@link CcmFiles}. A rendition is identified by the UUID of
+ * the image, the revision of the image and the requested size. Because the
+ * revision is part of the key, renditions of an outdated version of an image
+ * are never served.
+ *
+ * The store keeps an index of the renditions with their sizes in memory. If
+ * the total size of the renditions exceeds the maximum size configured in
+ * {@link CMSConfig#getImageRenditionStoreMaxSize()} the least recently used
+ * renditions are deleted. Because the sizes of the renditions created before
+ * a restart of the server are not known, these renditions are deleted when
+ * the store is initialised.
+ *
+ * If {@link CcmFiles} is not configured the store is disabled and all
+ * renditions are created for each request.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ImageRenditionStore {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ImageRenditionStore.class
+    );
+
+    private static final String BASE_PATH = "cms";
+
+    private static final String RENDITIONS_PATH = BASE_PATH
+                                                      + "/image-renditions";
+
+    @Inject
+    private CcmFiles ccmFiles;
+
+    @Inject
+    private ConfigurationManager confManager;
+
+    /**
+     * The known renditions and their size in bytes, in access order.
+     */
+    private final LinkedHashMap<String, Long> renditions = new LinkedHashMap<>(
+        16, 0.75f, true
+    );
+
+    /**
+     * Renditions which are currently written. These renditions are not read
+     * from the file system until they have been written completely.
+     */
+    private final Set<String> pendingRenditions = ConcurrentHashMap
+        .newKeySet();
+
+    private long totalSize;
+
+    /**
+     * Deletes the renditions left over from before a restart. They are not
+     * part of the index, therefore they would not be limited by the maximum
+     * size of the store.
+     */
+    @PostConstruct
+    private void init() {
+        try {
+            if (ccmFiles.existsFile(RENDITIONS_PATH)) {
+                ccmFiles.deleteFile(RENDITIONS_PATH, true);
+            }
+        } catch (CcmFilesNotConfiguredException ex) {
+            LOGGER.info("CcmFiles is not configured, image renditions are "
+                            + "not stored.");
+        } catch (DirectoryNotEmptyException
+                     | FileAccessException
+                     | FileDoesNotExistException
+                 | InsufficientPermissionsException ex) {
+            LOGGER.warn("Failed to delete the image renditions from before "
+                            + "the last restart.");
+            LOGGER.warn(ex);
+        }
+    }
+
+    /**
+     * Retrieves a rendition from the store.
+     *
+     * @param imageUuid The UUID of the image.
+     * @param revision  The revision of the image.
+     * @param width     The requested width.
+     * @param height    The requested height.
+     *
+     * @return An {@link Optional} with the data of the rendition or an empty
+     *         {@link Optional} if there is no such rendition in the store.
+     */
+    public Optional<byte[]> getRendition(final String imageUuid,
+                                         final long revision,
+                                         final int width,
+                                         final int height) {
+
+        final String name = buildName(imageUuid, revision, width, height);
+        if (pendingRenditions.contains(name)) {
+            return Optional.empty();
+        }
+
+        synchronized (renditions) {
+            if (renditions.get(name) == null) {
+                return Optional.empty();
+            }
+        }
+
+        try {
+            return Optional.of(readFile(buildPath(name)));
+        } catch (FileDoesNotExistException ex) {
+            // Deleted by another thread.
+            synchronized (renditions) {
+                final Long size = renditions.remove(name);
+                if (size != null) {
+                    totalSize -= size;
+                }
+            }
+            return Optional.empty();
+        } catch (CcmFilesNotConfiguredException
+                     | FileAccessException
+                     | InsufficientPermissionsException
+                 | IOException ex) {
+            LOGGER.warn("Failed to read rendition {} of image {}.",
+                        name,
+                        imageUuid);
+            LOGGER.warn(ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Puts a rendition into the store. Renditions of older revisions of the
+     * same image are removed.
+     *
+     * @param imageUuid The UUID of the image.
+     * @param revision  The revision of the image.
+     * @param width     The requested width.
+     * @param height    The requested height.
+     * @param data      The data of the rendition.
+     */
+    public void putRendition(final String imageUuid,
+                             final long revision,
+                             final int width,
+                             final int height,
+                             final byte[] data) {
+
+        Objects.requireNonNull(imageUuid);
+        Objects.requireNonNull(data);
+
+        final long maxSize = confManager
+            .findConfiguration(CMSConfig.class)
+            .getImageRenditionStoreMaxSize();
+        if (data.length > maxSize) {
+            return;
+        }
+
+        final String name = buildName(imageUuid, revision, width, height);
+        if (!pendingRenditions.add(name)) {
+            // Another thread is already writing this rendition.
+            return;
+        }
+
+        try {
+            createDirectories();
+            final String tmpPath = String.format(
+                "%s.%s.tmp", buildPath(name), UUID.randomUUID().toString()
+            );
+            try (OutputStream outputStream = ccmFiles.createOutputStream(
+                tmpPath)) {
+                outputStream.write(data);
+            }
+            ccmFiles.moveFile(tmpPath, buildPath(name));
+
+            removeOutdatedRenditions(imageUuid, revision);
+            register(name, data.length);
+        } catch (CcmFilesNotConfiguredException
+                     | FileAccessException
+                     | FileAlreadyExistsException
+                     | InsufficientPermissionsException
+                 | IOException ex) {
+            LOGGER.warn("Failed to store rendition {} of image {}.",
+                        name,
+                        imageUuid);
+            LOGGER.warn(ex);
+        } finally {
+            pendingRenditions.remove(name);
+        }
+    }
+
+    /**
+     * @return The number of renditions known to the store.
+     */
+    public int getRenditionCount() {
+        synchronized (renditions) {
+            return renditions.size();
+        }
+    }
+
+    /**
+     * @return The total size of the renditions known to the store in bytes.
+     */
+    public long getTotalSize() {
+        synchronized (renditions) {
+            return totalSize;
+        }
+    }
+
+    private void register(final String name, final long size) {
+
+        final long maxSize = confManager
+            .findConfiguration(CMSConfig.class)
+            .getImageRenditionStoreMaxSize();
+
+        final List<String> evicted = new ArrayList<>();
+        synchronized (renditions) {
+            final Long oldSize = renditions.put(name, size);
+            if (oldSize != null) {
+                totalSize -= oldSize;
+            }
+            totalSize += size;
+
+            final Iterator<Map.Entry<String, Long>> iterator = renditions
+                .entrySet()
+                .iterator();
+            while (totalSize > maxSize && iterator.hasNext()) {
+                final Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                totalSize -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+
+        evicted.forEach(this::deleteRendition);
+    }
+
+    private void removeOutdatedRenditions(final String imageUuid,
+                                          final long revision) {
+
+        final String prefix = String.format("%s-", imageUuid);
+        final String currentPrefix = String.format("%s-%d-",
+                                                   imageUuid,
+                                                   revision);
+        final List<String> outdated = new ArrayList<>();
+        synchronized (renditions) {
+            final Iterator<Map.Entry<String, Long>> iterator = renditions
+                .entrySet()
+                .iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, Long> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)
+                        && !entry.getKey().startsWith(currentPrefix)) {
+                    totalSize -= entry.getValue();
+                    outdated.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+
+        outdated.forEach(this::deleteRendition);
+    }
+
+    private void deleteRendition(final String name) {
+        try {
+            ccmFiles.deleteFile(buildPath(name));
+        } catch (FileDoesNotExistException ex) {
+            // Already deleted, nothing to do.
+        } catch (CcmFilesNotConfiguredException
+                     | DirectoryNotEmptyException
+                     | FileAccessException
+                 | InsufficientPermissionsException ex) {
+            LOGGER.warn("Failed to delete image rendition {}.", name);
+            LOGGER.warn(ex);
+        }
+    }
+
+    private void createDirectories() throws FileAccessException,
+                                            FileAlreadyExistsException,
+                                            InsufficientPermissionsException {
+        if (!ccmFiles.existsFile(BASE_PATH)) {
+            ccmFiles.createDirectory(BASE_PATH);
+        }
+        if (!ccmFiles.existsFile(RENDITIONS_PATH)) {
+            ccmFiles.createDirectory(RENDITIONS_PATH);
+        }
+    }
+
+    private byte[] readFile(final String path)
+        throws FileAccessException,
+               FileDoesNotExistException,
+               InsufficientPermissionsException,
+               IOException {
+
+        try (InputStream inputStream = ccmFiles.createInputStream(path)) {
+            final ByteArrayOutputStream outputStream
+                                            = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int length = inputStream.read(buffer);
+            while (length != -1) {
+                outputStream.write(buffer, 0, length);
+                length = inputStream.read(buffer);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    private String buildName(final String imageUuid,
+                             final long revision,
+                             final int width,
+                             final int height) {
+        return String.format("%s-%d-%dx%d",
+                             Objects.requireNonNull(imageUuid),
+                             revision,
+                             width,
+                             height);
+    }
+
+    private String buildPath(final String name) {
+        return String.format("%s/%s", RENDITIONS_PATH, name);
+    }
+
+}
@@ -32,6 +32,7 @@ import java.util.Objects;
 import java.util.Optional;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.Inheritance;
@@ -54,6 +55,7 @@ import static org.librecms.CmsConstants.*;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable(false)
 @Table(schema = DB_SCHEMA, name = "ASSETS")
 @Inheritance(strategy = InheritanceType.JOINED)
 @Audited
@@ -156,6 +158,22 @@ import static org.librecms.CmsConstants.*;
                     + "  OR true = :isSystemUser OR true = :isAdmin"
                     + ")")
     ,
+    @NamedQuery(
+        name = "Asset.findIdByUuidAndType",
+        query = "SELECT DISTINCT a.objectId "
+                    + "FROM Asset a "
+                    + "LEFT JOIN a.permissions p "
+                    + "WHERE a.uuid = :uuid "
+                    + "AND TYPE(a) = :type "
+                    + "AND ("
+                    + "  ("
+                    + "    p.grantee IN :roles "
+                    + "    AND p.grantedPrivilege = "
+                    + "      '" + AssetPrivileges.VIEW + "' "
+                    + "  ) "
+                    + "  OR true = :isSystemUser OR true = :isAdmin"
+                    + ")")
+    ,
     @NamedQuery(
         name = "Asset.findByContentSection",
         query = "SELECT DISTINCT a "
@@ -279,6 +297,26 @@ import static org.librecms.CmsConstants.*;
                     + "    )"
     )
     ,
+    @NamedQuery(
+        name = "Asset.findIdByNameInFolderAndType",
+        query = "SELECT DISTINCT a.objectId "
+                    + "FROM Asset a "
+                    + "JOIN a.categories c "
+                    + "LEFT JOIN a.permissions p "
+                    + "WHERE c.category = :folder "
+                    + "AND c.type = '" + CATEGORIZATION_TYPE_FOLDER + "' "
+                    + "AND a.displayName = :name "
+                    + "AND TYPE(a) = :type "
+                    + "AND ("
+                    + "      ("
+                    + "        p.grantee IN :roles "
+                    + "        AND p.grantedPrivilege = '"
+                    + AssetPrivileges.VIEW + "'"
+                    + "      ) "
+                    + "      OR true = :isSystemUser OR true = :isAdmin"
+                    + "    )"
+    )
+    ,
     @NamedQuery(
         name = "Asset.countInFolder",
         query = "SELECT COUNT(DISTINCT a) "
@@ -290,6 +290,36 @@ public class AssetRepository
         }
     }
 
+    /**
+     * Finds the ID of an {@link Asset} by its UUID and type. Unlike
+     * {@link #findByUuidAndType(java.lang.String, java.lang.Class)} this
+     * method does not load the asset itself, which is useful for assets with
+     * large binary data if only the ID is needed.
+     *
+     * @param uuid The UUID of the asset.
+     * @param type The type of the asset.
+     *
+     * @return An {@link Optional} containing the ID of the asset or an empty
+     *         {@link Optional} if there is no asset with the provided
+     *         {@code uuid} and {@code type}.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public Optional<Long> findIdByUuidAndType(
+        final String uuid, final Class<? extends Asset> type) {
+
+        final TypedQuery<Long> query = entityManager.createNamedQuery(
+            "Asset.findIdByUuidAndType", Long.class);
+        query.setParameter("uuid", uuid);
+        query.setParameter("type", type);
+        setAuthorizationParameters(query);
+
+        try {
+            return Optional.of(query.getSingleResult());
+        } catch (NoResultException ex) {
+            return Optional.empty();
+        }
+    }
+
     @Transactional(Transactional.TxType.REQUIRED)
     public List<Asset> findByContentSection(final ContentSection section) {
 
@@ -652,6 +682,58 @@ public class AssetRepository
         }
     }
 
+    /**
+     * Finds the ID of an {@link Asset} of a specific type by its path in a
+     * content section. The asset itself is not loaded (see
+     * {@link #findIdByUuidAndType(java.lang.String, java.lang.Class)}).
+     *
+     * @param section The content section.
+     * @param path    The path of the asset.
+     * @param type    The type of the asset.
+     *
+     * @return An {@link Optional} containing the ID of the asset or an empty
+     *         {@link Optional} if there is no asset of the provided type at
+     *         the provided path.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public Optional<Long> findIdByPath(final ContentSection section,
+                                       final String path,
+                                       final Class<? extends Asset> type) {
+
+        final String normalizedPath = PathUtil.normalizePath(path);
+        final int lastTokenStart = normalizedPath.lastIndexOf('/');
+        final String assetName;
+        final Optional<Folder> folder;
+        if (lastTokenStart < 0) {
+            assetName = normalizedPath;
+            folder = folderRepo
+                .findById(section.getRootAssetsFolder().getObjectId());
+        } else {
+            final String folderPath = normalizedPath
+                .substring(0, lastTokenStart);
+            assetName = normalizedPath.substring(lastTokenStart + 1);
+            folder = folderRepo
+                .findByPath(section, folderPath, FolderType.ASSETS_FOLDER);
+        }
+
+        if (!folder.isPresent()) {
+            return Optional.empty();
+        }
+
+        final TypedQuery<Long> query = entityManager
+            .createNamedQuery("Asset.findIdByNameInFolderAndType", Long.class)
+            .setParameter("folder", folder.get())
+            .setParameter("name", assetName)
+            .setParameter("type", type);
+        setAuthorizationParameters(query);
+
+        try {
+            return Optional.of(query.getSingleResult());
+        } catch (NoResultException ex) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Counts the assets of a specific type which name starts with a provided
      * string in a specific folder.
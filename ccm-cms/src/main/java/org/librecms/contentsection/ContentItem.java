@@ -24,7 +24,9 @@ import static org.librecms.CmsConstants.*;
 
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
+import org.hibernate.search.annotations.Analyze;
 import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Indexed;
 import org.libreccm.core.CcmObject;
 import org.libreccm.l10n.LocalizedString;
 import org.libreccm.workflow.Workflow;
@@ -38,6 +40,7 @@ import java.util.List;
 import java.util.Objects;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -72,9 +75,10 @@ import javax.xml.bind.annotation.XmlElementWrapper;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable(false)
 @Audited
 @Table(name = "CONTENT_ITEMS", schema = DB_SCHEMA)
-//@Indexed
+@Indexed(interceptor = ContentItemIndexingInterceptor.class)
 @NamedQueries({
     @NamedQuery(
         name = "ContentItem.findById",
@@ -603,6 +607,12 @@ public class ContentItem extends CcmObject implements Serializable, Exportable {
 
     private static final long serialVersionUID = 5897287630227129653L;
 
+    /**
+     * Name of the index field containing the ID of the content section of the
+     * item.
+     */
+    public static final String CONTENT_SECTION_ID_FIELD = "contentSectionId";
+
     @Column(name = "ITEM_UUID", nullable = false)
     @Field
     @XmlElement(name = "item-uuid", namespace = CMS_XML_NS)
@@ -799,6 +809,25 @@ public class ContentItem extends CcmObject implements Serializable, Exportable {
         this.contentType = contentType;
     }
 
+    /**
+     * The ID of the content section to which the item belongs. This property
+     * is only provided for the search index which allows to filter the items
+     * of a content section without embedding the content type and the
+     * section into the index.
+     *
+     * @return The ID of the content section of the content type of the item
+     *         or {@code null} if the item has no content type.
+     */
+    @Field(name = CONTENT_SECTION_ID_FIELD, analyze = Analyze.NO)
+    @JsonIgnore
+    public Long getContentSectionId() {
+        if (contentType == null || contentType.getContentSection() == null) {
+            return null;
+        } else {
+            return contentType.getContentSection().getObjectId();
+        }
+    }
+
     public LocalizedString getTitle() {
         return title;
     }
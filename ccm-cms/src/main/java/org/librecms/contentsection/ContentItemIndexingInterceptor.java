@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.search.indexes.interceptor.EntityIndexingInterceptor;
+import org.hibernate.search.indexes.interceptor.IndexingOverride;
+import org.libreccm.configuration.ConfigurationManager;
+import org.libreccm.search.SearchConfig;
+
+import javax.enterprise.context.ContextNotActiveException;
+import javax.enterprise.inject.spi.CDI;
+
+/**
+ * Controls the indexing of {@link ContentItem}s. Content items are only
+ * added to the search index for the name search of the content item listings
+ * (see {@link ContentItemSearchManager}). If the name search is disabled in
+ * the {@link SearchConfig} items are not indexed when they are created or
+ * changed, which avoids the costs of updating the index for every change of
+ * an item.
+ *
+ * Items are always removed from the index when they are deleted. After
+ * enabling the name search the index must be rebuilt (see
+ * {@link org.libreccm.search.SearchManager#rebuildIndex()}). The threads
+ * rebuilding the index have no request context in which the
+ * {@link SearchConfig} can be read, therefore items are indexed if the
+ * configuration is not available.
+ *
+ * Hibernate Search creates the instances of this class, therefore the
+ * {@link ConfigurationManager} is retrieved using {@link CDI#current()}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ContentItemIndexingInterceptor
+    implements EntityIndexingInterceptor<ContentItem> {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ContentItemIndexingInterceptor.class
+    );
+
+    @Override
+    public IndexingOverride onAdd(final ContentItem item) {
+        return applyNameSearchConfig();
+    }
+
+    @Override
+    public IndexingOverride onUpdate(final ContentItem item) {
+        return applyNameSearchConfig();
+    }
+
+    @Override
+    public IndexingOverride onDelete(final ContentItem item) {
+        return IndexingOverride.APPLY_DEFAULT;
+    }
+
+    @Override
+    public IndexingOverride onCollectionUpdate(final ContentItem item) {
+        return applyNameSearchConfig();
+    }
+
+    private IndexingOverride applyNameSearchConfig() {
+        final SearchConfig searchConfig;
+        try {
+            searchConfig = CDI
+                .current()
+                .select(ConfigurationManager.class)
+                .get()
+                .findConfiguration(SearchConfig.class);
+        } catch (ContextNotActiveException | IllegalStateException ex) {
+            LOGGER.debug("SearchConfig not available, indexing item.", ex);
+            return IndexingOverride.APPLY_DEFAULT;
+        }
+
+        if (searchConfig != null && searchConfig.isNameSearchEnabled()) {
+            return IndexingOverride.APPLY_DEFAULT;
+        } else {
+            return IndexingOverride.SKIP;
+        }
+    }
+
+}
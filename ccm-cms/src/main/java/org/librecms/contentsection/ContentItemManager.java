@@ -23,6 +23,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 
 import org.libreccm.categorization.Category;
 import org.librecms.lifecycle.LifecycleDefinition;
@@ -32,6 +33,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.libreccm.categorization.Categorization;
@@ -50,14 +52,7 @@ import org.librecms.contentsection.privileges.ItemPrivileges;
 import org.librecms.lifecycle.Lifecycle;
 import org.librecms.lifecycle.LifecycleManager;
 
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -116,6 +111,9 @@ public class ContentItemManager {
     @Inject
     private WorkflowManager workflowManager;
 
+    @Inject
+    private Event<ContentItemPublicationEvent> publicationEvent;
+
     /**
      * Creates a new content item in the provided content section and folder
      * with the default workflow for the content type of the item.
@@ -502,116 +500,22 @@ public class ContentItemManager {
             copyAttachmentList(attachmentList, copy);
         }
 
-        final BeanInfo beanInfo;
-        try {
-            beanInfo = Introspector.getBeanInfo(item.getClass());
-        } catch (IntrospectionException ex) {
-            throw new RuntimeException(ex);
-        }
-
-        for (final PropertyDescriptor propertyDescriptor : beanInfo
-            .getPropertyDescriptors()) {
-            if (propertyIsExcluded(propertyDescriptor.getName())) {
-                continue;
-            }
-
-            final Class<?> propType = propertyDescriptor.getPropertyType();
-            final Method readMethod = propertyDescriptor.getReadMethod();
-            final Method writeMethod = propertyDescriptor.getWriteMethod();
-
-            if (writeMethod == null) {
-                continue;
-            }
-
-            if (LocalizedString.class.equals(propType)) {
-                final LocalizedString source;
-                final LocalizedString target;
-                try {
-                    source = (LocalizedString) readMethod.invoke(draftItem);
-                    target = (LocalizedString) readMethod.invoke(copy);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                copyLocalizedString(source, target);
-            } else if (propType != null
-                           && propType.isAssignableFrom(ContentItem.class)) {
-
-                final ContentItem linkedItem;
-                try {
-                    linkedItem = (ContentItem) readMethod.invoke(draftItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                final ContentItem linkedDraftItem = getDraftVersion(
-                    linkedItem, linkedItem.getClass());
+        for (final PropertyCopyPlan.Property property : PropertyCopyPlan
+            .forItemType(draftItem.getClass()).getProperties()) {
 
-                try {
-                    writeMethod.invoke(copy, linkedDraftItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-            } else if (propType != null
-                           && propType.isAssignableFrom(List.class)) {
-                final List<Object> source;
-                final List<Object> target;
-                try {
-                    source = (List<Object>) readMethod.invoke(draftItem);
-                    target = (List<Object>) readMethod.invoke(copy);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                target.addAll(source);
-            } else if (propType != null
-                           && propType.isAssignableFrom(Map.class)) {
-                final Map<Object, Object> source;
-                final Map<Object, Object> target;
-
-                try {
-                    source = (Map<Object, Object>) readMethod.invoke(draftItem);
-                    target = (Map<Object, Object>) readMethod.invoke(copy);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                source.forEach((key, value) -> target.put(key, value));
-            } else if (propType != null
-                           && propType.isAssignableFrom(Set.class)) {
-                final Set<Object> source;
-                final Set<Object> target;
-
-                try {
-                    source = (Set<Object>) readMethod.invoke(draftItem);
-                    target = (Set<Object>) readMethod.invoke(copy);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
+            if (property.getKind()
+                    == PropertyCopyPlan.PropertyKind.CONTENT_ITEM) {
+                final ContentItem linkedItem = (ContentItem) property.read(
+                    draftItem);
+                if (linkedItem == null) {
+                    property.write(copy, null);
+                } else {
+                    property.write(copy,
+                                   getDraftVersion(linkedItem,
+                                                   linkedItem.getClass()));
                 }
-
-                target.addAll(source);
             } else {
-                final Object value;
-                try {
-                    value = readMethod.invoke(draftItem);
-                    writeMethod.invoke(copy, value);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
+                property.copy(draftItem, copy);
             }
         }
 
@@ -646,26 +550,6 @@ public class ContentItemManager {
         return copy;
     }
 
-    private boolean propertyIsExcluded(final String name) {
-        final String[] excluded = new String[]{
-            "attachments",
-            "categories",
-            "contentType",
-            "lifecycle",
-            "objectId",
-            "uuid",
-            "workflow",};
-
-        boolean result = false;
-        for (final String current : excluded) {
-            if (current.equals(name)) {
-                result = true;
-            }
-        }
-
-        return result;
-    }
-
     private void copyAttachmentList(final AttachmentList sourceList,
                                     final ContentItem target) {
         final AttachmentList targetList = new AttachmentList();
@@ -746,55 +630,9 @@ public class ContentItemManager {
                 target.getClass().getName()));
         }
 
-        final BeanInfo beanInfo;
-        try {
-            beanInfo = Introspector.getBeanInfo(source.getClass());
-        } catch (IntrospectionException ex) {
-            throw new UnexpectedErrorException(ex);
-        }
-
-        for (final PropertyDescriptor propertyDescriptor : beanInfo.
-            getPropertyDescriptors()) {
-            final String propertyName = propertyDescriptor.getName();
-            if ("objectId".equals(propertyName)
-                    || "uuid".equals(propertyName)
-                    || "itemAttachments".equals(propertyName)
-                    || "categories".equals(propertyName)) {
-                continue;
-            }
-
-            final Class<?> propType = propertyDescriptor.getPropertyType();
-            final Method readMethod = propertyDescriptor.getReadMethod();
-            final Method writeMethod = propertyDescriptor.getWriteMethod();
-
-            if (writeMethod == null) {
-                continue;
-            }
-
-            if (LocalizedString.class.equals(propType)) {
-                final LocalizedString sourceStr;
-                final LocalizedString targetStr;
-                try {
-                    sourceStr = (LocalizedString) readMethod.invoke(source);
-                    targetStr = (LocalizedString) readMethod.invoke(target);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new UnexpectedErrorException(ex);
-                }
-
-                copyLocalizedString(sourceStr, targetStr);
-            } else {
-                final Object value;
-                try {
-                    value = readMethod.invoke(source);
-                    writeMethod.invoke(target, value);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new UnexpectedErrorException(ex);
-                }
-            }
+        for (final PropertyCopyPlan.Property property : PropertyCopyPlan
+            .forAssetType(source.getClass()).getProperties()) {
+            property.copy(source, target);
         }
 
         if (target.getUuid() == null || target.getUuid().isEmpty()) {
@@ -886,121 +724,29 @@ public class ContentItemManager {
         liveItem.setLifecycle(lifecycle);
         liveItem.setWorkflow(draftItem.getWorkflow());
 
-        final BeanInfo beanInfo;
-        try {
-            beanInfo = Introspector.getBeanInfo(item.getClass());
-        } catch (IntrospectionException ex) {
-            throw new RuntimeException(ex);
-        }
-
-        for (final PropertyDescriptor propertyDescriptor : beanInfo
-            .getPropertyDescriptors()) {
-
-            if (propertyIsExcluded(propertyDescriptor.getName())) {
-                continue;
-            }
+        for (final PropertyCopyPlan.Property property : PropertyCopyPlan
+            .forItemType(draftItem.getClass()).getProperties()) {
 
-            final Class<?> propType = propertyDescriptor.getPropertyType();
-            final Method readMethod = propertyDescriptor.getReadMethod();
-            final Method writeMethod = propertyDescriptor.getWriteMethod();
-
-            if (writeMethod == null) {
-                continue;
-            }
-
-            if (LocalizedString.class.equals(propType)) {
-                final LocalizedString source;
-                final LocalizedString target;
-                try {
-                    source = (LocalizedString) readMethod.invoke(draftItem);
-                    target = (LocalizedString) readMethod.invoke(liveItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                copyLocalizedString(source, target);
-            } else if (propType != null
-                           && propType.isAssignableFrom(ContentItem.class)) {
-                final ContentItem linkedItem;
-                try {
-                    linkedItem = (ContentItem) readMethod.invoke(draftItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
+            if (property.getKind()
+                    == PropertyCopyPlan.PropertyKind.CONTENT_ITEM) {
+                final ContentItem linkedItem = (ContentItem) property.read(
+                    draftItem);
+                if (linkedItem == null) {
+                    continue;
                 }
 
                 final ContentItem linkedDraftItem = getDraftVersion(
                     linkedItem, linkedItem.getClass());
 
                 if (isLive(linkedDraftItem)) {
-                    try {
-                        final Optional<ContentItem> linkedLiveItem
-                                                        = getLiveVersion(
-                                linkedDraftItem, ContentItem.class);
-                        writeMethod.invoke(liveItem, linkedLiveItem);
-                    } catch (IllegalAccessException
-                             | IllegalArgumentException
-                             | InvocationTargetException ex) {
-                        throw new RuntimeException(ex);
-                    }
-                }
-            } else if (propType != null
-                           && propType.isAssignableFrom(List.class)) {
-                final List<Object> source;
-                final List<Object> target;
-                try {
-                    source = (List<Object>) readMethod.invoke(draftItem);
-                    target = (List<Object>) readMethod.invoke(liveItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                target.addAll(source);
-            } else if (propType != null
-                           && propType.isAssignableFrom(Map.class)) {
-                final Map<Object, Object> source;
-                final Map<Object, Object> target;
-
-                try {
-                    source = (Map<Object, Object>) readMethod.invoke(draftItem);
-                    target = (Map<Object, Object>) readMethod.invoke(liveItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
-
-                source.forEach((key, value) -> target.put(key, value));
-            } else if (propType != null
-                           && propType.isAssignableFrom(Set.class)) {
-                final Set<Object> source;
-                final Set<Object> target;
-
-                try {
-                    source = (Set<Object>) readMethod.invoke(draftItem);
-                    target = (Set<Object>) readMethod.invoke(liveItem);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
+                    getLiveVersion(linkedDraftItem, ContentItem.class)
+                        .ifPresent(
+                            linkedLiveItem -> property.write(liveItem,
+                                                             linkedLiveItem)
+                        );
                 }
-
-                target.addAll(source);
             } else {
-                final Object value;
-                try {
-                    value = readMethod.invoke(item);
-                    writeMethod.invoke(liveItem, value);
-                } catch (IllegalAccessException
-                         | IllegalArgumentException
-                         | InvocationTargetException ex) {
-                    throw new RuntimeException(ex);
-                }
+                property.copy(draftItem, liveItem);
             }
         }
 
@@ -1094,6 +840,19 @@ public class ContentItemManager {
             }
         }
 
+        final Set<Long> categoryIds = oldCategories
+            .stream()
+            .map(Category::getObjectId)
+            .collect(Collectors.toCollection(HashSet::new));
+        draftItem
+            .getCategories()
+            .forEach(categorization -> categoryIds.add(
+                categorization.getCategory().getObjectId()));
+        publicationEvent.fire(new ContentItemPublicationEvent(
+            draftItem.getItemUuid(),
+            categoryIds,
+            ContentItemPublicationEvent.PublicationType.PUBLISHED));
+
         return liveItem;
     }
 
@@ -1178,6 +937,13 @@ public class ContentItemManager {
             entityManager.remove(liveItem.get());
         }
 
+        publicationEvent.fire(new ContentItemPublicationEvent(
+            item.getItemUuid(),
+            categories
+                .stream()
+                .map(Category::getObjectId)
+                .collect(Collectors.toList()),
+            ContentItemPublicationEvent.PublicationType.UNPUBLISHED));
     }
 
     private void unpublishAttachment(final ItemAttachment<?> itemAttachment) {
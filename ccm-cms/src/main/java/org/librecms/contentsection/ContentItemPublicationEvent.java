@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Event fired by the {@link ContentItemManager} if the live version of a
+ * {@link ContentItem} has been created, updated or removed.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ContentItemPublicationEvent {
+
+    public enum PublicationType {
+
+        /**
+         * The item was published or republished.
+         */
+        PUBLISHED,
+        /**
+         * The live version of the item was removed.
+         */
+        UNPUBLISHED
+
+    }
+
+    /**
+     * The item UUID shared by the draft and the live version of the item.
+     *
+     * @see ContentItem#getItemUuid()
+     */
+    private final String itemUuid;
+
+    /**
+     * The IDs of the categories to which the live version of the item was
+     * assigned.
+     */
+    private final Set<Long> categoryIds;
+
+    private final PublicationType publicationType;
+
+    public ContentItemPublicationEvent(
+        final String itemUuid,
+        final Collection<Long> categoryIds,
+        final PublicationType publicationType) {
+
+        this.itemUuid = itemUuid;
+        this.categoryIds = Collections.unmodifiableSet(
+            new HashSet<>(categoryIds)
+        );
+        this.publicationType = publicationType;
+    }
+
+    public String getItemUuid() {
+        return itemUuid;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public PublicationType getPublicationType() {
+        return publicationType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "itemUuid = %s, "
+                                 + "categoryIds = %s, "
+                                 + "publicationType = %s"
+                                 + " }",
+                             super.toString(),
+                             itemUuid,
+                             categoryIds,
+                             publicationType);
+    }
+
+}
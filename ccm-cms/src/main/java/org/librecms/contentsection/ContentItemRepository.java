@@ -37,7 +37,10 @@ import org.libreccm.security.PermissionChecker;
 import org.libreccm.security.Role;
 import org.libreccm.security.RoleManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -53,9 +56,13 @@ import org.libreccm.workflow.Task;
 import org.libreccm.workflow.TaskManager;
 import org.libreccm.workflow.Workflow;
 import org.libreccm.workflow.WorkflowRepository;
+import org.librecms.contentsection.ContentItemSearchManager.NameMatch;
+import org.librecms.contentsection.privileges.ItemPrivileges;
 
 import java.util.Collections;
 
+import static org.librecms.CmsConstants.*;
+
 import javax.transaction.Transactional;
 
 /**
@@ -69,6 +76,21 @@ public class ContentItemRepository
 
     private static final long serialVersionUID = -145167586339461600L;
 
+    /**
+     * Number of candidates retrieved from the search index and checked using
+     * the database at once.
+     */
+    private static final int SEARCH_BATCH_SIZE = 500;
+
+    /**
+     * Maximum number of candidates from the search index which are checked
+     * using the database when counting the items matching a name. If the
+     * index has more candidates the number of candidates is used as count,
+     * which is an upper bound of the number of matching items only. Callers
+     * can compare a count with this limit to find out if it may be inexact.
+     */
+    public static final int SEARCH_COUNT_LIMIT = 2 * SEARCH_BATCH_SIZE;
+
     @Inject
     private CategoryManager categoryManager;
 
@@ -84,6 +106,9 @@ public class ContentItemRepository
     @Inject
     private ContentItemManager itemManager;
 
+    @Inject
+    private ContentItemSearchManager itemSearchManager;
+
     @Inject
     private PermissionChecker permissionChecker;
 
@@ -281,11 +306,30 @@ public class ContentItemRepository
         return (List<T>) query.getResultList();
     }
 
+    /**
+     * Finds all items of a content section whose
+     * {@link CcmObject#displayName} contains the provided name. If the name
+     * search using the search index is available (see
+     * {@link ContentItemSearchManager#isNameSearchAvailable(java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch)})
+     * the items are found using the index, otherwise a {@code LIKE} query is
+     * used.
+     *
+     * @param <T>     The type of the items.
+     * @param name    The name to search for.
+     * @param section The content section.
+     *
+     * @return The matching items.
+     */
     @Transactional(Transactional.TxType.REQUIRED)
     @SuppressWarnings("unchecked")
     public <T extends ContentItem> List<T> findByNameAndContentSection(
         final String name, final ContentSection section) {
 
+        if (itemSearchManager.isNameSearchAvailable(name,
+                                                    NameMatch.CONTAINS)) {
+            return (List<T>) searchAllByContentSection(section, null, name);
+        }
+
         final TypedQuery<ContentItem> query = getEntityManager()
             .createNamedQuery("ContentItem.findByNameAndContentSection",
                               ContentItem.class);
@@ -296,6 +340,19 @@ public class ContentItemRepository
         return (List<T>) query.getResultList();
     }
 
+    /**
+     * Finds all items of a content section in the provided version whose
+     * {@link CcmObject#displayName} contains the provided name. See
+     * {@link #findByNameAndContentSection(java.lang.String, org.librecms.contentsection.ContentSection)}
+     * for details.
+     *
+     * @param <T>     The type of the items.
+     * @param name    The name to search for.
+     * @param section The content section.
+     * @param version The version of the items.
+     *
+     * @return The matching items.
+     */
     @Transactional(Transactional.TxType.REQUIRED)
     @SuppressWarnings("unchecked")
     public <T extends ContentItem> List<T> findByNameAndContentSection(
@@ -303,6 +360,13 @@ public class ContentItemRepository
         final ContentSection section,
         final ContentItemVersion version) {
 
+        if (itemSearchManager.isNameSearchAvailable(name,
+                                                    NameMatch.CONTAINS)) {
+            return (List<T>) searchAllByContentSection(section,
+                                                       version,
+                                                       name);
+        }
+
         final TypedQuery<ContentItem> query = getEntityManager()
             .createNamedQuery(
                 "ContentItem.findByNameAndContentSectionAndVersion",
@@ -561,6 +625,663 @@ public class ContentItemRepository
         return query.getSingleResult();
     }
 
+    /**
+     * Retrieves a page of the items of a content section, ordered by their
+     * {@link CcmObject#displayName} and their ID. Instead of an offset the
+     * page is determined by the last item of the previous page (keyset
+     * pagination), therefore retrieving a page has the same costs for all
+     * pages. Items without a display name are ordered like items with an
+     * empty display name.
+     *
+     * The name is searched as described for
+     * {@link #findPageByContentSectionAndName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int)}.
+     *
+     * @param section          The content section.
+     * @param version          The version of the items.
+     * @param name             Optional string which must be contained in the
+     *                         name of the items. May be {@code null}.
+     * @param type             Optional type of the items. May be
+     *                         {@code null}.
+     * @param afterDisplayName The display name of the last item of the
+     *                         previous page. {@code null} is treated like an
+     *                         empty display name.
+     * @param afterObjectId    The ID of the last item of the previous page,
+     *                         {@code null} for the first page.
+     * @param limit            The maximum number of items to retrieve.
+     *
+     * @return The items of the page.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public List<ContentItem> findPageByContentSection(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final Class<? extends ContentItem> type,
+        final String afterDisplayName,
+        final Long afterObjectId,
+        final int limit) {
+
+        return findPageByContentSectionAndName(section,
+                                               version,
+                                               name,
+                                               NameMatch.CONTAINS,
+                                               type,
+                                               afterDisplayName,
+                                               afterObjectId,
+                                               limit);
+    }
+
+    /**
+     * Counts the items returned by
+     * {@link #findPageByContentSection(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * for all pages. Like
+     * {@link #countByContentSectionAndName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class)}
+     * the method returns an upper bound only if the search index has more
+     * than {@link #SEARCH_COUNT_LIMIT} candidates for the name.
+     *
+     * @param section The content section.
+     * @param version The version of the items.
+     * @param name    Optional string which must be contained in the name of
+     *                the items. May be {@code null}.
+     * @param type    Optional type of the items. May be {@code null}.
+     *
+     * @return The number of matching items, or an upper bound of it if the
+     *         search index has more than {@link #SEARCH_COUNT_LIMIT}
+     *         candidates.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public long countByContentSection(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final Class<? extends ContentItem> type) {
+
+        return countByContentSectionAndName(section,
+                                            version,
+                                            name,
+                                            NameMatch.CONTAINS,
+                                            type);
+    }
+
+    /**
+     * Retrieves a page of the items of a content section whose
+     * {@link CcmObject#displayName} contains or starts with the provided
+     * name. The pages are determined in the same way as by
+     * {@link #findPageByContentSection(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}.
+     *
+     * If the name search using the search index is available (see
+     * {@link ContentItemSearchManager#isNameSearchAvailable(java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch)})
+     * the candidates are retrieved from the n-gram and keyword fields of the
+     * index and checked in batches against the database. Otherwise a
+     * {@code LIKE} query is used.
+     *
+     * If the index is used the display names are compared case sensitive by
+     * their code points (see
+     * {@link ContentItemSearchManager#findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)}).
+     * The {@code LIKE} query uses the collation of the database, therefore
+     * the order of the items may differ. The pages are consistent as long as
+     * the same name is used for all pages of a listing.
+     *
+     * @param section          The content section.
+     * @param version          The version of the items.
+     * @param name             Optional name to search for. May be
+     *                         {@code null}.
+     * @param match            How the name is matched.
+     * @param type             Optional type of the items. May be
+     *                         {@code null}.
+     * @param afterDisplayName The display name of the last item of the
+     *                         previous page. {@code null} is treated like an
+     *                         empty display name.
+     * @param afterObjectId    The ID of the last item of the previous page,
+     *                         {@code null} for the first page.
+     * @param limit            The maximum number of items to retrieve.
+     *
+     * @return The items of the page.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public List<ContentItem> findPageByContentSectionAndName(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match,
+        final Class<? extends ContentItem> type,
+        final String afterDisplayName,
+        final Long afterObjectId,
+        final int limit) {
+
+        if (itemSearchManager.isNameSearchAvailable(name, match)) {
+            return searchPageByContentSection(section,
+                                              version,
+                                              name,
+                                              match,
+                                              type,
+                                              afterDisplayName,
+                                              afterObjectId,
+                                              limit);
+        }
+
+        final TypedQuery<ContentItem> query = createListingQuery(
+            "SELECT i FROM ContentItem i JOIN i.contentType t "
+                + "WHERE t.contentSection = :section "
+                + "AND i.version = :version ",
+            ContentItem.class,
+            namePattern(name, match),
+            type,
+            afterDisplayName,
+            afterObjectId
+        );
+        query.setParameter("section", section);
+        query.setParameter("version", version);
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    /**
+     * Counts the items returned by
+     * {@link #findPageByContentSectionAndName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * for all pages.
+     *
+     * <strong>The result is not always exact:</strong> If the search index is
+     * used and has more than {@link #SEARCH_COUNT_LIMIT} candidates for the
+     * name, checking all candidates would require too many queries. In this
+     * case the number of candidates is returned (see
+     * {@link ContentItemSearchManager#countIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class)}),
+     * which is an upper bound of the number of matching items only. It may
+     * include items which don't match the name and items the current user is
+     * not permitted to see. Use the count for displaying an approximate number
+     * of results, not for computing the number of pages.
+     *
+     * @param section The content section.
+     * @param version The version of the items.
+     * @param name    Optional name to search for. May be {@code null}.
+     * @param match   How the name is matched.
+     * @param type    Optional type of the items. May be {@code null}.
+     *
+     * @return The number of matching items, or an upper bound of it if the
+     *         search index has more than {@link #SEARCH_COUNT_LIMIT}
+     *         candidates.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public long countByContentSectionAndName(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match,
+        final Class<? extends ContentItem> type) {
+
+        if (itemSearchManager.isNameSearchAvailable(name, match)) {
+            return countSearchByContentSection(section,
+                                               version,
+                                               name,
+                                               match,
+                                               type);
+        }
+
+        final TypedQuery<Long> query = createListingQuery(
+            "SELECT COUNT(i) FROM ContentItem i JOIN i.contentType t "
+                + "WHERE t.contentSection = :section "
+                + "AND i.version = :version ",
+            Long.class,
+            namePattern(name, match),
+            type,
+            null,
+            null
+        );
+        query.setParameter("section", section);
+        query.setParameter("version", version);
+
+        return query.getSingleResult();
+    }
+
+    /**
+     * Retrieves a page of items using the search index. The index provides
+     * candidates in the order of the page. The candidates are checked in
+     * batches of {@link #SEARCH_BATCH_SIZE} using the database, which removes
+     * false positives of the n-gram search and items the current user is not
+     * permitted to see, until the page is full or the index has no more
+     * candidates.
+     *
+     * @param section          The content section.
+     * @param version          The version of the items.
+     * @param name             The name to search for.
+     * @param match            How the name is matched.
+     * @param type             Optional type of the items.
+     * @param afterDisplayName Display name of the last item of the previous
+     *                         page.
+     * @param afterObjectId    ID of the last item of the previous page,
+     *                         {@code null} for the first page.
+     * @param limit            The maximum number of items to retrieve.
+     *
+     * @return The items of the page.
+     */
+    private List<ContentItem> searchPageByContentSection(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match,
+        final Class<? extends ContentItem> type,
+        final String afterDisplayName,
+        final Long afterObjectId,
+        final int limit) {
+
+        final List<ContentItem> result = new ArrayList<>();
+        int firstResult = 0;
+        while (result.size() < limit) {
+            final List<Long> candidates = itemSearchManager.findIdsByName(
+                section,
+                version,
+                name,
+                match,
+                type,
+                afterDisplayName,
+                afterObjectId,
+                firstResult,
+                SEARCH_BATCH_SIZE
+            );
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            final Map<Long, ContentItem> matching = new HashMap<>();
+            createSearchQuery("SELECT i ",
+                              ContentItem.class,
+                              section,
+                              version,
+                              name,
+                              match,
+                              type,
+                              candidates)
+                .getResultList()
+                .forEach(item -> matching.put(item.getObjectId(), item));
+            for (final Long candidate : candidates) {
+                if (matching.containsKey(candidate)
+                        && result.size() < limit) {
+                    result.add(matching.get(candidate));
+                }
+            }
+
+            if (candidates.size() < SEARCH_BATCH_SIZE) {
+                break;
+            }
+            firstResult += candidates.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Counts the items found by
+     * {@link #searchPageByContentSection(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * for all pages. If the index has at most {@link #SEARCH_COUNT_LIMIT}
+     * candidates they are checked using the database and the exact number is
+     * returned. Otherwise checking the candidates would require too many
+     * queries and the number of candidates is returned, which may include
+     * false positives and items the current user is not permitted to see.
+     *
+     * @param section The content section.
+     * @param version The version of the items.
+     * @param name    The name to search for.
+     * @param match   How the name is matched.
+     * @param type    Optional type of the items.
+     *
+     * @return The number of matching items if there are at most
+     *         {@link #SEARCH_COUNT_LIMIT} candidates, otherwise the number of
+     *         candidates, which is an upper bound of the number of matching
+     *         items.
+     */
+    private long countSearchByContentSection(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match,
+        final Class<? extends ContentItem> type) {
+
+        final int candidateCount = itemSearchManager.countIdsByName(section,
+                                                                    version,
+                                                                    name,
+                                                                    match,
+                                                                    type);
+        if (candidateCount > SEARCH_COUNT_LIMIT) {
+            return candidateCount;
+        }
+
+        long count = 0;
+        int firstResult = 0;
+        while (firstResult < candidateCount) {
+            final List<Long> candidates = itemSearchManager.findIdsByName(
+                section,
+                version,
+                name,
+                match,
+                type,
+                null,
+                null,
+                firstResult,
+                SEARCH_BATCH_SIZE
+            );
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            count += createSearchQuery("SELECT COUNT(i) ",
+                                       Long.class,
+                                       section,
+                                       version,
+                                       name,
+                                       match,
+                                       type,
+                                       candidates)
+                .getSingleResult();
+
+            if (candidates.size() < SEARCH_BATCH_SIZE) {
+                break;
+            }
+            firstResult += candidates.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Retrieves all items of a content section whose name contains the
+     * provided name using the search index. The candidates are checked in
+     * batches of {@link #SEARCH_BATCH_SIZE} using the database.
+     *
+     * @param section The content section.
+     * @param version The version of the items, {@code null} for all
+     *                versions.
+     * @param name    The name to search for.
+     *
+     * @return The matching items, ordered by their display name and their
+     *         ID.
+     */
+    private List<ContentItem> searchAllByContentSection(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name) {
+
+        final List<ContentItem> result = new ArrayList<>();
+        int firstResult = 0;
+        while (true) {
+            final List<Long> candidates = itemSearchManager.findIdsByName(
+                section,
+                version,
+                name,
+                NameMatch.CONTAINS,
+                null,
+                null,
+                null,
+                firstResult,
+                SEARCH_BATCH_SIZE
+            );
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            final Map<Long, ContentItem> matching = new HashMap<>();
+            createSearchQuery("SELECT i ",
+                              ContentItem.class,
+                              section,
+                              version,
+                              name,
+                              NameMatch.CONTAINS,
+                              null,
+                              candidates)
+                .getResultList()
+                .forEach(item -> matching.put(item.getObjectId(), item));
+            for (final Long candidate : candidates) {
+                if (matching.containsKey(candidate)) {
+                    result.add(matching.get(candidate));
+                }
+            }
+
+            if (candidates.size() < SEARCH_BATCH_SIZE) {
+                break;
+            }
+            firstResult += candidates.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the query for checking a batch of candidates found using the
+     * search index.
+     *
+     * @param <T>         Type of the result.
+     * @param select      The {@code SELECT} clause of the query.
+     * @param resultClass Type of the result.
+     * @param section     The content section.
+     * @param version     The version of the items, {@code null} for all
+     *                    versions.
+     * @param name        The name to search for.
+     * @param match       How the name is matched.
+     * @param type        Optional type of the items.
+     * @param candidates  The IDs of the candidates.
+     *
+     * @return The query.
+     */
+    private <T> TypedQuery<T> createSearchQuery(
+        final String select,
+        final Class<T> resultClass,
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match,
+        final Class<? extends ContentItem> type,
+        final List<Long> candidates) {
+
+        final TypedQuery<T> query = createListingQuery(
+            select
+                + "FROM ContentItem i JOIN i.contentType t "
+                + "WHERE t.contentSection = :section "
+                + (version == null ? "" : "AND i.version = :version ")
+                + "AND i.objectId IN :candidates ",
+            resultClass,
+            namePattern(name, match),
+            type,
+            null,
+            null
+        );
+        query.setParameter("section", section);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        query.setParameter("candidates", candidates);
+
+        return query;
+    }
+
+    /**
+     * Retrieves a page of the items in a folder, ordered by their
+     * {@link CcmObject#displayName} and their ID. See
+     * {@link #findPageByContentSection(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * for details about the pagination.
+     *
+     * @param folder           The folder.
+     * @param name             Optional prefix of the names of the items. May
+     *                         be {@code null}.
+     * @param type             Optional type of the items. May be
+     *                         {@code null}.
+     * @param afterDisplayName The display name of the last item of the
+     *                         previous page. {@code null} is treated like an
+     *                         empty display name.
+     * @param afterObjectId    The ID of the last item of the previous page,
+     *                         {@code null} for the first page.
+     * @param limit            The maximum number of items to retrieve.
+     *
+     * @return The items of the page.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public List<ContentItem> findPageByFolder(
+        final Category folder,
+        final String name,
+        final Class<? extends ContentItem> type,
+        final String afterDisplayName,
+        final Long afterObjectId,
+        final int limit) {
+
+        final TypedQuery<ContentItem> query = createListingQuery(
+            "SELECT i FROM ContentItem i JOIN i.categories c "
+                + "WHERE c.category = :folder "
+                + "AND c.type = '" + CATEGORIZATION_TYPE_FOLDER + "' ",
+            ContentItem.class,
+            prefixPattern(name),
+            type,
+            afterDisplayName,
+            afterObjectId
+        );
+        query.setParameter("folder", folder);
+        query.setMaxResults(limit);
+
+        return query.getResultList();
+    }
+
+    /**
+     * Counts the items returned by
+     * {@link #findPageByFolder(org.libreccm.categorization.Category, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * for all pages.
+     *
+     * @param folder The folder.
+     * @param name   Optional prefix of the names of the items. May be
+     *               {@code null}.
+     * @param type   Optional type of the items. May be {@code null}.
+     *
+     * @return The number of matching items.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public long countByFolder(final Category folder,
+                              final String name,
+                              final Class<? extends ContentItem> type) {
+
+        final TypedQuery<Long> query = createListingQuery(
+            "SELECT COUNT(i) FROM ContentItem i JOIN i.categories c "
+                + "WHERE c.category = :folder "
+                + "AND c.type = '" + CATEGORIZATION_TYPE_FOLDER + "' ",
+            Long.class,
+            prefixPattern(name),
+            type,
+            null,
+            null
+        );
+        query.setParameter("folder", folder);
+
+        return query.getSingleResult();
+    }
+
+    /**
+     * Helper method for creating the queries used by
+     * {@link #findPageByContentSection(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * and {@link #findPageByFolder(org.libreccm.categorization.Category, java.lang.String, java.lang.Class, java.lang.String, java.lang.Long, int)}
+     * and the corresponding count methods. The query checks the permissions
+     * of the current user in the same way as the named queries of
+     * {@link ContentItem}, but uses a sub query instead of a join with the
+     * permissions to avoid the {@code DISTINCT}.
+     *
+     * @param <T>              Type of the result.
+     * @param selectAndFrom    The {@code SELECT}, {@code FROM} and the first
+     *                         conditions of the query.
+     * @param resultClass      Type of the result.
+     * @param namePattern      {@code LIKE} pattern for the name, may be
+     *                         {@code null}.
+     * @param type             Type of the items, may be {@code null}.
+     * @param afterDisplayName Display name of the last item of the previous
+     *                         page. {@code null} is treated like an empty
+     *                         display name.
+     * @param afterObjectId    ID of the last item of the previous page. If
+     *                         {@code null} no keyset condition is added.
+     *
+     * @return The query.
+     */
+    private <T> TypedQuery<T> createListingQuery(
+        final String selectAndFrom,
+        final Class<T> resultClass,
+        final String namePattern,
+        final Class<? extends ContentItem> type,
+        final String afterDisplayName,
+        final Long afterObjectId) {
+
+        final boolean count = Long.class.equals(resultClass);
+        final StringBuilder jpql = new StringBuilder(selectAndFrom);
+        if (namePattern != null) {
+            jpql.append("AND LOWER(i.displayName) LIKE :namePattern ");
+        }
+        if (type != null) {
+            jpql.append("AND TYPE(i) = :type ");
+        }
+        // The display name is optional. Items without a display name are
+        // sorted like items with an empty display name. Otherwise they would
+        // never match the keyset condition.
+        if (afterObjectId != null) {
+            jpql.append("AND (COALESCE(i.displayName, '') > :afterDisplayName ")
+                .append("OR (COALESCE(i.displayName, '') = :afterDisplayName ")
+                .append("AND i.objectId > :afterObjectId)) ");
+        }
+        jpql
+            .append("AND (")
+            .append("  EXISTS (")
+            .append("    SELECT p FROM Permission p ")
+            .append("    WHERE p.object = i ")
+            .append("    AND p.grantee IN :roles ")
+            .append("    AND p.grantedPrivilege = ")
+            .append("      (CASE WHEN i.version = 'DRAFT' ")
+            .append("       THEN '").append(ItemPrivileges.PREVIEW).append("' ")
+            .append("       ELSE '").append(ItemPrivileges.VIEW_PUBLISHED)
+            .append("' ")
+            .append("       END)")
+            .append("  )")
+            .append("  OR true = :isSystemUser OR true = :isAdmin")
+            .append(") ");
+        if (!count) {
+            jpql.append("ORDER BY COALESCE(i.displayName, ''), i.objectId");
+        }
+
+        final TypedQuery<T> query = getEntityManager()
+            .createQuery(jpql.toString(), resultClass);
+        if (namePattern != null) {
+            query.setParameter("namePattern", namePattern);
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        if (afterObjectId != null) {
+            if (afterDisplayName == null) {
+                query.setParameter("afterDisplayName", "");
+            } else {
+                query.setParameter("afterDisplayName", afterDisplayName);
+            }
+            query.setParameter("afterObjectId", afterObjectId);
+        }
+        setAuthorizationParameters(query);
+
+        return query;
+    }
+
+    private String containsPattern(final String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        } else {
+            return String.format("%%%s%%", name.trim().toLowerCase());
+        }
+    }
+
+    private String namePattern(final String name, final NameMatch match) {
+        if (match == NameMatch.PREFIX) {
+            return prefixPattern(name);
+        } else {
+            return containsPattern(name);
+        }
+    }
+
+    private String prefixPattern(final String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        } else {
+            return String.format("%s%%", name.trim().toLowerCase());
+        }
+    }
+
     @Transactional(Transactional.TxType.REQUIRED)
     public Optional<ContentItem> findItemWithWorkflow(final Workflow workflow) {
 
@@ -18,10 +18,19 @@
  */
 package org.librecms.contentsection;
 
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
+import org.libreccm.configuration.ConfigurationManager;
+import org.libreccm.search.NameSearchConstants;
+import org.libreccm.search.SearchConfig;
 import org.libreccm.search.SearchManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.enterprise.context.RequestScoped;
@@ -48,9 +57,275 @@ public class ContentItemSearchManager {
                                             "title",
                                             "description"};
 
+    @Inject
+    private ConfigurationManager confManager;
+
     @Inject
     private SearchManager searchManager;
 
+    /**
+     * How the name of an item is matched by
+     * {@link #findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)}.
+     */
+    public enum NameMatch {
+
+        /**
+         * The name of the item contains the search term.
+         */
+        CONTAINS,
+        /**
+         * The name of the item starts with the search term.
+         */
+        PREFIX
+
+    }
+
+    /**
+     * Checks if a search for items by their name can be answered using the
+     * search index. This is the case if the index based name search is
+     * enabled in the {@link SearchConfig}, if content items are indexed and,
+     * for a {@link NameMatch#CONTAINS} search, if the term is long enough to
+     * contain at least one n-gram.
+     *
+     * @param name  The search term.
+     * @param match How the term is matched.
+     *
+     * @return {@code true} if
+     *         {@link #findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)}
+     *         can be used for the term, {@code false} if the caller has to
+     *         fall back to a database query.
+     */
+    public boolean isNameSearchAvailable(final String name,
+                                         final NameMatch match) {
+        if (name == null || name.trim().isEmpty()) {
+            return false;
+        }
+        final SearchConfig searchConfig = confManager
+            .findConfiguration(SearchConfig.class);
+        if (!searchConfig.isNameSearchEnabled()
+                || !searchManager.isIndexed(ContentItem.class)) {
+            return false;
+        }
+
+        return match == NameMatch.PREFIX
+                   || name.trim().length() >= NameSearchConstants.GRAM_SIZE;
+    }
+
+    /**
+     * Finds the IDs of the items of a content section whose
+     * {@link org.libreccm.core.CcmObject#displayName} matches the provided
+     * term using the n-gram and keyword fields of the search index. The IDs
+     * are ordered by the display name and the ID of the items. The display
+     * names are compared by the index field
+     * {@link NameSearchConstants#DISPLAY_NAME_SORT}, which contains the
+     * unmodified display name. Therefore the order is case sensitive and
+     * compares the characters by their code points. It may differ from the
+     * order of the database queries, which depends on the collation of the
+     * database. {@code afterDisplayName} and {@code afterObjectId} must be
+     * taken from a result of this method.
+     *
+     * The result contains candidates only. For a {@link NameMatch#CONTAINS}
+     * search an item is returned if its name contains all n-grams of the
+     * term, therefore the result can contain items not containing the term
+     * itself. Also the permissions of the current user are not checked. The
+     * caller must check the candidates using the database.
+     *
+     * @param section          The content section.
+     * @param version          The version of the items. {@code null} for
+     *                         items of all versions.
+     * @param name             The search term.
+     * @param match            How the term is matched.
+     * @param type             Optional type of the items. May be
+     *                         {@code null}.
+     * @param afterDisplayName The display name of the last item of the
+     *                         previous page.
+     * @param afterObjectId    The ID of the last item of the previous page,
+     *                         {@code null} for the first page.
+     * @param firstResult      The position of the first ID to retrieve.
+     * @param maxResults       The maximum number of IDs to retrieve.
+     *
+     * @return The IDs of the candidates.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> findIdsByName(final ContentSection section,
+                                    final ContentItemVersion version,
+                                    final String name,
+                                    final NameMatch match,
+                                    final Class<? extends ContentItem> type,
+                                    final String afterDisplayName,
+                                    final Long afterObjectId,
+                                    final int firstResult,
+                                    final int maxResults) {
+
+        final QueryBuilder queryBuilder = searchManager.createQueryBuilder(
+            ContentItem.class);
+
+        final BooleanJunction<?> junction = createNameJunction(section,
+                                                               version,
+                                                               name,
+                                                               match);
+        if (afterObjectId != null) {
+            final String afterName;
+            if (afterDisplayName == null) {
+                afterName = "";
+            } else {
+                afterName = afterDisplayName;
+            }
+            junction.must(queryBuilder
+                .bool()
+                .should(queryBuilder
+                    .range()
+                    .onField(NameSearchConstants.DISPLAY_NAME_SORT)
+                    .ignoreFieldBridge()
+                    .above(afterName)
+                    .excludeLimit()
+                    .createQuery())
+                .should(queryBuilder
+                    .bool()
+                    .must(new TermQuery(new Term(
+                        NameSearchConstants.DISPLAY_NAME_SORT,
+                        afterName)))
+                    .must(queryBuilder
+                        .range()
+                        .onField(NameSearchConstants.OBJECT_ID_SORT)
+                        .above(afterObjectId)
+                        .excludeLimit()
+                        .createQuery())
+                    .createQuery())
+                .createQuery());
+        }
+
+        final FullTextQuery query = searchManager.createFullTextQuery(
+            junction.createQuery(),
+            type == null ? ContentItem.class : type);
+        query.setProjection(FullTextQuery.ID);
+        query.setSort(queryBuilder
+            .sort()
+            .byField(NameSearchConstants.DISPLAY_NAME_SORT)
+            .andByField(NameSearchConstants.OBJECT_ID_SORT)
+            .createSort());
+        query.setFirstResult(firstResult);
+        query.setMaxResults(maxResults);
+
+        final List<Object[]> rows = query.getResultList();
+        final List<Long> ids = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the candidates which would be returned by
+     * {@link #findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)}
+     * for all pages. The number is provided by the index without retrieving
+     * the candidates. Like the candidates themselves it includes false
+     * positives and items the current user is not permitted to see,
+     * therefore it is only an upper bound of the number of matching items.
+     *
+     * @param section The content section.
+     * @param version The version of the items. {@code null} for items of all
+     *                versions.
+     * @param name    The search term.
+     * @param match   How the term is matched.
+     * @param type    Optional type of the items. May be {@code null}.
+     *
+     * @return The number of candidates.
+     */
+    public int countIdsByName(final ContentSection section,
+                              final ContentItemVersion version,
+                              final String name,
+                              final NameMatch match,
+                              final Class<? extends ContentItem> type) {
+
+        return searchManager
+            .createFullTextQuery(
+                createNameJunction(section, version, name, match)
+                    .createQuery(),
+                type == null ? ContentItem.class : type)
+            .getResultSize();
+    }
+
+    /**
+     * Creates the part of the query shared by
+     * {@link #findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)}
+     * and
+     * {@link #countIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class)}.
+     *
+     * @param section The content section.
+     * @param version The version of the items, may be {@code null}.
+     * @param name    The search term.
+     * @param match   How the term is matched.
+     *
+     * @return A junction requiring the name, the content section and, if
+     *         provided, the version.
+     */
+    private BooleanJunction<?> createNameJunction(
+        final ContentSection section,
+        final ContentItemVersion version,
+        final String name,
+        final NameMatch match) {
+
+        final QueryBuilder queryBuilder = searchManager.createQueryBuilder(
+            ContentItem.class);
+
+        final BooleanJunction<?> junction = queryBuilder
+            .bool()
+            .must(createNameQuery(name, match))
+            .must(queryBuilder
+                .keyword()
+                .onField(ContentItem.CONTENT_SECTION_ID_FIELD)
+                .matching(section.getObjectId())
+                .createQuery());
+        if (version != null) {
+            junction.must(queryBuilder
+                .keyword()
+                .onField("version")
+                .matching(version)
+                .createQuery());
+        }
+        return junction;
+    }
+
+    /**
+     * Creates the part of the query matching the name. For a
+     * {@link NameMatch#CONTAINS} search all n-grams of the term must be
+     * present, for a {@link NameMatch#PREFIX} search a prefix query on the
+     * lower case keyword field is used, which does not require a scan of the
+     * complete index.
+     *
+     * @param name  The search term.
+     * @param match How the term is matched.
+     *
+     * @return The query for the name.
+     */
+    private Query createNameQuery(final String name, final NameMatch match) {
+        final QueryBuilder queryBuilder = searchManager.createQueryBuilder(
+            ContentItem.class);
+
+        if (match == NameMatch.PREFIX) {
+            final List<String> terms = searchManager.analyze(
+                NameSearchConstants.KEYWORD_ANALYZER,
+                NameSearchConstants.DISPLAY_NAME_KEYWORD,
+                name.trim());
+            return new PrefixQuery(new Term(
+                NameSearchConstants.DISPLAY_NAME_KEYWORD,
+                String.join("", terms)));
+        } else {
+            final BooleanJunction<?> junction = queryBuilder.bool();
+            searchManager
+                .analyze(NameSearchConstants.NGRAM_ANALYZER,
+                         NameSearchConstants.DISPLAY_NAME_NGRAMS,
+                         name.trim())
+                .stream()
+                .distinct()
+                .forEach(gram -> junction.must(new TermQuery(
+                    new Term(NameSearchConstants.DISPLAY_NAME_NGRAMS, gram))
+                ));
+            return junction.createQuery();
+        }
+    }
+
     /**
      * Create and execute a {@code match} query.
      *
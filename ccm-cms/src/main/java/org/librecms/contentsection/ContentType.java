@@ -30,6 +30,7 @@ import java.io.Serializable;
 import java.util.Objects;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -50,19 +51,24 @@ import static org.librecms.CmsConstants.*;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
 @Table(name = "CONTENT_TYPES", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(
         name = "ContentType.findByContentSection",
         query = "SELECT c FROM ContentType c "
                     + "WHERE c.contentSection = :contentSection "
-                    + "ORDER BY c.contentItemClass")
+                    + "ORDER BY c.contentItemClass",
+        cacheable = true,
+        cacheRegion = CONTENT_TYPES_QUERY_REGION)
     ,
     @NamedQuery(
         name = "ContentType.findByContentSectionAndClass",
         query = "SELECT c FROM ContentType c "
                     + "WHERE c.contentSection = :contentSection "
-                    + "AND c.contentItemClass  = :clazz")
+                    + "AND c.contentItemClass  = :clazz",
+        cacheable = true,
+        cacheRegion = CONTENT_TYPES_QUERY_REGION)
     ,
         @NamedQuery(
         name = "ContentType.isInUse",
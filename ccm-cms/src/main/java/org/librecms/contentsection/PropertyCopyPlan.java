@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection;
+
+import org.libreccm.core.UnexpectedErrorException;
+import org.libreccm.l10n.LocalizedString;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A precompiled plan for copying the properties of a {@link ContentItem} or an
+ * {@link Asset}. Used by the copy and publish methods of the
+ * {@link ContentItemManager}.
+ *
+ * Determining the properties of a class using the {@link Introspector} and
+ * invoking the accessor methods using reflection is expensive. Therefore the
+ * plan for a class is created only once and cached. The plan contains a
+ * {@link MethodHandle} for the getter and the setter of each property to copy
+ * and the {@link PropertyKind} of the property which determines how the
+ * property is copied.
+ *
+ * This class is not part of the public API.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class PropertyCopyPlan {
+
+    /**
+     * Properties of content items which are not copied by the plan.
+     */
+    private static final Set<String> EXCLUDED_ITEM_PROPERTIES
+                                         = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("attachments",
+                                        "categories",
+                                        "contentType",
+                                        "lifecycle",
+                                        "objectId",
+                                        "uuid",
+                                        "workflow"))
+        );
+
+    /**
+     * Properties of assets which are not copied by the plan.
+     */
+    private static final Set<String> EXCLUDED_ASSET_PROPERTIES
+                                         = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("categories",
+                                        "itemAttachments",
+                                        "objectId",
+                                        "uuid"))
+        );
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(
+        Object.class, Object.class
+    );
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(
+        void.class, Object.class, Object.class
+    );
+
+    private static final ConcurrentMap<Class<?>, PropertyCopyPlan> ITEM_PLANS
+        = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, PropertyCopyPlan> ASSET_PLANS
+        = new ConcurrentHashMap<>();
+
+    private final List<Property> properties;
+
+    private PropertyCopyPlan(final List<Property> properties) {
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Gets the plan for copying content items of the provided type.
+     *
+     * @param itemType The type of the content item.
+     *
+     * @return The plan for the provided type.
+     */
+    static PropertyCopyPlan forItemType(
+        final Class<? extends ContentItem> itemType) {
+
+        return ITEM_PLANS.computeIfAbsent(
+            itemType, type -> createPlan(type, EXCLUDED_ITEM_PROPERTIES, true)
+        );
+    }
+
+    /**
+     * Gets the plan for copying assets of the provided type. For assets only
+     * {@link LocalizedString}s are copied value by value, all other
+     * properties are set on the target.
+     *
+     * @param assetType The type of the asset.
+     *
+     * @return The plan for the provided type.
+     */
+    static PropertyCopyPlan forAssetType(
+        final Class<? extends Asset> assetType) {
+
+        return ASSET_PLANS.computeIfAbsent(
+            assetType,
+            type -> createPlan(type, EXCLUDED_ASSET_PROPERTIES, false)
+        );
+    }
+
+    /**
+     * The properties to copy in the order returned by the
+     * {@link Introspector}.
+     *
+     * @return An unmodifiable list of the properties to copy.
+     */
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    private static PropertyCopyPlan createPlan(
+        final Class<?> type,
+        final Set<String> excluded,
+        final boolean copyCollections) {
+
+        final BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(type);
+        } catch (IntrospectionException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Property> properties = new ArrayList<>();
+        for (final PropertyDescriptor propertyDescriptor : beanInfo
+            .getPropertyDescriptors()) {
+
+            if (excluded.contains(propertyDescriptor.getName())) {
+                continue;
+            }
+
+            final Method readMethod = propertyDescriptor.getReadMethod();
+            final Method writeMethod = propertyDescriptor.getWriteMethod();
+            if (readMethod == null || writeMethod == null) {
+                continue;
+            }
+
+            final MethodHandle getter;
+            final MethodHandle setter;
+            try {
+                readMethod.setAccessible(true);
+                writeMethod.setAccessible(true);
+                getter = lookup.unreflect(readMethod).asType(GETTER_TYPE);
+                setter = lookup.unreflect(writeMethod).asType(SETTER_TYPE);
+            } catch (IllegalAccessException | SecurityException ex) {
+                throw new UnexpectedErrorException(ex);
+            }
+
+            properties.add(new Property(
+                propertyDescriptor.getName(),
+                determineKind(propertyDescriptor.getPropertyType(),
+                              copyCollections),
+                getter,
+                setter
+            ));
+        }
+
+        return new PropertyCopyPlan(properties);
+    }
+
+    private static PropertyKind determineKind(final Class<?> propType,
+                                              final boolean copyCollections) {
+        if (LocalizedString.class.equals(propType)) {
+            return PropertyKind.LOCALIZED_STRING;
+        } else if (propType == null || !copyCollections) {
+            return PropertyKind.VALUE;
+        } else if (propType.isAssignableFrom(ContentItem.class)) {
+            return PropertyKind.CONTENT_ITEM;
+        } else if (propType.isAssignableFrom(List.class)) {
+            return PropertyKind.LIST;
+        } else if (propType.isAssignableFrom(Map.class)) {
+            return PropertyKind.MAP;
+        } else if (propType.isAssignableFrom(Set.class)) {
+            return PropertyKind.SET;
+        } else {
+            return PropertyKind.VALUE;
+        }
+    }
+
+    /**
+     * Determines how a property is copied.
+     */
+    enum PropertyKind {
+
+        /**
+         * The values of the {@link LocalizedString} are copied to the
+         * {@link LocalizedString} of the target.
+         */
+        LOCALIZED_STRING,
+        /**
+         * The property contains a link to another content item. The version of
+         * linked item is determined by the caller.
+         */
+        CONTENT_ITEM,
+        /**
+         * The elements of the list are added to the list of the target.
+         */
+        LIST,
+        /**
+         * The entries of the map are added to the map of the target.
+         */
+        MAP,
+        /**
+         * The elements of the set are added to the set of the target.
+         */
+        SET,
+        /**
+         * The value is set on the target.
+         */
+        VALUE
+
+    }
+
+    /**
+     * A property to copy.
+     */
+    static final class Property {
+
+        private final String name;
+
+        private final PropertyKind kind;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private Property(final String name,
+                         final PropertyKind kind,
+                         final MethodHandle getter,
+                         final MethodHandle setter) {
+            this.name = name;
+            this.kind = kind;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        PropertyKind getKind() {
+            return kind;
+        }
+
+        /**
+         * Reads the value of the property.
+         *
+         * @param obj The object from which the value is read.
+         *
+         * @return The value of the property.
+         */
+        Object read(final Object obj) {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UnexpectedErrorException(ex);
+            }
+        }
+
+        /**
+         * Sets the value of the property.
+         *
+         * @param obj   The object on which the value is set.
+         * @param value The new value of the property.
+         */
+        void write(final Object obj, final Object value) {
+            try {
+                setter.invokeExact(obj, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UnexpectedErrorException(ex);
+            }
+        }
+
+        /**
+         * Copies the value of the property from {@code source} to
+         * {@code target} using the strategy for the kind of the property.
+         * Properties of the kind {@link PropertyKind#CONTENT_ITEM} are
+         * copied as value, callers which need to link another version of the
+         * linked item have to handle these properties themselves.
+         *
+         * @param source The source object.
+         * @param target The target object.
+         */
+        @SuppressWarnings("unchecked")
+        void copy(final Object source, final Object target) {
+            switch (kind) {
+                case LOCALIZED_STRING: {
+                    final LocalizedString sourceStr = (LocalizedString) read(
+                        source);
+                    final LocalizedString targetStr = (LocalizedString) read(
+                        target);
+                    for (final Locale locale : sourceStr
+                        .getAvailableLocales()) {
+                        targetStr.addValue(locale, sourceStr.getValue(locale));
+                    }
+                    break;
+                }
+                case LIST:
+                    ((List<Object>) read(target))
+                        .addAll((List<Object>) read(source));
+                    break;
+                case MAP:
+                    ((Map<Object, Object>) read(target))
+                        .putAll((Map<Object, Object>) read(source));
+                    break;
+                case SET:
+                    ((Set<Object>) read(target))
+                        .addAll((Set<Object>) read(source));
+                    break;
+                default:
+                    write(target, read(source));
+                    break;
+            }
+        }
+
+    }
+
+}
@@ -18,48 +18,65 @@
  */
 package org.librecms.contentsection.rs;
 
-import org.libreccm.l10n.GlobalizationHelper;
 import org.librecms.contentsection.ContentItem;
-import org.librecms.contentsection.ContentItemManager;
-import org.librecms.contentsection.ContentItemRepository;
 import org.librecms.contentsection.ContentItemVersion;
 import org.librecms.contentsection.ContentSection;
 import org.librecms.contentsection.ContentSectionRepository;
 import org.librecms.contentsection.Folder;
-import org.librecms.contentsection.FolderManager;
 import org.librecms.contentsection.FolderRepository;
 import org.librecms.contentsection.FolderType;
-import org.librecms.contenttypes.ContentTypeInfo;
-import org.librecms.contenttypes.ContentTypesManager;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.ResourceBundle;
-import java.util.stream.Collectors;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
 import javax.transaction.Transactional;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * Provides a Web Service (build using JAX-RS). Used for example by the
  * {@link ItemSearchWidget}.
  *
+ * All listings accept the optional parameters {@code limit}, {@code after}
+ * and {@code count}. Without {@code limit} the listings are returned as JSON
+ * array containing all matching items. If {@code limit} is set, a JSON object
+ * is returned containing the items of the requested page ({@code items}), the
+ * cursor for the next page ({@code next}, {@code null} if there are no more
+ * items) and, if {@code count} is {@code true}, the total number of matching
+ * items ({@code total}). The cursor is passed as {@code after} parameter to
+ * retrieve the next page. The items are ordered by their name and their ID.
+ *
+ * If the search index is used for the {@code query} parameter and there are
+ * many candidates for the query, {@code total} is an upper bound of the number
+ * of matching items only (see
+ * {@link org.librecms.contentsection.ContentItemRepository#countByContentSectionAndName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class)}).
+ *
+ * In both cases the JSON is streamed to the client.
+ *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @RequestScoped
 @Path("/{content-section}/items/")
 public class ContentItems {
 
+    /**
+     * Maximum value for the {@code limit} parameter.
+     */
+    private static final int MAX_LIMIT = 1000;
+
     @Inject
     private ContentSectionRepository sectionRepo;
 
@@ -67,23 +84,15 @@ public class ContentItems {
     private FolderRepository folderRepo;
 
     @Inject
-    private FolderManager folderManager;
-
-    @Inject
-    private ContentItemRepository itemRepo;
-
-    @Inject
-    private ContentItemManager itemManager;
-
-    @Inject
-    private ContentTypesManager itemTypesManager;
-
-    @Inject
-    private GlobalizationHelper globalizationHelper;
+    private ContentItemsJsonWriter jsonWriter;
 
     private Class<? extends ContentItem> toContentItemTypeClass(
         final String type) {
 
+        if (type == null || type.trim().isEmpty()) {
+            return null;
+        }
+
         final Class<?> clazz;
         try {
             clazz = Class.forName(type);
@@ -106,65 +115,54 @@ public class ContentItems {
         }
     }
 
-    private Map<String, String> createItemMapEntry(final Folder folder) {
-
-        final Map<String, String> result = new HashMap<>();
-
-        result.put("title",
-                   folder
-                       .getTitle().getValue(globalizationHelper
-                           .getNegotiatedLocale()));
-
-        result.put("type",
-                   Folder.class.getName());
-        result.put("place", "");
-
-        return result;
+    private Integer checkLimit(final Integer limit) {
+        if (limit == null) {
+            return null;
+        } else if (limit < 1) {
+            throw new BadRequestException(
+                String.format("Invalid limit %d. The limit must be positive.",
+                              limit));
+        } else {
+            return Math.min(limit, MAX_LIMIT);
+        }
     }
 
-    private Map<String, String> createItemMapEntry(final ContentItem item) {
-
-        final Map<String, String> result = new HashMap<>();
-
-        result.put("itemId",
-                   Long.toString(item.getObjectId()));
-
-        result.put("name", item.getDisplayName());
-
-        result.put("title",
-                   globalizationHelper
-                       .getValueFromLocalizedString(item.getTitle()));
-
-        result.put("type",
-                   item.getClass().getName());
-
-        final ContentTypeInfo typeInfo = itemTypesManager
-            .getContentTypeInfo(item.getClass());
-        final ResourceBundle bundle = ResourceBundle
-            .getBundle(typeInfo.getLabelBundle(),
-                       globalizationHelper.getNegotiatedLocale());
-        result.put("typeLabel", bundle.getString(typeInfo.getLabelKey()));
-
-        final Optional<Folder> itemFolder = itemManager.getItemFolder(item);
-        if (itemFolder.isPresent()) {
-            result.put("place",
-                       folderManager.getFolderPath(itemFolder.get()));
-        } else {
-            result.put("place", "");
+    private ContentItemsCursor parseCursor(final String after) {
+        if (after == null || after.trim().isEmpty()) {
+            return null;
         }
+        try {
+            return ContentItemsCursor.decode(after.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage(), ex);
+        }
+    }
 
-        return result;
+    private StreamingOutput streamJson(final Consumer<JsonGenerator> writer) {
+        return outputStream -> {
+            final JsonGenerator generator = Json.createGenerator(
+                new BufferedWriter(
+                    new OutputStreamWriter(outputStream,
+                                           StandardCharsets.UTF_8)
+                )
+            );
+            writer.accept(generator);
+            generator.close();
+        };
     }
 
     @GET
     @Path("/")
     @Produces("application/json; charset=utf-8")
     @Transactional(Transactional.TxType.REQUIRED)
-    public List<Map<String, String>> findItems(
+    public StreamingOutput findItems(
         @PathParam("content-section") final String section,
         @QueryParam("query") final String query,
         @QueryParam("type") final String type,
-        @QueryParam("version") final String version) {
+        @QueryParam("version") final String version,
+        @QueryParam("limit") final Integer limit,
+        @QueryParam("after") final String after,
+        @QueryParam("count") @DefaultValue("false") final boolean count) {
 
         final ContentSection contentSection = sectionRepo
             .findByLabel(section)
@@ -177,51 +175,37 @@ public class ContentItems {
         } else {
             itemVersion = ContentItemVersion.LIVE;
         }
-        
-        final List<ContentItem> items;
-        if ((query == null || query.trim().isEmpty())
-                && (type == null || type.trim().isEmpty())) {
-            items = itemRepo
-                .findByContentSection(contentSection, itemVersion);
-
-        } else if ((query != null && !query.trim().isEmpty())
-                       && (type == null || type.trim().isEmpty())) {
-
-            items = itemRepo.findByNameAndContentSection(query,
-                                                         contentSection,
-                                                         itemVersion);
-        } else if ((query == null || query.trim().isEmpty())
-                       && (type != null && !type.trim().isEmpty())) {
-
-            final Class<? extends ContentItem> itemType
-                                                   = toContentItemTypeClass(type);
-            items = itemRepo.findByTypeAndContentSection(itemType,
-                                                         contentSection,
-                                                         itemVersion);
-        } else {
-            final Class<? extends ContentItem> itemType
-                                                   = toContentItemTypeClass(type);
-            items = itemRepo.findByNameAndTypeAndContentSection(
-                query,
-                itemType,
-                contentSection,
-                itemVersion);
-        }
 
-        return items
-            .stream()
-            .map(item -> createItemMapEntry(item))
-            .collect(Collectors.toList());
+        final long sectionId = contentSection.getObjectId();
+        final Class<? extends ContentItem> itemType = toContentItemTypeClass(
+            type
+        );
+        final Integer pageLimit = checkLimit(limit);
+        final ContentItemsCursor cursor = parseCursor(after);
+
+        return streamJson(generator -> jsonWriter.writeSectionItems(
+            generator,
+            sectionId,
+            itemVersion,
+            query,
+            itemType,
+            cursor,
+            pageLimit,
+            count
+        ));
     }
 
     @GET
     @Path("/folders")
     @Produces("application/json; charset=utf-8")
     @Transactional(Transactional.TxType.REQUIRED)
-    public List<Map<String, String>> findItemsInRootFolder(
+    public StreamingOutput findItemsInRootFolder(
         @PathParam("content-section") final String section,
         @QueryParam("query") final String query,
-        @QueryParam("type") final String type) {
+        @QueryParam("type") final String type,
+        @QueryParam("limit") final Integer limit,
+        @QueryParam("after") final String after,
+        @QueryParam("count") @DefaultValue("false") final boolean count) {
 
         final ContentSection contentSection = sectionRepo
             .findByLabel(section)
@@ -230,18 +214,21 @@ public class ContentItems {
 
         final Folder folder = contentSection.getRootDocumentsFolder();
 
-        return findItemsInFolder(folder, query, type);
+        return findItemsInFolder(folder, query, type, limit, after, count);
     }
 
     @GET
     @Path("/folders/{folder}/")
     @Produces("application/json; charset=utf-8")
     @Transactional(Transactional.TxType.REQUIRED)
-    public List<Map<String, String>> findItemsInFolder(
+    public StreamingOutput findItemsInFolder(
         @PathParam("content-section") final String section,
         @PathParam("folder") final String folderPath,
         @QueryParam("query") final String query,
-        @QueryParam("type") final String type) {
+        @QueryParam("type") final String type,
+        @QueryParam("limit") final Integer limit,
+        @QueryParam("after") final String after,
+        @QueryParam("count") @DefaultValue("false") final boolean count) {
 
         final ContentSection contentSection = sectionRepo
             .findByLabel(section)
@@ -256,50 +243,32 @@ public class ContentItems {
             folderPath,
             section)));
 
-        return findItemsInFolder(folder, query, type);
+        return findItemsInFolder(folder, query, type, limit, after, count);
     }
 
-    private List<Map<String, String>> findItemsInFolder(final Folder folder,
-                                                        final String query,
-                                                        final String type) {
-
-        final List<Map<String, String>> subFolderEntries = folder
-            .getSubFolders()
-            .stream()
-            .map(subFolder -> createItemMapEntry(subFolder))
-            .collect(Collectors.toList());
-
-        final List<ContentItem> items;
-        if ((query == null || query.trim().isEmpty())
-                && (type == null || type.trim().isEmpty())) {
-            items = itemRepo.findByFolder(folder);
-        } else if ((query != null && !query.trim().isEmpty())
-                       && (type == null || type.trim().isEmpty())) {
-            items = itemRepo.filterByFolderAndName(folder, query);
-        } else if ((query == null || query.trim().isEmpty())
-                       && (type != null && type.trim().isEmpty())) {
-            final Class<? extends ContentItem> itemType
-                                                   = toContentItemTypeClass(type);
-            items = itemRepo.filterByFolderAndType(folder, itemType);
-        } else {
-            final Class<? extends ContentItem> itemType
-                                                   = toContentItemTypeClass(type);
-            items = itemRepo.filterByFolderAndTypeAndName(folder,
-                                                          itemType,
-                                                          query);
-        }
-
-        final List<Map<String, String>> itemEntries = items
-            .stream()
-            .map(item -> createItemMapEntry(item))
-            .collect(Collectors.toList());
-
-        final List<Map<String, String>> result = new ArrayList<>();
-        result.addAll(subFolderEntries);
-        result.addAll(itemEntries);
-
-        return result;
-
+    private StreamingOutput findItemsInFolder(final Folder folder,
+                                              final String query,
+                                              final String type,
+                                              final Integer limit,
+                                              final String after,
+                                              final boolean count) {
+
+        final long folderId = folder.getObjectId();
+        final Class<? extends ContentItem> itemType = toContentItemTypeClass(
+            type
+        );
+        final Integer pageLimit = checkLimit(limit);
+        final ContentItemsCursor cursor = parseCursor(after);
+
+        return streamJson(generator -> jsonWriter.writeFolderItems(
+            generator,
+            folderId,
+            query,
+            itemType,
+            cursor,
+            pageLimit,
+            count
+        ));
     }
 
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection.rs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor for the paginated listings provided by {@link ContentItems}. The
+ * listings are ordered by the display name and the ID of the items. A cursor
+ * points to the last item of a page. The next page starts with the first item
+ * after that position. For clients the cursor is an opaque string.
+ *
+ * The listings order items without a display name like items with an empty
+ * display name, therefore a missing display name is stored as empty string.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class ContentItemsCursor {
+
+    private final long objectId;
+
+    private final String displayName;
+
+    ContentItemsCursor(final long objectId, final String displayName) {
+        this.objectId = objectId;
+        if (displayName == null) {
+            this.displayName = "";
+        } else {
+            this.displayName = displayName;
+        }
+    }
+
+    long getObjectId() {
+        return objectId;
+    }
+
+    String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Encodes the cursor into the opaque string passed to the clients.
+     *
+     * @return The encoded cursor.
+     */
+    String encode() {
+        final String value = String.format("%d:%s", objectId, displayName);
+        return Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     *
+     * @return The decoded cursor.
+     *
+     * @throws IllegalArgumentException If the provided string is not a valid
+     *                                  cursor.
+     */
+    static ContentItemsCursor decode(final String cursor) {
+        final String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor),
+                               StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                String.format("'%s' is not a valid cursor.", cursor), ex
+            );
+        }
+
+        final int separator = value.indexOf(':');
+        if (separator < 1) {
+            throw new IllegalArgumentException(
+                String.format("'%s' is not a valid cursor.", cursor)
+            );
+        }
+        try {
+            return new ContentItemsCursor(
+                Long.parseLong(value.substring(0, separator)),
+                value.substring(separator + 1)
+            );
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                String.format("'%s' is not a valid cursor.", cursor), ex
+            );
+        }
+    }
+
+}
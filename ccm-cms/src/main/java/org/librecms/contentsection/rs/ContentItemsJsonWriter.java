@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection.rs;
+
+import org.libreccm.l10n.GlobalizationHelper;
+import org.librecms.contentsection.ContentItem;
+import org.librecms.contentsection.ContentItemManager;
+import org.librecms.contentsection.ContentItemRepository;
+import org.librecms.contentsection.ContentItemVersion;
+import org.librecms.contentsection.ContentSection;
+import org.librecms.contentsection.ContentSectionRepository;
+import org.librecms.contentsection.Folder;
+import org.librecms.contentsection.FolderManager;
+import org.librecms.contentsection.FolderRepository;
+import org.librecms.contenttypes.ContentTypeInfo;
+import org.librecms.contenttypes.ContentTypesManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.function.LongSupplier;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.json.stream.JsonGenerator;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+/**
+ * Writes the listings provided by {@link ContentItems} to a
+ * {@link JsonGenerator}. The listings are written while JAX-RS is streaming
+ * the response, after the transaction of the resource method has ended.
+ * Therefore the methods of this class run in their own transaction.
+ *
+ * The items are retrieved in batches of {@link #BATCH_SIZE} items. After each
+ * batch the persistence context is cleared so that the memory used for a
+ * listing does not depend on the number of items in the listing.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@RequestScoped
+class ContentItemsJsonWriter {
+
+    /**
+     * Number of items retrieved from the database at once.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    @Inject
+    private ContentSectionRepository sectionRepo;
+
+    @Inject
+    private FolderRepository folderRepo;
+
+    @Inject
+    private FolderManager folderManager;
+
+    @Inject
+    private ContentItemRepository itemRepo;
+
+    @Inject
+    private ContentItemManager itemManager;
+
+    @Inject
+    private ContentTypesManager itemTypesManager;
+
+    @Inject
+    private GlobalizationHelper globalizationHelper;
+
+    @Inject
+    private EntityManager entityManager;
+
+    /**
+     * Writes the items of a content section.
+     *
+     * @param generator The generator to use.
+     * @param sectionId The ID of the content section.
+     * @param version   The version of the items.
+     * @param query     Optional filter for the names of the items.
+     * @param type      Optional type of the items.
+     * @param after     Position after which the listing starts. {@code null}
+     *                  for the first page.
+     * @param limit     Maximum number of items to write. If {@code null} all
+     *                  matching items are written as JSON array, otherwise a
+     *                  JSON object containing the items of the page and the
+     *                  cursor for the next page is written.
+     * @param count     Whether to include the total number of matching items.
+     *                  Only used if {@code limit} is not {@code null}.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void writeSectionItems(
+        final JsonGenerator generator,
+        final long sectionId,
+        final ContentItemVersion version,
+        final String query,
+        final Class<? extends ContentItem> type,
+        final ContentItemsCursor after,
+        final Integer limit,
+        final boolean count) {
+
+        final ContentSection section = sectionRepo
+            .findById(sectionId)
+            .orElseThrow(() -> new IllegalArgumentException(
+            String.format("No content section with ID %d found.",
+                          sectionId)));
+
+        writeListing(
+            generator,
+            (afterName, afterId, maxResults) -> itemRepo
+                .findPageByContentSection(
+                    section,
+                    version,
+                    query,
+                    type,
+                    afterName,
+                    afterId,
+                    maxResults
+                ),
+            () -> itemRepo.countByContentSection(
+                section, version, query, type
+            ),
+            null,
+            after,
+            limit,
+            count
+        );
+    }
+
+    /**
+     * Writes the sub folders and items of a folder. The sub folders are only
+     * included in the first page.
+     *
+     * @param generator The generator to use.
+     * @param folderId  The ID of the folder.
+     * @param query     Optional filter for the names of the items.
+     * @param type      Optional type of the items.
+     * @param after     Position after which the listing starts. {@code null}
+     *                  for the first page.
+     * @param limit     Maximum number of items to write. See
+     *                  {@link #writeSectionItems(javax.json.stream.JsonGenerator, long, org.librecms.contentsection.ContentItemVersion, java.lang.String, java.lang.Class, org.librecms.contentsection.rs.ContentItemsCursor, java.lang.Integer, boolean)}.
+     * @param count     Whether to include the total number of matching items.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void writeFolderItems(
+        final JsonGenerator generator,
+        final long folderId,
+        final String query,
+        final Class<? extends ContentItem> type,
+        final ContentItemsCursor after,
+        final Integer limit,
+        final boolean count) {
+
+        final Folder folder = folderRepo
+            .findById(folderId)
+            .orElseThrow(() -> new IllegalArgumentException(
+            String.format("No folder with ID %d found.", folderId)));
+
+        writeListing(
+            generator,
+            (afterName, afterId, maxResults) -> itemRepo.findPageByFolder(
+                folder, query, type, afterName, afterId, maxResults
+            ),
+            () -> itemRepo.countByFolder(folder, query, type),
+            folder,
+            after,
+            limit,
+            count
+        );
+    }
+
+    private void writeListing(final JsonGenerator generator,
+                              final PageLoader pageLoader,
+                              final LongSupplier counter,
+                              final Folder folder,
+                              final ContentItemsCursor after,
+                              final Integer limit,
+                              final boolean count) {
+
+        if (limit == null) {
+            generator.writeStartArray();
+            if (folder != null) {
+                writeSubFolders(generator, folder);
+            }
+            writeItems(generator, pageLoader, after, Integer.MAX_VALUE);
+            generator.writeEnd();
+        } else {
+            final long total;
+            if (count) {
+                total = counter.getAsLong();
+            } else {
+                total = -1;
+            }
+
+            generator.writeStartObject();
+            generator.writeStartArray("items");
+            if (folder != null && after == null) {
+                writeSubFolders(generator, folder);
+            }
+            final ContentItemsCursor next = writeItems(
+                generator, pageLoader, after, limit
+            );
+            generator.writeEnd();
+            if (next == null) {
+                generator.writeNull("next");
+            } else {
+                generator.write("next", next.encode());
+            }
+            if (total >= 0) {
+                generator.write("total", total);
+            }
+            generator.writeEnd();
+        }
+    }
+
+    /**
+     * Writes up to {@code limit} items, starting after the provided position.
+     *
+     * @return A cursor pointing to the last written item if there are more
+     *         items, {@code null} otherwise.
+     */
+    private ContentItemsCursor writeItems(final JsonGenerator generator,
+                                          final PageLoader pageLoader,
+                                          final ContentItemsCursor after,
+                                          final int limit) {
+
+        // The ID is null for the first page. The display name can't be used
+        // for that because it is null for items without a display name.
+        String afterName = after == null ? null : after.getDisplayName();
+        Long afterId = after == null ? null : after.getObjectId();
+        int remaining = limit;
+        while (remaining > 0) {
+            // Fetch one additional item to find out if there is a next page.
+            final int batchSize = Math.min(BATCH_SIZE, remaining);
+            final List<ContentItem> batch = pageLoader.loadPage(
+                afterName, afterId, batchSize + 1
+            );
+            final int written = Math.min(batchSize, batch.size());
+            for (int i = 0; i < written; i++) {
+                writeItem(generator, batch.get(i));
+            }
+            if (written > 0) {
+                final ContentItem last = batch.get(written - 1);
+                afterName = last.getDisplayName();
+                afterId = last.getObjectId();
+            }
+            remaining -= written;
+            final boolean hasMore = batch.size() > batchSize;
+
+            generator.flush();
+            entityManager.clear();
+
+            if (!hasMore) {
+                return null;
+            }
+        }
+
+        return new ContentItemsCursor(afterId, afterName);
+    }
+
+    private void writeSubFolders(final JsonGenerator generator,
+                                 final Folder folder) {
+        for (final Folder subFolder : folder.getSubFolders()) {
+            generator.writeStartObject();
+            writeString(generator,
+                        "title",
+                        subFolder
+                            .getTitle()
+                            .getValue(globalizationHelper
+                                .getNegotiatedLocale()));
+            writeString(generator, "type", Folder.class.getName());
+            writeString(generator, "place", "");
+            generator.writeEnd();
+        }
+    }
+
+    private void writeItem(final JsonGenerator generator,
+                           final ContentItem item) {
+
+        final ContentTypeInfo typeInfo = itemTypesManager
+            .getContentTypeInfo(item.getClass());
+        final ResourceBundle bundle = ResourceBundle
+            .getBundle(typeInfo.getLabelBundle(),
+                       globalizationHelper.getNegotiatedLocale());
+        final Optional<Folder> itemFolder = itemManager.getItemFolder(item);
+
+        generator.writeStartObject();
+        writeString(generator, "itemId", Long.toString(item.getObjectId()));
+        writeString(generator, "name", item.getDisplayName());
+        writeString(generator,
+                    "title",
+                    globalizationHelper
+                        .getValueFromLocalizedString(item.getTitle()));
+        writeString(generator, "type", item.getClass().getName());
+        writeString(generator,
+                    "typeLabel",
+                    bundle.getString(typeInfo.getLabelKey()));
+        writeString(generator,
+                    "place",
+                    itemFolder.map(folderManager::getFolderPath).orElse(""));
+        generator.writeEnd();
+    }
+
+    /**
+     * Writes a string property. {@link JsonGenerator} does not accept
+     * {@code null} values, therefore they are written as JSON {@code null}
+     * like the listings did before they were streamed.
+     */
+    private void writeString(final JsonGenerator generator,
+                             final String name,
+                             final String value) {
+        if (value == null) {
+            generator.writeNull(name);
+        } else {
+            generator.write(name, value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageLoader {
+
+        List<ContentItem> loadPage(String afterDisplayName,
+                                   Long afterObjectId,
+                                   int maxResults);
+
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection.rs;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Scales images for the {@link Images} endpoint while preserving their aspect
+ * ratio.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class ImageScaler {
+
+    private ImageScaler() {
+        // Only static methods.
+    }
+
+    /**
+     * Scales an image. If the width and the height are both 0 or less the
+     * image is not decoded and the provided data is returned as is.
+     *
+     * @param data   The data of the image.
+     * @param width  The width to scale the image to, 0 or less to calculate
+     *               the width from the height.
+     * @param height The height to scale the image to, 0 or less to calculate
+     *               the height from the width.
+     *
+     * @return The data of the scaled image, in the same format as the
+     *         provided image.
+     *
+     * @throws IOException If the image can't be read or written.
+     */
+    static byte[] scale(final byte[] data,
+                        final int width,
+                        final int height) throws IOException {
+
+        if (width <= 0 && height <= 0) {
+            return data;
+        }
+
+        final BufferedImage bufferedImage;
+        final String imageFormat;
+        try (ImageInputStream imageInputStream = ImageIO
+            .createImageInputStream(new ByteArrayInputStream(data))) {
+
+            final Iterator<ImageReader> readers = ImageIO
+                .getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader available.");
+            }
+            final ImageReader imageReader = readers.next();
+            try {
+                imageReader.setInput(imageInputStream);
+                bufferedImage = imageReader.read(0);
+                imageFormat = imageReader.getFormatName();
+            } finally {
+                imageReader.dispose();
+            }
+        }
+
+        final java.awt.Image scaledImage = scaleImage(bufferedImage,
+                                                      width,
+                                                      height);
+
+        final BufferedImage bufferedScaledImage = new BufferedImage(
+            scaledImage.getWidth(null),
+            scaledImage.getHeight(null),
+            bufferedImage.getType());
+        bufferedScaledImage
+            .getGraphics()
+            .drawImage(scaledImage, 0, 0, null);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(bufferedScaledImage, imageFormat, outputStream)) {
+            throw new IOException(String.format(
+                "No image writer for format \"%s\" available.", imageFormat
+            ));
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Helper method for scaling the image while preserving the aspect ratio of
+     * the image. If the parameters have different scale factors meaning that
+     * the aspect ratio of the image would not be preserved the parameter with
+     * the smallest difference to one if used.
+     *
+     * @param image         The image to scale.
+     * @param scaleToWidth  The width to which is scaled, 0 or less to
+     *                      calculate the width from the height.
+     * @param scaleToHeight The height the which image is scaled, 0 or less to
+     *                      calculate the height from the width.
+     *
+     * @return The scaled image or the image itself if both values are 0 or
+     *         less.
+     */
+    static java.awt.Image scaleImage(final BufferedImage image,
+                                     final float scaleToWidth,
+                                     final float scaleToHeight) {
+
+        final float originalWidth = image.getWidth();
+        final float originalHeight = image.getHeight();
+        final float originalAspectRatio = originalWidth / originalHeight;
+
+        if (scaleToWidth > 0 && scaleToHeight > 0) {
+            //Check if parameters preserve aspectRatio. If not use the smaller
+            //scale factor.
+
+            final float scaleToAspectRatio = scaleToWidth / scaleToHeight;
+            if (Math.abs(scaleToAspectRatio - originalAspectRatio) < 0.009f) {
+                // Scale the image. Very small images are not scaled to
+                // nothing.
+                return image.getScaledInstance(
+                    Math.max(Math.round(scaleToWidth), 1),
+                    Math.max(Math.round(scaleToHeight), 1),
+                    java.awt.Image.SCALE_SMOOTH
+                );
+            } else {
+                //Use the scale factor nearer to one for both dimensions
+                final float scaleFactorWidth = scaleToWidth / originalWidth;
+                final float scaleFactorHeight = scaleToHeight / originalHeight;
+                final float differenceWidth = Math.abs(scaleFactorWidth - 1);
+                final float differenceHeight = Math.abs(scaleFactorHeight - 1);
+
+                final float scaleFactor;
+                if (differenceWidth < differenceHeight) {
+                    scaleFactor = scaleFactorWidth;
+                } else {
+                    scaleFactor = scaleFactorHeight;
+                }
+
+                return image.getScaledInstance(
+                    Math.max(Math.round(originalWidth * scaleFactor), 1),
+                    Math.max(Math.round(originalHeight * scaleFactor), 1),
+                    java.awt.Image.SCALE_SMOOTH
+                );
+            }
+
+        } else if (scaleToWidth > 0) {
+            //Calculate the height to which to image is scaled based on the 
+            //scale factor for the width
+            final float scaleFactor = scaleToWidth / originalWidth;
+            final float height = originalHeight * scaleFactor;
+
+            return scaleImage(image, scaleToWidth, height);
+        } else if (scaleToHeight > 0) {
+            //Calculate the width to which to image is scaled based on the 
+            //scale factor for the height
+            final float scaleFactor = scaleToHeight / originalHeight;
+            final float width = originalWidth * scaleFactor;
+
+            return scaleImage(image, width, scaleToHeight);
+        } else {
+            //Return the image as is.
+            return image;
+        }
+    }
+
+}
@@ -20,7 +20,9 @@ package org.librecms.contentsection.rs;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.libreccm.auditing.CcmRevision;
 import org.librecms.assets.Image;
+import org.librecms.assets.ImageRenditionStore;
 import org.librecms.contentsection.Asset;
 import org.librecms.contentsection.AssetRepository;
 import org.librecms.contentsection.ContentSection;
@@ -28,22 +30,22 @@ import org.librecms.contentsection.ContentSectionRepository;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Iterator;
+import java.util.Date;
 import java.util.Optional;
 
 import javax.enterprise.context.RequestScoped;
 import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 /**
@@ -62,6 +64,9 @@ public class Images {
     @Inject
     private AssetRepository assetRepo;
 
+    @Inject
+    private ImageRenditionStore renditionStore;
+
     @GET
     @Path("/uuid-{uuid}")
     public Response getImageByUuid(
@@ -74,23 +79,15 @@ public class Images {
         final String widthParam,
         @QueryParam("height")
         @DefaultValue("-1")
-        final String heightParam) {
+        final String heightParam,
+        @Context
+        final Request request) {
 
-        final Optional<Asset> asset = assetRepo
-            .findByUuidAndType(uuid, Image.class);
+        final Optional<Long> imageId = assetRepo
+            .findIdByUuidAndType(uuid, Image.class);
 
-        if (asset.isPresent()) {
-            if (asset.get() instanceof Image) {
-                return loadImage((Image) asset.get(), widthParam, heightParam);
-            } else {
-                return Response
-                    .status(Response.Status.NOT_FOUND)
-                    .entity(String
-                        .format("The asset with the requested UUID \"%s\" "
-                                    + "is not an image.",
-                                uuid))
-                    .build();
-            }
+        if (imageId.isPresent()) {
+            return loadImage(imageId.get(), widthParam, heightParam, request);
         } else {
             return Response
                 .status(Response.Status.NOT_FOUND)
@@ -157,6 +154,8 @@ public class Images {
      * @param heightParam The height to scale the image. If the value is 0 or
      *                    less or the value is not a valid integer it parameter
      *                    is ignored.
+     * @param request     The current request, used to evaluate the
+     *                    preconditions of conditional requests.
      *
      * @return A {@link Response} containing the scaled image or an error value.
      */
@@ -172,7 +171,9 @@ public class Images {
         final String widthParam,
         @QueryParam("height")
         @DefaultValue("-1")
-        final String heightParam) {
+        final String heightParam,
+        @Context
+        final Request request) {
 
         final Optional<ContentSection> section = sectionRepo
             .findByLabel(sectionName);
@@ -184,21 +185,12 @@ public class Images {
                 .build();
         }
 
-        final Optional<Asset> asset = assetRepo.findByPath(section.get(),
-                                                           path);
+        final Optional<Long> imageId = assetRepo.findIdByPath(section.get(),
+                                                              path,
+                                                              Image.class);
 
-        if (asset.isPresent()) {
-            if (asset.get() instanceof Image) {
-                return loadImage((Image) asset.get(), widthParam, heightParam);
-            } else {
-                return Response
-                    .status(Response.Status.NOT_FOUND)
-                    .entity(String
-                        .format("The asset found at the requested path \"%s\" "
-                                    + "is not an image.",
-                                path))
-                    .build();
-            }
+        if (imageId.isPresent()) {
+            return loadImage(imageId.get(), widthParam, heightParam, request);
         } else {
             return Response
                 .status(Response.Status.NOT_FOUND)
@@ -263,85 +255,155 @@ public class Images {
     /**
      * Helper method for loading the image from the {@link Image} asset entity.
      *
-     * This method also does the scaling of the image.
+     * This method also does the scaling of the image. The (scaled) image is
+     * identified by an entity tag derived from the ID and the current
+     * revision of the image and the requested size. The revision is
+     * determined without loading the image. If the user agent already has the
+     * current version of the image a {@code 304 Not Modified} response is
+     * returned without loading the image. Otherwise the image is loaded. A
+     * scaled image is retrieved from the {@link ImageRenditionStore} or, if
+     * the store does not contain the requested rendition yet, scaled and put
+     * into the store. If no size is requested the data of the image is
+     * returned as is.
      *
-     * @param image       The image asset containing the image.
+     * @param imageId     The ID of the image asset containing the image.
      * @param widthParam  The value of the width parameter.
      * @param heightParam The value of the height parameter.
+     * @param request     The current request.
      *
      * @return The {@link Response} for sending the (scaled) image to the
      *         requesting user agent.
      */
-    private Response loadImage(final Image image,
+    private Response loadImage(final long imageId,
                                final String widthParam,
-                               final String heightParam) {
-
-        final byte[] data = image.getData();
-        final String mimeType = image.getMimeType().toString();
+                               final String heightParam,
+                               final Request request) {
 
-        final InputStream inputStream = new ByteArrayInputStream(data);
-        final BufferedImage bufferedImage;
-        final String imageFormat;
-        try {
-            final ImageInputStream imageInputStream = ImageIO
-                .createImageInputStream(inputStream);
-            final Iterator<ImageReader> readers = ImageIO
-                .getImageReaders(imageInputStream);
-            final ImageReader imageReader;
-            if (readers.hasNext()) {
-                imageReader = readers.next();
-            } else {
-                LOGGER.error("No image reader for image {} (UUID: {}) "
-                                 + "available.",
-                             image.getDisplayName(),
-                             image.getUuid());
-                return Response.serverError().build();
+        // Yes, this is correct. The parameters provided in the URL
+        // are expected to be integers. The scaleImage method of the
+        // ImageScaler works with floats to be accurate (divisions are
+        // performed with the values for width and height). Values of 0 or
+        // less are ignored, therefore they are all mapped to 0.
+        final int width = Math.max(parseScaleParameter(widthParam, "width"),
+                                   0);
+        final int height = Math.max(parseScaleParameter(heightParam,
+                                                        "height"),
+                                    0);
+
+        final Optional<CcmRevision> revision = assetRepo
+            .findCurrentRevision(Image.class, imageId);
+        final EntityTag entityTag;
+        final Date lastModified;
+        if (revision.isPresent()) {
+            entityTag = new EntityTag(String.format(
+                "%d-%d-%dx%d", imageId, revision.get().getId(), width, height
+            ));
+            lastModified = revision.get().getRevisionDate();
+
+            final Response.ResponseBuilder notModified = request
+                .evaluatePreconditions(lastModified, entityTag);
+            if (notModified != null) {
+                return notModified
+                    .tag(entityTag)
+                    .lastModified(lastModified)
+                    .build();
             }
-            imageReader.setInput(imageInputStream);
-            bufferedImage = imageReader.read(0);
-            imageFormat = imageReader.getFormatName();
-        } catch (IOException ex) {
-            LOGGER.error("Failed to load image {} (UUID: {}).",
-                         image.getDisplayName(),
-                         image.getUuid());
-            LOGGER.error(ex);
+        } else {
+            entityTag = null;
+            lastModified = null;
+        }
+
+        final Optional<Image> image = assetRepo.findById(imageId,
+                                                         Image.class);
+        if (!image.isPresent()) {
+            return Response
+                .status(Response.Status.NOT_FOUND)
+                .entity(String.format("The requested image %d does not exist.",
+                                      imageId))
+                .build();
+        }
+
+        final byte[] data;
+        if (width == 0 && height == 0) {
+            data = image.get().getData();
+        } else if (revision.isPresent()) {
+            data = findOrRenderImage(image.get(),
+                                     revision.get().getId(),
+                                     width,
+                                     height);
+        } else {
+            data = renderImage(image.get(), width, height);
+        }
+
+        if (data == null) {
             return Response.serverError().build();
         }
 
-        // Yes, this is correct. The parameters provided in the URL
-        // are expected to be integers. The private scaleImage method
-        // works with floats to be accurate (divisions are performed 
-        // with the values for width and height)
-        final int width = parseScaleParameter(widthParam, "width");
-        final int height = parseScaleParameter(heightParam, "height");
-        final java.awt.Image scaledImage = scaleImage(bufferedImage,
-                                                      width,
-                                                      height);
-
-        final ByteArrayOutputStream outputStream
-                                        = new ByteArrayOutputStream();
-        final BufferedImage bufferedScaledImage = new BufferedImage(
-            scaledImage.getWidth(null),
-            scaledImage.getHeight(null),
-            bufferedImage.getType());
-        bufferedScaledImage
-            .getGraphics()
-            .drawImage(scaledImage, 0, 0, null);
+        final Response.ResponseBuilder builder = Response
+            .ok(data, image.get().getMimeType().toString());
+        if (revision.isPresent()) {
+            builder.tag(entityTag).lastModified(lastModified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Retrieves a scaled image from the {@link ImageRenditionStore}. If the
+     * store does not contain the rendition yet the image is scaled and the
+     * rendition is put into the store.
+     *
+     * @param image    The image asset containing the image.
+     * @param revision The current revision of the image.
+     * @param width    The width to scale the image to, 0 to ignore.
+     * @param height   The height to scale the image to, 0 to ignore.
+     *
+     * @return The data of the scaled image or {@code null} if the image could
+     *         not be scaled.
+     */
+    private byte[] findOrRenderImage(final Image image,
+                                     final long revision,
+                                     final int width,
+                                     final int height) {
+
+        final Optional<byte[]> stored = renditionStore.getRendition(
+            image.getUuid(), revision, width, height
+        );
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        final byte[] data = renderImage(image, width, height);
+        if (data != null) {
+            renditionStore.putRendition(
+                image.getUuid(), revision, width, height, data
+            );
+        }
+        return data;
+    }
+
+    /**
+     * Decodes and scales an image.
+     *
+     * @param image  The image asset containing the image.
+     * @param width  The width to scale the image to, 0 to ignore.
+     * @param height The height to scale the image to, 0 to ignore.
+     *
+     * @return The data of the (scaled) image or {@code null} if the image
+     *         could not be read or written.
+     */
+    private byte[] renderImage(final Image image,
+                               final int width,
+                               final int height) {
         try {
-            ImageIO
-                .write(bufferedScaledImage, imageFormat, outputStream);
+            return ImageScaler.scale(image.getData(), width, height);
         } catch (IOException ex) {
             LOGGER.error("Failed to render scaled variant of image {} "
                              + "(UUID: {}).",
                          image.getDisplayName(),
                          image.getUuid());
             LOGGER.error(ex);
-            return Response.serverError().build();
+            return null;
         }
-
-        return Response
-            .ok(outputStream.toByteArray(), mimeType)
-            .build();
     }
 
     /**
@@ -413,72 +475,4 @@ public class Images {
         }
     }
 
-    /**
-     * Helper method for scaling the image while preserving the aspect ratio of
-     * the image.
-     *
-     * @param image         The image to scale.
-     * @param scaleToWidth  The width to which is scaled.
-     * @param scaleToHeight The height the which image is scaled.
-     *
-     * @return The scaled image.
-     */
-    private java.awt.Image scaleImage(final BufferedImage image,
-                                      final float scaleToWidth,
-                                      final float scaleToHeight) {
-
-        final float originalWidth = image.getWidth();
-        final float originalHeight = image.getHeight();
-        final float originalAspectRatio = originalWidth / originalHeight;
-
-        if (scaleToWidth > 0 && scaleToHeight > 0) {
-            //Check if parameters preserve aspectRatio. If not use the smaller
-            //scale factor.
-
-            final float scaleToAspectRatio = scaleToWidth / scaleToHeight;
-            if (Math.abs(scaleToAspectRatio - originalAspectRatio) < 0.009f) {
-                // Scale the image.
-
-                return image.getScaledInstance(Math.round(scaleToWidth),
-                                               Math.round(scaleToHeight),
-                                               java.awt.Image.SCALE_SMOOTH);
-            } else {
-                //Use the scale factor nearer to one for both dimensions
-                final float scaleFactorWidth = scaleToWidth / originalWidth;
-                final float scaleFactorHeight = scaleToHeight / originalHeight;
-                final float differenceWidth = Math.abs(scaleFactorWidth - 1);
-                final float differenceHeight = Math.abs(scaleFactorHeight - 1);
-
-                final float scaleFactor;
-                if (differenceWidth < differenceHeight) {
-                    scaleFactor = scaleFactorWidth;
-                } else {
-                    scaleFactor = scaleFactorHeight;
-                }
-
-                return scaleImage(image,
-                                  originalWidth * scaleFactor,
-                                  originalHeight * scaleFactor);
-            }
-
-        } else if (scaleToWidth > 0 && scaleToHeight <= 0) {
-            //Calculate the height to which to image is scaled based on the 
-            //scale factor for the width
-            final float scaleFactor = scaleToWidth / originalWidth;
-            final float height = originalHeight * scaleFactor;
-
-            return scaleImage(image, scaleToWidth, height);
-        } else if (scaleToWidth <= 0 && scaleToHeight >= 0) {
-            //Calculate the width to which to image is scaled based on the 
-            //scale factor for the height
-            final float scaleFactor = scaleToHeight / originalHeight;
-            final float width = originalWidth * scaleFactor;
-
-            return scaleImage(image, width, scaleToHeight);
-        } else {
-            //Return the image as is.
-            return image;
-        }
-    }
-
 }
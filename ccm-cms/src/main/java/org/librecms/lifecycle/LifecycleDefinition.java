@@ -18,6 +18,8 @@
  */
 package org.librecms.lifecycle;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.search.annotations.Field;
 import org.libreccm.core.Identifiable;
 import org.libreccm.l10n.LocalizedString;
@@ -29,6 +31,7 @@ import java.util.List;
 import java.util.Objects;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -49,6 +52,9 @@ import static org.librecms.CmsConstants.*;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = LIFECYCLES_CACHE_REGION)
 @Table(name = "LIFECYLE_DEFINITIONS", schema = DB_SCHEMA)
 public class LifecycleDefinition implements Identifiable, Serializable {
 
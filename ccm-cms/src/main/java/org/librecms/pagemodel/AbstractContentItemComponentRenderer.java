@@ -28,6 +28,7 @@ import org.librecms.contentsection.ContentItemManager;
 import org.librecms.contentsection.privileges.ItemPrivileges;
 import org.librecms.pagemodel.contentitems.AbstractContentItemRenderer;
 import org.librecms.pagemodel.contentitems.ContentItemRenderers;
+import org.librecms.pages.PageRenderDependencies;
 
 import java.util.Locale;
 import java.util.Map;
@@ -73,6 +74,9 @@ public abstract class AbstractContentItemComponentRenderer<T extends ContentItem
     @Inject
     private PermissionChecker permissionChecker;
 
+    @Inject
+    private PageRenderDependencies renderDependencies;
+
     /**
      * Retrieves the content item to render.
      *
@@ -123,6 +127,8 @@ public abstract class AbstractContentItemComponentRenderer<T extends ContentItem
             return Collections.emptyMap();
         }
 
+        renderDependencies.addContentItem(contentItem.getItemUuid());
+
         if (Boolean.TRUE.equals(parameters.get("showDraftItem"))) {
 
             final ContentItem draftItem = itemManager
@@ -25,6 +25,7 @@ import org.libreccm.categorization.CategoryManager;
 import org.libreccm.categorization.CategoryRepository;
 import org.libreccm.configuration.ConfigurationManager;
 import org.libreccm.core.CcmObject;
+import org.librecms.pages.PageRenderDependencies;
 
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +62,9 @@ public class CategoryTreeComponentRenderer
     @Inject
     private ConfigurationManager confManager;
 
+    @Inject
+    private PageRenderDependencies renderDependencies;
+
     @Transactional(Transactional.TxType.REQUIRED)
     @Override
     public Map<String, Object> renderComponent(
@@ -105,6 +109,7 @@ public class CategoryTreeComponentRenderer
         if (componentModel.isShowFullTree()) {
 
             final Category rootCategory = findRootCategory(category);
+            renderDependencies.addCategory(rootCategory.getObjectId());
 
             result.put("categoryId", Long.toString(rootCategory.getObjectId()));
             result.put("uuid", rootCategory.getUuid());
@@ -124,6 +129,7 @@ public class CategoryTreeComponentRenderer
                 .collect(Collectors.toList());
             result.put("subCategories", subCategories);
         } else {
+            renderDependencies.addCategory(category.getObjectId());
             result.put("categoryName", category.getName());
             result.put("categoryPath",
                        categoryManager.getCategoryPath(category));
@@ -142,6 +148,7 @@ public class CategoryTreeComponentRenderer
     protected Map<String, Object> generateCategory(final Category category,
                                                    final Locale language) {
 
+        renderDependencies.addCategory(category.getObjectId());
         final Map<String, Object> result = new HashMap<>();
         result.put("categoryId", Long.toString(category.getObjectId()));
         result.put("uuid", category.getUuid());
@@ -156,6 +163,7 @@ public class CategoryTreeComponentRenderer
         final Category selectedCategory,
         final Locale language) {
 
+        renderDependencies.addCategory(category.getObjectId());
         final Map<String, Object> result = new HashMap<>();
         result.put("categoryId", Long.toString(category.getObjectId()));
         result.put("uuid", category.getUuid());
@@ -33,6 +33,7 @@ import org.libreccm.pagemodel.ComponentRenderer;
 import org.librecms.contentsection.ContentItem;
 import org.librecms.pagemodel.contentitems.AbstractContentItemRenderer;
 import org.librecms.pagemodel.contentitems.ContentItemRenderers;
+import org.librecms.pages.PageRenderDependencies;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -94,6 +95,9 @@ public class ItemListComponentRenderer
     @Inject
     private PermissionChecker permissionChecker;
 
+    @Inject
+    private PageRenderDependencies renderDependencies;
+
     @Inject
     private RoleManager roleManager;
 
@@ -151,6 +155,13 @@ public class ItemListComponentRenderer
             componentModel.getListOrder(),
             componentModel.getPageSize());
 
+        categories.forEach(
+            current -> renderDependencies.addCategory(current.getObjectId())
+        );
+        items.forEach(
+            item -> renderDependencies.addContentItem(item.getItemUuid())
+        );
+
         final Map<String, Object> result = new HashMap<>();
         result.put("items",
                    items
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.pages;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.enterprise.context.RequestScoped;
+
+/**
+ * Collects the categories, content items, page models and themes used to
+ * render a page. The collected dependencies are stored together with the
+ * rendered page in the {@link RenderedPageCache} and are used to evict the
+ * page if one of them changes.
+ *
+ * The {@link PagesRouter} and the component renderers record the objects they
+ * use while rendering the page.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@RequestScoped
+public class PageRenderDependencies {
+
+    private final Set<Long> categoryIds = new HashSet<>();
+
+    private final Set<String> itemUuids = new HashSet<>();
+
+    private final Set<String> pageModelUuids = new HashSet<>();
+
+    private final Set<String> themeNames = new HashSet<>();
+
+    public void addCategory(final long categoryId) {
+        categoryIds.add(categoryId);
+    }
+
+    public void addContentItem(final String itemUuid) {
+        itemUuids.add(Objects.requireNonNull(itemUuid));
+    }
+
+    public void addPageModel(final String modelUuid) {
+        pageModelUuids.add(Objects.requireNonNull(modelUuid));
+    }
+
+    public void addTheme(final String themeName) {
+        themeNames.add(Objects.requireNonNull(themeName));
+    }
+
+    public Set<Long> getCategoryIds() {
+        return Collections.unmodifiableSet(categoryIds);
+    }
+
+    public Set<String> getItemUuids() {
+        return Collections.unmodifiableSet(itemUuids);
+    }
+
+    public Set<String> getPageModelUuids() {
+        return Collections.unmodifiableSet(pageModelUuids);
+    }
+
+    public Set<String> getThemeNames() {
+        return Collections.unmodifiableSet(themeNames);
+    }
+
+    /**
+     * Removes all recorded dependencies.
+     */
+    public void clear() {
+        categoryIds.clear();
+        itemUuids.clear();
+        pageModelUuids.clear();
+        themeNames.clear();
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.pages;
+
+import org.libreccm.configuration.Configuration;
+import org.libreccm.configuration.Setting;
+
+/**
+ * Configuration options for the {@link Pages} application.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@Configuration
+public final class PagesConfig {
+
+    /**
+     * Enables the cache for rendered pages. Only the live versions of pages
+     * requested by not authenticated users are cached.
+     *
+     * @see RenderedPageCache
+     */
+    @Setting
+    private boolean pageCacheEnabled = true;
+
+    /**
+     * The maximum number of rendered pages in the cache.
+     */
+    @Setting
+    private long pageCacheMaxEntries = 2000;
+
+    /**
+     * Maximum age of a cached page in seconds. The entries of the cache are
+     * evicted if a category, content item or page model used to render the
+     * page changes. The maximum age limits the time a page is served from the
+     * cache if other data used by the page, for example an asset, has
+     * changed.
+     */
+    @Setting
+    private long pageCacheMaxAge = 3600;
+
+    public boolean isPageCacheEnabled() {
+        return pageCacheEnabled;
+    }
+
+    public void setPageCacheEnabled(final boolean pageCacheEnabled) {
+        this.pageCacheEnabled = pageCacheEnabled;
+    }
+
+    public long getPageCacheMaxEntries() {
+        return pageCacheMaxEntries;
+    }
+
+    public void setPageCacheMaxEntries(final long pageCacheMaxEntries) {
+        this.pageCacheMaxEntries = pageCacheMaxEntries;
+    }
+
+    public long getPageCacheMaxAge() {
+        return pageCacheMaxAge;
+    }
+
+    public void setPageCacheMaxAge(final long pageCacheMaxAge) {
+        this.pageCacheMaxAge = pageCacheMaxAge;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 59 * hash + (pageCacheEnabled ? 1 : 0);
+        hash = 59 * hash + Long.hashCode(pageCacheMaxEntries);
+        hash = 59 * hash + Long.hashCode(pageCacheMaxAge);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof PagesConfig)) {
+            return false;
+        }
+        final PagesConfig other = (PagesConfig) obj;
+        if (pageCacheEnabled != other.isPageCacheEnabled()) {
+            return false;
+        }
+        if (pageCacheMaxEntries != other.getPageCacheMaxEntries()) {
+            return false;
+        }
+        return pageCacheMaxAge == other.getPageCacheMaxAge();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "pageCacheEnabled = %b, "
+                                 + "pageCacheMaxEntries = %d, "
+                                 + "pageCacheMaxAge = %d"
+                                 + " }",
+                             super.toString(),
+                             pageCacheEnabled,
+                             pageCacheMaxEntries,
+                             pageCacheMaxAge);
+    }
+
+}
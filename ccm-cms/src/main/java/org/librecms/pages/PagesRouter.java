@@ -33,6 +33,7 @@ import org.libreccm.l10n.GlobalizationHelper;
 import org.libreccm.pagemodel.PageModel;
 import org.libreccm.pagemodel.PageModelManager;
 import org.libreccm.pagemodel.PageModelVersion;
+import org.libreccm.security.Shiro;
 import org.libreccm.sites.Site;
 import org.libreccm.sites.SiteRepository;
 import org.libreccm.theming.ThemeInfo;
@@ -49,6 +50,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -64,6 +66,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -78,6 +81,12 @@ import static org.librecms.pages.PagesConstants.*;
 @Path("/")
 public class PagesRouter {
 
+    /**
+     * Media type of the HTML pages. The theme processors write UTF-8.
+     */
+    private static final MediaType HTML_UTF8 = MediaType.TEXT_HTML_TYPE
+        .withCharset("UTF-8");
+
     protected static final String PAGE_PATH = "pagePath";
 
     protected static final String PAGE_PATH_CATEGORY_ID = "categoryId";
@@ -122,6 +131,15 @@ public class PagesRouter {
     @Inject
     private PageModelManager pageModelManager;
 
+    @Inject
+    private RenderedPageCache pageCache;
+
+    @Inject
+    private PageRenderDependencies renderDependencies;
+
+    @Inject
+    private Shiro shiro;
+
     @Inject
     private SiteRepository siteRepo;
 
@@ -130,11 +148,14 @@ public class PagesRouter {
 
     private Locale defaultLocale;
 
+    private PagesConfig pagesConfig;
+
     @PostConstruct
     private void init() {
         final KernelConfig kernelConfig = confManager
             .findConfiguration(KernelConfig.class);
         defaultLocale = kernelConfig.getDefaultLocale();
+        pagesConfig = confManager.findConfiguration(PagesConfig.class);
     }
 
     @GET
@@ -194,7 +215,7 @@ public class PagesRouter {
     @Path("/{name:[\\w\\-]+}.{lang:\\w+}.html")
     @Produces("text/html")
     @Transactional(Transactional.TxType.REQUIRED)
-    public String getRootPageAsHtml(
+    public Response getRootPageAsHtml(
         @Context
         final UriInfo uriInfo,
         @PathParam("name")
@@ -208,27 +229,7 @@ public class PagesRouter {
         @DefaultValue("")
         final String preview) {
 
-        final Versions versions = generateFromPreviewParam(preview);
-
-        final Map<String, Object> result;
-        if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          "/",
-                                          language,
-                                          versions.getPageModelVersion());
-        } else {
-            result = getCategoryItemPage(uriInfo,
-                                         "/",
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
-        }
-        final Site site = getSite(uriInfo);
-        final ThemeInfo themeInfo = getTheme(site,
-                                             theme,
-                                             versions.getThemeVersion());
-
-        return themes.process(result, themeInfo);
+        return getPageAsHtml(uriInfo, "/", itemName, language, theme, preview);
     }
 
     @GET
@@ -246,30 +247,7 @@ public class PagesRouter {
         @DefaultValue("")
         final String preview) {
 
-        final Versions versions = generateFromPreviewParam(preview);
-
-        final ObjectMapper mapper = new ObjectMapper();
-
-        final Map<String, Object> result;
-        if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          "/",
-                                          language,
-                                          versions.getPageModelVersion());
-        } else {
-            result = getCategoryItemPage(uriInfo,
-                                         "/",
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
-        }
-
-        try {
-            final String json = mapper.writeValueAsString(result);
-            return json;
-        } catch (JsonProcessingException ex) {
-            throw new WebApplicationException(ex);
-        }
+        return getPageAsJson(uriInfo, "/", itemName, language, preview);
     }
 
     @GET
@@ -287,35 +265,7 @@ public class PagesRouter {
         @DefaultValue("")
         final String preview) {
 
-        final Versions versions = generateFromPreviewParam(preview);
-
-        final JacksonXmlModule xmlModule = new JacksonXmlModule();
-        final ObjectMapper mapper = new XmlMapper(xmlModule);
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-
-        final Map<String, Object> result;
-        if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          "/",
-                                          language,
-                                          versions.getPageModelVersion());
-        } else {
-            result = getCategoryItemPage(uriInfo,
-                                         "/",
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
-        }
-
-        try {
-            final String html = mapper
-                .writer()
-                .withRootName("page")
-                .writeValueAsString(result);
-            return html;
-        } catch (JsonProcessingException ex) {
-            throw new WebApplicationException(ex);
-        }
+        return getPageAsXml(uriInfo, "/", itemName, language, preview);
     }
 
     /**
@@ -411,13 +361,15 @@ public class PagesRouter {
      * @param theme
      * @param preview
      *
-     * @return
+     * @return The HTML of the page. If the page is not served from the
+     *         {@link RenderedPageCache} the HTML is streamed directly to the
+     *         client.
      */
     @GET
     @Path("/{page:[\\w\\-/]+}/{name:[\\w\\-]+}.{lang:\\w+}.html")
     @Produces("text/html")
     @Transactional(Transactional.TxType.REQUIRED)
-    public String getPageAsHtml(
+    public Response getPageAsHtml(
         @Context
         final UriInfo uriInfo,
         @PathParam("page")
@@ -434,26 +386,62 @@ public class PagesRouter {
         final String preview) {
 
         final Versions versions = generateFromPreviewParam(preview);
-
-        final Map<String, Object> result;
-        if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          page,
-                                          language,
-                                          versions.getPageModelVersion());
+        if (isPageCacheable(versions)) {
+            final String html = renderPage(
+                uriInfo, page, itemName, language, "html", theme, preview,
+                current -> {
+                    final Map<String, Object> result = getCategoryPage(
+                        uriInfo, page, itemName, language, current
+                    );
+                    final ThemeInfo themeInfo = getThemeForPage(
+                        uriInfo, theme, current
+                    );
+                    return themes.process(result, themeInfo);
+                }
+            );
+            return Response.ok(html, HTML_UTF8).build();
         } else {
-            result = getCategoryItemPage(uriInfo,
-                                         page,
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
+            // Pages which are not cached are written directly to the
+            // response instead of being buffered as a string. The theme is
+            // applied in its own transaction while the response is written
+            // (see Themes#processAsStream).
+            final Map<String, Object> result = getCategoryPage(
+                uriInfo, page, itemName, language, versions
+            );
+            final ThemeInfo themeInfo = getThemeForPage(
+                uriInfo, theme, versions
+            );
+            return Response
+                .ok(themes.processAsStream(result, themeInfo), HTML_UTF8)
+                .build();
         }
+    }
+
+    /**
+     * Helper method for retrieving the theme for rendering a page. The theme
+     * and its master theme are registered as dependencies of the page.
+     *
+     * @param uriInfo  Information about the current URI.
+     * @param theme    The value of the {@code theme} query parameter.
+     * @param versions The versions to use.
+     *
+     * @return The theme to use.
+     */
+    private ThemeInfo getThemeForPage(final UriInfo uriInfo,
+                                      final String theme,
+                                      final Versions versions) {
 
         final Site site = getSite(uriInfo);
-        final ThemeInfo themeInfo = getTheme(site,
-                                             theme,
-                                             versions.getThemeVersion());
-        return themes.process(result, themeInfo);
+        final ThemeInfo themeInfo = getTheme(
+            site, theme, versions.getThemeVersion()
+        );
+        renderDependencies.addTheme(themeInfo.getName());
+        if (themeInfo.getManifest().getMasterTheme() != null) {
+            renderDependencies.addTheme(
+                themeInfo.getManifest().getMasterTheme()
+            );
+        }
+        return themeInfo;
     }
 
     /**
@@ -485,30 +473,22 @@ public class PagesRouter {
         @DefaultValue("")
         final String preview) {
 
-        final Versions versions = generateFromPreviewParam(preview);
-
-        final ObjectMapper mapper = new ObjectMapper();
-
-        final Map<String, Object> result;
-        if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          page,
-                                          language,
-                                          versions.getPageModelVersion());
-        } else {
-            result = getCategoryItemPage(uriInfo,
-                                         page,
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
-        }
-
-        try {
-            final String json = mapper.writeValueAsString(result);
-            return json;
-        } catch (JsonProcessingException ex) {
-            throw new WebApplicationException(ex);
-        }
+        return renderPage(
+            uriInfo, page, itemName, language, "json", null, preview,
+            versions -> {
+                final ObjectMapper mapper = new ObjectMapper();
+                final Map<String, Object> result = getCategoryPage(
+                    uriInfo, page, itemName, language, versions
+                );
+
+                try {
+                    final String json = mapper.writeValueAsString(result);
+                    return json;
+                } catch (JsonProcessingException ex) {
+                    throw new WebApplicationException(ex);
+                }
+            }
+        );
     }
 
     /**
@@ -540,34 +520,112 @@ public class PagesRouter {
         @DefaultValue("")
         final String preview) {
 
+        return renderPage(
+            uriInfo, page, itemName, language, "xml", null, preview,
+            versions -> {
+                final JacksonXmlModule xmlModule = new JacksonXmlModule();
+                final ObjectMapper mapper = new XmlMapper(xmlModule);
+                mapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+                final Map<String, Object> result = getCategoryPage(
+                    uriInfo, page, itemName, language, versions
+                );
+
+                try {
+                    final String html = mapper
+                        .writer()
+                        .withRootName("page")
+                        .writeValueAsString(result);
+                    return html;
+                } catch (JsonProcessingException ex) {
+                    throw new WebApplicationException(ex);
+                }
+            }
+        );
+    }
+
+    /**
+     * Renders a page or retrieves it from the {@link RenderedPageCache}. The
+     * cache is only used if it is enabled, if the live versions of the
+     * content, the page model and the theme are requested and if the current
+     * user is not authenticated. The output for authenticated users may
+     * depend on their permissions.
+     *
+     * @param uriInfo  The URI info of the request.
+     * @param pagePath The path of the page.
+     * @param itemName The name of the item or {@code index}.
+     * @param language The requested language.
+     * @param format   The output format.
+     * @param theme    The requested theme, {@code null} if the format does not
+     *                 use a theme.
+     * @param preview  The value of the {@code preview} parameter.
+     * @param renderer Renders the page using the provided {@link Versions}.
+     *
+     * @return The rendered page.
+     */
+    private String renderPage(final UriInfo uriInfo,
+                              final String pagePath,
+                              final String itemName,
+                              final String language,
+                              final String format,
+                              final String theme,
+                              final String preview,
+                              final Function<Versions, String> renderer) {
+
         final Versions versions = generateFromPreviewParam(preview);
+        if (!isPageCacheable(versions)) {
+            return renderer.apply(versions);
+        }
 
-        final JacksonXmlModule xmlModule = new JacksonXmlModule();
-        final ObjectMapper mapper = new XmlMapper(xmlModule);
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        final RenderedPageCache.PageKey key = RenderedPageCache.PageKey
+            .forRequest(uriInfo.getBaseUri().getHost(),
+                        pagePath,
+                        itemName,
+                        language,
+                        format,
+                        theme,
+                        uriInfo.getQueryParameters());
+        return pageCache.getPage(key,
+                                 pagesConfig,
+                                 () -> renderer.apply(versions));
+    }
+
+    /**
+     * Checks if a page can be served from the {@link RenderedPageCache}. Only
+     * the live versions of pages requested by anonymous users are cached.
+     *
+     * @param versions The versions requested.
+     *
+     * @return {@code true} if the page can be cached, {@code false} otherwise.
+     */
+    private boolean isPageCacheable(final Versions versions) {
+
+        final boolean live
+            = versions.getContentVersion() == ContentItemVersion.LIVE
+                  && versions.getPageModelVersion() == PageModelVersion.LIVE
+                  && versions.getThemeVersion() == ThemeVersion.LIVE;
+        return pagesConfig.isPageCacheEnabled()
+                   && live
+                   && !shiro.getSubject().isAuthenticated();
+    }
+
+    private Map<String, Object> getCategoryPage(final UriInfo uriInfo,
+                                                final String pagePath,
+                                                final String itemName,
+                                                final String language,
+                                                final Versions versions) {
 
-        final Map<String, Object> result;
         if ("index".equals(itemName)) {
-            result = getCategoryIndexPage(uriInfo,
-                                          page,
-                                          language,
-                                          versions.getPageModelVersion());
+            return getCategoryIndexPage(uriInfo,
+                                        pagePath,
+                                        language,
+                                        versions.getPageModelVersion());
         } else {
-            result = getCategoryItemPage(uriInfo,
-                                         page,
-                                         itemName,
-                                         language,
-                                         versions.getPageModelVersion());
-        }
-
-        try {
-            final String html = mapper
-                .writer()
-                .withRootName("page")
-                .writeValueAsString(result);
-            return html;
-        } catch (JsonProcessingException ex) {
-            throw new WebApplicationException(ex);
+            return getCategoryItemPage(uriInfo,
+                                       pagePath,
+                                       itemName,
+                                       language,
+                                       versions.getPageModelVersion());
         }
     }
 
@@ -690,6 +748,7 @@ public class PagesRouter {
 
         parameters.put(PAGE_PATH, buildPageCategoriesPath(category, locale));
         parameters.put(PARAMETER_CATEGORY, category);
+        renderDependencies.addCategory(category.getObjectId());
         return pageManager.findPageForCategory(category);
     }
 
@@ -736,6 +795,7 @@ public class PagesRouter {
         }
 
         parameters.put(PARAMETER_LANGUAGE, language);
+        renderDependencies.addPageModel(pageModel.getModelUuid());
 
         return buildPage(pageModel, parameters);
     }
@@ -766,6 +826,7 @@ public class PagesRouter {
 
         parameters.put(PARAMETER_ITEMNAME, itemName);
         parameters.put(PARAMETER_LANGUAGE, language);
+        renderDependencies.addPageModel(pageModel.getModelUuid());
 
         return buildPage(pageModel, parameters);
     }
@@ -775,6 +836,9 @@ public class PagesRouter {
     ) {
         final List<Category> categoriesInPath = categoryManager
             .getCategoriesInPath(category);
+        categoriesInPath.forEach(
+            cat -> renderDependencies.addCategory(cat.getObjectId())
+        );
         return categoriesInPath
             .stream()
             .map(cat -> buildPathCategoriesPathEntry(category, language))
@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.categorization.CategoryChangedEvent;
+import org.libreccm.pagemodel.PageModelPublishedEvent;
+import org.libreccm.theming.ThemeChangedEvent;
+import org.libreccm.theming.ThemeVersion;
+import org.librecms.contentsection.ContentItemPublicationEvent;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+/**
+ * Application wide cache for pages rendered by the {@link PagesRouter}. The
+ * {@link PagesRouter} only uses the cache for the live versions of pages
+ * requested by users which are not authenticated.
+ *
+ * Together with each page the categories, content items, page models and
+ * themes used to render the page are stored (see
+ * {@link PageRenderDependencies}). A page is evicted if one of them changes.
+ * The changes are detected by observing the {@link CategoryChangedEvent},
+ * {@link ContentItemPublicationEvent}, {@link PageModelPublishedEvent} and
+ * {@link ThemeChangedEvent}. Other data used by a page, for example assets or
+ * the settings of the site, is not tracked. Pages are therefore also evicted
+ * after the maximum age configured in the {@link PagesConfig}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class RenderedPageCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        RenderedPageCache.class
+    );
+
+    @Inject
+    private PageRenderDependencies dependencies;
+
+    private final GenerationCache<PageKey, CachedPage> pages
+        = new GenerationCache<>();
+
+    /**
+     * Retrieves a page from the cache. If the page is not in the cache or
+     * the cached page has expired the page is rendered using the provided
+     * {@code renderer} and put into the cache.
+     *
+     * @param key      The key of the page.
+     * @param config   The current {@link PagesConfig}.
+     * @param renderer Renders the page. The renderer must record the objects
+     *                 used to render the page in the
+     *                 {@link PageRenderDependencies}.
+     *
+     * @return The rendered page.
+     */
+    public String getPage(final PageKey key,
+                          final PagesConfig config,
+                          final Supplier<String> renderer) {
+
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(config);
+        Objects.requireNonNull(renderer);
+
+        final long maxAge = TimeUnit.SECONDS.toMillis(
+            config.getPageCacheMaxAge()
+        );
+
+        final CachedPage cached = pages.getIfPresent(key);
+        if (cached != null
+                && currentTimeMillis() - cached.getCreated() > maxAge) {
+            pages.remove(key, cached);
+        }
+
+        // If the page is requested again while it is rendered, the
+        // other requests wait for the page instead of rendering it again.
+        final CachedPage page = pages.get(key, current -> render(renderer));
+
+        if (pages.getSize() > config.getPageCacheMaxEntries()) {
+            evictOldest(config.getPageCacheMaxEntries());
+        }
+
+        return page.getContent();
+    }
+
+    private CachedPage render(final Supplier<String> renderer) {
+        final long now = currentTimeMillis();
+        final PageRenderDependencies pageDependencies = getDependencies();
+        pageDependencies.clear();
+        final String content = renderer.get();
+        return new CachedPage(content, pageDependencies, now);
+    }
+
+    /**
+     * Provides the {@link PageRenderDependencies} of the current request.
+     * Overwritten by the unit tests.
+     *
+     * @return The {@link PageRenderDependencies} of the current request.
+     */
+    PageRenderDependencies getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * The current time used to determine the age of the cached pages.
+     * Overwritten by the unit tests.
+     *
+     * @return The current time in milliseconds.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Removes the oldest pages until the size of the cache is below
+     * {@code maxEntries}. To avoid sorting the entries on every insert about
+     * a tenth of the maximum number of entries is removed.
+     *
+     * @param maxEntries The maximum number of entries.
+     */
+    private void evictOldest(final long maxEntries) {
+
+        final Map<PageKey, CachedPage> cachedPages = pages.getValues();
+        final long toRemove = cachedPages.size() - maxEntries + maxEntries / 10;
+        final List<Map.Entry<PageKey, CachedPage>> oldest = cachedPages
+            .entrySet()
+            .stream()
+            .sorted(Comparator.comparingLong(
+                (Map.Entry<PageKey, CachedPage> entry) -> entry
+                    .getValue()
+                    .getCreated()))
+            .limit(Math.max(toRemove, 1))
+            .collect(Collectors.toList());
+        oldest.forEach(entry -> pages.remove(entry.getKey(),
+                                             entry.getValue()));
+    }
+
+    private void invalidate(final Predicate<CachedPage> affected) {
+        pages.invalidateIf((key, page) -> affected.test(page));
+    }
+
+    /**
+     * Removes all pages from the cache.
+     */
+    public void invalidateAll() {
+        pages.invalidateAll();
+    }
+
+    protected void onCategoryChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final CategoryChangedEvent event) {
+
+        LOGGER.debug("Evicting pages using category {}.",
+                     event.getCategoryId());
+        invalidate(page -> page
+            .getCategoryIds()
+            .contains(event.getCategoryId()));
+    }
+
+    protected void onContentItemPublication(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ContentItemPublicationEvent event) {
+
+        LOGGER.debug("Evicting pages affected by {}.", event);
+        invalidate(page -> page
+            .getItemUuids()
+            .contains(event.getItemUuid())
+            || !Collections.disjoint(page.getCategoryIds(),
+                                     event.getCategoryIds()));
+    }
+
+    protected void onPageModelPublished(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final PageModelPublishedEvent event) {
+
+        LOGGER.debug("Evicting pages using page model {}.",
+                     event.getModelUuid());
+        invalidate(page -> page
+            .getPageModelUuids()
+            .contains(event.getModelUuid()));
+    }
+
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event) {
+
+        if (event.getVersion() != ThemeVersion.LIVE) {
+            // Only live versions of the themes are used for cached pages.
+            return;
+        }
+
+        LOGGER.debug("Evicting pages using theme \"{}\".",
+                     event.getThemeName());
+        invalidate(page -> page
+            .getThemeNames()
+            .contains(event.getThemeName()));
+    }
+
+    /**
+     * @return The number of pages in the cache.
+     */
+    public int getSize() {
+        return pages.getSize();
+    }
+
+    /**
+     * @return The number of pages served from the cache.
+     */
+    public long getHitCount() {
+        return pages.getHitCount();
+    }
+
+    /**
+     * @return The number of pages which were rendered.
+     */
+    public long getMissCount() {
+        return pages.getMissCount();
+    }
+
+    /**
+     * The key of a cached page. Consists of all parameters which influence
+     * the output of the {@link PagesRouter}.
+     */
+    public static final class PageKey {
+
+        private final String host;
+
+        private final String pagePath;
+
+        private final String itemName;
+
+        private final String language;
+
+        private final String format;
+
+        private final String theme;
+
+        private final String queryParameters;
+
+        /**
+         * Creates a new key.
+         *
+         * @param host            The host of the site.
+         * @param pagePath        The path of the page (the category).
+         * @param itemName        The name of the item or {@code index}.
+         * @param language        The requested language.
+         * @param format          The output format ({@code html},
+         *                        {@code json} or {@code xml}).
+         * @param theme           The name of the theme. May be {@code null}
+         *                        if the format does not use a theme.
+         * @param queryParameters The query parameters which influence the
+         *                        page, in a canonical form.
+         */
+        public PageKey(final String host,
+                       final String pagePath,
+                       final String itemName,
+                       final String language,
+                       final String format,
+                       final String theme,
+                       final String queryParameters) {
+            this.host = Objects.requireNonNull(host);
+            this.pagePath = Objects.requireNonNull(pagePath);
+            this.itemName = Objects.requireNonNull(itemName);
+            this.language = Objects.requireNonNull(language);
+            this.format = Objects.requireNonNull(format);
+            this.theme = theme;
+            this.queryParameters = Objects.requireNonNull(queryParameters);
+        }
+
+        /**
+         * Creates the key for a request. The query parameters are converted
+         * into a canonical form: The parameters are sorted by their name and
+         * the {@code theme} and {@code preview} parameters are excluded
+         * because they are already part of the key or prevent caching.
+         *
+         * @param host            The host of the site.
+         * @param pagePath        The path of the page (the category).
+         * @param itemName        The name of the item or {@code index}.
+         * @param language        The requested language.
+         * @param format          The output format.
+         * @param theme           The name of the theme. May be {@code null}.
+         * @param queryParameters The query parameters of the request.
+         *
+         * @return The key for the request.
+         */
+        public static PageKey forRequest(
+            final String host,
+            final String pagePath,
+            final String itemName,
+            final String language,
+            final String format,
+            final String theme,
+            final Map<String, List<String>> queryParameters) {
+
+            final String canonicalParameters = queryParameters
+                .entrySet()
+                .stream()
+                .filter(param -> !"theme".equals(param.getKey()))
+                .filter(param -> !"preview".equals(param.getKey()))
+                .sorted(Map.Entry.comparingByKey())
+                .map(param -> String.format("%s=%s",
+                                            param.getKey(),
+                                            String.join(",",
+                                                        param.getValue())))
+                .collect(Collectors.joining("&"));
+
+            return new PageKey(host,
+                               pagePath,
+                               itemName,
+                               language,
+                               format,
+                               theme,
+                               canonicalParameters);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 37 * hash + Objects.hashCode(host);
+            hash = 37 * hash + Objects.hashCode(pagePath);
+            hash = 37 * hash + Objects.hashCode(itemName);
+            hash = 37 * hash + Objects.hashCode(language);
+            hash = 37 * hash + Objects.hashCode(format);
+            hash = 37 * hash + Objects.hashCode(theme);
+            hash = 37 * hash + Objects.hashCode(queryParameters);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PageKey)) {
+                return false;
+            }
+            final PageKey other = (PageKey) obj;
+            return host.equals(other.host)
+                       && pagePath.equals(other.pagePath)
+                       && itemName.equals(other.itemName)
+                       && language.equals(other.language)
+                       && format.equals(other.format)
+                       && Objects.equals(theme, other.theme)
+                       && queryParameters.equals(other.queryParameters);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{ "
+                                     + "host = \"%s\", "
+                                     + "pagePath = \"%s\", "
+                                     + "itemName = \"%s\", "
+                                     + "language = \"%s\", "
+                                     + "format = \"%s\", "
+                                     + "theme = \"%s\", "
+                                     + "queryParameters = \"%s\""
+                                     + " }",
+                                 super.toString(),
+                                 host,
+                                 pagePath,
+                                 itemName,
+                                 language,
+                                 format,
+                                 theme,
+                                 queryParameters);
+        }
+
+    }
+
+    /**
+     * A cached page together with the objects used to render it.
+     */
+    private static final class CachedPage {
+
+        private final String content;
+
+        private final Set<Long> categoryIds;
+
+        private final Set<String> itemUuids;
+
+        private final Set<String> pageModelUuids;
+
+        private final Set<String> themeNames;
+
+        private final long created;
+
+        public CachedPage(final String content,
+                          final PageRenderDependencies dependencies,
+                          final long created) {
+            this.content = content;
+            this.categoryIds = new HashSet<>(dependencies.getCategoryIds());
+            this.itemUuids = new HashSet<>(dependencies.getItemUuids());
+            this.pageModelUuids = new HashSet<>(
+                dependencies.getPageModelUuids()
+            );
+            this.themeNames = new HashSet<>(dependencies.getThemeNames());
+            this.created = created;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public Set<Long> getCategoryIds() {
+            return categoryIds;
+        }
+
+        public Set<String> getItemUuids() {
+            return itemUuids;
+        }
+
+        public Set<String> getPageModelUuids() {
+            return pageModelUuids;
+        }
+
+        public Set<String> getThemeNames() {
+            return themeNames;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ package org.librecms.contentsection;
 
 import static org.libreccm.testutils.DependenciesHelpers.getCcmCoreDependencies;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -88,6 +89,9 @@ public class ContentItemRepositoryIT {
     @Inject
     private CategoryRepository categoryRepo;
 
+    @Inject
+    private ContentSectionRepository sectionRepo;
+
     @Inject
     private Shiro shiro;
 
@@ -412,4 +416,85 @@ public class ContentItemRepositoryIT {
         itemRepo.save(item.get());
     }
 
+    /**
+     * Verifies that paging through a folder visits every item exactly once,
+     * including items without a display name and items sharing the same
+     * display name.
+     */
+    @Test
+    @InSequence(700)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemRepositoryTest/data-paging.xml")
+    public void findPageByFolderWithNullAndDuplicateNames() {
+        final Category folder = categoryRepo.findById(2100L).get();
+
+        final List<Long> ids = new ArrayList<>();
+        String afterDisplayName = null;
+        Long afterObjectId = null;
+        // Bounded so that a broken keyset fails the test instead of looping
+        for (int i = 0; i < 10; i++) {
+            final String displayName = afterDisplayName;
+            final Long objectId = afterObjectId;
+            final List<ContentItem> page = shiro
+                .getSystemUser()
+                .execute(() -> itemRepo.findPageByFolder(folder,
+                                                         null,
+                                                         null,
+                                                         displayName,
+                                                         objectId,
+                                                         1));
+            if (page.isEmpty()) {
+                break;
+            }
+            assertThat(page.size(), is(1));
+            final ContentItem item = page.get(0);
+            ids.add(item.getObjectId());
+            afterDisplayName = item.getDisplayName();
+            afterObjectId = item.getObjectId();
+        }
+
+        assertThat(ids.size(), is(4));
+        assertThat(ids.get(0), is(10100L));
+        assertThat(ids.get(1), is(10200L));
+        assertThat(ids.get(2), is(10300L));
+        assertThat(ids.get(3), is(10400L));
+    }
+
+    /**
+     * Verifies that a page boundary between two items with the same display
+     * name neither skips nor repeats items.
+     */
+    @Test
+    @InSequence(710)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemRepositoryTest/data-paging.xml")
+    public void findPageByContentSectionWithNullAndDuplicateNames() {
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        final List<ContentItem> first = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findPageByContentSection(
+            section, ContentItemVersion.DRAFT, null, null, null, null, 2));
+        assertThat(first.size(), is(2));
+        assertThat(first.get(0).getObjectId(), is(10100L));
+        assertThat(first.get(0).getDisplayName(), is(nullValue()));
+        assertThat(first.get(1).getObjectId(), is(10200L));
+
+        final List<ContentItem> second = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findPageByContentSection(
+            section, ContentItemVersion.DRAFT, null, null,
+            first.get(1).getDisplayName(), first.get(1).getObjectId(), 2));
+        assertThat(second.size(), is(2));
+        assertThat(second.get(0).getObjectId(), is(10300L));
+        assertThat(second.get(1).getObjectId(), is(10400L));
+
+        final List<ContentItem> third = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findPageByContentSection(
+            section, ContentItemVersion.DRAFT, null, null,
+            second.get(1).getDisplayName(), second.get(1).getObjectId(), 2));
+        assertThat(third.isEmpty(), is(true));
+    }
+
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection;
+
+import static org.libreccm.testutils.DependenciesHelpers.getCcmCoreDependencies;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.persistence.CleanupUsingScript;
+import org.jboss.arquillian.persistence.CreateSchema;
+import org.jboss.arquillian.persistence.PersistenceTest;
+import org.jboss.arquillian.persistence.TestExecutionPhase;
+import org.jboss.arquillian.persistence.UsingDataSet;
+import org.jboss.arquillian.transaction.api.annotation.TransactionMode;
+import org.jboss.arquillian.transaction.api.annotation.Transactional;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreccm.configuration.ConfigurationManager;
+import org.libreccm.search.SearchConfig;
+import org.libreccm.search.SearchManager;
+import org.libreccm.security.Shiro;
+import org.librecms.contentsection.ContentItemSearchManager.NameMatch;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the name search of content items using the search index
+ * ({@link ContentItemSearchManager#findIdsByName(org.librecms.contentsection.ContentSection, org.librecms.contentsection.ContentItemVersion, java.lang.String, org.librecms.contentsection.ContentItemSearchManager.NameMatch, java.lang.Class, java.lang.String, java.lang.Long, int, int)})
+ * and the methods of the {@link ContentItemRepository} using it.
+ *
+ * The dataset contains the item {@code le1-article} which contains all
+ * n-grams of {@code article1} without containing {@code article1}. The index
+ * is built from the dataset by each test using the name search. The tests
+ * are not executed in a transaction because the changed configuration must
+ * be committed before it is used.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@RunWith(Arquillian.class)
+@PersistenceTest
+@Transactional(TransactionMode.DISABLED)
+@CreateSchema(
+    {
+        "001_create_schema.sql",
+        "002_create_ccm_cms_tables.sql",
+        "003_init_hibernate_sequence.sql"
+    }
+)
+@CleanupUsingScript(
+    value = {
+        "999_cleanup.sql"
+    },
+    phase = TestExecutionPhase.BEFORE
+)
+public class ContentItemSearchManagerIT {
+
+    @Inject
+    private ConfigurationManager confManager;
+
+    @Inject
+    private ContentItemRepository itemRepo;
+
+    @Inject
+    private ContentItemSearchManager itemSearchManager;
+
+    @Inject
+    private ContentSectionRepository sectionRepo;
+
+    @Inject
+    private SearchManager searchManager;
+
+    @Inject
+    private Shiro shiro;
+
+    public ContentItemSearchManagerIT() {
+    }
+
+    @Deployment
+    public static WebArchive createDeployment() {
+
+        return ShrinkWrap
+            .create(WebArchive.class,
+                    "LibreCCM-org.librecms.contentsection.ContentItemSearchManagerTest.war")
+            .addPackages(true, "com.arsdigita", "org.libreccm", "org.librecms")
+            .addAsLibraries(getCcmCoreDependencies())
+            .addAsResource("test-persistence.xml",
+                           "META-INF/persistence.xml")
+            .addAsResource("configs/shiro.ini", "shiro.ini")
+            .addAsWebInfResource("test-web.xml", "web.xml")
+            .addAsResource(EmptyAsset.INSTANCE, "META-INF/beans.xml")
+            .addAsWebInfResource(EmptyAsset.INSTANCE, "WEB-INF/beans.xml");
+    }
+
+    /**
+     * The name search is disabled by default, therefore the callers fall
+     * back to {@code LIKE} queries.
+     */
+    @Test
+    @InSequence(100)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void nameSearchIsDisabledByDefault() {
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "article", NameMatch.CONTAINS),
+                   is(false));
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "article", NameMatch.PREFIX),
+                   is(false));
+    }
+
+    @Test
+    @InSequence(200)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void nameSearchIsAvailableIfEnabled() {
+        setNameSearchEnabled(true);
+
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "article", NameMatch.CONTAINS),
+                   is(true));
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "art", NameMatch.CONTAINS),
+                   is(true));
+        // Shorter than an n-gram
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "ar", NameMatch.CONTAINS),
+                   is(false));
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "ar", NameMatch.PREFIX),
+                   is(true));
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            "  ", NameMatch.PREFIX),
+                   is(false));
+        assertThat(itemSearchManager.isNameSearchAvailable(
+            null, NameMatch.CONTAINS),
+                   is(false));
+    }
+
+    @Test
+    @InSequence(300)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void findIdsByNameContains() throws Exception {
+        setNameSearchEnabled(true);
+        rebuildIndex();
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "article",
+                                                   NameMatch.CONTAINS,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   contains(10100L, 10200L, 10300L));
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "NEWS",
+                                                   NameMatch.CONTAINS,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   contains(10400L));
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.LIVE,
+                                                   "article",
+                                                   NameMatch.CONTAINS,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   is(empty()));
+    }
+
+    @Test
+    @InSequence(310)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void findIdsByNamePrefix() throws Exception {
+        setNameSearchEnabled(true);
+        rebuildIndex();
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "art",
+                                                   NameMatch.PREFIX,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   contains(10100L, 10200L));
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "le",
+                                                   NameMatch.PREFIX,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   contains(10300L));
+    }
+
+    @Test
+    @InSequence(320)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void findIdsByNameAfterItem() throws Exception {
+        setNameSearchEnabled(true);
+        rebuildIndex();
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "article",
+                                                   NameMatch.CONTAINS,
+                                                   null,
+                                                   "article1",
+                                                   10100L,
+                                                   0,
+                                                   10),
+                   contains(10200L, 10300L));
+        assertThat(itemSearchManager.countIdsByName(section,
+                                                    ContentItemVersion.DRAFT,
+                                                    "article",
+                                                    NameMatch.CONTAINS,
+                                                    null),
+                   is(3));
+    }
+
+    /**
+     * The index returns {@code le1-article} as candidate for
+     * {@code article1}. The repository must remove it.
+     */
+    @Test
+    @InSequence(400)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void falsePositivesAreRemoved() throws Exception {
+        setNameSearchEnabled(true);
+        rebuildIndex();
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        assertThat(itemSearchManager.findIdsByName(section,
+                                                   ContentItemVersion.DRAFT,
+                                                   "article1",
+                                                   NameMatch.CONTAINS,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   0,
+                                                   10),
+                   contains(10100L, 10300L));
+
+        final List<ContentItem> items = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findPageByContentSection(
+            section, ContentItemVersion.DRAFT, "article1", null, null, null, 10
+        ));
+        assertThat(toIds(items), contains(10100L));
+
+        final long count = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.countByContentSection(
+            section, ContentItemVersion.DRAFT, "article1", null
+        ));
+        assertThat(count, is(1L));
+
+        final List<ContentItem> allItems = shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findByNameAndContentSection(
+            "article1", section
+        ));
+        assertThat(toIds(allItems), contains(10100L));
+    }
+
+    /**
+     * The results of the listings must not depend on whether the index or a
+     * {@code LIKE} query is used.
+     */
+    @Test
+    @InSequence(500)
+    @UsingDataSet("datasets/org/librecms/contentsection/"
+                      + "ContentItemSearchManagerTest/data.xml")
+    public void fallbackReturnsSameItems() throws Exception {
+        final ContentSection section = sectionRepo.findById(1100L).get();
+
+        setNameSearchEnabled(false);
+        final List<Long> likeIds = toIds(findArticles(section));
+        final long likeCount = countArticles(section);
+        final List<Long> likeAllIds = toIds(findAllArticles(section));
+
+        setNameSearchEnabled(true);
+        rebuildIndex();
+        final List<Long> indexIds = toIds(findArticles(section));
+        final long indexCount = countArticles(section);
+        final List<Long> indexAllIds = toIds(findAllArticles(section));
+
+        assertThat(likeIds, contains(10100L, 10200L, 10300L));
+        assertThat(indexIds, is(equalTo(likeIds)));
+        assertThat(likeCount, is(3L));
+        assertThat(indexCount, is(likeCount));
+        assertThat(likeAllIds, containsInAnyOrder(10100L, 10200L, 10300L));
+        assertThat(indexAllIds, containsInAnyOrder(10100L, 10200L, 10300L));
+    }
+
+    private List<ContentItem> findArticles(final ContentSection section) {
+        return shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findPageByContentSection(
+            section, ContentItemVersion.DRAFT, "article", null, null, null, 10
+        ));
+    }
+
+    private long countArticles(final ContentSection section) {
+        return shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.countByContentSection(
+            section, ContentItemVersion.DRAFT, "article", null
+        ));
+    }
+
+    private List<ContentItem> findAllArticles(final ContentSection section) {
+        return shiro
+            .getSystemUser()
+            .execute(() -> itemRepo.findByNameAndContentSection(
+            "article", section, ContentItemVersion.DRAFT
+        ));
+    }
+
+    private void setNameSearchEnabled(final boolean enabled) {
+        final SearchConfig searchConfig = confManager
+            .findConfiguration(SearchConfig.class);
+        searchConfig.setNameSearchEnabled(enabled);
+        shiro
+            .getSystemUser()
+            .execute(() -> confManager.saveConfiguration(searchConfig));
+    }
+
+    private void rebuildIndex() throws Exception {
+        shiro
+            .getSystemUser()
+            .execute(() -> searchManager.rebuildIndex())
+            .get();
+    }
+
+    private List<Long> toIds(final List<ContentItem> items) {
+        return items
+            .stream()
+            .map(ContentItem::getObjectId)
+            .collect(Collectors.toList());
+    }
+
+}
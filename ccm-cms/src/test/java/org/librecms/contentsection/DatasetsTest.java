@@ -70,8 +70,11 @@ public class DatasetsTest extends DatasetsVerifier {
             "/datasets/org/librecms/contentsection/ContentSectionManagerTest/after-rename.xml",
 
             "/datasets/org/librecms/contentsection/ContentItemRepositoryTest/data.xml",
+            "/datasets/org/librecms/contentsection/ContentItemRepositoryTest/data-paging.xml",
             "/datasets/org/librecms/contentsection/ContentItemRepositoryTest/after-save.xml",
 
+            "/datasets/org/librecms/contentsection/ContentItemSearchManagerTest/data.xml",
+
             "/datasets/org/librecms/contentsection/ContentItemL10NManagerTest/data.xml",
             "/datasets/org/librecms/contentsection/ContentItemL10NManagerTest/after-add-language.xml",
             "/datasets/org/librecms/contentsection/ContentItemL10NManagerTest/after-normalize.xml",
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection;
+
+import org.junit.Test;
+import org.libreccm.l10n.LocalizedString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PropertyCopyPlan}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class PropertyCopyPlanTest {
+
+    public PropertyCopyPlanTest() {
+    }
+
+    @Test
+    public void plansAreCached() {
+        final PropertyCopyPlan plan = PropertyCopyPlan.forItemType(
+            TestItem.class);
+
+        assertThat(PropertyCopyPlan.forItemType(TestItem.class),
+                   is(sameInstance(plan)));
+        assertThat(PropertyCopyPlan.forItemType(ContentItem.class),
+                   is(not(sameInstance(plan))));
+        assertThat(PropertyCopyPlan.forAssetType(TestAsset.class),
+                   is(sameInstance(PropertyCopyPlan.forAssetType(
+                       TestAsset.class))));
+    }
+
+    @Test
+    public void excludedPropertiesAreNotCopied() {
+        final Set<String> itemProperties = getPropertyNames(
+            PropertyCopyPlan.forItemType(TestItem.class));
+        final Set<String> assetProperties = getPropertyNames(
+            PropertyCopyPlan.forAssetType(TestAsset.class));
+
+        for (final String excluded : new String[]{"attachments",
+                                                  "categories",
+                                                  "contentType",
+                                                  "lifecycle",
+                                                  "objectId",
+                                                  "uuid",
+                                                  "workflow"}) {
+            assertThat(itemProperties, not(hasItem(excluded)));
+        }
+        for (final String excluded : new String[]{"categories",
+                                                  "itemAttachments",
+                                                  "objectId",
+                                                  "uuid"}) {
+            assertThat(assetProperties, not(hasItem(excluded)));
+        }
+    }
+
+    @Test
+    public void propertyKindsForItems() {
+        final PropertyCopyPlan plan = PropertyCopyPlan.forItemType(
+            TestItem.class);
+
+        assertThat(getProperty(plan, "title").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.LOCALIZED_STRING));
+        assertThat(getProperty(plan, "related").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.CONTENT_ITEM));
+        assertThat(getProperty(plan, "tags").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.LIST));
+        assertThat(getProperty(plan, "keywords").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.SET));
+        assertThat(getProperty(plan, "properties").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.MAP));
+        assertThat(getProperty(plan, "subtitle").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.VALUE));
+    }
+
+    @Test
+    public void propertyKindsForAssets() {
+        final PropertyCopyPlan plan = PropertyCopyPlan.forAssetType(
+            TestAsset.class);
+
+        assertThat(getProperty(plan, "title").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.LOCALIZED_STRING));
+        assertThat(getProperty(plan, "entries").getKind(),
+                   is(PropertyCopyPlan.PropertyKind.VALUE));
+    }
+
+    @Test
+    public void copyValue() {
+        final TestItem source = new TestItem();
+        source.setSubtitle("Subtitle");
+        final TestItem target = new TestItem();
+
+        getProperty(PropertyCopyPlan.forItemType(TestItem.class), "subtitle")
+            .copy(source, target);
+
+        assertThat(target.getSubtitle(), is(equalTo("Subtitle")));
+    }
+
+    @Test
+    public void copyMergesLocalizedStrings() {
+        final TestItem source = new TestItem();
+        source.getTitle().addValue(Locale.ENGLISH, "Title");
+        source.getTitle().addValue(Locale.GERMAN, "Titel");
+        final TestItem target = new TestItem();
+        final LocalizedString targetTitle = target.getTitle();
+        targetTitle.addValue(Locale.ENGLISH, "Old title");
+        targetTitle.addValue(Locale.FRENCH, "Titre");
+
+        getProperty(PropertyCopyPlan.forItemType(TestItem.class), "title")
+            .copy(source, target);
+
+        assertThat(target.getTitle(), is(sameInstance(targetTitle)));
+        assertThat(targetTitle.getValue(Locale.ENGLISH),
+                   is(equalTo("Title")));
+        assertThat(targetTitle.getValue(Locale.GERMAN),
+                   is(equalTo("Titel")));
+        assertThat(targetTitle.getValue(Locale.FRENCH),
+                   is(equalTo("Titre")));
+        assertThat(source.getTitle().getAvailableLocales(),
+                   containsInAnyOrder(Locale.ENGLISH, Locale.GERMAN));
+    }
+
+    @Test
+    public void copyAddsCollectionElements() {
+        final TestItem source = new TestItem();
+        source.getTags().addAll(Arrays.asList("foo", "bar"));
+        source.getKeywords().add("baz");
+        source.getProperties().put("key", "value");
+        final TestItem target = new TestItem();
+        target.getTags().add("existing");
+        final List<String> targetTags = target.getTags();
+        final Set<String> targetKeywords = target.getKeywords();
+        final Map<String, String> targetProperties = target.getProperties();
+
+        final PropertyCopyPlan plan = PropertyCopyPlan.forItemType(
+            TestItem.class);
+        getProperty(plan, "tags").copy(source, target);
+        getProperty(plan, "keywords").copy(source, target);
+        getProperty(plan, "properties").copy(source, target);
+
+        assertThat(target.getTags(), is(sameInstance(targetTags)));
+        assertThat(target.getTags(), contains("existing", "foo", "bar"));
+        assertThat(target.getKeywords(), is(sameInstance(targetKeywords)));
+        assertThat(target.getKeywords(), contains("baz"));
+        assertThat(target.getProperties(),
+                   is(sameInstance(targetProperties)));
+        assertThat(target.getProperties(), hasKey("key"));
+    }
+
+    @Test
+    public void linkedItemsAreReadAndWritten() {
+        final TestItem linked = new TestItem();
+        final TestItem otherLinked = new TestItem();
+        final TestItem source = new TestItem();
+        source.setRelated(linked);
+        final TestItem target = new TestItem();
+
+        final PropertyCopyPlan.Property related = getProperty(
+            PropertyCopyPlan.forItemType(TestItem.class), "related");
+
+        assertThat(related.read(source), is(sameInstance(linked)));
+
+        related.copy(source, target);
+        assertThat(target.getRelated(), is(sameInstance(linked)));
+
+        related.write(target, otherLinked);
+        assertThat(target.getRelated(), is(sameInstance(otherLinked)));
+    }
+
+    @Test
+    public void assetCollectionsAreSetAsValue() {
+        final TestAsset source = new TestAsset();
+        source.getEntries().add("foo");
+        final TestAsset target = new TestAsset();
+
+        getProperty(PropertyCopyPlan.forAssetType(TestAsset.class),
+                    "entries")
+            .copy(source, target);
+
+        assertThat(target.getEntries(), is(sameInstance(source.getEntries())));
+    }
+
+    private static Set<String> getPropertyNames(final PropertyCopyPlan plan) {
+        return plan
+            .getProperties()
+            .stream()
+            .map(PropertyCopyPlan.Property::getName)
+            .collect(Collectors.toSet());
+    }
+
+    private static PropertyCopyPlan.Property getProperty(
+        final PropertyCopyPlan plan, final String name) {
+
+        return plan
+            .getProperties()
+            .stream()
+            .filter(property -> property.getName().equals(name))
+            .findAny()
+            .orElseThrow(() -> new AssertionError(
+            String.format("No property \"%s\" in plan.", name)));
+    }
+
+    public static class TestItem extends ContentItem {
+
+        private static final long serialVersionUID = 1L;
+
+        private String subtitle;
+
+        private ContentItem related;
+
+        private List<String> tags = new ArrayList<>();
+
+        private Set<String> keywords = new HashSet<>();
+
+        private Map<String, String> properties = new HashMap<>();
+
+        public String getSubtitle() {
+            return subtitle;
+        }
+
+        public void setSubtitle(final String subtitle) {
+            this.subtitle = subtitle;
+        }
+
+        public ContentItem getRelated() {
+            return related;
+        }
+
+        public void setRelated(final ContentItem related) {
+            this.related = related;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(final List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Set<String> getKeywords() {
+            return keywords;
+        }
+
+        public void setKeywords(final Set<String> keywords) {
+            this.keywords = keywords;
+        }
+
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        public void setProperties(final Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+    }
+
+    public static class TestAsset extends Asset {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<String> entries = new ArrayList<>();
+
+        public List<String> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(final List<String> entries) {
+            this.entries = entries;
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection.rs;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for encoding and decoding {@link ContentItemsCursor}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ContentItemsCursorTest {
+
+    @Test
+    public void encodeAndDecode() {
+        final ContentItemsCursor cursor = ContentItemsCursor
+            .decode(new ContentItemsCursor(10200L, "article").encode());
+
+        assertThat(cursor.getObjectId(), is(10200L));
+        assertThat(cursor.getDisplayName(), is(equalTo("article")));
+    }
+
+    @Test
+    public void encodeAndDecodeNameWithSeparator() {
+        final ContentItemsCursor cursor = ContentItemsCursor
+            .decode(new ContentItemsCursor(10200L, "a:b:c").encode());
+
+        assertThat(cursor.getObjectId(), is(10200L));
+        assertThat(cursor.getDisplayName(), is(equalTo("a:b:c")));
+    }
+
+    /**
+     * A missing display name must not end up as the string {@code null} in
+     * the cursor, otherwise the next page would start after {@code "null"}
+     * instead of after the empty display name used for ordering.
+     */
+    @Test
+    public void encodeAndDecodeWithoutDisplayName() {
+        final ContentItemsCursor cursor = ContentItemsCursor
+            .decode(new ContentItemsCursor(10100L, null).encode());
+
+        assertThat(cursor.getObjectId(), is(10100L));
+        assertThat(cursor.getDisplayName(), is(equalTo("")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeInvalidBase64() {
+        ContentItemsCursor.decode("not a cursor!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeWithoutObjectId() {
+        ContentItemsCursor.decode(encodeRaw(":article"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeWithInvalidObjectId() {
+        ContentItemsCursor.decode(encodeRaw("foo:article"));
+    }
+
+    private String encodeRaw(final String value) {
+        return Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
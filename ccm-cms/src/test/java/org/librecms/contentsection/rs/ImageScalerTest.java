@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.contentsection.rs;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for scaling the images delivered by the {@link Images} endpoint.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ImageScalerTest {
+
+    /**
+     * Requests without width and height get the image as is, without decoding
+     * it.
+     */
+    @Test
+    public void returnsImageWithoutSizeUnscaled() throws IOException {
+        final byte[] data = createImage(40, 20);
+
+        assertThat(ImageScaler.scale(data, 0, 0), is(sameInstance(data)));
+        assertThat(ImageScaler.scale(data, -1, -1), is(sameInstance(data)));
+    }
+
+    @Test
+    public void scalesToWidth() throws IOException {
+        final BufferedImage scaled = read(
+            ImageScaler.scale(createImage(40, 20), 10, 0)
+        );
+
+        assertThat(scaled.getWidth(), is(10));
+        assertThat(scaled.getHeight(), is(5));
+    }
+
+    @Test
+    public void scalesToHeight() throws IOException {
+        final BufferedImage scaled = read(
+            ImageScaler.scale(createImage(40, 20), -1, 10)
+        );
+
+        assertThat(scaled.getWidth(), is(20));
+        assertThat(scaled.getHeight(), is(10));
+    }
+
+    @Test
+    public void scalesToWidthAndHeight() throws IOException {
+        final BufferedImage scaled = read(
+            ImageScaler.scale(createImage(40, 20), 80, 40)
+        );
+
+        assertThat(scaled.getWidth(), is(80));
+        assertThat(scaled.getHeight(), is(40));
+    }
+
+    /**
+     * If width and height do not preserve the aspect ratio the scale factor
+     * nearer to one is used for both dimensions.
+     */
+    @Test
+    public void preservesAspectRatio() throws IOException {
+        final BufferedImage scaled = read(
+            ImageScaler.scale(createImage(40, 20), 10, 10)
+        );
+
+        assertThat(scaled.getWidth(), is(20));
+        assertThat(scaled.getHeight(), is(10));
+    }
+
+    @Test
+    public void doesNotScaleToNothing() throws IOException {
+        final BufferedImage scaled = read(
+            ImageScaler.scale(createImage(40, 2), 4, 0)
+        );
+
+        assertThat(scaled.getWidth(), is(4));
+        assertThat(scaled.getHeight(), is(1));
+    }
+
+    @Test
+    public void keepsFormat() throws IOException {
+        final byte[] scaled = ImageScaler.scale(createImage(40, 20), 10, 0);
+
+        assertThat(ImageIO
+            .getImageReaders(ImageIO.createImageInputStream(
+                new ByteArrayInputStream(scaled)))
+            .next()
+            .getFormatName(),
+                   is(equalToIgnoringCase("png")));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsInvalidImage() throws IOException {
+        ImageScaler.scale(new byte[]{1, 2, 3}, 10, 10);
+    }
+
+    private byte[] createImage(final int width, final int height)
+        throws IOException {
+
+        final BufferedImage image = new BufferedImage(
+            width, height, BufferedImage.TYPE_INT_RGB
+        );
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private BufferedImage read(final byte[] data) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.librecms.pages;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreccm.categorization.CategoryChangedEvent;
+import org.libreccm.pagemodel.PageModelPublishedEvent;
+import org.libreccm.theming.ThemeChangedEvent;
+import org.libreccm.theming.ThemeVersion;
+import org.librecms.contentsection.ContentItemPublicationEvent;
+import org.librecms.pages.RenderedPageCache.PageKey;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link RenderedPageCache}: The creation of the keys for the
+ * cached pages and the eviction of pages by the events observed by the
+ * cache.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class RenderedPageCacheTest {
+
+    private static final String HOST = "www.example.org";
+
+    private PagesConfig config;
+
+    private TestRenderedPageCache cache;
+
+    public RenderedPageCacheTest() {
+    }
+
+    @Before
+    public void setUp() {
+        config = new PagesConfig();
+        cache = new TestRenderedPageCache();
+    }
+
+    @Test
+    public void keysForSameRequestAreEqual() {
+        final PageKey key1 = createKey(HOST, "/news/", "index", "en", "html",
+                                       "librecms");
+        final PageKey key2 = createKey(HOST, "/news/", "index", "en", "html",
+                                       "librecms");
+
+        assertThat(key1, is(equalTo(key2)));
+        assertThat(key1.hashCode(), is(key2.hashCode()));
+    }
+
+    @Test
+    public void keysDifferByRequestParameters() {
+        final PageKey key = createKey(HOST, "/news/", "index", "en", "html",
+                                      "librecms");
+
+        assertThat(createKey("example.org", "/news/", "index", "en", "html",
+                             "librecms"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/events/", "index", "en", "html",
+                             "librecms"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/news/", "article", "en", "html",
+                             "librecms"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/news/", "index", "de", "html",
+                             "librecms"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/news/", "index", "en", "json",
+                             "librecms"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/news/", "index", "en", "html",
+                             "foundry"),
+                   is(not(equalTo(key))));
+        assertThat(createKey(HOST, "/news/", "index", "en", "html", null),
+                   is(not(equalTo(key))));
+    }
+
+    @Test
+    public void keysUseCanonicalQueryParameters() {
+        final Map<String, List<String>> params1 = new LinkedHashMap<>();
+        params1.put("page", Collections.singletonList("2"));
+        params1.put("filter", Arrays.asList("a", "b"));
+        final Map<String, List<String>> params2 = new LinkedHashMap<>();
+        params2.put("theme", Collections.singletonList("librecms"));
+        params2.put("filter", Arrays.asList("a", "b"));
+        params2.put("preview", Collections.singletonList("live"));
+        params2.put("page", Collections.singletonList("2"));
+        final Map<String, List<String>> params3 = new HashMap<>(params1);
+        params3.put("page", Collections.singletonList("3"));
+
+        final PageKey key1 = PageKey.forRequest(
+            HOST, "/news/", "index", "en", "html", "librecms", params1);
+        final PageKey key2 = PageKey.forRequest(
+            HOST, "/news/", "index", "en", "html", "librecms", params2);
+        final PageKey key3 = PageKey.forRequest(
+            HOST, "/news/", "index", "en", "html", "librecms", params3);
+
+        assertThat(key1, is(equalTo(key2)));
+        assertThat(key1, is(not(equalTo(key3))));
+        assertThat(key1, is(not(equalTo(createKey(HOST, "/news/", "index",
+                                                  "en", "html",
+                                                  "librecms")))));
+    }
+
+    @Test
+    public void pagesAreRenderedOnce() {
+        final PageKey key = createKey(HOST, "/news/", "index", "en", "html",
+                                      "librecms");
+        final int[] rendered = new int[1];
+
+        for (int i = 0; i < 3; i++) {
+            final String page = cache.getPage(key, config, () -> {
+                rendered[0]++;
+                return "page";
+            });
+            assertThat(page, is(equalTo("page")));
+        }
+
+        assertThat(rendered[0], is(1));
+        assertThat(cache.getSize(), is(1));
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void evictedByCategoryChange() {
+        final PageKey news = render("/news/", deps -> deps.addCategory(1L));
+        final PageKey events = render("/events/",
+                                      deps -> deps.addCategory(2L));
+
+        cache.onCategoryChanged(new CategoryChangedEvent(1L));
+
+        assertThat(isCached(news), is(false));
+        assertThat(isCached(events), is(true));
+    }
+
+    @Test
+    public void evictedByContentItemPublication() {
+        final PageKey article = render("/news/article/",
+                                       deps -> deps.addContentItem("item1"));
+        final PageKey news = render("/news/", deps -> deps.addCategory(1L));
+        final PageKey events = render("/events/",
+                                      deps -> deps.addCategory(2L));
+
+        cache.onContentItemPublication(new ContentItemPublicationEvent(
+            "item1",
+            Collections.singleton(1L),
+            ContentItemPublicationEvent.PublicationType.PUBLISHED));
+
+        assertThat(isCached(article), is(false));
+        assertThat(isCached(news), is(false));
+        assertThat(isCached(events), is(true));
+    }
+
+    @Test
+    public void evictedByPageModelPublication() {
+        final PageKey news = render("/news/",
+                                    deps -> deps.addPageModel("model1"));
+        final PageKey events = render("/events/",
+                                      deps -> deps.addPageModel("model2"));
+
+        cache.onPageModelPublished(new PageModelPublishedEvent("model1"));
+
+        assertThat(isCached(news), is(false));
+        assertThat(isCached(events), is(true));
+    }
+
+    @Test
+    public void evictedByLiveThemeChange() {
+        final PageKey news = render("/news/",
+                                    deps -> deps.addTheme("librecms"));
+        final PageKey events = render("/events/",
+                                      deps -> deps.addTheme("foundry"));
+
+        cache.onThemeChanged(new ThemeChangedEvent(
+            "librecms",
+            ThemeVersion.DRAFT,
+            ThemeChangedEvent.ChangeType.FILE_CHANGED,
+            "templates/page.xsl"));
+        assertThat(isCached(news), is(true));
+
+        cache.onThemeChanged(new ThemeChangedEvent(
+            "librecms",
+            ThemeVersion.LIVE,
+            ThemeChangedEvent.ChangeType.PUBLISHED));
+        assertThat(isCached(news), is(false));
+        assertThat(isCached(events), is(true));
+    }
+
+    @Test
+    public void dependenciesAreClearedBeforeRendering() {
+        final PageKey news = render("/news/", deps -> deps.addCategory(1L));
+        final PageKey events = render("/events/", deps -> {});
+
+        cache.onCategoryChanged(new CategoryChangedEvent(1L));
+
+        assertThat(isCached(news), is(false));
+        assertThat(isCached(events), is(true));
+    }
+
+    @Test
+    public void expiredPagesAreRenderedAgain() {
+        config.setPageCacheMaxAge(60);
+        final PageKey key = createKey(HOST, "/news/", "index", "en", "html",
+                                      "librecms");
+        cache.getPage(key, config, () -> "old");
+
+        cache.advance(TimeUnit.SECONDS.toMillis(30));
+        assertThat(cache.getPage(key, config, () -> "new"),
+                   is(equalTo("old")));
+
+        cache.advance(TimeUnit.SECONDS.toMillis(31));
+        assertThat(cache.getPage(key, config, () -> "new"),
+                   is(equalTo("new")));
+    }
+
+    @Test
+    public void oldestPagesAreEvicted() {
+        config.setPageCacheMaxEntries(10);
+        final PageKey oldest = render("/page-0/", deps -> {});
+        final PageKey secondOldest = render("/page-1/", deps -> {});
+        for (int i = 2; i < 11; i++) {
+            render(String.format("/page-%d/", i), deps -> {});
+        }
+
+        assertThat(cache.getSize(), is(9));
+        assertThat(isCached(oldest), is(false));
+        assertThat(isCached(secondOldest), is(false));
+        assertThat(isCached(createKey(HOST, "/page-10/", "index", "en",
+                                      "html", "librecms")),
+                   is(true));
+    }
+
+    @Test
+    public void invalidateAll() {
+        render("/news/", deps -> deps.addCategory(1L));
+        render("/events/", deps -> deps.addCategory(2L));
+
+        cache.invalidateAll();
+
+        assertThat(cache.getSize(), is(0));
+    }
+
+    private static PageKey createKey(final String host,
+                                     final String pagePath,
+                                     final String itemName,
+                                     final String language,
+                                     final String format,
+                                     final String theme) {
+        return PageKey.forRequest(host,
+                                  pagePath,
+                                  itemName,
+                                  language,
+                                  format,
+                                  theme,
+                                  Collections.emptyMap());
+    }
+
+    /**
+     * Puts a page into the cache.
+     *
+     * @param pagePath     The path of the page.
+     * @param dependencies Records the dependencies of the page.
+     *
+     * @return The key of the page.
+     */
+    private PageKey render(
+        final String pagePath,
+        final Consumer<PageRenderDependencies> dependencies) {
+
+        final PageKey key = createKey(HOST, pagePath, "index", "en", "html",
+                                      "librecms");
+        cache.getPage(key, config, () -> {
+            dependencies.accept(cache.getDependencies());
+            return pagePath;
+        });
+        cache.advance(1);
+        return key;
+    }
+
+    private boolean isCached(final PageKey key) {
+        final long misses = cache.getMissCount();
+        cache.getPage(key, config, () -> "rendered again");
+        return cache.getMissCount() == misses;
+    }
+
+    /**
+     * {@link RenderedPageCache} with its own {@link PageRenderDependencies}
+     * and a clock controlled by the tests.
+     */
+    private static class TestRenderedPageCache extends RenderedPageCache {
+
+        private final PageRenderDependencies dependencies
+            = new PageRenderDependencies();
+
+        private long now = 1000000L;
+
+        @Override
+        PageRenderDependencies getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+
+        public void advance(final long millis) {
+            now += millis;
+        }
+
+    }
+
+}
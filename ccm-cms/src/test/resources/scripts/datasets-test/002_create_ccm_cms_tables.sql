@@ -1068,12 +1068,14 @@
     create table CCM_CORE.CATEGORIES (
        ABSTRACT_CATEGORY boolean,
         CATEGORY_ORDER bigint,
+        CATEGORY_PATH varchar(2048),
         ENABLED boolean,
         NAME varchar(255) not null,
         UNIQUE_ID varchar(255),
         VISIBLE boolean,
         OBJECT_ID bigint not null,
         PARENT_CATEGORY_ID bigint,
+        ROOT_CATEGORY_ID bigint,
         primary key (OBJECT_ID)
     );
 
@@ -1730,6 +1732,21 @@
         primary key (PARTY_ID)
     );
 
+    create table CCM_CORE.VERSION_STAMPS (
+        NAME varchar(255) not null,
+        STAMP bigint not null,
+        primary key (NAME)
+    );
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('configuration', 0);
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('themes', 0);
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('applications', 0);
+
     create table CCM_CORE.WORKFLOW_ASSIGNABLE_TASKS (
        DUE_DATE timestamp,
         DURATION_MINUTES bigint,
@@ -2821,6 +2838,14 @@ create sequence hibernate_sequence start with 1 increment by 1;
        foreign key (PARENT_CATEGORY_ID) 
        references CCM_CORE.CATEGORIES;
 
+    alter table CCM_CORE.CATEGORIES 
+       add constraint FK_CATEGORIES_ROOT_CATEGORY_ID 
+       foreign key (ROOT_CATEGORY_ID) 
+       references CCM_CORE.CATEGORIES;
+
+    create index CATEGORIES_PATH_IDX 
+       on CCM_CORE.CATEGORIES (ROOT_CATEGORY_ID, CATEGORY_PATH);
+
     alter table CCM_CORE.CATEGORIES 
        add constraint FKpm291swli2musd0204phta652 
        foreign key (OBJECT_ID) 
@@ -81,6 +81,11 @@ public class Templating {
     private static final TemplatingConfig s_config = TemplatingConfig
         .getConfig();
 
+    /**
+     * Cache for the compiled templates.
+     */
+    private static final XSLTemplateCache<XSLTemplate> s_templates;
+
     static {
         LOGGER.debug("Static initalizer starting...");
 
@@ -96,7 +101,6 @@ public class Templating {
 
         });
 
-        // now we initiate the CacheTable here
         // default cache size used to be 50, which is too high I reckon,
         // each template can eat up to 4 megs
         Integer setting = s_config.getStylesheetCacheSize();
@@ -105,6 +109,10 @@ public class Templating {
         setting = s_config.getStylesheetCacheAge();
         int cacheAge = (setting == null ? 60 * 60 * 24 * 3 : setting.intValue());
 
+        s_templates = new XSLTemplateCache<>(cacheSize,
+                                             cacheAge,
+                                             XSLTemplate::isModified);
+
         LOGGER.debug("Static initalizer finished...");
     }
 
@@ -158,7 +166,7 @@ public class Templating {
      * @return an <code>XSLTemplate</code> instance representing
      *         <code>source</code>
      */
-    public static synchronized XSLTemplate getTemplate(final URL source) {
+    public static XSLTemplate getTemplate(final URL source) {
         return getTemplate(source, false, true);
     }
 
@@ -180,9 +188,9 @@ public class Templating {
      * @return an <code>XSLTemplate</code> instance representing
      *         <code>source</code>
      */
-    public static synchronized XSLTemplate getTemplate(final URL source,
-                                                       boolean fancyErrors,
-                                                       boolean useCache) {
+    public static XSLTemplate getTemplate(final URL source,
+                                          final boolean fancyErrors,
+                                          final boolean useCache) {
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Getting template for URL " + source);
@@ -190,45 +198,46 @@ public class Templating {
 
         Assert.exists(source, URL.class);
 
-        XSLTemplate template = null;
-
-        if (template == null) {
-            if (LOGGER.isInfoEnabled()) {
-                LOGGER.info("The template for URL " + source + " is not "
-                                + "cached; creating and caching it now");
-            }
-
-            if (fancyErrors) {
-                LoggingErrorListener listener = new LoggingErrorListener();
-                Web.getRequest().setAttribute(FANCY_ERROR_COLLECTION,
-                                              listener.getErrors());
-                template = new XSLTemplate(source, listener);
-            } else {
-                template = new XSLTemplate(source);
-            }
-
-        } else if (KernelConfig.getConfig().isDebugEnabled()
-                       && template.isModified()) {
-            // XXX referencing Kernel above is a broken dependency.
-            // Debug mode should be captured at a lower level,
-            // probably on UtilConfig.
-
-            if (LOGGER.isInfoEnabled()) {
-                LOGGER.info("Template " + template + " has been modified; "
-                                + "recreating it from scratch");
-            }
+        if (!useCache) {
+            return compileTemplate(source, fancyErrors);
+        }
 
-            if (fancyErrors) {
-                LoggingErrorListener listener = new LoggingErrorListener();
-                Web.getRequest().setAttribute(FANCY_ERROR_COLLECTION,
-                                              listener.getErrors());
-                template = new XSLTemplate(source, listener);
-            } else {
-                template = new XSLTemplate(source);
-            }
+        // XXX referencing Kernel here is a broken dependency.
+        // Debug mode should be captured at a lower level,
+        // probably on UtilConfig.
+        final XSLTemplateCache.CachedTemplate<XSLTemplate> cached = s_templates
+            .getTemplate(source,
+                         KernelConfig.getConfig().isDebugEnabled(),
+                         XSLTemplate::new);
+        if (fancyErrors) {
+            // The errors are also provided if the template was compiled by
+            // an earlier request.
+            Web.getRequest().setAttribute(FANCY_ERROR_COLLECTION,
+                                          cached.getErrors());
         }
+        return cached.getTemplate();
+    }
 
-        return template;
+    /**
+     * Compiles a template.
+     *
+     * @param source      the <code>URL</code> to the top-level template
+     *                    resource
+     * @param fancyErrors Should this place any xsl errors in the request for
+     *                    use by another class.
+     *
+     * @return The compiled template.
+     */
+    private static XSLTemplate compileTemplate(final URL source,
+                                               final boolean fancyErrors) {
+        if (fancyErrors) {
+            final LoggingErrorListener listener = new LoggingErrorListener();
+            Web.getRequest().setAttribute(FANCY_ERROR_COLLECTION,
+                                          listener.getErrors());
+            return new XSLTemplate(source, listener);
+        } else {
+            return new XSLTemplate(source);
+        }
     }
 
     /**
@@ -274,22 +283,47 @@ public class Templating {
      *
      * @param source the <code>URL</code> to the top-level template resource
      */
-    public static synchronized void purgeTemplate(final URL source) {
+    public static void purgeTemplate(final URL source) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Purging cached template for URL " + source);
         }
 
         Assert.exists(source, URL.class);
+        s_templates.remove(source);
     }
 
     /**
      * Removes all cached template objects. All template objects will be
      * regenerated on-demand as each gets requested.
      */
-    public static synchronized void purgeTemplates() {
+    public static void purgeTemplates() {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Purging all cached templates");
         }
+        s_templates.clear();
+    }
+
+    /**
+     * @return The number of templates currently in the cache.
+     */
+    public static int getCachedTemplatesCount() {
+        return s_templates.getSize();
+    }
+
+    /**
+     * @return The number of requests for a template which were served from the
+     *         cache.
+     */
+    public static long getTemplateCacheHits() {
+        return s_templates.getHitCount();
+    }
+
+    /**
+     * @return The number of requests for a template which required the
+     *         compilation of the template.
+     */
+    public static long getTemplateCacheMisses() {
+        return s_templates.getMissCount();
     }
 
     /**
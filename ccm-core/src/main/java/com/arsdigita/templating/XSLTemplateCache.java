@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package com.arsdigita.templating;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import javax.xml.transform.ErrorListener;
+
+/**
+ * Cache for compiled {@link XSLTemplate}s used by {@link Templating}. The
+ * number of cached templates is limited by
+ * {@link TemplatingConfig#getStylesheetCacheSize()}. If the limit is exceeded
+ * the least recently used template is removed. Templates older than
+ * {@link TemplatingConfig#getStylesheetCacheAge()} seconds are compiled again.
+ *
+ * The templates are kept in a {@link GenerationCache}. Lookups do not lock and
+ * a stylesheet is compiled by the requesting thread without holding a lock. A
+ * stylesheet which is requested by several threads at the same time is only
+ * compiled once, the other threads wait for the result.
+ *
+ * The errors reported while compiling a stylesheet are kept together with the
+ * template, therefore they are also available if the template is served from
+ * the cache.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ *
+ * @param <T> The type of the templates, {@link XSLTemplate} except in the unit
+ *            tests.
+ */
+class XSLTemplateCache<T> {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        XSLTemplateCache.class
+    );
+
+    /**
+     * The templates are keyed by the external form of their URL because
+     * {@link URL#equals(java.lang.Object)} may resolve host names.
+     */
+    private final GenerationCache<String, CachedTemplate<T>> templates
+        = new GenerationCache<>();
+
+    private final Predicate<? super T> modified;
+
+    private final int maxSize;
+
+    private final long maxAge;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize The maximum number of templates in the cache.
+     * @param maxAge   The maximum age of a template in the cache in seconds.
+     * @param modified Checks if one of the files of a template was modified,
+     *                 usually {@link XSLTemplate#isModified()}.
+     */
+    XSLTemplateCache(final int maxSize,
+                     final int maxAge,
+                     final Predicate<? super T> modified) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxAge = TimeUnit.SECONDS.toMillis(maxAge);
+        this.modified = modified;
+    }
+
+    /**
+     * Retrieves the template for a stylesheet. If the cache has no valid
+     * entry for the stylesheet it is compiled using the provided
+     * {@code compiler}.
+     *
+     * @param source        The URL of the stylesheet.
+     * @param checkModified If {@code true} the stylesheet is compiled again if
+     *                      one of its files was modified.
+     * @param compiler      Compiles the stylesheet. The errors reported while
+     *                      compiling the stylesheet must be passed to the
+     *                      provided {@link ErrorListener}.
+     *
+     * @return The template for the stylesheet together with the errors
+     *         reported while compiling it.
+     */
+    CachedTemplate<T> getTemplate(
+        final URL source,
+        final boolean checkModified,
+        final BiFunction<URL, ErrorListener, ? extends T> compiler) {
+
+        final String key = source.toExternalForm();
+
+        final CachedTemplate<T> cached = templates.getIfPresent(key);
+        if (cached != null) {
+            if (currentTimeMillis() - cached.getCreated() > maxAge) {
+                LOGGER.debug("Template for URL {} has expired.", key);
+                templates.remove(key, cached);
+            } else if (checkModified
+                           && modified.test(cached.getTemplate())) {
+                LOGGER.info("Template {} has been modified; recreating it "
+                                + "from scratch", key);
+                templates.remove(key, cached);
+            }
+        }
+
+        final CachedTemplate<T> result = templates.get(
+            key, current -> compile(source, compiler)
+        );
+        result.setLastAccess(currentTimeMillis());
+        evict();
+
+        return result;
+    }
+
+    /**
+     * Removes the template for a stylesheet.
+     *
+     * @param source The URL of the stylesheet.
+     */
+    void remove(final URL source) {
+        templates.invalidate(source.toExternalForm());
+    }
+
+    /**
+     * Removes all templates.
+     */
+    void clear() {
+        templates.invalidateAll();
+    }
+
+    int getSize() {
+        return templates.getSize();
+    }
+
+    long getHitCount() {
+        return templates.getHitCount();
+    }
+
+    long getMissCount() {
+        return templates.getMissCount();
+    }
+
+    /**
+     * The current time in milliseconds. Overwritten by the unit tests.
+     *
+     * @return The current time in milliseconds.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private CachedTemplate<T> compile(
+        final URL source,
+        final BiFunction<URL, ErrorListener, ? extends T> compiler) {
+
+        LOGGER.info("The template for URL {} is not cached; "
+                        + "creating and caching it now",
+                    source);
+        final LoggingErrorListener listener = new LoggingErrorListener();
+        final T template = compiler.apply(source, listener);
+        return new CachedTemplate<>(template,
+                                  listener.getErrors(),
+                                  currentTimeMillis());
+    }
+
+    /**
+     * Removes the least recently used templates until the size of the cache
+     * is within the limit. The cache is small, therefore a linear search for
+     * the eldest entry is sufficient.
+     */
+    private void evict() {
+        while (templates.getSize() > maxSize) {
+            Map.Entry<String, CachedTemplate<T>> eldest = null;
+            for (final Map.Entry<String, CachedTemplate<T>> entry : templates
+                .getValues()
+                .entrySet()) {
+                if (eldest == null
+                        || entry.getValue().getLastAccess()
+                               < eldest.getValue().getLastAccess()) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                // Only templates which are currently compiled.
+                return;
+            }
+            LOGGER.debug("Evicting template for URL {}.", eldest.getKey());
+            templates.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * A compiled template and the errors reported while compiling it.
+     *
+     * @param <T> The type of the template.
+     */
+    static final class CachedTemplate<T> {
+
+        private final T template;
+
+        private final Collection<?> errors;
+
+        private final long created;
+
+        private volatile long lastAccess;
+
+        private CachedTemplate(final T template,
+                               final Collection<?> errors,
+                               final long created) {
+            this.template = template;
+            this.errors = Collections.unmodifiableCollection(errors);
+            this.created = created;
+            this.lastAccess = created;
+        }
+
+        public T getTemplate() {
+            return template;
+        }
+
+        /**
+         * @return The errors reported while compiling the template.
+         */
+        public Collection<?> getErrors() {
+            return errors;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getLastAccess() {
+            return lastAccess;
+        }
+
+        public void setLastAccess(final long lastAccess) {
+            this.lastAccess = lastAccess;
+        }
+
+    }
+
+}
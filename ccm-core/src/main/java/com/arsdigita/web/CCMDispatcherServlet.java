@@ -25,12 +25,14 @@ import com.arsdigita.util.Assert;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.libreccm.web.CcmApplication;
 import org.libreccm.web.ApplicationRepository;
+import org.libreccm.web.ApplicationRoute;
+import org.libreccm.web.ApplicationRoutingTable;
 import org.libreccm.web.ServletPath;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.servlet.RequestDispatcher;
@@ -110,6 +112,9 @@ public class CCMDispatcherServlet extends BaseServlet {
     @Inject
     private ApplicationManager appManager;
 
+    @Inject
+    private ApplicationRoutingTable routingTable;
+
     @Inject
     private Subject subject;
 
@@ -310,43 +315,20 @@ public class CCMDispatcherServlet extends BaseServlet {
                          path);
         }
 
-        final String pathTokens[];
-        if (path.startsWith("/")) {
-            pathTokens = path.substring(1).split("/");
-        } else {
-            pathTokens = path.split("/");
-        }
-        CcmApplication application = null;
-        for (int i = pathTokens.length; i > 0; i--) {
-            final String currentPath = generatePath(i, pathTokens);
-            LOGGER.debug("Trying path '{}'...", currentPath);
-            application = appManager.findApplicationByPath(currentPath);
-
-            if (application != null) {
-                LOGGER.debug("Found application for path '{}'.", currentPath);
-                break;
-            }
-        }
+        // The routing table returns the application with the longest
+        // primary URL matching the path without querying the database
+        // (except for the version stamp of the applications).
+        routingTable.synchronize();
+        final Optional<ApplicationRoute> route = routingTable.findRoute(path);
 
-//        final CcmApplication application = appManager
-//            .findApplicationByPath(path);
-        if (application == null) {
+        if (route.isPresent()) {
+            LOGGER.debug("Found application for path '{}'.",
+                         route.get().getPrimaryUrl());
+            return new ApplicationSpec(route.get(), appManager);
+        } else {
             LOGGER.warn("No application found for path \"{}\".", path);
             return null;
-        } else {
-            return new ApplicationSpec(application, appManager);
-        }
-    }
-
-    private String generatePath(final int index, final String[] pathTokens) {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append('/');
-        for (int i = 0; i < index; i++) {
-            buffer.append(pathTokens[i]);
-            buffer.append('/');
         }
-
-        return buffer.toString();
     }
 
     public static String getContextPath() {
@@ -374,21 +356,23 @@ public class CCMDispatcherServlet extends BaseServlet {
 
         /**
          *
-         * @param app
+         * @param route
          */
-        ApplicationSpec(final CcmApplication app,
+        ApplicationSpec(final ApplicationRoute route,
                         final ApplicationManager appManager) {
             this.appManager = appManager;
 
-            if (app == null) {
-                throw new NullPointerException("app");
+            if (route == null) {
+                throw new NullPointerException("route");
             }
 
-            m_id = app.getObjectId();
-            m_instanceURI = app.getPrimaryUrl();
-            if (app.getClass().isAnnotationPresent(ServletPath.class)) {
-                m_typeURI = app
-                        .getClass()
+            m_id = route.getApplicationId();
+            m_instanceURI = route.getPrimaryUrl();
+            if (route
+                .getApplicationClass()
+                .isAnnotationPresent(ServletPath.class)) {
+                m_typeURI = route
+                        .getApplicationClass()
                         .getAnnotation(ServletPath.class)
                         .value();
             } else {
@@ -419,7 +403,7 @@ public class CCMDispatcherServlet extends BaseServlet {
 //                }
 
                 final ApplicationType appType = appManager.getApplicationTypes()
-                        .get(app.getApplicationType());
+                        .get(route.getApplicationType());
                 final Class<? extends HttpServlet> appServletClass = appType
                         .servlet();
                 final WebServlet servletAnnotation = appServletClass
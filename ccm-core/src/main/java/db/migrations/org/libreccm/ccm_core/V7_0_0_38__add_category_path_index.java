@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package db.migrations.org.libreccm.ccm_core;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the path index of the categories ({@code ROOT_CATEGORY_ID} and
+ * {@code CATEGORY_PATH}) and fills it for the existing categories. The paths
+ * are created by traversing the category trees, starting at the categories
+ * without a parent category.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class V7_0_0_38__add_category_path_index extends BaseJavaMigration {
+
+    /**
+     * The maximum length of the {@code CATEGORY_PATH} column. Categories with
+     * a longer path are not indexed.
+     */
+    private static final int MAX_PATH_LENGTH = 2048;
+
+    @Override
+    public void migrate(final Context context) throws Exception {
+
+        final Connection connection = context.getConnection();
+
+        final PreparedStatement addRootCol = connection
+            .prepareStatement("alter table CCM_CORE.CATEGORIES "
+                                  + "add column ROOT_CATEGORY_ID bigint");
+
+        final PreparedStatement addPathCol = connection
+            .prepareStatement("alter table CCM_CORE.CATEGORIES "
+                                  + "add column CATEGORY_PATH varchar(2048)");
+
+        final PreparedStatement addRootForeignKey = connection
+            .prepareStatement(
+                "alter table CCM_CORE.CATEGORIES "
+                    + "add constraint FK_CATEGORIES_ROOT_CATEGORY_ID "
+                    + "foreign key (ROOT_CATEGORY_ID) "
+                    + "references CCM_CORE.CATEGORIES");
+
+        final PreparedStatement createPathIndex = connection
+            .prepareStatement(
+                "create index CATEGORIES_PATH_IDX "
+                    + "on CCM_CORE.CATEGORIES"
+                    + "(ROOT_CATEGORY_ID, CATEGORY_PATH)");
+
+        final PreparedStatement retrieveCategories = connection
+            .prepareStatement("select OBJECT_ID, PARENT_CATEGORY_ID, NAME "
+                                  + "from CCM_CORE.CATEGORIES");
+
+        final PreparedStatement setPath = connection
+            .prepareStatement("update CCM_CORE.CATEGORIES "
+                                  + "set ROOT_CATEGORY_ID = ?, "
+                                  + "CATEGORY_PATH = ? "
+                                  + "where OBJECT_ID = ?");
+
+        addRootCol.execute();
+        addPathCol.execute();
+        addRootForeignKey.execute();
+        createPathIndex.execute();
+
+        final List<Long> roots = new ArrayList<>();
+        final Map<Long, List<Long>> subCategories = new HashMap<>();
+        final Map<Long, String> names = new HashMap<>();
+        final ResultSet categories = retrieveCategories.executeQuery();
+        while (categories.next()) {
+            final long categoryId = categories.getLong("OBJECT_ID");
+            final long parentId = categories.getLong("PARENT_CATEGORY_ID");
+            if (categories.wasNull()) {
+                roots.add(categoryId);
+            } else {
+                subCategories
+                    .computeIfAbsent(parentId, id -> new ArrayList<>())
+                    .add(categoryId);
+            }
+            names.put(categoryId, categories.getString("NAME"));
+        }
+        categories.close();
+
+        for (final long rootId : roots) {
+            final Deque<Long> categoryIds = new ArrayDeque<>();
+            final Deque<String> paths = new ArrayDeque<>();
+            categoryIds.push(rootId);
+            paths.push("/");
+
+            while (!categoryIds.isEmpty()) {
+                final long categoryId = categoryIds.pop();
+                final String path = paths.pop();
+
+                setPath.setLong(1, rootId);
+                setPath.setString(2, path);
+                setPath.setLong(3, categoryId);
+                setPath.addBatch();
+
+                for (final long subCategoryId : subCategories
+                    .getOrDefault(categoryId, new ArrayList<>())) {
+
+                    final String subCategoryPath;
+                    if ("/".equals(path)) {
+                        subCategoryPath = String.format(
+                            "/%s", names.get(subCategoryId)
+                        );
+                    } else {
+                        subCategoryPath = String.format(
+                            "%s/%s", path, names.get(subCategoryId)
+                        );
+                    }
+                    if (subCategoryPath.length() <= MAX_PATH_LENGTH) {
+                        categoryIds.push(subCategoryId);
+                        paths.push(subCategoryPath);
+                    }
+                }
+            }
+        }
+
+        setPath.executeBatch();
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package db.migrations.org.libreccm.ccm_core.h2;
+
+import db.migrations.org.libreccm.ccm_core.V7_0_0_38__add_category_path_index;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class V7_0_0_38__add_category_path_index_h2
+    extends V7_0_0_38__add_category_path_index {
+
+    @Override
+    public void migrate(final Context context) throws Exception {
+        super.migrate(context);
+    }
+
+}
@@ -28,6 +28,7 @@ import org.libreccm.core.AbstractEntityRepository;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
@@ -164,6 +165,37 @@ public abstract class AbstractAuditedEntityRepository<K, T>
         return auditReader.findRevision(CcmRevision.class, lastRevision);
     }
 
+    /**
+     * Retrieves the current revision of an entity without loading the entity
+     * or its audited states. Only the number of the newest revision and the
+     * revision itself are queried.
+     *
+     * @param entityClass The class of the entity.
+     * @param objectId    The primary key of the entity.
+     *
+     * @return An {@link Optional} with the most current revision of the
+     *         entity or an empty {@link Optional} if the entity has no
+     *         revisions.
+     */
+    public Optional<CcmRevision> findCurrentRevision(
+        final Class<? extends T> entityClass, final Long objectId) {
+
+        final AuditReader auditReader = AuditReaderFactory.get(entityManager);
+        final Number lastRevision = (Number) auditReader
+            .createQuery()
+            .forRevisionsOfEntity(entityClass, false, true)
+            .addProjection(AuditEntity.revisionNumber().max())
+            .add(AuditEntity.id().eq(objectId))
+            .getSingleResult();
+
+        if (lastRevision == null) {
+            return Optional.empty();
+        } else {
+            return Optional.of(auditReader.findRevision(CcmRevision.class,
+                                                        lastRevision));
+        }
+    }
+
     /**
      * Retrieves a specific revision object.
      *
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A thread safe cache for values which are expensive to create and which
+ * become invalid if the data they were created from changes.
+ *
+ * A missing value is loaded only once. If several threads request a missing
+ * value at the same time, the first thread loads the value and the other
+ * threads wait for the result. The loader is executed by the requesting thread
+ * without holding a lock, therefore a slow loader only delays requests for the
+ * same key.
+ *
+ * The cache has a generation which is incremented by every invalidation.
+ * The entry for a value is put into the cache before the value is loaded and
+ * records the generation at this time. If the generation has changed when the
+ * value has been loaded, the data used by the loader may have changed. The
+ * value is passed to the waiting requests, but is not kept in the cache. An
+ * invalidation increments the generation before it removes the entries.
+ * Therefore a value loaded from outdated data is always removed, either by the
+ * invalidation or by the loader itself.
+ *
+ * Caches of data shared by the nodes of a cluster can use a version stamp
+ * (see {@link org.libreccm.jpa.VersionStamps}) to detect changes done by other
+ * nodes. {@link #synchronize(long)} removes all values if the stamp has changed
+ * since the last call.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class GenerationCache<K, V> {
+
+    private final ConcurrentMap<K, Entry<V>> entries
+        = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The value of the version stamp passed to the last call of
+     * {@link #synchronize(long)}. {@code -1} if the method has not been
+     * called yet.
+     */
+    private volatile long stamp = -1;
+
+    private final Consumer<? super V> removalListener;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadTime = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     */
+    public GenerationCache() {
+        this(value -> {
+        });
+    }
+
+    /**
+     * Creates a new cache which notifies the provided listener about every
+     * value removed from the cache by an invalidation or by
+     * {@link #remove(java.lang.Object, java.lang.Object)}. The listener is not
+     * invoked for values which are not kept in the cache because they were
+     * loaded while an invalidation took place. These values are owned by the
+     * requests which loaded them.
+     *
+     * @param removalListener Listener invoked for removed values, for example
+     *                        for releasing resources held by the value.
+     */
+    public GenerationCache(final Consumer<? super V> removalListener) {
+        this.removalListener = Objects.requireNonNull(removalListener);
+    }
+
+    /**
+     * Retrieves a value from the cache. If the cache has no value for the key
+     * the value is loaded using the provided {@code loader}. If the loader
+     * returns {@code null} or throws an exception nothing is stored in the
+     * cache.
+     *
+     * @param key    The key.
+     * @param loader Loads the value if the cache has no value for the key.
+     *
+     * @return The value for the key, or {@code null} if the loader did not
+     *         find a value.
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+
+        final Entry<V> existing = entries.get(key);
+        if (existing != null) {
+            return await(key, existing);
+        }
+
+        final Entry<V> created = new Entry<>(generation.get());
+        final Entry<V> concurrent = entries.putIfAbsent(key, created);
+        if (concurrent != null) {
+            return await(key, concurrent);
+        }
+
+        return load(key, created, loader);
+    }
+
+    /**
+     * Retrieves a value from the cache without loading it.
+     *
+     * @param key The key.
+     *
+     * @return The value for the key, or {@code null} if the cache has no
+     *         value for the key or if the value is still being loaded.
+     */
+    public V getIfPresent(final K key) {
+        final Entry<V> entry = entries.get(Objects.requireNonNull(key));
+        if (entry == null) {
+            return null;
+        } else {
+            return entry.getLoadedValue();
+        }
+    }
+
+    /**
+     * Retrieves a copy of all values in the cache. Values which are still
+     * being loaded are not included.
+     *
+     * @return A map with all loaded values.
+     */
+    public Map<K, V> getValues() {
+        final Map<K, V> values = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            final V value = entry.getLoadedValue();
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Removes the value for a key if it is still the provided value. Unlike
+     * the {@code invalidate} methods this does not affect values which are
+     * currently loaded. Used for values which are no longer valid for reasons
+     * other than changed data, for instance because they have expired.
+     *
+     * @param key   The key.
+     * @param value The value to remove.
+     *
+     * @return {@code true} if the value was removed, {@code false} if the
+     *         cache has another or no value for the key.
+     */
+    public boolean remove(final K key, final V value) {
+        final Entry<V> entry = entries.get(Objects.requireNonNull(key));
+        final V current;
+        if (entry == null) {
+            current = null;
+        } else {
+            current = entry.getLoadedValue();
+        }
+        if (current != null
+                && current.equals(value)
+                && entries.remove(key, entry)) {
+            removalListener.accept(current);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the value for a key. A value for the key which is currently
+     * loaded is not kept in the cache.
+     *
+     * @param key The key.
+     */
+    public void invalidate(final K key) {
+        Objects.requireNonNull(key);
+        generation.incrementAndGet();
+        final Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            notifyRemoved(removed);
+        }
+    }
+
+    /**
+     * Removes all values matching the provided predicate. None of the values
+     * which are currently loaded are kept in the cache.
+     *
+     * @param predicate The predicate deciding if an entry is removed.
+     */
+    public void invalidateIf(
+        final BiPredicate<? super K, ? super V> predicate
+    ) {
+        Objects.requireNonNull(predicate);
+        generation.incrementAndGet();
+        entries.forEach((key, entry) -> {
+            final V value = entry.getLoadedValue();
+            if (value != null
+                    && predicate.test(key, value)
+                    && entries.remove(key, entry)) {
+                removalListener.accept(value);
+            }
+        });
+    }
+
+    /**
+     * Removes all values from the cache.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.forEach((key, entry) -> {
+            if (entries.remove(key, entry)) {
+                notifyRemoved(entry);
+            }
+        });
+    }
+
+    /**
+     * Compares the provided value of a version stamp with the value passed to
+     * the last call of this method. If the values differ all values are
+     * removed from the cache.
+     *
+     * @param currentStamp The current value of the version stamp.
+     *
+     * @return {@code true} if the stamp has changed and the cache was
+     *         cleared, {@code false} otherwise.
+     */
+    public boolean synchronize(final long currentStamp) {
+        if (currentStamp == stamp) {
+            return false;
+        }
+        invalidateAll();
+        stamp = currentStamp;
+        return true;
+    }
+
+    /**
+     * @return The value of the version stamp passed to the last call of
+     *         {@link #synchronize(long)}, {@code -1} if the method has not been
+     *         called yet.
+     */
+    public long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * @return The number of entries in the cache, including values which are
+     *         currently loaded.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of requests served without loading the value.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of requests which loaded the value.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The total time spent loading values in milliseconds.
+     */
+    public long getTotalLoadTime() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTime.sum());
+    }
+
+    private V load(final K key,
+                   final Entry<V> entry,
+                   final Function<? super K, ? extends V> loader) {
+
+        misses.increment();
+        final long start = System.nanoTime();
+        final V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error ex) {
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loadTime.add(System.nanoTime() - start);
+        }
+
+        if (value == null) {
+            entries.remove(key, entry);
+            entry.future.complete(null);
+            return null;
+        }
+
+        entry.future.complete(value);
+        if (entry.generation != generation.get()) {
+            // The data may have changed while the value was loaded. The value
+            // is only used by the current requests.
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    private V await(final K key, final Entry<V> entry) {
+        if (!entry.future.isDone()
+                && entry.loaderThreadId == Thread.currentThread().getId()) {
+            throw new IllegalStateException(String.format(
+                "Recursive load of the value for key %s.", key
+            ));
+        }
+
+        hits.increment();
+        try {
+            return entry.future.join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw ex;
+            }
+        }
+    }
+
+    private void notifyRemoved(final Entry<V> entry) {
+        final V value = entry.getLoadedValue();
+        if (value != null) {
+            removalListener.accept(value);
+        }
+    }
+
+    /**
+     * An entry of the cache. The entry is put into the cache before its value
+     * is loaded.
+     *
+     * @param <V> The type of the value.
+     */
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        /**
+         * The generation of the cache when the loading of the value started.
+         */
+        private final long generation;
+
+        private final long loaderThreadId;
+
+        private Entry(final long generation) {
+            this.generation = generation;
+            this.loaderThreadId = Thread.currentThread().getId();
+        }
+
+        /**
+         * @return The value of the entry, or {@code null} if the value is
+         *         still being loaded or the loader failed.
+         */
+        private V getLoadedValue() {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                return future.getNow(null);
+            } else {
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -98,7 +98,34 @@ import javax.persistence.Table;
                     + "ELSE false END) "
                     + "FROM Categorization c "
                     + "WHERE c.category = :category "
-                    + "AND c.indexObject = TRUE")
+                    + "AND c.indexObject = TRUE"),
+    @NamedQuery(
+        name = "Categorization.shiftObjectOrders",
+        query = "UPDATE Categorization c "
+                    + "SET c.objectOrder = c.objectOrder + :shift "
+                    + "WHERE c.category = :parent "
+                    + "AND c.categorizationId NOT IN :excluded "
+                    + "AND (c.objectOrder > :order "
+                    + "OR (c.objectOrder = :order "
+                    + "AND c.categorizationId >= :id))"),
+    @NamedQuery(
+        name = "Categorization.findObjectOrders",
+        query = "SELECT c.objectOrder, c.categorizationId "
+                    + "FROM Categorization c "
+                    + "WHERE c.category = :parent "
+                    + "AND c NOT IN :excluded "
+                    + "ORDER BY c.objectOrder, c.categorizationId"),
+    @NamedQuery(
+        name = "Categorization.countObjectsBefore",
+        query = "SELECT COUNT(c) FROM Categorization c "
+                    + "WHERE c.category = :parent "
+                    + "AND (c.objectOrder < :order "
+                    + "OR (c.objectOrder = :order "
+                    + "AND c.categorizationId < :id))"),
+    @NamedQuery(
+        name = "Categorization.findMaxObjectOrder",
+        query = "SELECT MAX(c.objectOrder) FROM Categorization c "
+                    + "WHERE c.category = :parent")
 })
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class,
                   property = "uuid")
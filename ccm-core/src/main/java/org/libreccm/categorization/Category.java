@@ -22,13 +22,18 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import org.libreccm.core.CcmObject;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.l10n.LocalizedString;
 import org.libreccm.security.RecursivePermissions;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -42,6 +47,7 @@ import static org.libreccm.core.CoreConstants.DB_SCHEMA;
 import org.libreccm.imexport.Exportable;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -56,6 +62,7 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 
@@ -73,6 +80,7 @@ import javax.validation.constraints.NotBlank;
  * @apiviz.composedOf org.libreccm.categorization.Categorization
  */
 @Entity
+@Cacheable
 @Table(name = "CATEGORIES", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(
@@ -85,7 +93,12 @@ import javax.validation.constraints.NotBlank;
     ,
     @NamedQuery(
         name = "Category.findByUuid",
-        query = "SELECT c FROM Category c WHERE c.uuid = :uuid")
+        query = "SELECT c FROM Category c WHERE c.uuid = :uuid",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        })
     ,
     @NamedQuery(
         name = "Category.findParentCategory",
@@ -128,13 +141,57 @@ import javax.validation.constraints.NotBlank;
     @NamedQuery(
         name = "Category.findByNameAndParent",
         query = "SELECT c FROM Category c "
-                    + "WHERE c.name = :name AND c.parentCategory = :parent")
+                    + "WHERE c.name = :name AND c.parentCategory = :parent",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        })
+    ,
+    @NamedQuery(
+        name = "Category.findByRootAndPath",
+        query = "SELECT c FROM Category c "
+                    + "WHERE c.rootCategory = :root "
+                    + "AND c.categoryPath = :path",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        })
     ,
     @NamedQuery(
         name = "Category.hasSubCategoryWithName",
         query = "SELECT (CASE WHEN COUNT(c) > 0 THEN true ELSE False END) "
                     + "FROM Category c "
                     + "WHERE c.name = :name AND c.parentCategory = :parent"
+    ),
+    @NamedQuery(
+        name = "Category.shiftSubCategoryOrders",
+        query = "UPDATE Category c "
+                    + "SET c.categoryOrder = c.categoryOrder + :shift "
+                    + "WHERE c.parentCategory = :parent "
+                    + "AND c.objectId NOT IN :excluded "
+                    + "AND (c.categoryOrder > :order "
+                    + "OR (c.categoryOrder = :order AND c.objectId >= :id))"
+    ),
+    @NamedQuery(
+        name = "Category.findSubCategoryOrders",
+        query = "SELECT c.categoryOrder, c.objectId FROM Category c "
+                    + "WHERE c.parentCategory = :parent "
+                    + "AND c NOT IN :excluded "
+                    + "ORDER BY c.categoryOrder, c.objectId"
+    ),
+    @NamedQuery(
+        name = "Category.countSubCategoriesBefore",
+        query = "SELECT COUNT(c) FROM Category c "
+                    + "WHERE c.parentCategory = :parent "
+                    + "AND (c.categoryOrder < :order "
+                    + "OR (c.categoryOrder = :order AND c.objectId < :id))"
+    ),
+    @NamedQuery(
+        name = "Category.findMaxSubCategoryOrder",
+        query = "SELECT MAX(c.categoryOrder) FROM Category c "
+                    + "WHERE c.parentCategory = :parent"
     )
 })
 @NamedEntityGraphs({
@@ -239,6 +296,8 @@ public class Category extends CcmObject implements Serializable, Exportable {
     @RecursivePermissions
     @OneToMany(mappedBy = "parentCategory", fetch = FetchType.LAZY)
     @OrderBy("categoryOrder ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+           region = CacheRegions.CATEGORIZATION)
     @XmlElementWrapper(name = "subcategories", namespace = CAT_XML_NS)
     @XmlElement(name = "category")
     @JsonIgnore
@@ -260,6 +319,28 @@ public class Category extends CcmObject implements Serializable, Exportable {
     @XmlElement(name = "order", namespace = CAT_XML_NS)
     private long categoryOrder;
 
+    /**
+     * The root category of the category tree the category belongs to. Part of
+     * the path index used by {@link CategoryRepository#findByPath(Domain, String)}.
+     * Maintained by {@link CategoryRepository#save(Category)}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ROOT_CATEGORY_ID")
+    @XmlTransient
+    @JsonIgnore
+    private Category rootCategory;
+
+    /**
+     * The path of the category relative to {@link #rootCategory}, in the format
+     * used by {@link CategoryManager#getCategoryPath(Category)}. Part of the
+     * path index used by {@link CategoryRepository#findByPath(Domain, String)}.
+     * Maintained by {@link CategoryRepository#save(Category)}.
+     */
+    @Column(name = "CATEGORY_PATH", length = 2048)
+    @XmlTransient
+    @JsonIgnore
+    private String categoryPath;
+
     public Category() {
         super();
         title = new LocalizedString();
@@ -397,6 +478,22 @@ public class Category extends CcmObject implements Serializable, Exportable {
         this.categoryOrder = categoryOrder;
     }
 
+    public Category getRootCategory() {
+        return rootCategory;
+    }
+
+    protected void setRootCategory(final Category rootCategory) {
+        this.rootCategory = rootCategory;
+    }
+
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+
+    protected void setCategoryPath(final String categoryPath) {
+        this.categoryPath = categoryPath;
+    }
+
     @Override
     public int hashCode() {
         int hash = super.hashCode();
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.categorization;
+
+/**
+ * Event fired by the {@link CategoryManager} and the
+ * {@link CategoryRepository} if a category, its sub categories or the objects
+ * assigned to the category have been changed. Caches containing data derived
+ * from a category can observe this event to invalidate their entries.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class CategoryChangedEvent {
+
+    /**
+     * The ID of the changed category.
+     */
+    private final long categoryId;
+
+    public CategoryChangedEvent(final long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "categoryId = %d"
+                                 + " }",
+                             super.toString(),
+                             categoryId);
+    }
+
+}
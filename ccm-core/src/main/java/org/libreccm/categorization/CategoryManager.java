@@ -28,6 +28,7 @@ import org.libreccm.security.RequiresPrivilege;
 import org.libreccm.security.Shiro;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -45,6 +46,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
 /**
  * The {@code CategoryManager} provides several helper methods for managing
@@ -60,6 +65,40 @@ public class CategoryManager implements Serializable {
     private static final Logger LOGGER = LogManager.getLogger(
         CategoryManager.class);
 
+    /**
+     * The objects assigned to a category, ordered by
+     * {@link Categorization#objectOrder}.
+     */
+    private static final OrderedEntries<Categorization> OBJECTS
+                                                            = new OrderedEntries<>(
+            "Categorization.shiftObjectOrders",
+            "Categorization.findObjectOrders",
+            "Categorization.countObjectsBefore",
+            "Categorization.findMaxObjectOrder",
+            "objects",
+            Category::getObjects,
+            Categorization::getObjectOrder,
+            Categorization::setObjectOrder,
+            Categorization::getCategorizationId
+        );
+
+    /**
+     * The sub categories of a category, ordered by
+     * {@link Category#categoryOrder}.
+     */
+    private static final OrderedEntries<Category> SUB_CATEGORIES
+                                                      = new OrderedEntries<>(
+            "Category.shiftSubCategoryOrders",
+            "Category.findSubCategoryOrders",
+            "Category.countSubCategoriesBefore",
+            "Category.findMaxSubCategoryOrder",
+            "subCategories",
+            Category::getSubCategories,
+            Category::getCategoryOrder,
+            Category::setCategoryOrder,
+            Category::getObjectId
+        );
+
     @Inject
     private CcmObjectRepository ccmObjectRepo;
 
@@ -75,6 +114,9 @@ public class CategoryManager implements Serializable {
     @Inject
     private PermissionChecker permissionChecker;
 
+    @Inject
+    private Event<CategoryChangedEvent> categoryChangedEvent;
+
     /**
      * Assigns an category to an object.
      *
@@ -146,8 +188,7 @@ public class CategoryManager implements Serializable {
 
         final long categoryCount = countAssignedCategories(object);
         categorization.setCategoryOrder(categoryCount + 1);
-        final long objectCount = countObjects(assignedCategory);
-        categorization.setObjectOrder(objectCount + 1);
+        categorization.setObjectOrder(nextOrder(OBJECTS, assignedCategory));
         categorization.setType(type);
         categorization.setIndexObject(false);
 
@@ -161,6 +202,10 @@ public class CategoryManager implements Serializable {
         shiro.getSystemUser().execute(() -> {
             entityManager.persist(categorization);
         });
+
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(assignedCategory.getObjectId())
+        );
     }
 
     /**
@@ -389,6 +434,10 @@ public class CategoryManager implements Serializable {
 
         categorizations.forEach(entityManager::remove);
 
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(category.getObjectId())
+        );
+
 //        shiro.getSystemUser().execute(() -> {
 //            object.removeCategory(categorization);
 //            category.removeObject(categorization);
@@ -411,9 +460,10 @@ public class CategoryManager implements Serializable {
     }
 
     /**
-     * Increases the value of the {@code order} property of the provided object.
-     * The value of the {@code order} property of the object after the provided
-     * is decreased by one. Effectively the two objects are swapped.
+     * Moves the provided object one position down in the list of objects
+     * assigned to the category. Effectively the object and the object after it
+     * are swapped. Only the {@code order} property of the provided object is
+     * changed (see {@link #moveObjectsTo(java.util.List, org.libreccm.categorization.Category, int)}).
      *
      * @param object   The object which {@code order} property is decreased.
      *                 Can't be {@code null}.
@@ -440,54 +490,23 @@ public class CategoryManager implements Serializable {
             throw new IllegalArgumentException("The category can't be null");
         }
 
-        final Categorization categorization;
-        final Categorization nextCategorization;
-
-        Categorization current = null;
-        int index = 0;
-        final List<Categorization> objects = new ArrayList<>(category
-            .getObjects());
-        objects.sort((o1, o2) -> {
-            return Long.compare(o1.getObjectOrder(), o2.getObjectOrder());
-        });
-        while (index < objects.size()) {
-            current = objects.get(index);
-            if (current.getCategorizedObject().equals(object)) {
-                break;
-            }
-            index++;
-        }
-
-        categorization = current;
-        if ((index + 1) < objects.size()) {
-            nextCategorization = objects.get(index + 1);
-        } else {
+        final List<Categorization> categorizations = findCategorizations(
+            object, category
+        );
+        final int index = indexOf(OBJECTS, category, categorizations.get(0));
+        if (index + categorizations.size() >= countObjects(category)) {
             //No next object, returning silently.
             return;
         }
 
-        if (categorization == null) {
-            //Object is not part of the category.
-            throw new ObjectNotAssignedToCategoryException(String.format(
-                "The object %s is not assigned to the category %s (UUID: %s).",
-                object.getUuid(),
-                category.getName(),
-                category.getUuid()));
-        }
-
-        final long order = categorization.getObjectOrder();
-        final long nextOrder = nextCategorization.getObjectOrder();
-
-        categorization.setObjectOrder(nextOrder);
-        nextCategorization.setObjectOrder(order);
-
-        shiro.getSystemUser().execute(() -> categoryRepo.save(category));
+        moveEntries(OBJECTS, category, categorizations, index + 1);
     }
 
     /**
-     * Decreases the value of the {@code order} property of the provided object.
-     * The value of the {@code order} property of the object before the provided
-     * is increased by one. Effectively the two objects are swapped.
+     * Moves the provided object one position up in the list of objects
+     * assigned to the category. Effectively the object and the object before
+     * it are swapped. Only the {@code order} property of the provided object is
+     * changed (see {@link #moveObjectsTo(java.util.List, org.libreccm.categorization.Category, int)}).
      *
      * @param object   The object which {@code order} property is decreased.
      *                 Can't be {@code null}.
@@ -514,48 +533,16 @@ public class CategoryManager implements Serializable {
             throw new IllegalArgumentException("The category can't be null");
         }
 
-        final Categorization categorization;
-        final Categorization prevCategorization;
-
-        Categorization current = null;
-        int index = 0;
-        final List<Categorization> objects = new ArrayList<>(category
-            .getObjects());
-        objects.sort((o1, o2) -> {
-            return Long.compare(o1.getObjectOrder(), o2.getObjectOrder());
-        });
-        while (index < objects.size()) {
-            current = objects.get(index);
-            if (current.getCategorizedObject().equals(object)) {
-                break;
-            }
-            index++;
-        }
-
-        categorization = current;
-        if ((index - 1) >= 0) {
-            prevCategorization = objects.get(index - 1);
-        } else {
+        final List<Categorization> categorizations = findCategorizations(
+            object, category
+        );
+        final int index = indexOf(OBJECTS, category, categorizations.get(0));
+        if (index == 0) {
             //No previous object, returning silently.
             return;
         }
 
-        if (categorization == null) {
-            //Object is not part of the category.
-            throw new ObjectNotAssignedToCategoryException(String.format(
-                "The object %s is not assigned to the category %s (UUID: %s).",
-                object.getUuid(),
-                category.getName(),
-                category.getUuid()));
-        }
-
-        final long order = categorization.getObjectOrder();
-        final long prevOrder = prevCategorization.getObjectOrder();
-
-        categorization.setObjectOrder(prevOrder);
-        prevCategorization.setObjectOrder(order);
-
-        shiro.getSystemUser().execute(() -> categoryRepo.save(category));
+        moveEntries(OBJECTS, category, categorizations, index - 1);
     }
 
     /**
@@ -633,7 +620,7 @@ public class CategoryManager implements Serializable {
             removeSubCategoryFromCategory(sub.get(), oldParent);
         }
 
-        final int order = parent.get().getSubCategories().size() + 1;
+        final long order = nextOrder(SUB_CATEGORIES, parent.get());
         parent.get().addSubCategory(sub.get());
         sub.get().setParentCategory(parent.get());
         sub.get().setCategoryOrder(order);
@@ -701,15 +688,11 @@ public class CategoryManager implements Serializable {
                 parentCategory.toString()));
         }
 
+        // The order values are sparse, therefore the remaining sub
+        // categories don't have to be renumbered.
         parentCategory.removeSubCategory(subCategory);
         subCategory.setParentCategory(null);
 
-        final List<Category> subCategories = parentCategory.getSubCategories();
-        for (int i = 0; i < subCategories.size(); i++) {
-            subCategories.get(i).setCategoryOrder(i);
-            categoryRepo.save(subCategories.get(i));
-        }
-
         shiro.getSystemUser().execute(() -> {
             categoryRepo.save(parentCategory);
             categoryRepo.save(subCategory);
@@ -746,22 +729,9 @@ public class CategoryManager implements Serializable {
             throw new IllegalArgumentException("subCategory can't be null.");
         }
 
-        boolean found = false;
-        int index = 0;
-        final List<Category> subCategories = new ArrayList<>(parentCategory
-            .getSubCategories());
-        subCategories.sort((c1, c2) -> {
-            return Long.compare(c1.getCategoryOrder(), c2.getCategoryOrder());
-        });
-        while (index < subCategories.size()) {
-            if (subCategories.get(index).equals(subCategory)) {
-                found = true;
-                break;
-            }
-            index++;
-        }
-
-        if (!found) {
+        final Category parent = findManagedCategory(parentCategory);
+        final Category category = findManagedCategory(subCategory);
+        if (!parent.equals(category.getParentCategory())) {
             throw new IllegalArgumentException(String.format(
                 "The category %s (UUID: %s) is not a subcategory of the "
                     + "category %s (UUID: %s)",
@@ -771,24 +741,16 @@ public class CategoryManager implements Serializable {
                 parentCategory.getUuid()));
         }
 
-        final Category nextCategory;
-        if ((index + 1) < subCategories.size()) {
-            nextCategory = subCategories.get(index + 1);
-        } else {
+        final int index = indexOf(SUB_CATEGORIES, parent, category);
+        if (index + 1 >= countSubCategories(parent)) {
             //No next category, returning sliently.
             return;
         }
 
-        final long order = subCategory.getCategoryOrder();
-        final long nextOrder = nextCategory.getCategoryOrder();
-
-        subCategory.setCategoryOrder(nextOrder);
-        nextCategory.setCategoryOrder(order);
-
-        shiro.getSystemUser().execute(() -> {
-            categoryRepo.save(subCategory);
-            categoryRepo.save(nextCategory);
-        });
+        moveEntries(SUB_CATEGORIES,
+                    parent,
+                    Collections.singletonList(category),
+                    index + 1);
     }
 
     /**
@@ -821,22 +783,9 @@ public class CategoryManager implements Serializable {
             throw new IllegalArgumentException("subCategory can't be null.");
         }
 
-        boolean found = false;
-        int index = 0;
-        final List<Category> subCategories = new ArrayList<>(parentCategory
-            .getSubCategories());
-        subCategories.sort((c1, c2) -> {
-            return Long.compare(c1.getCategoryOrder(), c2.getCategoryOrder());
-        });
-        while (index < subCategories.size()) {
-            if (subCategories.get(index).equals(subCategory)) {
-                found = true;
-                break;
-            }
-            index++;
-        }
-
-        if (!found) {
+        final Category parent = findManagedCategory(parentCategory);
+        final Category category = findManagedCategory(subCategory);
+        if (!parent.equals(category.getParentCategory())) {
             throw new IllegalArgumentException(String.format(
                 "The category %s (UUID: %s) is not a subcategory of the "
                     + "category %s (UUID: %s)",
@@ -846,24 +795,365 @@ public class CategoryManager implements Serializable {
                 parentCategory.getUuid()));
         }
 
-        final Category prevCategory;
-        if ((index - 1) >= 0) {
-            prevCategory = subCategories.get(index - 1);
-        } else {
+        final int index = indexOf(SUB_CATEGORIES, parent, category);
+        if (index == 0) {
             //No previous object, returning silently
             return;
         }
 
-        final long order = subCategory.getCategoryOrder();
-        final long prevOrder = prevCategory.getCategoryOrder();
+        moveEntries(SUB_CATEGORIES,
+                    parent,
+                    Collections.singletonList(category),
+                    index - 1);
+    }
 
-        subCategory.setCategoryOrder(prevOrder);
-        prevCategory.setCategoryOrder(order);
+    /**
+     * Moves an object assigned to a category to a new position in the list of
+     * objects assigned to the category.
+     *
+     * @param object   The object to move. Can't be {@code null}.
+     * @param category The category. Can't be {@code null}.
+     * @param position The new (zero based) position of the object.
+     *
+     * @throws ObjectNotAssignedToCategoryException If the object is not
+     *                                              assigned to the category.
+     * @see #moveObjectsTo(java.util.List, org.libreccm.categorization.Category, int)
+     */
+    @AuthorizationRequired
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void moveObjectTo(
+        final CcmObject object,
+        @RequiresPrivilege(PRIVILEGE_MANAGE_CATEGORY_OBJECTS)
+        final Category category,
+        final int position)
+        throws ObjectNotAssignedToCategoryException {
 
-        shiro.getSystemUser().execute(() -> {
-            categoryRepo.save(subCategory);
-            categoryRepo.save(prevCategory);
-        });
+        Objects.requireNonNull(object, "Can't move object null.");
+
+        moveObjectsTo(Collections.singletonList(object), category, position);
+    }
+
+    /**
+     * Moves several objects assigned to a category to a new position in the
+     * list of objects assigned to the category. After the move the objects
+     * are placed one after another, in the order of the provided list,
+     * starting at {@code position}.
+     *
+     * The order values of the objects in a category are sparse. Therefore
+     * usually only the {@link Categorization}s of the moved objects are
+     * updated. Only if there are not enough free order values at the new
+     * position the objects following the new position are shifted using a
+     * single bulk update.
+     *
+     * @param objects  The objects to move. Can't be {@code null}.
+     * @param category The category. Can't be {@code null}.
+     * @param position The new (zero based) position of the first object in the
+     *                 list of objects assigned to the category.
+     *
+     * @throws ObjectNotAssignedToCategoryException If one of the objects is
+     *                                              not assigned to the
+     *                                              category.
+     * @throws IllegalArgumentException             If the position is not
+     *                                              between {@code 0} and the
+     *                                              number of other objects in
+     *                                              the category.
+     */
+    @AuthorizationRequired
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void moveObjectsTo(
+        final List<CcmObject> objects,
+        @RequiresPrivilege(PRIVILEGE_MANAGE_CATEGORY_OBJECTS)
+        final Category category,
+        final int position)
+        throws ObjectNotAssignedToCategoryException {
+
+        Objects.requireNonNull(objects, "Can't move objects null.");
+        Objects.requireNonNull(category,
+                               "Can't move objects in category null.");
+
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        final List<Categorization> categorizations = new ArrayList<>();
+        for (final CcmObject object : objects) {
+            categorizations.addAll(findCategorizations(object, category));
+        }
+
+        checkPosition(position, countObjects(category), categorizations);
+        moveEntries(OBJECTS, category, categorizations, position);
+    }
+
+    /**
+     * Moves a sub category to a new position in the list of sub categories of
+     * its parent category.
+     *
+     * @param subCategory    The sub category to move. Can't be {@code null}.
+     * @param parentCategory The parent category. Can't be {@code null}.
+     * @param position       The new (zero based) position of the sub category.
+     *
+     * @see #moveSubCategoriesTo(java.util.List, org.libreccm.categorization.Category, int)
+     */
+    @AuthorizationRequired
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void moveSubCategoryTo(
+        final Category subCategory,
+        @RequiresPrivilege(PRIVILEGE_MANAGE_CATEGORY)
+        final Category parentCategory,
+        final int position) {
+
+        Objects.requireNonNull(subCategory, "Can't move category null.");
+
+        moveSubCategoriesTo(Collections.singletonList(subCategory),
+                            parentCategory,
+                            position);
+    }
+
+    /**
+     * Moves several sub categories to a new position in the list of sub
+     * categories of their parent category. After the move the sub categories
+     * are placed one after another, in the order of the provided list,
+     * starting at {@code position}. Like
+     * {@link #moveObjectsTo(java.util.List, org.libreccm.categorization.Category, int)}
+     * this method usually only updates the moved categories.
+     *
+     * @param subCategories  The sub categories to move. Can't be {@code null}.
+     * @param parentCategory The parent category. Can't be {@code null}.
+     * @param position       The new (zero based) position of the first sub
+     *                       category.
+     *
+     * @throws IllegalArgumentException If one of the categories is not a sub
+     *                                  category of the provided parent
+     *                                  category or if the position is not
+     *                                  between {@code 0} and the number of
+     *                                  other sub categories.
+     */
+    @AuthorizationRequired
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void moveSubCategoriesTo(
+        final List<Category> subCategories,
+        @RequiresPrivilege(PRIVILEGE_MANAGE_CATEGORY)
+        final Category parentCategory,
+        final int position) {
+
+        Objects.requireNonNull(subCategories, "Can't move categories null.");
+        Objects.requireNonNull(parentCategory,
+                               "Can't move sub categories of category null.");
+
+        if (subCategories.isEmpty()) {
+            return;
+        }
+
+        final Category parent = findManagedCategory(parentCategory);
+        final List<Category> moved = new ArrayList<>();
+        for (final Category subCategory : subCategories) {
+            final Category category = findManagedCategory(subCategory);
+            if (!parent.equals(category.getParentCategory())) {
+                throw new IllegalArgumentException(String.format(
+                    "The category %s (UUID: %s) is not a subcategory of the "
+                        + "category %s (UUID: %s)",
+                    subCategory.getName(),
+                    subCategory.getUuid(),
+                    parentCategory.getName(),
+                    parentCategory.getUuid()));
+            }
+            moved.add(category);
+        }
+
+        checkPosition(position, countSubCategories(parent), moved);
+        moveEntries(SUB_CATEGORIES, parent, moved, position);
+    }
+
+    /**
+     * Helper method for retrieving the {@link Categorization}s of an object
+     * and a category.
+     *
+     * @throws ObjectNotAssignedToCategoryException If the object is not
+     *                                              assigned to the category.
+     */
+    private List<Categorization> findCategorizations(
+        final CcmObject object, final Category category)
+        throws ObjectNotAssignedToCategoryException {
+
+        final TypedQuery<Categorization> query = entityManager
+            .createNamedQuery("Categorization.find", Categorization.class);
+        query.setParameter("category", category);
+        query.setParameter("object", object);
+
+        final List<Categorization> result = query.getResultList();
+        if (result.isEmpty()) {
+            throw new ObjectNotAssignedToCategoryException(String.format(
+                "The object %s is not assigned to the category %s (UUID: %s).",
+                object.getUuid(),
+                category.getName(),
+                category.getUuid()));
+        }
+        return result;
+    }
+
+    private Category findManagedCategory(final Category category) {
+        return categoryRepo
+            .findById(category.getObjectId())
+            .orElseThrow(() -> new IllegalArgumentException(String.format(
+            "No Category with ID %d in the database. "
+                + "Where did that ID come from?",
+            category.getObjectId())));
+    }
+
+    private void checkPosition(final int position,
+                               final long count,
+                               final List<?> moved) {
+        final long others = count - moved.size();
+        if (position < 0 || position > others) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid position %d. The position must be between 0 and %d.",
+                position,
+                others));
+        }
+    }
+
+    /**
+     * Helper method for determining the order value for an entry appended to
+     * the entries of a category.
+     */
+    private <T> long nextOrder(final OrderedEntries<T> entries,
+                               final Category parent) {
+        final TypedQuery<Long> query = entityManager.createNamedQuery(
+            entries.maxOrderQuery, Long.class);
+        query.setParameter("parent", parent);
+
+        return SparseOrder.after(query.getSingleResult());
+    }
+
+    /**
+     * Helper method for determining the current (zero based) position of an
+     * entry. Entries with the same order value are ordered by their ID.
+     */
+    private <T> int indexOf(final OrderedEntries<T> entries,
+                            final Category parent,
+                            final T entry) {
+        final TypedQuery<Long> query = entityManager.createNamedQuery(
+            entries.countBeforeQuery, Long.class);
+        query.setParameter("parent", parent);
+        query.setParameter("order", entries.orderGetter.applyAsLong(entry));
+        query.setParameter("id", entries.idGetter.applyAsLong(entry));
+
+        return query.getSingleResult().intValue();
+    }
+
+    /**
+     * Moves entries to a new position. Only the order values of the two
+     * entries adjacent to the new position are retrieved from the database.
+     * If there are enough free order values between them, only the moved
+     * entries are changed. Otherwise the entries following the new position
+     * are shifted first (see
+     * {@link #shiftEntries(OrderedEntries, Category, List, long, long)}).
+     *
+     * @param entries  The ordered association.
+     * @param parent   The category.
+     * @param moved    The entries to move. Must be managed entities.
+     * @param position The position of the first moved entry among the other
+     *                 entries.
+     */
+    private <T> void moveEntries(final OrderedEntries<T> entries,
+                                 final Category parent,
+                                 final List<T> moved,
+                                 final int position) {
+
+        final TypedQuery<Object[]> query = entityManager.createNamedQuery(
+            entries.ordersQuery, Object[].class);
+        query.setParameter("parent", parent);
+        query.setParameter("excluded", moved);
+        if (position == 0) {
+            query.setMaxResults(1);
+        } else {
+            query.setFirstResult(position - 1);
+            query.setMaxResults(2);
+        }
+        final List<Object[]> adjacent = query.getResultList();
+
+        // Each row contains the order value and the ID of an entry.
+        final Object[] before;
+        final Object[] after;
+        if (position == 0) {
+            before = null;
+            after = adjacent.isEmpty() ? null : adjacent.get(0);
+        } else {
+            before = adjacent.isEmpty() ? null : adjacent.get(0);
+            after = adjacent.size() < 2 ? null : adjacent.get(1);
+        }
+        final Long beforeOrder = before == null ? null : (Long) before[0];
+        final Long afterOrder = after == null ? null : (Long) after[0];
+
+        long[] values = SparseOrder.between(beforeOrder,
+                                            afterOrder,
+                                            moved.size());
+        if (values == null) {
+            // There is always an entry after the new position if there are
+            // no free values.
+            shiftEntries(entries, parent, moved, afterOrder, (Long) after[1]);
+            values = SparseOrder.between(
+                beforeOrder,
+                afterOrder + SparseOrder.shift(moved.size()),
+                moved.size());
+        }
+        for (int i = 0; i < moved.size(); i++) {
+            entries.orderSetter.accept(moved.get(i), values[i]);
+        }
+
+        categoryChangedEvent.fire(new CategoryChangedEvent(parent.getObjectId()));
+    }
+
+    /**
+     * Shifts the entries starting at the entry with the provided order value
+     * and ID using a bulk update to make room for the moved entries. The
+     * bulk update bypasses the persistence context. Therefore pending changes
+     * are flushed before the update and the loaded entries of the category
+     * are refreshed afterwards.
+     *
+     * @param entries The ordered association.
+     * @param parent  The category.
+     * @param moved   The entries to move. They are not shifted.
+     * @param order   The order value of the first entry to shift.
+     * @param id      The ID of the first entry to shift.
+     */
+    private <T> void shiftEntries(final OrderedEntries<T> entries,
+                                  final Category parent,
+                                  final List<T> moved,
+                                  final long order,
+                                  final long id) {
+
+        LOGGER.debug("No free order values left before the entry {} in "
+                         + "category {}. Shifting the following entries.",
+                     id,
+                     parent.getObjectId());
+
+        final List<Long> excluded = moved
+            .stream()
+            .mapToLong(entries.idGetter)
+            .boxed()
+            .collect(Collectors.toList());
+
+        entityManager.flush();
+        entityManager
+            .createNamedQuery(entries.shiftQuery)
+            .setParameter("shift", SparseOrder.shift(moved.size()))
+            .setParameter("parent", parent)
+            .setParameter("excluded", excluded)
+            .setParameter("order", order)
+            .setParameter("id", id)
+            .executeUpdate();
+
+        if (entityManager
+            .getEntityManagerFactory()
+            .getPersistenceUnitUtil()
+            .isLoaded(parent, entries.collectionAttribute)) {
+            for (final T entry : entries.collectionGetter.apply(parent)) {
+                if (!moved.contains(entry) && entityManager.contains(entry)) {
+                    entityManager.refresh(entry);
+                }
+            }
+        }
     }
 
     /**
@@ -1030,6 +1320,10 @@ public class CategoryManager implements Serializable {
 
         categorization.setIndexObject(true);
         entityManager.merge(categorization);
+
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(category.getObjectId())
+        );
     }
 
     /**
@@ -1051,6 +1345,61 @@ public class CategoryManager implements Serializable {
         final List<Categorization> result = query.getResultList();
         result.forEach(categorization -> categorization.setIndexObject(false));
         result.forEach(categorization -> entityManager.merge(categorization));
+
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(category.getObjectId())
+        );
+    }
+
+    /**
+     * Describes an ordered association managed by this class: The named
+     * queries used to shift the entries and to retrieve the order values,
+     * the collection of the category containing the entries and the accessors
+     * for the order value and the ID of an entry.
+     *
+     * @param <T> Type of the entries.
+     */
+    private static final class OrderedEntries<T> {
+
+        private final String shiftQuery;
+
+        private final String ordersQuery;
+
+        private final String countBeforeQuery;
+
+        private final String maxOrderQuery;
+
+        private final String collectionAttribute;
+
+        private final Function<Category, List<T>> collectionGetter;
+
+        private final ToLongFunction<T> orderGetter;
+
+        private final ObjLongConsumer<T> orderSetter;
+
+        private final ToLongFunction<T> idGetter;
+
+        private OrderedEntries(
+            final String shiftQuery,
+            final String ordersQuery,
+            final String countBeforeQuery,
+            final String maxOrderQuery,
+            final String collectionAttribute,
+            final Function<Category, List<T>> collectionGetter,
+            final ToLongFunction<T> orderGetter,
+            final ObjLongConsumer<T> orderSetter,
+            final ToLongFunction<T> idGetter) {
+            this.shiftQuery = shiftQuery;
+            this.ordersQuery = ordersQuery;
+            this.countBeforeQuery = countBeforeQuery;
+            this.maxOrderQuery = maxOrderQuery;
+            this.collectionAttribute = collectionAttribute;
+            this.collectionGetter = collectionGetter;
+            this.orderGetter = orderGetter;
+            this.orderSetter = orderSetter;
+            this.idGetter = idGetter;
+        }
+
     }
 
 }
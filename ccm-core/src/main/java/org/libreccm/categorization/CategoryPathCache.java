@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.categorization;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Application wide cache for the IDs of categories resolved by
+ * {@link CategoryRepository#findByPath(Domain, String)}. The cache maps the ID
+ * of the root category of a category tree and the path of a category to the ID
+ * of the category.
+ *
+ * The entries are only hints: {@link CategoryRepository} verifies that the
+ * category retrieved using a cached ID still has the requested path and removes
+ * outdated entries. Therefore the cache works in a cluster without any
+ * communication between the nodes.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class CategoryPathCache {
+
+    private final ConcurrentMap<CategoryPathKey, Long> cache
+        = new ConcurrentHashMap<>();
+
+    public Optional<Long> getCategoryId(final long rootCategoryId,
+                                 final String path) {
+
+        return Optional.ofNullable(
+            cache.get(new CategoryPathKey(rootCategoryId, path))
+        );
+    }
+
+    public void putCategoryId(final long rootCategoryId,
+                       final String path,
+                       final long categoryId) {
+
+        cache.put(new CategoryPathKey(rootCategoryId, path), categoryId);
+    }
+
+    public void remove(final long rootCategoryId, final String path) {
+        cache.remove(new CategoryPathKey(rootCategoryId, path));
+    }
+
+    /**
+     * Removes the entry for a path and all entries for paths below this path.
+     *
+     * @param rootCategoryId The ID of the root category.
+     * @param path           The path.
+     */
+    public void removeTree(final long rootCategoryId, final String path) {
+        final String prefix;
+        if (path.endsWith("/")) {
+            prefix = path;
+        } else {
+            prefix = String.format("%s/", path);
+        }
+        cache
+            .keySet()
+            .removeIf(key -> key.getRootCategoryId() == rootCategoryId
+                                 && (key.getPath().equals(path)
+                                     || key.getPath().startsWith(prefix)));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static final class CategoryPathKey {
+
+        private final long rootCategoryId;
+
+        private final String path;
+
+        private CategoryPathKey(final long rootCategoryId, final String path) {
+            this.rootCategoryId = rootCategoryId;
+            this.path = Objects.requireNonNull(path);
+        }
+
+        public long getRootCategoryId() {
+            return rootCategoryId;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 59 * hash
+                       + (int) (rootCategoryId ^ (rootCategoryId >>> 32));
+            hash = 59 * hash + path.hashCode();
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CategoryPathKey)) {
+                return false;
+            }
+            final CategoryPathKey other = (CategoryPathKey) obj;
+            return rootCategoryId == other.getRootCategoryId()
+                       && path.equals(other.getPath());
+        }
+
+    }
+
+}
@@ -27,12 +27,14 @@ import org.libreccm.security.PermissionChecker;
 import org.libreccm.security.RequiresPrivilege;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 /**
@@ -52,6 +54,14 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
     private static final Logger LOGGER = LogManager.getLogger(
         CategoryRepository.class);
 
+    /**
+     * The path of a root category in the path index.
+     */
+    private static final String ROOT_PATH = "/";
+
+    @Inject
+    private CategoryPathCache pathCache;
+
     @Inject
     private DomainRepository domainRepo;
 
@@ -61,6 +71,9 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
     @Inject
     private Subject subject;
 
+    @Inject
+    private Event<CategoryChangedEvent> categoryChangedEvent;
+
     @Override
     public Class<Category> getEntityClass() {
         return Category.class;
@@ -149,6 +162,22 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
         }
     }
 
+    /**
+     * Finds a category by its path in a {@link Domain}. The path is resolved
+     * using the path index maintained by {@link #save(Category)}: First the
+     * {@link CategoryPathCache} is checked, then the index columns of the
+     * categories are queried. Only categories not indexed are resolved by
+     * traversing the category tree of the domain. This method does not modify
+     * the path index.
+     *
+     * @param domain The domain.
+     * @param path   The path of the category, relative to the root category of
+     *               the domain. The segments of the path can either be
+     *               separated by slashes or by dots.
+     *
+     * @return An {@link Optional} with the category identified by the path, or
+     *         an empty {@link Optional} if there is no such category.
+     */
     @Transactional(Transactional.TxType.REQUIRED)
     public Optional<Category> findByPath(final Domain domain, final String path) {
         if (domain == null) {
@@ -159,25 +188,56 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
             throw new IllegalArgumentException("Path can't be null or empty.");
         }
 
-        String normalizedPath = path.replace('.', '/');
-        if (normalizedPath.charAt(0) == '/') {
-            normalizedPath = normalizedPath.substring(1);
-        }
-
-        if (normalizedPath.endsWith("/")) {
-            normalizedPath = normalizedPath.substring(0,
-                                                      normalizedPath.length());
-        }
+        final String normalizedPath = normalizePath(path);
 
         LOGGER.debug("Trying to find category with path \"{}\" in "
                          + "domain \"{}\".",
                      normalizedPath,
                      domain.getDomainKey());
-        if (normalizedPath.isEmpty()) {
-            return Optional.of(domain.getRoot());
+        final Category root = domain.getRoot();
+        if (ROOT_PATH.equals(normalizedPath)) {
+            return Optional.of(root);
         }
-        final String[] tokens = normalizedPath.split("/");
-        Category current = domain.getRoot();
+
+        final Optional<Long> cachedId = pathCache
+            .getCategoryId(root.getObjectId(), normalizedPath);
+        if (cachedId.isPresent()) {
+            final Category category = getEntityManager()
+                .find(Category.class, cachedId.get());
+            if (isIndexedAs(category, root, normalizedPath)) {
+                return Optional.of(category);
+            } else {
+                pathCache.remove(root.getObjectId(), normalizedPath);
+            }
+        }
+
+        final TypedQuery<Category> query = getEntityManager()
+            .createNamedQuery("Category.findByRootAndPath", Category.class);
+        query.setParameter("root", root);
+        query.setParameter("path", normalizedPath);
+        query.setMaxResults(1);
+        final List<Category> result = query.getResultList();
+        if (!result.isEmpty()) {
+            final Category category = result.get(0);
+            pathCache.putCategoryId(root.getObjectId(),
+                                    normalizedPath,
+                                    category.getObjectId());
+            return Optional.of(category);
+        }
+
+        // The index is filled by the migration which added it and maintained
+        // by save. Categories which are nevertheless not indexed, for example
+        // categories inserted without using this repository, are resolved by
+        // traversing the tree. They are not indexed here because looking up a
+        // category must not modify it.
+        return findByPathInTree(root, normalizedPath);
+    }
+
+    private Optional<Category> findByPathInTree(final Category root,
+                                                final String path) {
+
+        final String[] tokens = path.substring(1).split("/");
+        Category current = root;
         for (final String token : tokens) {
             if (current.getSubCategories().isEmpty()) {
                 return Optional.empty();
@@ -209,6 +269,91 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
         return category.getName().equals(name);
     }
 
+    /**
+     * Converts a path into the format used by the path index: The segments
+     * are separated by slashes, the path starts with a slash and has no
+     * trailing slash. The path of a root category is {@code /}.
+     *
+     * @param path The path to normalise.
+     *
+     * @return The normalised path.
+     */
+    private String normalizePath(final String path) {
+        final StringJoiner joiner = new StringJoiner("/", "/", "");
+        for (final String token : path.replace('.', '/').split("/")) {
+            if (!token.isEmpty()) {
+                joiner.add(token);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private boolean isIndexedAs(final Category category,
+                                final Category root,
+                                final String path) {
+        return category != null
+                   && isSameCategory(category.getRootCategory(), root)
+                   && path.equals(category.getCategoryPath());
+    }
+
+    /**
+     * Updates the path index columns of a category from its parent category.
+     * If the path of the category has changed the index of all sub categories
+     * is updated too.
+     *
+     * @param category The category.
+     */
+    private void updatePathIndex(final Category category) {
+        final Category parent = category.getParentCategory();
+        final Category root;
+        final String path;
+        if (parent == null) {
+            root = category;
+            path = ROOT_PATH;
+        } else {
+            if (parent.getRootCategory() == null
+                    || parent.getCategoryPath() == null) {
+                updatePathIndex(parent);
+            }
+            root = parent.getRootCategory();
+            if (ROOT_PATH.equals(parent.getCategoryPath())) {
+                path = String.format("/%s", category.getName());
+            } else {
+                path = String.format("%s/%s",
+                                     parent.getCategoryPath(),
+                                     category.getName());
+            }
+        }
+
+        final Category oldRoot = category.getRootCategory();
+        final String oldPath = category.getCategoryPath();
+        if (isSameCategory(oldRoot, root) && path.equals(oldPath)) {
+            return;
+        }
+
+        if (oldRoot != null && oldPath != null) {
+            pathCache.removeTree(oldRoot.getObjectId(), oldPath);
+        }
+        category.setRootCategory(root);
+        category.setCategoryPath(path);
+
+        for (final Category subCategory : category.getSubCategories()) {
+            updatePathIndex(subCategory);
+        }
+    }
+
+    private boolean isSameCategory(final Category category1,
+                                   final Category category2) {
+        if (category1 == category2) {
+            return true;
+        }
+        if (category1 == null || category2 == null) {
+            return false;
+        }
+        return category1.getObjectId() != 0
+                   && category1.getObjectId() == category2.getObjectId();
+    }
+
     @AuthorizationRequired
     @Transactional(Transactional.TxType.REQUIRED)
     @Override
@@ -216,7 +361,12 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
         @RequiresPrivilege(CategorizationConstants.PRIVILEGE_MANAGE_CATEGORY)
         final Category category) {
 
+        updatePathIndex(category);
         super.save(category);
+
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(category.getObjectId())
+        );
     }
 
     @AuthorizationRequired
@@ -228,6 +378,10 @@ public class CategoryRepository extends AbstractEntityRepository<Long, Category>
         final Category category) {
 
         super.save(category);
+
+        categoryChangedEvent.fire(
+            new CategoryChangedEvent(category.getObjectId())
+        );
     }
 
 }
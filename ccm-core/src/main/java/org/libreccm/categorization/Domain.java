@@ -23,12 +23,15 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import org.hibernate.annotations.QueryHints;
 import org.hibernate.validator.constraints.URL;
 import org.libreccm.core.CcmObject;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.l10n.LocalizedString;
 import org.libreccm.security.RecursivePermissions;
 import org.libreccm.web.CcmApplication;
 
+import javax.persistence.Cacheable;
 import javax.persistence.FetchType;
 import javax.validation.constraints.Pattern;
 import javax.xml.bind.annotation.XmlElement;
@@ -63,6 +66,7 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 
@@ -80,19 +84,35 @@ import javax.validation.constraints.NotBlank;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
 @Table(name = "CATEGORY_DOMAINS", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(
         name = "Domain.findByKey",
-        query = "SELECT d FROM Domain d WHERE d.domainKey = :key"
+        query = "SELECT d FROM Domain d WHERE d.domainKey = :key",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        }
     ),
     @NamedQuery(
         name = "Domain.findByUri",
-        query = "SELECT d FROM Domain d WHERE d.uri = :uri"
+        query = "SELECT d FROM Domain d WHERE d.uri = :uri",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        }
     ),
     @NamedQuery(
         name = "Domain.findByUuid",
-        query = "SELECT d FROM Domain d WHERE d.uuid = :uuid"
+        query = "SELECT d FROM Domain d WHERE d.uuid = :uuid",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CATEGORIZATION_QUERIES)
+        }
     ),
     @NamedQuery(
         name = "Domain.findByRootCategory",
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.categorization;
+
+/**
+ * Calculates the values of the order properties
+ * ({@link Categorization#objectOrder} and {@link Category#categoryOrder}) used
+ * by the {@link CategoryManager}. New entries are added with a gap of
+ * {@link #GAP} to their predecessor. An entry moved between two other entries
+ * gets a value between the values of these entries, therefore moving an entry
+ * only changes the moved entry. Only if there is no free value left between
+ * two entries the following entries are shifted by {@link #shift(int)}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class SparseOrder {
+
+    /**
+     * Distance between the values of two consecutive entries after they have
+     * been added.
+     */
+    static final long GAP = 1024;
+
+    private SparseOrder() {
+        //Nothing
+    }
+
+    /**
+     * Calculates the order value for an entry appended after the entry with
+     * the provided value.
+     *
+     * @param last The order value of the last entry, {@code null} if there are
+     *             no entries yet.
+     *
+     * @return The order value for the appended entry.
+     */
+    static long after(final Long last) {
+        if (last == null) {
+            return GAP;
+        } else {
+            return last + GAP;
+        }
+    }
+
+    /**
+     * Calculates order values for {@code count} entries inserted between two
+     * entries. The values are distributed evenly.
+     *
+     * @param before The order value of the entry before the inserted entries,
+     *               {@code null} if the entries are inserted at the
+     *               beginning.
+     * @param after  The order value of the entry after the inserted entries,
+     *               {@code null} if the entries are inserted at the end.
+     * @param count  The number of inserted entries.
+     *
+     * @return The order values for the inserted entries or {@code null} if
+     *         there are not enough free values between {@code before} and
+     *         {@code after}. In this case the entries starting at
+     *         {@code after} have to be shifted.
+     */
+    static long[] between(final Long before, final Long after, final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive.");
+        }
+
+        final long[] values = new long[count];
+        if (before == null && after == null) {
+            for (int i = 0; i < count; i++) {
+                values[i] = valueForIndex(i);
+            }
+        } else if (after == null) {
+            for (int i = 0; i < count; i++) {
+                values[i] = before + GAP * (i + 1);
+            }
+        } else if (before == null) {
+            for (int i = 0; i < count; i++) {
+                values[i] = after - GAP * (count - i);
+            }
+        } else {
+            final long distance = after - before;
+            if (distance <= count) {
+                return null;
+            }
+            final long step = distance / (count + 1);
+            for (int i = 0; i < count; i++) {
+                values[i] = before + step * (i + 1);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Calculates the value by which the entries following an insert position
+     * without free values are shifted. After the shift there is a gap of
+     * {@link #GAP} around each of the inserted entries.
+     *
+     * @param count The number of inserted entries.
+     *
+     * @return The value to add to the order values of the following entries.
+     */
+    static long shift(final int count) {
+        return GAP * (count + 1);
+    }
+
+    /**
+     * The order value of the entry at the provided index if entries are
+     * inserted into a category without entries.
+     *
+     * @param index The index of the entry.
+     *
+     * @return The order value.
+     */
+    static long valueForIndex(final int index) {
+        return GAP * (index + 1);
+    }
+
+}
@@ -29,40 +29,89 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Utility class providing access the CDI beans in classes not eligible for
  * injection.
  *
+ * The {@link BeanManager} is looked up only once and shared by all instances
+ * of this class. The {@link Bean} resolved for a type is also cached. For
+ * beans with a normal scope ({@code RequestScoped}, {@code SessionScoped},
+ * {@code ApplicationScoped} etc.) the reference returned by the
+ * {@link BeanManager} is a client proxy which delegates to the instance of
+ * the current context. These references are cached too. For beans with the
+ * pseudo scope {@code Dependent} a new instance is created on each call of
+ * {@link #findBean(java.lang.Class)}.
+ *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 public class CdiUtil {
 
     private final static Logger LOGGER = LogManager.getLogger(CdiUtil.class);
 
+    /**
+     * The shared instance, created by the first call of
+     * {@link #createCdiUtil()}.
+     */
+    private static volatile CdiUtil instance;
+
+    private static final LongAdder beanManagerLookups = new LongAdder();
+
+    private static final LongAdder beanLookups = new LongAdder();
+
+    private static final LongAdder beanResolutions = new LongAdder();
+
     private final BeanManager beanManager;
 
+    /**
+     * Resolved beans by type.
+     */
+    private final ConcurrentMap<Class<?>, Bean<?>> beans
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Client proxies of normal scoped beans by type.
+     */
+    private final ConcurrentMap<Class<?>, Object> references
+        = new ConcurrentHashMap<>();
+
     private CdiUtil(final BeanManager beanManager) {
         this.beanManager = beanManager;
     }
 
     /**
-     * Get a new instance of {@code CdiUtil}.
+     * Get an instance of {@code CdiUtil}.
      *
-     * This factory method looks up the {@link BeanManager} using JNDI and
-     * passes the {@link BeanManager} to the constructor of {@code CdiUtil}.
+     * On the first call this factory method looks up the {@link BeanManager}
+     * using JNDI and passes the {@link BeanManager} to the constructor of
+     * {@code CdiUtil}. Subsequent calls return the same instance.
      *
-     * @return A new instance of {@code CdiUtil}.
+     * @return The instance of {@code CdiUtil}.
      */
     public static CdiUtil createCdiUtil() {
-        try {
-            final InitialContext context = new InitialContext();
-            final BeanManager beanManager = (BeanManager) context.lookup(
-                "java:comp/BeanManager"
-            );
-            return new CdiUtil(beanManager);
-        } catch (NamingException ex) {
-            throw new IllegalStateException("Unable to lookup BeanManager.", ex);
+        final CdiUtil cdiUtil = instance;
+        if (cdiUtil != null) {
+            return cdiUtil;
+        }
+
+        synchronized (CdiUtil.class) {
+            if (instance == null) {
+                try {
+                    final InitialContext context = new InitialContext();
+                    final BeanManager beanManager = (BeanManager) context
+                        .lookup("java:comp/BeanManager");
+                    beanManagerLookups.increment();
+                    instance = new CdiUtil(beanManager);
+                } catch (NamingException ex) {
+                    throw new IllegalStateException(
+                        "Unable to lookup BeanManager.", ex
+                    );
+                }
+            }
+            return instance;
         }
     }
 
@@ -79,15 +128,33 @@ public class CdiUtil {
      */
     @SuppressWarnings("unchecked")
     public <T> T findBean(final Class<T> beanType) {
-        final Set<Bean<?>> beans = beanManager.getBeans(beanType);
-        final Iterator<Bean<?>> iterator = beans.iterator();
-        if (iterator.hasNext()) {
-            @SuppressWarnings("unchecked")
-            final Bean<T> bean = (Bean<T>) iterator.next();
-            final CreationalContext<T> ctx = beanManager
-                .createCreationalContext(bean);
+        beanLookups.increment();
+
+        final Object reference = references.get(beanType);
+        if (reference != null) {
+            return (T) reference;
+        }
+
+        final Bean<T> bean = (Bean<T>) beans
+            .computeIfAbsent(beanType, this::resolveBean);
+        final CreationalContext<T> ctx = beanManager
+            .createCreationalContext(bean);
+        final T result = (T) beanManager.getReference(bean, beanType, ctx);
 
-            return (T) beanManager.getReference(bean, beanType, ctx);
+        if (beanManager.isNormalScope(bean.getScope())) {
+            references.putIfAbsent(beanType, result);
+        }
+
+        return result;
+    }
+
+    private Bean<?> resolveBean(final Class<?> beanType) {
+        beanResolutions.increment();
+
+        final Set<Bean<?>> candidates = beanManager.getBeans(beanType);
+        final Iterator<Bean<?>> iterator = candidates.iterator();
+        if (iterator.hasNext()) {
+            return iterator.next();
         } else {
             LOGGER.error(new ParameterizedMessage(
                 "No CDI Bean for type {0} found.", beanType.getName()));
@@ -96,4 +163,28 @@ public class CdiUtil {
         }
     }
 
+    /**
+     * @return The number of JNDI lookups of the {@link BeanManager}. Should be
+     *         {@code 1} after the first call of {@link #createCdiUtil()}.
+     */
+    public static long getBeanManagerLookupCount() {
+        return beanManagerLookups.sum();
+    }
+
+    /**
+     * @return The number of calls of {@link #findBean(java.lang.Class)}.
+     */
+    public static long getBeanLookupCount() {
+        return beanLookups.sum();
+    }
+
+    /**
+     * @return The number of beans resolved using
+     *         {@link BeanManager#getBeans(java.lang.reflect.Type, java.lang.annotation.Annotation...)}.
+     *         Each type is resolved only once.
+     */
+    public static long getBeanResolutionCount() {
+        return beanResolutions.sum();
+    }
+
 }
@@ -26,6 +26,7 @@ import java.util.Objects;
 
 import static org.libreccm.core.CoreConstants.DB_SCHEMA;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -35,10 +36,16 @@ import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotBlank;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+import org.libreccm.jpa.CacheRegions;
+
 /**
  * Abstract base class for all settings.
  *
@@ -46,6 +53,9 @@ import javax.validation.constraints.NotBlank;
  * @param <T> The value type of the setting.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = CacheRegions.CONFIGURATION)
 @Table(name = "SETTINGS",
        schema = DB_SCHEMA,
        uniqueConstraints = {
@@ -56,13 +66,23 @@ import javax.validation.constraints.NotBlank;
     @NamedQuery(
         name = "AbstractSetting.findAllForClass",
         query = "SELECT s FROM AbstractSetting s "
-                    + "WHERE s.configurationClass = :class")
+                    + "WHERE s.configurationClass = :class",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CONFIGURATION_QUERIES)
+        })
     ,
     @NamedQuery(
         name = "AbstractSetting.findByClassAndName",
         query = "SELECT s FROM AbstractSetting s "
                     + "WHERE s.configurationClass = :class "
-                    + "AND s.name = :name")
+                    + "AND s.name = :name",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.CONFIGURATION_QUERIES)
+        })
 })
 public abstract class AbstractSetting<T> implements Serializable {
 
@@ -34,7 +34,6 @@ import javax.inject.Inject;
 import javax.transaction.Transactional;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -63,11 +62,20 @@ public class ConfigurationManager implements Serializable {
     @Inject
     private SettingConverter settingConverter;
 
+    @Inject
+    private ConfigurationSnapshots snapshots;
+
     /**
      * Map used to cache configuration during a request.
      */
     private final Map<String, Object> confCache = new HashMap<>();
 
+    /**
+     * Whether the {@link ConfigurationSnapshots} have been synchronized with
+     * the database during the current request.
+     */
+    private boolean snapshotsSynchronized;
+
     /**
      * Finds all configuration classes listed by the installed modules.
      *
@@ -127,12 +135,31 @@ public class ConfigurationManager implements Serializable {
 
         final String confName = confClass.getName();
         // First check if we have already retrieved the requested configuration
-        // during the current request. If not retrieve the configuration and
-        // put it into the map.
+        // during the current request. If not create the configuration from
+        // the application wide snapshot and put it into the map.
         if (confCache.containsKey(confName)) {
             return (T) confCache.get(confName);
         } else {
-            final T configuration = findConfiguration(confName, confClass);
+            if (!snapshotsSynchronized) {
+                // Detects changes done by other nodes of a cluster. Done only
+                // once per request.
+                snapshots.synchronize();
+                snapshotsSynchronized = true;
+            }
+            T configuration;
+            try {
+                configuration = (T) snapshots
+                    .getSnapshot(confClass,
+                                 () -> settingManager
+                                     .retrieveAllSettings(confName))
+                    .newConfiguration();
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                LOGGER.warn(String.format(
+                    "Failed to instantiate configuration \"%s\".",
+                    confClass.getName()),
+                            ex);
+                configuration = null;
+            }
             confCache.put(confName, configuration);
             return configuration;
         }
@@ -282,7 +309,7 @@ public class ConfigurationManager implements Serializable {
      * @return The name of the field or if the {@link Setting} annotation of the
      *         field has a name value, the value of that field.
      */
-    String getSettingName(final Field field) {
+    static String getSettingName(final Field field) {
         LOGGER.debug(String.format("Trying to get setting name from field: "
                                        + "\"%s\"",
                                    field.getName()));
@@ -345,7 +372,9 @@ public class ConfigurationManager implements Serializable {
     }
 
     /**
-     * Helper method for loading a configuration from the database.
+     * Helper method for loading a configuration from the database, bypassing
+     * the {@link ConfigurationSnapshots}. The fields are set using the
+     * precomputed {@link ConfigurationSetters} of the configuration class.
      *
      * @param <T>       The type of the configuration.
      * @param confClass The configuration class.
@@ -353,76 +382,20 @@ public class ConfigurationManager implements Serializable {
      * @return An instance of the configuration class with all setting fields
      *         set to the values stored in the registry.
      */
-    @SuppressWarnings("rawtypes")
+    @SuppressWarnings("unchecked")
     <T> T findConfiguration(final String confName, final Class<T> confClass) {
-        final T conf;
-
         try {
-            conf = confClass.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException ex) {
+            return (T) ConfigurationSnapshot
+                .create(snapshots.getSetters(confClass),
+                        settingManager.retrieveAllSettings(confName))
+                .newConfiguration();
+        } catch (IllegalArgumentException | IllegalStateException ex) {
             LOGGER.warn(String.format(
                 "Failed to instantiate configuration \"%s\".",
                 confClass.getName()),
                         ex);
             return null;
-        } catch (InvocationTargetException | NoSuchMethodException e) {
-            LOGGER.error(e);
-            return  null;
-        }
-
-        final List<AbstractSetting> settingList = settingManager
-            .retrieveAllSettings(confName);
-        final Map<String, AbstractSetting> settings = settingList.stream()
-            .collect(Collectors.toMap(setting -> setting.getName(),
-                                      setting -> setting));
-
-        final Field[] fields = confClass.getDeclaredFields();
-        for (final Field field : fields) {
-            field.setAccessible(true);
-            if (field.getAnnotation(Setting.class) == null) {
-                continue;
-            }
-
-            final String settingName = getSettingName(field);
-
-            if (settings.containsKey(settingName)) {
-                final AbstractSetting<?> setting = settings.get(settingName);
-                try {
-                    LOGGER.debug("Setting \"{}#{}\" found. Value: {}",
-                                 confName,
-                                 settingName,
-                                 setting.getValue());
-                    field.set(conf, setting.getValue());
-                } catch (IllegalAccessException ex) {
-                    LOGGER.warn(
-                        "Failed to set value of configuration class \"{}\". "
-                            + "Ignoring.",
-                        confClass.getName(),
-                        ex);
-                }
-            }
-//            
-//            final Class<?> settingType = field.getType();
-//            final AbstractSetting<?> setting = settingManager.findSetting(
-//                confName, settingName, settingType);
-//            if (setting != null) {
-//                try {
-//                    LOGGER.debug("Setting \"{}#{}\" found. Value: {}",
-//                                 confName,
-//                                 settingName,
-//                                 setting.getValue());
-//                    field.set(conf, setting.getValue());
-//                } catch (IllegalAccessException ex) {
-//                    LOGGER.warn(
-//                        "Failed to set value of configuration class \"{}\". "
-//                            + "Ignoring.",
-//                        confClass.getName(),
-//                        ex);
-//                }
-//            }
         }
-
-        return conf;
     }
 
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed access to a configuration class: A {@link MethodHandle} for the
+ * default constructor and a {@link MethodHandle} setting the field of each
+ * setting. The handles are created once per configuration class. Creating and
+ * populating an instance using the handles avoids the reflective lookups and
+ * access checks done by {@link Field#set(java.lang.Object, java.lang.Object)}
+ * for each setting.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class ConfigurationSetters {
+
+    /**
+     * Type of the adapted setter handles: {@code (Object, Object)void}.
+     * Primitive field types are unboxed by the handle.
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(
+        void.class, Object.class, Object.class
+    );
+
+    private final Class<?> confClass;
+
+    /**
+     * Handle for the default constructor, adapted to {@code ()Object}.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Setter handles by name of the setting.
+     */
+    private final Map<String, MethodHandle> setters;
+
+    private ConfigurationSetters(final Class<?> confClass,
+                                 final MethodHandle constructor,
+                                 final Map<String, MethodHandle> setters) {
+        this.confClass = confClass;
+        this.constructor = constructor;
+        this.setters = Collections.unmodifiableMap(setters);
+    }
+
+    /**
+     * Creates the setters for a configuration class.
+     *
+     * @param confClass The configuration class.
+     *
+     * @return The setters for the configuration class.
+     *
+     * @throws IllegalArgumentException If the class has no default constructor
+     *                                  or if the handles can't be created.
+     */
+    static ConfigurationSetters forClass(final Class<?> confClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            final java.lang.reflect.Constructor<?> defaultConstructor
+                                                       = confClass
+                    .getDeclaredConstructor();
+            defaultConstructor.setAccessible(true);
+            final MethodHandle constructor = lookup
+                .unreflectConstructor(defaultConstructor)
+                .asType(MethodType.methodType(Object.class));
+
+            final Map<String, MethodHandle> setters = new HashMap<>();
+            for (final Field field : confClass.getDeclaredFields()) {
+                if (field.getAnnotation(Setting.class) == null) {
+                    continue;
+                }
+                field.setAccessible(true);
+                setters.put(ConfigurationManager.getSettingName(field),
+                            lookup.unreflectSetter(field).asType(SETTER_TYPE));
+            }
+
+            return new ConfigurationSetters(confClass, constructor, setters);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalArgumentException(
+                String.format("Can't create setters for configuration "
+                                  + "class \"%s\".",
+                              confClass.getName()),
+                ex);
+        }
+    }
+
+    Class<?> getConfigurationClass() {
+        return confClass;
+    }
+
+    /**
+     * @param settingName The name of the setting.
+     *
+     * @return The setter for the setting, {@code null} if there is no setting
+     *         with the provided name.
+     */
+    MethodHandle getSetter(final String settingName) {
+        return setters.get(settingName);
+    }
+
+    /**
+     * Creates a new instance of the configuration class using the default
+     * constructor.
+     *
+     * @return A new instance of the configuration class.
+     *
+     * @throws IllegalStateException If the constructor throws an exception.
+     */
+    Object newInstance() {
+        try {
+            return constructor.invoke();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(
+                String.format("Failed to instantiate configuration \"%s\".",
+                              confClass.getName()),
+                ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "confClass = %s, "
+                                 + "settings = %s"
+                                 + " }",
+                             super.toString(),
+                             confClass.getName(),
+                             setters.keySet());
+    }
+
+}
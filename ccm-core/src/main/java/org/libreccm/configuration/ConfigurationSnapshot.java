@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.l10n.LocalizedString;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The values of the settings of a configuration class at a specific point in
+ * time. A snapshot is immutable and shared by all requests (see
+ * {@link ConfigurationSnapshots}). Each call of {@link #newConfiguration()}
+ * creates a new instance of the configuration class with the values of the
+ * snapshot, therefore callers can still modify the returned configuration
+ * without affecting other requests.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class ConfigurationSnapshot {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ConfigurationSnapshot.class
+    );
+
+    private final ConfigurationSetters setters;
+
+    private final String[] settingNames;
+
+    private final MethodHandle[] settingSetters;
+
+    private final Object[] values;
+
+    private ConfigurationSnapshot(final ConfigurationSetters setters,
+                                  final String[] settingNames,
+                                  final MethodHandle[] settingSetters,
+                                  final Object[] values) {
+        this.setters = setters;
+        this.settingNames = settingNames;
+        this.settingSetters = settingSetters;
+        this.values = values;
+    }
+
+    /**
+     * Creates a snapshot from settings loaded from the database. Settings
+     * without a corresponding field in the configuration class are ignored.
+     * The values are copied so that the snapshot does not reference any
+     * (lazy loaded) collections of the setting entities.
+     *
+     * @param setters  The setters for the configuration class.
+     * @param settings The settings of the configuration class.
+     *
+     * @return A snapshot of the settings.
+     */
+    @SuppressWarnings("rawtypes")
+    static ConfigurationSnapshot create(
+        final ConfigurationSetters setters,
+        final List<AbstractSetting> settings) {
+
+        final List<String> names = new ArrayList<>(settings.size());
+        final List<MethodHandle> handles = new ArrayList<>(settings.size());
+        final List<Object> values = new ArrayList<>(settings.size());
+        for (final AbstractSetting setting : settings) {
+            final MethodHandle setter = setters.getSetter(setting.getName());
+            if (setter == null) {
+                continue;
+            }
+            names.add(setting.getName());
+            handles.add(setter);
+            values.add(copyValue(setting.getValue()));
+        }
+
+        return new ConfigurationSnapshot(
+            setters,
+            names.toArray(new String[names.size()]),
+            handles.toArray(new MethodHandle[handles.size()]),
+            values.toArray()
+        );
+    }
+
+    Class<?> getConfigurationClass() {
+        return setters.getConfigurationClass();
+    }
+
+    /**
+     * Creates a new instance of the configuration class and sets all settings
+     * to the values of the snapshot. Values which can't be assigned to their
+     * field are ignored, the field keeps its default value.
+     *
+     * @return A new instance of the configuration class.
+     */
+    Object newConfiguration() {
+        final Object configuration = setters.newInstance();
+        for (int i = 0; i < settingSetters.length; i++) {
+            try {
+                settingSetters[i].invokeExact(configuration,
+                                              copyValue(values[i]));
+            } catch (RuntimeException ex) {
+                LOGGER.warn(
+                    "Failed to set value of setting \"{}#{}\". Ignoring.",
+                    getConfigurationClass().getName(),
+                    settingNames[i],
+                    ex);
+            } catch (Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Copies mutable setting values (lists, sets and localized strings).
+     * Immutable values are returned as they are.
+     */
+    private static Object copyValue(final Object value) {
+        if (value instanceof List) {
+            return new ArrayList<>((List<?>) value);
+        } else if (value instanceof Set) {
+            return new HashSet<>((Set<?>) value);
+        } else if (value instanceof LocalizedString) {
+            final LocalizedString copy = new LocalizedString();
+            for (final Map.Entry<Locale, String> entry
+                     : ((LocalizedString) value).getValues().entrySet()) {
+                copy.addValue(entry.getKey(), entry.getValue());
+            }
+            return copy;
+        } else {
+            return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "confClass = %s, "
+                                 + "settings = %d"
+                                 + " }",
+                             super.toString(),
+                             getConfigurationClass().getName(),
+                             settingNames.length);
+    }
+
+}
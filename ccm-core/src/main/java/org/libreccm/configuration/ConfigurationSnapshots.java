@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.jpa.VersionStamps;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+/**
+ * Application wide cache of {@link ConfigurationSnapshot}s. Without this cache
+ * the {@link ConfigurationManager} had to load all settings of a configuration
+ * from the database in each request which uses the configuration.
+ *
+ * Changes of settings are signalled by a {@link SettingChangedEvent}. These
+ * changes increment the version stamp {@link #VERSION_STAMP} in the same
+ * transaction. After the transaction has been committed the snapshot of the
+ * changed configuration is removed. The other nodes of a cluster detect the
+ * change by comparing the stamp in the database with the stamp for which their
+ * snapshots were created (see {@link #synchronize()}).
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ConfigurationSnapshots {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ConfigurationSnapshots.class
+    );
+
+    /**
+     * Name of the {@link org.libreccm.jpa.VersionStamp} used for the
+     * snapshots.
+     */
+    public static final String VERSION_STAMP = "configuration";
+
+    @Inject
+    private VersionStamps versionStamps;
+
+    /**
+     * The setters of the configuration classes. Configuration classes don't
+     * change at runtime, therefore this map is never invalidated.
+     */
+    private final ConcurrentMap<Class<?>, ConfigurationSetters> setters
+        = new ConcurrentHashMap<>();
+
+    /**
+     * The snapshots of the configurations, keyed by the name of the
+     * configuration class.
+     */
+    private final GenerationCache<String, ConfigurationSnapshot> snapshots
+        = new GenerationCache<>();
+
+    /**
+     * Retrieves the snapshot of a configuration. If there is no snapshot for
+     * the configuration the settings provided by {@code settingsLoader} are
+     * used to create one.
+     *
+     * @param confClass      The configuration class.
+     * @param settingsLoader Loads the settings of the configuration from the
+     *                       database.
+     *
+     * @return The snapshot of the configuration.
+     */
+    @SuppressWarnings("rawtypes")
+    ConfigurationSnapshot getSnapshot(
+        final Class<?> confClass,
+        final Supplier<List<AbstractSetting>> settingsLoader) {
+
+        Objects.requireNonNull(confClass);
+        Objects.requireNonNull(settingsLoader);
+
+        final String confName = confClass.getName();
+        final ConfigurationSnapshot snapshot = snapshots.get(
+            confName, name -> createSnapshot(confClass, settingsLoader)
+        );
+        if (snapshot.getConfigurationClass() == confClass) {
+            return snapshot;
+        }
+
+        // The snapshot was created for a class with the same name from
+        // another class loader, for example before the application was
+        // redeployed.
+        snapshots.remove(confName, snapshot);
+        return snapshots.get(
+            confName, name -> createSnapshot(confClass, settingsLoader)
+        );
+    }
+
+    /**
+     * Retrieves the precomputed setters of a configuration class.
+     *
+     * @param confClass The configuration class.
+     *
+     * @return The setters of the configuration class.
+     */
+    ConfigurationSetters getSetters(final Class<?> confClass) {
+        return setters.computeIfAbsent(confClass,
+                                       ConfigurationSetters::forClass);
+    }
+
+    /**
+     * Compares the version stamp in the database with the stamp for which the
+     * snapshots were created. If the stamps differ another node (or this
+     * node) has changed a setting and all snapshots are removed.
+     */
+    public void synchronize() {
+        final long previousStamp = snapshots.getStamp();
+        final long currentStamp = versionStamps.getStamp(VERSION_STAMP);
+        if (snapshots.synchronize(currentStamp)) {
+            LOGGER.debug("Version stamp of configuration changed from {} "
+                             + "to {}. Removed all snapshots.",
+                         previousStamp,
+                         currentStamp);
+        }
+    }
+
+    /**
+     * Removes the snapshot of a configuration.
+     *
+     * @param confName The name of the configuration class.
+     */
+    public void invalidate(final String confName) {
+        snapshots.invalidate(confName);
+    }
+
+    /**
+     * Removes all snapshots.
+     */
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    /**
+     * Increments the version stamp. The observer is invoked in the
+     * transaction in which the setting was changed, therefore the stamp is
+     * only changed if the transaction is committed.
+     *
+     * @param event The event.
+     */
+    protected void onSettingChanging(
+        @Observes final SettingChangedEvent event
+    ) {
+        versionStamps.increment(VERSION_STAMP);
+    }
+
+    /**
+     * Removes the snapshot of the changed configuration after the transaction
+     * in which the setting was changed was committed.
+     *
+     * @param event The event.
+     */
+    protected void onSettingChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final SettingChangedEvent event
+    ) {
+        LOGGER.debug("Removing snapshot of configuration \"{}\" after "
+                         + "setting \"{}\" was changed.",
+                     event.getConfigurationClass(),
+                     event.getSettingName());
+        invalidate(event.getConfigurationClass());
+    }
+
+    /**
+     * @return The number of snapshots currently cached.
+     */
+    public int getSize() {
+        return snapshots.getSize();
+    }
+
+    /**
+     * @return The number of configurations served from a cached snapshot.
+     */
+    public long getHitCount() {
+        return snapshots.getHitCount();
+    }
+
+    /**
+     * @return The number of snapshots which were created.
+     */
+    public long getMissCount() {
+        return snapshots.getMissCount();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ConfigurationSnapshot createSnapshot(
+        final Class<?> confClass,
+        final Supplier<List<AbstractSetting>> settingsLoader) {
+
+        return ConfigurationSnapshot.create(getSetters(confClass),
+                                            settingsLoader.get());
+    }
+
+}
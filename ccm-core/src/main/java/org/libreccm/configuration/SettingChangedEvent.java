@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+/**
+ * Event fired by {@link SettingManager#saveSetting(org.libreccm.configuration.AbstractSetting)}
+ * if a setting has been created or changed.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class SettingChangedEvent {
+
+    /**
+     * The name of the configuration class to which the setting belongs.
+     */
+    private final String configurationClass;
+
+    /**
+     * The name of the setting.
+     */
+    private final String settingName;
+
+    public SettingChangedEvent(final String configurationClass,
+                               final String settingName) {
+        this.configurationClass = configurationClass;
+        this.settingName = settingName;
+    }
+
+    public String getConfigurationClass() {
+        return configurationClass;
+    }
+
+    public String getSettingName() {
+        return settingName;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "configurationClass = \"%s\", "
+                                 + "settingName = \"%s\""
+                                 + " }",
+                             super.toString(),
+                             configurationClass,
+                             settingName);
+    }
+
+}
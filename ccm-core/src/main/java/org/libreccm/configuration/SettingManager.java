@@ -29,6 +29,7 @@ import org.libreccm.security.RequiresPrivilege;
 import java.lang.reflect.Constructor;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -62,6 +63,9 @@ public class SettingManager {
     @Inject
     private EntityManager entityManager;
 
+    @Inject
+    private Event<SettingChangedEvent> settingChangedEvent;
+
     /**
      * Get the names of all settings of a configuration class.
      *
@@ -329,7 +333,9 @@ public class SettingManager {
     }
 
     /**
-     * Low level method of saving a setting.
+     * Low level method of saving a setting. Fires a {@link SettingChangedEvent}
+     * which invalidates the {@link ConfigurationSnapshot} of the configuration
+     * to which the setting belongs.
      *
      * @param setting The setting to save.
      */
@@ -342,6 +348,10 @@ public class SettingManager {
         } else {
             entityManager.merge(setting);
         }
+        settingChangedEvent.fire(
+            new SettingChangedEvent(setting.getConfigurationClass(),
+                                    setting.getName())
+        );
     }
 
     private String getDescBundle(final Class<?> configuration) {
@@ -86,9 +86,11 @@ import java.util.Properties;
             com.arsdigita.xml.formatters.DateFormatterConfig.class,
             org.libreccm.configuration.ExampleConfiguration.class,
             org.libreccm.files.CcmFilesConfiguration.class,
+            org.libreccm.imexport.ImportExportConfig.class,
             org.libreccm.search.SearchConfig.class,
             org.libreccm.security.EmailTemplates.class,
-            org.libreccm.security.OneTimeAuthConfig.class,})
+            org.libreccm.security.OneTimeAuthConfig.class,
+            org.libreccm.theming.ThemingConfig.class,})
 public class CcmCore implements CcmModule {
 
     private static final Logger LOGGER = LogManager.getLogger(CcmCore.class);
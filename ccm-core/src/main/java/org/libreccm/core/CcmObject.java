@@ -21,12 +21,25 @@ package org.libreccm.core;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import org.apache.lucene.analysis.core.KeywordTokenizerFactory;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.ngram.NGramFilterFactory;
 import org.hibernate.envers.Audited;
+import org.hibernate.search.annotations.Analyze;
+import org.hibernate.search.annotations.Analyzer;
+import org.hibernate.search.annotations.AnalyzerDef;
+import org.hibernate.search.annotations.AnalyzerDefs;
 import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Fields;
 import org.hibernate.search.annotations.IndexedEmbedded;
+import org.hibernate.search.annotations.Parameter;
+import org.hibernate.search.annotations.SortableField;
+import org.hibernate.search.annotations.TokenFilterDef;
+import org.hibernate.search.annotations.TokenizerDef;
 import org.libreccm.categorization.Categorization;
 import org.libreccm.categorization.Category;
 import org.libreccm.categorization.CategoryManager;
+import org.libreccm.search.NameSearchConstants;
 import org.libreccm.security.Permission;
 
 import javax.validation.constraints.NotNull;
@@ -83,6 +96,30 @@ import javax.persistence.Table;
     @NamedQuery(name = "CcmObject.findByUuid",
                 query = "SELECT o FROM CcmObject o WHERE o.uuid = :uuid")
 })
+@AnalyzerDefs({
+    @AnalyzerDef(
+        name = NameSearchConstants.NGRAM_ANALYZER,
+        tokenizer = @TokenizerDef(factory = KeywordTokenizerFactory.class),
+        filters = {
+            @TokenFilterDef(factory = LowerCaseFilterFactory.class),
+            @TokenFilterDef(
+                factory = NGramFilterFactory.class,
+                params = {
+                    @Parameter(name = "minGramSize",
+                               value = NameSearchConstants.GRAM_SIZE_PARAM),
+                    @Parameter(name = "maxGramSize",
+                               value = NameSearchConstants.GRAM_SIZE_PARAM)
+                })
+        }
+    ),
+    @AnalyzerDef(
+        name = NameSearchConstants.KEYWORD_ANALYZER,
+        tokenizer = @TokenizerDef(factory = KeywordTokenizerFactory.class),
+        filters = {
+            @TokenFilterDef(factory = LowerCaseFilterFactory.class)
+        }
+    )
+})
 @XmlRootElement(name = "ccm-object", namespace = CORE_XML_NS)
 //False warning (?). Because this class has been migrated from the old PDL style
 //persistence system we can't yet refactor it to make PMD happy. Also I think
@@ -102,6 +139,8 @@ public class CcmObject implements Identifiable, Serializable {
     @Id
     @Column(name = "OBJECT_ID")
     @GeneratedValue(strategy = GenerationType.AUTO)
+    @Field(name = NameSearchConstants.OBJECT_ID_SORT)
+    @SortableField(forField = NameSearchConstants.OBJECT_ID_SORT)
     @XmlElement(name = "object-id", namespace = CORE_XML_NS)
     private long objectId;
 
@@ -115,11 +154,25 @@ public class CcmObject implements Identifiable, Serializable {
     private String uuid;
     
     /**
-     * A human readable name identifying this {@code CcmObject}
+     * A human readable name identifying this {@code CcmObject}. Besides the
+     * default field the display name is indexed in the fields defined in
+     * {@link NameSearchConstants} which are used for searching objects by
+     * their name.
      */
     @Column(name = "DISPLAY_NAME")
     @Audited
-    @Field
+    @Fields({
+        @Field,
+        @Field(name = NameSearchConstants.DISPLAY_NAME_NGRAMS,
+               analyzer = @Analyzer(
+                   definition = NameSearchConstants.NGRAM_ANALYZER)),
+        @Field(name = NameSearchConstants.DISPLAY_NAME_KEYWORD,
+               analyzer = @Analyzer(
+                   definition = NameSearchConstants.KEYWORD_ANALYZER)),
+        @Field(name = NameSearchConstants.DISPLAY_NAME_SORT,
+               analyze = Analyze.NO)
+    })
+    @SortableField(forField = NameSearchConstants.DISPLAY_NAME_SORT)
     @XmlElement(name = "display-name", namespace = CORE_XML_NS)
     private String displayName;
 
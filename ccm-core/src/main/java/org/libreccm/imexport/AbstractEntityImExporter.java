@@ -19,12 +19,28 @@
 package org.libreccm.imexport;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 import javax.transaction.Transactional;
 
 /**
@@ -41,6 +57,9 @@ public abstract class AbstractEntityImExporter<T extends Exportable> {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Inject
+    private EntityManager entityManager;
+
     /**
      * Returns the Entity class which is handled by the implementation. This
      * should be the same values than the class in the {@link Proceesses}
@@ -80,6 +99,62 @@ public abstract class AbstractEntityImExporter<T extends Exportable> {
         }
     }
 
+    /**
+     * Reads a single entity from the provided stream.
+     *
+     * @param inputStream The stream to read.
+     *
+     * @return The entity.
+     *
+     * @throws ImportExpection If the entity can't be read.
+     */
+    public T readEntity(final InputStream inputStream) throws ImportExpection {
+        try {
+            return objectMapper.readValue(inputStream, getEntityClass());
+        } catch (IOException ex) {
+            throw new ImportExpection(ex);
+        }
+    }
+
+    /**
+     * Creates an iterator which reads the entities from the provided stream
+     * one by one. The stream may contain a sequence of JSON objects separated
+     * by whitespace (for example one object per line) or a JSON array. Only
+     * the current entity is kept in memory.
+     *
+     * @param inputStream The stream to read.
+     *
+     * @return An iterator over the entities in the stream.
+     *
+     * @throws ImportExpection If the stream can't be read.
+     */
+    public MappingIterator<T> readEntities(final InputStream inputStream)
+        throws ImportExpection {
+        try {
+            return objectMapper
+                .readerFor(getEntityClass())
+                .readValues(inputStream);
+        } catch (IOException ex) {
+            throw new ImportExpection(ex);
+        }
+    }
+
+    /**
+     * Saves a batch of imported entities in a new transaction. After the
+     * entities have been saved the persistence context is flushed and cleared
+     * to keep the memory usage independent of the size of the import.
+     *
+     * @param entities The entities to save.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void importEntities(final List<T> entities) {
+        for (final T entity : entities) {
+            saveImportedEntity(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     protected abstract void saveImportedEntity(T entity);
 
     /**
@@ -96,8 +171,146 @@ public abstract class AbstractEntityImExporter<T extends Exportable> {
     public String exportEntity(final Exportable entity) throws ExportException {
         @SuppressWarnings("unchecked")
         final T export = reloadEntity((T) entity);
+        return toJson(export);
+    }
+
+    /**
+     * Exports a batch of entities in a new transaction. Each entity is
+     * written as a single line of JSON to the provided {@link Writer}. After
+     * the batch has been written the persistence context is cleared.
+     *
+     * @param entities The entities to export.
+     * @param writer   The {@link Writer} to which the entities are written.
+     *
+     * @throws ExportException If an error occurs.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void exportEntities(final List<? extends Exportable> entities,
+                               final Writer writer) throws ExportException {
+        for (final Exportable entity : entities) {
+            writeLine(entity, exportEntity(entity), writer);
+        }
+        entityManager.clear();
+    }
+
+    /**
+     * Exports one page of all entities of the type processed by this
+     * implementation in a new transaction. The entities are ordered by their
+     * ID and each page starts after the ID of the last entity of the previous
+     * page, therefore all entities are exported by requesting consecutive
+     * pages until a page contains less than {@code maxResults} entities. Each
+     * entity is written as a single line of JSON to the provided
+     * {@link Writer}. After the page has been written the persistence context
+     * is cleared, therefore only one page of entities is kept in memory.
+     *
+     * @param lastId     The ID of the last entity of the previous page,
+     *                   {@code null} for the first page.
+     * @param maxResults The maximum number of entities in the page.
+     * @param writer     The {@link Writer} to which the entities are written.
+     *
+     * @return The number of entities written and the ID of the last entity
+     *         written.
+     *
+     * @throws ExportException If an error occurs.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public ExportedPage exportEntities(final Object lastId,
+                                       final int maxResults,
+                                       final Writer writer)
+        throws ExportException {
+
+        final List<T> entities = findEntitiesToExport(lastId, maxResults);
+        for (final T entity : entities) {
+            writeLine(entity, toJson(entity), writer);
+        }
+
+        final Object lastExportedId;
+        if (entities.isEmpty() || !findIdAttribute().isPresent()) {
+            lastExportedId = null;
+        } else {
+            lastExportedId = entityManager
+                .getEntityManagerFactory()
+                .getPersistenceUnitUtil()
+                .getIdentifier(entities.get(entities.size() - 1));
+        }
+        entityManager.clear();
+        return new ExportedPage(entities.size(), lastExportedId);
+    }
+
+    /**
+     * Retrieves one page of the entities to export, ordered by their ID.
+     * Only entities of exactly the type returned by {@link #getEntityClass()}
+     * are exported. Entities of subtypes are exported by the implementations
+     * for the subtypes. Implementations may override this method if not all
+     * entities of the type should be exported.
+     *
+     * If the entity has no single ID attribute all entities are retrieved at
+     * once.
+     *
+     * @param lastId     The ID of the last entity of the previous page,
+     *                   {@code null} for the first page.
+     * @param maxResults The maximum number of entities in the page.
+     *
+     * @return The entities of the page.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected List<T> findEntitiesToExport(final Object lastId,
+                                           final int maxResults) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = builder.createQuery(getEntityClass());
+        final Root<T> from = query.from(getEntityClass());
+
+        final List<Predicate> predicates = new ArrayList<>();
+        if (hasSubTypes()) {
+            predicates.add(builder.equal(from.type(), getEntityClass()));
+        }
+
+        final Optional<SingularAttribute<? super T, ?>> idAttribute
+            = findIdAttribute();
+        if (idAttribute.isPresent()) {
+            final Path<Comparable> id = from
+                .<Comparable>get(idAttribute.get().getName());
+            if (lastId != null) {
+                predicates.add(builder.greaterThan(id, (Comparable) lastId));
+            }
+            query.orderBy(builder.asc(id));
+        }
+
+        final TypedQuery<T> typedQuery = entityManager.createQuery(
+            query
+                .select(from)
+                .where(predicates.toArray(new Predicate[predicates.size()]))
+        );
+        if (idAttribute.isPresent()) {
+            typedQuery.setMaxResults(maxResults);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private Optional<SingularAttribute<? super T, ?>> findIdAttribute() {
+        final EntityType<T> entityType = entityManager
+            .getMetamodel()
+            .entity(getEntityClass());
+        return entityType
+            .getSingularAttributes()
+            .stream()
+            .filter(SingularAttribute::isId)
+            .findAny();
+    }
+
+    private boolean hasSubTypes() {
+        return entityManager
+            .getMetamodel()
+            .getEntities()
+            .stream()
+            .map(EntityType::getJavaType)
+            .anyMatch(type -> !getEntityClass().equals(type)
+                                  && getEntityClass().isAssignableFrom(type));
+    }
+
+    private String toJson(final T entity) throws ExportException {
         try {
-            return objectMapper.writeValueAsString(export);
+            return objectMapper.writeValueAsString(entity);
         } catch (JsonProcessingException ex) {
             throw new ExportException(String.format(
                 "Failed to export entity \"%s\" of type \"%s\".",
@@ -107,6 +320,21 @@ public abstract class AbstractEntityImExporter<T extends Exportable> {
         }
     }
 
+    private void writeLine(final Exportable entity,
+                           final String json,
+                           final Writer writer) throws ExportException {
+        try {
+            writer.write(json);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new ExportException(String.format(
+                "Failed to write entity \"%s\" of type \"%s\".",
+                entity.getUuid(),
+                getEntityClass().getName()),
+                                      ex);
+        }
+    }
+
     /**
      * Reloads the entity to export. Entities become detacted for several
      * reasons before they are passed to the null     {@link #exportEntity(org.libreccm.imexport.Exportable) method. The 
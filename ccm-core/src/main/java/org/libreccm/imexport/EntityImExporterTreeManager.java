@@ -22,6 +22,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,7 +36,9 @@ import java.util.stream.Collectors;
  * method. With the returned list of nodes call the
  * {@link #orderImExporters(java.util.List)} method. The list returned by
  * {@link #orderImExporters(java.util.List)} contains all
- * {@link AbstractEntityImExporter}s in the order.
+ * {@link AbstractEntityImExporter}s in the order. Alternatively
+ * {@link #orderImExportersByLevel(java.util.List)} can be used to group the
+ * nodes into levels of independent nodes.
  *
  * This class is <strong>not</strong> not part of the public API.
  *
@@ -183,6 +186,78 @@ final class EntityImExporterTreeManager {
 
     }
 
+    /**
+     * Groups the tree nodes into levels which can be processed one after
+     * another. The first level contains the nodes which do not depend on any
+     * other node. Each further level contains the nodes which depend only on
+     * nodes in the previous levels. The nodes in a level do not depend on each
+     * other and can therefore be processed concurrently.
+     *
+     * Unlike {@link #orderImExporters(java.util.List)} this method does not
+     * modify the nodes.
+     *
+     * @param nodes The nodes of the dependency tree.
+     *
+     * @return The levels of the tree.
+     *
+     * @throws DependencyException If something is wrong with dependency graph.
+     */
+    public List<List<EntityImExporterTreeNode>> orderImExportersByLevel(
+        final List<EntityImExporterTreeNode> nodes)
+        throws DependencyException {
+
+        LOGGER.info("Grouping the dependency tree into levels...");
+
+        //Number of unresolved dependencies of each node
+        final Map<EntityImExporterTreeNode, Integer> unresolved
+            = new HashMap<>();
+        List<EntityImExporterTreeNode> currentLevel = new ArrayList<>();
+        for (final EntityImExporterTreeNode node : nodes) {
+            unresolved.put(node, node.getDependsOn().size());
+            if (node.getDependsOn().isEmpty()) {
+                currentLevel.add(node);
+            }
+        }
+
+        final List<List<EntityImExporterTreeNode>> levels = new ArrayList<>();
+        int processed = 0;
+        while (!currentLevel.isEmpty()) {
+            levels.add(currentLevel);
+            processed += currentLevel.size();
+            LOGGER.info("\tLevel {}: {}",
+                        levels.size(),
+                        currentLevel
+                            .stream()
+                            .map(node -> node
+                                .getEntityImExporter()
+                                .getClass()
+                                .getName())
+                            .collect(Collectors.joining(", ")));
+
+            final List<EntityImExporterTreeNode> nextLevel = new ArrayList<>();
+            for (final EntityImExporterTreeNode node : currentLevel) {
+                for (final EntityImExporterTreeNode dependent
+                         : node.getDependentImExporters()) {
+                    final int remaining = unresolved.get(dependent) - 1;
+                    unresolved.put(dependent, remaining);
+                    if (remaining == 0) {
+                        nextLevel.add(dependent);
+                    }
+                }
+            }
+            currentLevel = nextLevel;
+        }
+
+        if (processed == nodes.size()) {
+            return levels;
+        } else {
+            LOGGER.fatal("The EntityImExporter dependency graph has at least "
+                             + "one cycle.");
+            throw new DependencyException("The EntityImExporter dependency "
+                                              + "graph has at least one cycle.");
+        }
+    }
+
     /**
      * Helper method for adding the dependency relations for an
      * {@link AbstractEntityImExporter} to the nodes.
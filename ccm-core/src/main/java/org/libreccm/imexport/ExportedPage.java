@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.imexport;
+
+/**
+ * The result of exporting one page of entities using
+ * {@link AbstractEntityImExporter#exportEntities(java.lang.Object, int, java.io.Writer)}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class ExportedPage {
+
+    private final int count;
+
+    private final Object lastId;
+
+    /**
+     * Creates a new page.
+     *
+     * @param count  The number of exported entities.
+     * @param lastId The ID of the last exported entity, {@code null} if there
+     *               are no further pages.
+     */
+    public ExportedPage(final int count, final Object lastId) {
+        this.count = count;
+        this.lastId = lastId;
+    }
+
+    /**
+     * @return The number of exported entities.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The ID of the last exported entity. The next page starts after
+     *         this ID. {@code null} if there are no further pages.
+     */
+    public Object getLastId() {
+        return lastId;
+    }
+
+}
@@ -18,6 +18,10 @@
  */
 package org.libreccm.imexport;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.shiro.subject.Subject;
+import org.libreccm.configuration.ConfigurationManager;
 import org.libreccm.core.UnexpectedErrorException;
 import org.libreccm.files.CcmFiles;
 import org.libreccm.files.CcmFilesConfiguration;
@@ -25,13 +29,17 @@ import org.libreccm.files.FileAccessException;
 import org.libreccm.files.FileAlreadyExistsException;
 import org.libreccm.files.FileDoesNotExistException;
 import org.libreccm.files.InsufficientPermissionsException;
+import org.libreccm.security.Shiro;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
@@ -40,13 +48,20 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.control.RequestContextController;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -60,7 +75,6 @@ import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
 import javax.json.JsonString;
 import javax.json.JsonWriter;
-import javax.transaction.Transactional;
 
 /**
  * Central service for importing and exporting entities.
@@ -70,9 +84,25 @@ import javax.transaction.Transactional;
 @RequestScoped
 public class ImportExport {
 
+    private static final Logger LOGGER = LogManager.getLogger(
+        ImportExport.class
+    );
+
     @Inject
     private CcmFiles ccmFiles;
 
+    @Inject
+    private ConfigurationManager confManager;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    @Inject
+    private Instance<RequestContextController> requestContextControllers;
+
+    @Inject
+    private Shiro shiro;
+
     @Inject
     @Any
     private Instance<AbstractEntityImExporter<?>> imExporters;
@@ -95,23 +125,31 @@ public class ImportExport {
     }
 
     /**
-     * Exports the provided entities. The export will be written to a to the
-     * {@code exports} directory in the CCM files directory. If {@code split} is
-     * {@code false} a file with the name provided by {@link exportName} will be
-     * generated. Otherwise a directory with the provided name will be
-     * generated. All files will be placed into that directory. For the main
-     * file the provided name will be used.
+     * Exports all entities of the provided types. The export will be written
+     * to a to the {@code exports} directory in the CCM files directory. A
+     * directory with the provided name is created. The directory contains the
+     * manifest file {@code ccm-export.json} and one file per entity type. The
+     * file for an entity type contains one entity per line (newline delimited
+     * JSON). If {@link ImportExportConfig#isCompressExports()} is {@code true}
+     * the files for the entity types are compressed using GZIP.
      *
+     * The entities of a type are retrieved from the database page by page
+     * (see {@link ImportExportConfig#getBatchSize()}). Each page is loaded and
+     * exported in its own transaction and written directly to the file of the
+     * entity type, therefore only one page of entities is kept in memory.
      *
-     * @param entities   The entities to export.
+     * @param types      The types of the entities to export.
      * @param exportName The name file to which the export is written.
      *
      * @see CcmFilesConfiguration#dataPath
      */
-    @Transactional(Transactional.TxType.REQUIRED)
     public void exportEntities(
-        final Collection<Exportable> entities, final String exportName
+        final Collection<Class<? extends Exportable>> types,
+        final String exportName
     ) {
+        final ImportExportConfig config = confManager
+            .findConfiguration(ImportExportConfig.class);
+
         final JsonObjectBuilder manifestBuilder = Json.createObjectBuilder();
         manifestBuilder.add("created",
                             LocalDateTime.now(ZoneId.of("UTC")).toString());
@@ -121,31 +159,17 @@ public class ImportExport {
         } catch (UnknownHostException ex) {
             throw new UnexpectedErrorException(ex);
         }
+        manifestBuilder.add("format", ImportManifest.FORMAT_NDJSON);
+        manifestBuilder.add("compressed", config.isCompressExports());
 
         final JsonArrayBuilder typesArrayBuilder = Json.createArrayBuilder();
-
-        final Set<String> types = entities
-            .stream()
-            .map(entity -> entity.getClass().getName())
-            .collect(Collectors.toSet());
-
-        final Map<String, List<Exportable>> typeEntityMap = new HashMap<>();
         try {
             ccmFiles.createDirectory(String.format("exports/%s", exportName));
 
-            for (final String type : types) {
-                ccmFiles.createDirectory(String.format("exports/%s/%s",
-                                                       exportName,
-                                                       type));
-                typesArrayBuilder.add(type);
-
-                final List<Exportable> entitiesOfType = entities
-                    .stream()
-                    .filter(entity -> entity.getClass().getName().equals(type))
-                    .collect(Collectors.toList());
-
-                typeEntityMap.put(type, entitiesOfType);
-            }
+            types
+                .stream()
+                .map(Class::getName)
+                .forEach(typesArrayBuilder::add);
 
             manifestBuilder.add("types", typesArrayBuilder);
             final OutputStream manifestOutputStream = ccmFiles
@@ -163,11 +187,8 @@ public class ImportExport {
             throw new UnexpectedErrorException(ex);
         }
 
-        for (final Map.Entry<String, List<Exportable>> entry
-                 : typeEntityMap.entrySet()) {
-            createExportedEntities(exportName,
-                                   entry.getKey(),
-                                   entry.getValue());
+        for (final Class<? extends Exportable> type : types) {
+            createExportedEntities(exportName, type, config);
         }
     }
 
@@ -180,11 +201,26 @@ public class ImportExport {
      * If an entity which is part of the import already exists in the database
      * the values from the import are used to update the entity.
      *
+     * The entity types are imported level by level (see
+     * {@link EntityImExporterTreeManager#orderImExportersByLevel(java.util.List)}).
+     * The types in a level do not depend on each other and are imported
+     * concurrently using the {@link ManagedExecutorService} of the
+     * application server. The number of concurrently imported types is
+     * limited by {@link ImportExportConfig#getImportThreads()}. A level is
+     * started after all types of the previous level have been committed, so
+     * that all entities referenced by the types of a level are available.
+     *
+     * The entities are read one by one from the import files and saved in
+     * batches. Each batch is saved in its own transaction (see
+     * {@link ImportExportConfig#getBatchSize()}). The progress of the import
+     * is recorded after each batch. If the import fails it can be restarted:
+     * The types which have been imported completely are skipped, and the
+     * import of the other types continues after the last committed batch.
+     *
      * @param importName The name of the import.
      *
      * @see CcmFilesConfiguration#dataPath
      */
-    @Transactional(Transactional.TxType.REQUIRED)
     public void importEntities(final String importName) {
         final String importsPath = String.format("imports/%s", importName);
 
@@ -202,6 +238,9 @@ public class ImportExport {
             throw new UnexpectedErrorException(ex);
         }
 
+        final ImportExportConfig config = confManager
+            .findConfiguration(ImportExportConfig.class);
+
         try {
             final EntityImExporterTreeManager treeManager
                 = new EntityImExporterTreeManager();
@@ -211,26 +250,119 @@ public class ImportExport {
                         .stream()
                         .collect(Collectors.toList())
                 );
-            final List<EntityImExporterTreeNode> orderedNodes = treeManager
-                .orderImExporters(tree);
+            final List<List<EntityImExporterTreeNode>> levels = treeManager
+                .orderImExportersByLevel(tree);
 
             final ImportManifest manifest = createImportManifest(importName);
 
-            final List<EntityImExporterTreeNode> importers = orderedNodes
-                .stream()
-                .filter(node -> filterImporters(manifest, node))
-                .collect(Collectors.toList());
+            final ImportProgress progress = ImportProgress.load(ccmFiles,
+                                                                importName);
 
-            importers
-                .stream()
-                .map(EntityImExporterTreeNode::getEntityImExporter)
-                .forEach(imExporter -> importEntitiesOfType(importName,
-                                                            imExporter));
+            for (final List<EntityImExporterTreeNode> level : levels) {
+                final List<AbstractEntityImExporter<?>> importers = level
+                    .stream()
+                    .filter(node -> filterImporters(manifest, node))
+                    .map(EntityImExporterTreeNode::getEntityImExporter)
+                    .collect(Collectors.toList());
+                importLevel(manifest, importers, progress, config);
+            }
+
+            progress.delete();
         } catch (DependencyException ex) {
             throw new UnexpectedErrorException(ex);
         }
     }
 
+    /**
+     * Imports the types of one level of the dependency tree. If more than one
+     * thread is allowed and the level contains more than one type the types
+     * are imported concurrently. Each type is imported in its own thread with
+     * its own request context and transactions. The current subject is
+     * associated with the threads.
+     *
+     * @param manifest  The manifest of the import.
+     * @param importers The importers of the types in the level.
+     * @param progress  The progress of the import.
+     * @param config    The current {@link ImportExportConfig}.
+     */
+    private void importLevel(
+        final ImportManifest manifest,
+        final List<AbstractEntityImExporter<?>> importers,
+        final ImportProgress progress,
+        final ImportExportConfig config) {
+
+        final long threads = Math.min(config.getImportThreads(),
+                                      importers.size());
+        if (threads <= 1 || executorService == null) {
+            importers.forEach(imExporter -> importEntitiesOfType(manifest,
+                                                                 imExporter,
+                                                                 progress,
+                                                                 config));
+            return;
+        }
+
+        final Subject subject = shiro.getSubject();
+        final CompletionService<Void> completionService
+            = new ExecutorCompletionService<>(executorService);
+        final Iterator<AbstractEntityImExporter<?>> pending = importers
+            .iterator();
+        int running = 0;
+        while (running < threads && pending.hasNext()) {
+            completionService.submit(createImportTask(
+                subject, manifest, pending.next(), progress, config
+            ));
+            running++;
+        }
+
+        Exception failure = null;
+        while (running > 0) {
+            try {
+                completionService.take().get();
+            } catch (ExecutionException ex) {
+                LOGGER.error("Import of an entity type failed.", ex);
+                if (failure == null) {
+                    failure = ex;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new UnexpectedErrorException(ex);
+            }
+            running--;
+
+            // Don't start any further types if the import of a type failed.
+            if (failure == null && pending.hasNext()) {
+                completionService.submit(createImportTask(
+                    subject, manifest, pending.next(), progress, config
+                ));
+                running++;
+            }
+        }
+
+        if (failure != null) {
+            throw new UnexpectedErrorException(failure);
+        }
+    }
+
+    private Callable<Void> createImportTask(
+        final Subject subject,
+        final ImportManifest manifest,
+        final AbstractEntityImExporter<?> imExporter,
+        final ImportProgress progress,
+        final ImportExportConfig config) {
+
+        return subject.associateWith(() -> {
+            final RequestContextController requestContextController
+                = requestContextControllers.get();
+            requestContextController.activate();
+            try {
+                importEntitiesOfType(manifest, imExporter, progress, config);
+            } finally {
+                requestContextController.deactivate();
+            }
+            return null;
+        });
+    }
+
     private boolean filterImporters(final ImportManifest manifest,
                                     final EntityImExporterTreeNode node) {
 
@@ -241,12 +373,186 @@ public class ImportExport {
         return manifest.getTypes().contains(type);
     }
 
-    private void importEntitiesOfType(
+    private <T extends Exportable> void importEntitiesOfType(
+        final ImportManifest manifest,
+        final AbstractEntityImExporter<T> entityImExporter,
+        final ImportProgress progress,
+        final ImportExportConfig config) {
+
+        final String type = entityImExporter.getEntityClass().getName();
+        if (progress.isCompleted(type)) {
+            LOGGER.info("Entities of type \"{}\" have already been imported. "
+                            + "Skipping.",
+                        type);
+            return;
+        }
+
+        final Iterator<T> entities;
+        if (ImportManifest.FORMAT_NDJSON.equals(manifest.getFormat())) {
+            entities = readEntities(manifest, entityImExporter);
+        } else {
+            entities = readEntityFiles(manifest.getImportName(),
+                                       entityImExporter);
+        }
+
+        final long count;
+        try {
+            count = importBatches(entities,
+                                  entityImExporter,
+                                  progress,
+                                  (int) Math.max(1, config.getBatchSize()));
+        } finally {
+            if (entities instanceof Closeable) {
+                try {
+                    ((Closeable) entities).close();
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to close import file for type "
+                                    + "\"{}\".",
+                                type);
+                    LOGGER.warn(ex);
+                }
+            }
+        }
+
+        progress.setCompleted(type);
+        LOGGER.info("Imported {} entities of type \"{}\".", count, type);
+    }
+
+    /**
+     * Imports the entities provided by an {@link Iterator} in batches. The
+     * entities which have already been imported according to the
+     * {@code progress} are skipped. The progress is updated after each batch.
+     *
+     * @param <T>              The type of the entities.
+     * @param entities         The entities to import.
+     * @param entityImExporter The importer for the type.
+     * @param progress         The progress of the import.
+     * @param batchSize        The number of entities saved in one
+     *                         transaction.
+     *
+     * @return The number of imported entities of the type, including the
+     *         skipped entities.
+     */
+    static <T extends Exportable> long importBatches(
+        final Iterator<T> entities,
+        final AbstractEntityImExporter<T> entityImExporter,
+        final ImportProgress progress,
+        final int batchSize) {
+
+        final String type = entityImExporter.getEntityClass().getName();
+        final long skip = progress.getImported(type);
+        if (skip > 0) {
+            LOGGER.info("Resuming import of entities of type \"{}\" after "
+                            + "{} entities.",
+                        type,
+                        skip);
+        }
+
+        long count = 0;
+        while (count < skip && entities.hasNext()) {
+            entities.next();
+            count++;
+        }
+
+        final List<T> batch = new ArrayList<>(batchSize);
+        while (entities.hasNext()) {
+            batch.add(entities.next());
+            if (batch.size() >= batchSize || !entities.hasNext()) {
+                entityImExporter.importEntities(batch);
+                count += batch.size();
+                progress.setImported(type, count);
+                batch.clear();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exports all entities of a type page by page.
+     *
+     * @param imExporter The exporter for the type.
+     * @param writer     The {@link Writer} to which the entities are written.
+     * @param batchSize  The number of entities exported in one transaction.
+     *
+     * @return The number of exported entities.
+     *
+     * @throws ExportException If an error occurs.
+     */
+    static long exportPages(final AbstractEntityImExporter<?> imExporter,
+                            final Writer writer,
+                            final int batchSize) throws ExportException {
+        long count = 0;
+        Object lastId = null;
+        ExportedPage page;
+        do {
+            page = imExporter.exportEntities(lastId, batchSize, writer);
+            count += page.getCount();
+            lastId = page.getLastId();
+        } while (page.getCount() == batchSize && lastId != null);
+        return count;
+    }
+
+    /**
+     * Creates an {@link Iterator} reading the entities of a type from a file
+     * in the {@link ImportManifest#FORMAT_NDJSON} format.
+     *
+     * @param <T>              The type of the entities.
+     * @param manifest         The manifest of the import.
+     * @param entityImExporter The importer for the type.
+     *
+     * @return An {@link Iterator} over the entities in the file. The iterator
+     *         is also {@link Closeable} and must be closed.
+     */
+    private <T extends Exportable> Iterator<T> readEntities(
+        final ImportManifest manifest,
+        final AbstractEntityImExporter<T> entityImExporter) {
+
+        final String type = entityImExporter.getEntityClass().getName();
+        final String filePath = String.format("imports/%s/%s",
+                                              manifest.getImportName(),
+                                              buildEntitiesFileName(
+                                                  type,
+                                                  manifest.isCompressed()
+                                              ));
+        try {
+            final InputStream fileInputStream = ccmFiles
+                .createInputStream(filePath);
+            final InputStream inputStream;
+            if (manifest.isCompressed()) {
+                inputStream = new GZIPInputStream(
+                    new BufferedInputStream(fileInputStream)
+                );
+            } else {
+                inputStream = new BufferedInputStream(fileInputStream);
+            }
+            return entityImExporter.readEntities(inputStream);
+        } catch (IOException
+                 | FileDoesNotExistException
+                 | FileAccessException
+                 | InsufficientPermissionsException
+                 | ImportExpection ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+    }
+
+    /**
+     * Creates an {@link Iterator} reading the entities of a type from an
+     * import in the {@link ImportManifest#FORMAT_ENTITY_FILES} format. The
+     * entities are read one by one when {@link Iterator#next()} is called.
+     *
+     * @param <T>              The type of the entities.
+     * @param importName       The name of the import.
+     * @param entityImExporter The importer for the type.
+     *
+     * @return An {@link Iterator} over the entities.
+     */
+    private <T extends Exportable> Iterator<T> readEntityFiles(
         final String importName,
-        final AbstractEntityImExporter<?> entityImExporter) {
+        final AbstractEntityImExporter<T> entityImExporter) {
 
         final String type = entityImExporter.getEntityClass().getName();
 
+        final List<String> fileNames = new ArrayList<>();
         try (final InputStream tocInputStream = ccmFiles
             .createInputStream(String.format("imports/%s/%s/%s.json",
                                              importName,
@@ -257,11 +563,9 @@ public class ImportExport {
             final JsonObject toc = tocReader.readObject();
             final JsonArray files = toc.getJsonArray("files");
 
-            files.forEach(value -> importEntity(importName,
-                                                type,
-                                                ((JsonString) value).getString(),
-                                                entityImExporter));
-
+            files.forEach(value -> fileNames.add(
+                ((JsonString) value).getString()
+            ));
         } catch (IOException
                  | FileDoesNotExistException
                  | FileAccessException
@@ -269,12 +573,31 @@ public class ImportExport {
 
             throw new UnexpectedErrorException(ex);
         }
+
+        final Iterator<String> fileNamesIterator = fileNames.iterator();
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return fileNamesIterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return readEntityFile(importName,
+                                      type,
+                                      fileNamesIterator.next(),
+                                      entityImExporter);
+            }
+
+        };
     }
 
-    private void importEntity(final String importName,
-                              final String type,
-                              final String fileName,
-                              final AbstractEntityImExporter<?> imExporter) {
+    private <T extends Exportable> T readEntityFile(
+        final String importName,
+        final String type,
+        final String fileName,
+        final AbstractEntityImExporter<T> imExporter) {
 
         final String filePath = String.format("imports/%s/%s/%s",
                                               importName,
@@ -283,12 +606,7 @@ public class ImportExport {
         try (final InputStream inputStream
             = ccmFiles.createInputStream(filePath)) {
 
-            final String data = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-                .lines()
-                .collect(Collectors.joining("\n"));
-
-            imExporter.importEntity(data);
+            return imExporter.readEntity(inputStream);
 
         } catch (IOException
                  | FileDoesNotExistException
@@ -319,19 +637,12 @@ public class ImportExport {
             .collect(Collectors.toList());
     }
 
-    @SuppressWarnings("unchecked")
-    private JsonArrayBuilder createExportedEntities(
+    private void createExportedEntities(
         final String exportName,
-        final String type,
-        final List<Exportable> entities) {
-
-        final Class<? extends Exportable> clazz;
-        try {
-            clazz = (Class<? extends Exportable>) Class.forName(type);
-        } catch (ClassNotFoundException ex) {
-            throw new UnexpectedErrorException(ex);
-        }
+        final Class<? extends Exportable> clazz,
+        final ImportExportConfig config) {
 
+        final String type = clazz.getName();
         final Instance<AbstractEntityImExporter<?>> instance = imExporters
             .select(new ProcessesLiteral(clazz));
 
@@ -349,39 +660,50 @@ public class ImportExport {
             imExporter = instance.get();
         }
 
-        final JsonArrayBuilder filesArrayBuilder = Json.createArrayBuilder();
-        for (Exportable entity : entities) {
-            final String filename = String.format("%s.json", entity.getUuid());
-            final OutputStream outputStream;
-            try {
-                outputStream = ccmFiles.createOutputStream(String.format(
-                    "exports/%s/%s/%s",
-                    exportName,
-                    type,
-                    filename));
-                filesArrayBuilder.add(filename);
-            } catch (FileAccessException
-                     | InsufficientPermissionsException ex) {
-                throw new UnexpectedErrorException(ex);
-            }
-
-            final String exportedEntity;
-            try {
-                exportedEntity = imExporter.exportEntity(entity);
-            } catch (ExportException ex) {
-                throw new UnexpectedErrorException(ex);
-            }
-            try (final OutputStreamWriter writer = new OutputStreamWriter(
-                outputStream, StandardCharsets.UTF_8)) {
+        final String filePath = String.format(
+            "exports/%s/%s",
+            exportName,
+            buildEntitiesFileName(type, config.isCompressExports())
+        );
+        final int batchSize = (int) Math.max(1, config.getBatchSize());
+        try (final OutputStream outputStream = createExportOutputStream(
+            filePath, config.isCompressExports());
+             final Writer writer = new BufferedWriter(new OutputStreamWriter(
+                 outputStream, StandardCharsets.UTF_8))) {
+
+            final long count = exportPages(imExporter, writer, batchSize);
+            LOGGER.info("Exported {} entities of type \"{}\".", count, type);
+        } catch (IOException
+                 | FileAccessException
+                 | InsufficientPermissionsException
+                 | ExportException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+    }
 
-                writer.write(exportedEntity);
+    private OutputStream createExportOutputStream(final String filePath,
+                                                  final boolean compress)
+        throws FileAccessException,
+               InsufficientPermissionsException,
+               IOException {
 
-            } catch (IOException ex) {
-                throw new UnexpectedErrorException(ex);
-            }
+        final OutputStream outputStream = new BufferedOutputStream(
+            ccmFiles.createOutputStream(filePath)
+        );
+        if (compress) {
+            return new GZIPOutputStream(outputStream);
+        } else {
+            return outputStream;
         }
+    }
 
-        return filesArrayBuilder;
+    private String buildEntitiesFileName(final String type,
+                                         final boolean compressed) {
+        if (compressed) {
+            return String.format("%s.ndjson.gz", type);
+        } else {
+            return String.format("%s.ndjson", type);
+        }
     }
 
     private boolean isImportArchive(final String path) {
@@ -455,11 +777,19 @@ public class ImportExport {
                 types.add(typesArray.getString(i));
             }
 
+            final String format = manifestJson.getString(
+                "format", ImportManifest.FORMAT_ENTITY_FILES
+            );
+            final boolean compressed = manifestJson.getBoolean("compressed",
+                                                               false);
+
             return new ImportManifest(
                 path,
                 Date.from(created.atZone(ZoneId.of("UTC")).toInstant()),
                 onServer,
-                types
+                types,
+                format,
+                compressed
             );
         } catch (IOException
                  | FileAccessException
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.imexport;
+
+import org.libreccm.configuration.Configuration;
+import org.libreccm.configuration.Setting;
+
+/**
+ * Configuration options for the import and export of entities.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@Configuration
+public final class ImportExportConfig {
+
+    /**
+     * Number of entities processed in one transaction during an import or an
+     * export.
+     */
+    @Setting
+    private long batchSize = 100;
+
+    /**
+     * If set to {@code true} the files of an export are compressed using
+     * GZIP.
+     */
+    @Setting
+    private boolean compressExports = false;
+
+    /**
+     * Maximum number of entity types imported concurrently. Only entity types
+     * which do not depend on each other are imported concurrently. If set to
+     * {@code 1} all types are imported one after another.
+     */
+    @Setting
+    private long importThreads = 4;
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isCompressExports() {
+        return compressExports;
+    }
+
+    public void setCompressExports(final boolean compressExports) {
+        this.compressExports = compressExports;
+    }
+
+    public long getImportThreads() {
+        return importThreads;
+    }
+
+    public void setImportThreads(final long importThreads) {
+        this.importThreads = importThreads;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 37 * hash + Long.hashCode(batchSize);
+        hash = 37 * hash + (compressExports ? 1 : 0);
+        hash = 37 * hash + Long.hashCode(importThreads);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ImportExportConfig)) {
+            return false;
+        }
+        final ImportExportConfig other = (ImportExportConfig) obj;
+        if (batchSize != other.getBatchSize()) {
+            return false;
+        }
+        if (compressExports != other.isCompressExports()) {
+            return false;
+        }
+        return importThreads == other.getImportThreads();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "batchSize = %d, "
+                                 + "compressExports = %b, "
+                                 + "importThreads = %d"
+                                 + " }",
+                             super.toString(),
+                             batchSize,
+                             compressExports,
+                             importThreads);
+    }
+
+}
@@ -29,6 +29,19 @@ import java.util.List;
  */
 public class ImportManifest {
 
+    /**
+     * Format of exports with one JSON file per entity and a table of contents
+     * per entity type. Used by imports without a {@code format} property in
+     * the manifest.
+     */
+    public static final String FORMAT_ENTITY_FILES = "entity-files";
+
+    /**
+     * Format of exports with one file per entity type containing one entity
+     * per line (newline delimited JSON).
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+
     private final String importName;
 
     private final Date created;
@@ -37,16 +50,33 @@ public class ImportManifest {
 
     private final List<String> types;
 
+    private final String format;
+
+    private final boolean compressed;
+
     public ImportManifest(
         final String importName,
         final Date created,
         final String onServer,
         final List<String> types
+    ) {
+        this(importName, created, onServer, types, FORMAT_ENTITY_FILES, false);
+    }
+
+    public ImportManifest(
+        final String importName,
+        final Date created,
+        final String onServer,
+        final List<String> types,
+        final String format,
+        final boolean compressed
     ) {
         this.importName = importName;
         this.created = created;
         this.onServer = onServer;
         this.types = types;
+        this.format = format;
+        this.compressed = compressed;
     }
 
     public String getImportName() {
@@ -65,4 +95,12 @@ public class ImportManifest {
         return Collections.unmodifiableList(types);
     }
 
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
 }
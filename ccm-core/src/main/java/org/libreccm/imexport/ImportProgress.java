@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.imexport;
+
+import org.libreccm.core.UnexpectedErrorException;
+import org.libreccm.files.CcmFiles;
+import org.libreccm.files.DirectoryNotEmptyException;
+import org.libreccm.files.FileAccessException;
+import org.libreccm.files.FileDoesNotExistException;
+import org.libreccm.files.InsufficientPermissionsException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+
+/**
+ * Keeps track of the progress of an import. The progress is stored in the
+ * file {@code ccm-import-progress.json} in the directory of the import after
+ * each batch of entities has been committed. If an import is restarted after
+ * a failure the entity types which have been imported completely are skipped
+ * and the import of the other types continues after the last committed
+ * entity.
+ *
+ * The types of one level of the dependency tree are imported concurrently,
+ * therefore all methods modifying or reading the progress are synchronized.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class ImportProgress {
+
+    private static final String PROGRESS_FILE = "ccm-import-progress.json";
+
+    private static final String IMPORTED = "imported";
+
+    private static final String COMPLETED = "completed";
+
+    private final CcmFiles ccmFiles;
+
+    private final String progressPath;
+
+    /**
+     * Number of imported entities per type.
+     */
+    private final Map<String, Long> imported;
+
+    /**
+     * Types which have been imported completely.
+     */
+    private final Map<String, Boolean> completed;
+
+    private ImportProgress(final CcmFiles ccmFiles,
+                           final String progressPath) {
+        this.ccmFiles = ccmFiles;
+        this.progressPath = progressPath;
+        imported = new HashMap<>();
+        completed = new HashMap<>();
+    }
+
+    /**
+     * Loads the progress of an import. If there is no progress file for the
+     * import an empty progress is returned.
+     *
+     * @param ccmFiles   {@link CcmFiles} instance to use.
+     * @param importName The name of the import.
+     *
+     * @return The progress of the import.
+     */
+    static ImportProgress load(final CcmFiles ccmFiles,
+                               final String importName) {
+
+        final ImportProgress progress = new ImportProgress(
+            ccmFiles,
+            String.format("imports/%s/%s", importName, PROGRESS_FILE)
+        );
+
+        try {
+            if (!ccmFiles.existsFile(progress.progressPath)) {
+                return progress;
+            }
+        } catch (FileAccessException | InsufficientPermissionsException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        try (final InputStream inputStream = ccmFiles
+            .createInputStream(progress.progressPath);
+             final JsonReader reader = Json.createReader(inputStream)) {
+
+            final JsonObject types = reader.readObject();
+            for (final Map.Entry<String, JsonValue> entry : types.entrySet()) {
+                final JsonObject type = (JsonObject) entry.getValue();
+                progress.imported.put(
+                    entry.getKey(),
+                    type.getJsonNumber(IMPORTED).longValue()
+                );
+                progress.completed.put(entry.getKey(),
+                                       type.getBoolean(COMPLETED, false));
+            }
+        } catch (IOException
+                 | FileAccessException
+                 | FileDoesNotExistException
+                 | InsufficientPermissionsException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        return progress;
+    }
+
+    synchronized boolean isCompleted(final String type) {
+        return completed.getOrDefault(type, false);
+    }
+
+    synchronized long getImported(final String type) {
+        return imported.getOrDefault(type, 0L);
+    }
+
+    /**
+     * Records that entities of the provided type have been committed and
+     * saves the progress.
+     *
+     * @param type  The entity type.
+     * @param count The number of entities of the type which have been
+     *              committed.
+     */
+    synchronized void setImported(final String type, final long count) {
+        imported.put(type, count);
+        save();
+    }
+
+    /**
+     * Records that all entities of the provided type have been imported and
+     * saves the progress.
+     *
+     * @param type The entity type.
+     */
+    synchronized void setCompleted(final String type) {
+        imported.putIfAbsent(type, 0L);
+        completed.put(type, true);
+        save();
+    }
+
+    /**
+     * Deletes the progress file. Called after the import has been completed.
+     */
+    synchronized void delete() {
+        try {
+            if (ccmFiles.existsFile(progressPath)) {
+                ccmFiles.deleteFile(progressPath);
+            }
+        } catch (DirectoryNotEmptyException
+                 | FileAccessException
+                 | FileDoesNotExistException
+                 | InsufficientPermissionsException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+    }
+
+    private void save() {
+        final JsonObjectBuilder typesBuilder = Json.createObjectBuilder();
+        for (final Map.Entry<String, Long> entry : imported.entrySet()) {
+            typesBuilder.add(
+                entry.getKey(),
+                Json
+                    .createObjectBuilder()
+                    .add(IMPORTED, entry.getValue())
+                    .add(COMPLETED, isCompleted(entry.getKey()))
+            );
+        }
+
+        try (final OutputStream outputStream = ccmFiles
+            .createOutputStream(progressPath);
+             final JsonWriter writer = Json.createWriter(outputStream)) {
+
+            writer.writeObject(typesBuilder.build());
+        } catch (IOException
+                 | FileAccessException
+                 | InsufficientPermissionsException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.jpa;
+
+/**
+ * Names of the regions of the second level cache and of the query cache used
+ * by the entities of LibreCCM.
+ *
+ * The second level cache is only used for entities which are read often and
+ * modified rarely. These entities are annotated with
+ * {@link javax.persistence.Cacheable} and
+ * {@link org.hibernate.annotations.Cache} using one of the entity regions
+ * defined here.
+ *
+ * {@link org.libreccm.core.CcmObject} itself is not cached because most of
+ * its subclasses, for example content items, are modified often. Only the
+ * read mostly subclasses, for example {@code Category}, {@code Domain},
+ * {@code Site}, {@code CcmApplication} and {@code ContentType}, are annotated
+ * with {@link javax.persistence.Cacheable}. Hibernate defines the region and
+ * the concurrency strategy once for each inheritance hierarchy and ignores
+ * {@link org.hibernate.annotations.Cache} on subclasses. On the root entity
+ * the annotation would enable the cache for all subclasses. Therefore these
+ * entities share the region named after {@code CcmObject} and use the
+ * strategy set by {@code hibernate.cache.default_cache_concurrency_strategy}
+ * in the {@code persistence.xml}.
+ *
+ * Named queries for these entities which are executed very often use the
+ * query cache. These queries provide the hint
+ * {@link org.hibernate.annotations.QueryHints#CACHEABLE} and one of the query
+ * regions defined here.
+ *
+ * The caches are enabled in the {@code persistence.xml} of the bundle. The
+ * statistics for the regions are provided by {@link CacheStatistics}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class CacheRegions {
+
+    /**
+     * Region for the collections of the categorization system, for example
+     * the sub categories of a category.
+     */
+    public static final String CATEGORIZATION = "libreccm.categorization";
+
+    /**
+     * Region for roles and permissions and their collections.
+     */
+    public static final String SECURITY = "libreccm.security";
+
+    /**
+     * Region for the settings of the configuration system.
+     */
+    public static final String CONFIGURATION = "libreccm.configuration";
+
+    /**
+     * Region for page models.
+     */
+    public static final String PAGE_MODELS = "libreccm.pagemodels";
+
+    /**
+     * Region for the files of themes stored in the database.
+     */
+    public static final String THEMES = "libreccm.themes";
+
+    /**
+     * Query region for queries of the categorization system.
+     */
+    public static final String CATEGORIZATION_QUERIES
+                                   = "libreccm.queries.categorization";
+
+    /**
+     * Query region for queries for roles and permissions.
+     */
+    public static final String SECURITY_QUERIES = "libreccm.queries.security";
+
+    /**
+     * Query region for queries for settings.
+     */
+    public static final String CONFIGURATION_QUERIES
+                                   = "libreccm.queries.configuration";
+
+    /**
+     * Query region for queries for sites and applications.
+     */
+    public static final String SITES_QUERIES = "libreccm.queries.sites";
+
+    /**
+     * Query region for queries for page models.
+     */
+    public static final String PAGE_MODELS_QUERIES
+                                   = "libreccm.queries.pagemodels";
+
+    /**
+     * Query region for queries for theme files.
+     */
+    public static final String THEMES_QUERIES = "libreccm.queries.themes";
+
+    private CacheRegions() {
+        //Nothing
+    }
+
+}
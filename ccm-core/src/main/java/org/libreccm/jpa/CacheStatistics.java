@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.jpa;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+/**
+ * Provides access to the statistics of the regions of the second level cache
+ * and the query cache (see {@link CacheRegions}). The statistics are only
+ * collected if they are enabled, either using the property
+ * {@code hibernate.generate_statistics} in the {@code persistence.xml} or at
+ * runtime using {@link #setStatisticsEnabled(boolean)}. Collecting the
+ * statistics has a small overhead, therefore they should only be enabled
+ * while sizing the cache regions.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class CacheStatistics {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        CacheStatistics.class
+    );
+
+    @PersistenceUnit(unitName = "LibreCCM")
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Are statistics collected?
+     *
+     * @return {@code true} if statistics are collected, {@code false} if not.
+     */
+    public boolean isStatisticsEnabled() {
+        return getStatistics().isStatisticsEnabled();
+    }
+
+    /**
+     * Enables or disables the collection of statistics at runtime. The
+     * setting is not persisted.
+     *
+     * @param enabled {@code true} to enable the statistics, {@code false} to
+     *                disable them.
+     */
+    public void setStatisticsEnabled(final boolean enabled) {
+        getStatistics().setStatisticsEnabled(enabled);
+    }
+
+    /**
+     * Gets the statistics of all existing cache regions, including the query
+     * regions.
+     *
+     * @return An unmodifiable map with the statistics for each region,
+     *         ordered by the name of the region.
+     */
+    public Map<String, CacheRegionStatistics> getRegionStatistics() {
+        final Statistics statistics = getStatistics();
+        final Map<String, CacheRegionStatistics> result = new TreeMap<>();
+        Arrays
+            .stream(statistics.getSecondLevelCacheRegionNames())
+            .forEach(region -> {
+                final CacheRegionStatistics regionStatistics = statistics
+                    .getCacheRegionStatistics(region);
+                if (regionStatistics != null) {
+                    result.put(region, regionStatistics);
+                }
+            });
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Gets the overall hit ratio of the query cache.
+     *
+     * @return The hit ratio of the query cache, or {@code 0} if the query cache
+     *         has not been used yet.
+     */
+    public double getQueryCacheHitRatio() {
+        final Statistics statistics = getStatistics();
+        final long hits = statistics.getQueryCacheHitCount();
+        final long total = hits + statistics.getQueryCacheMissCount();
+        if (total == 0) {
+            return 0;
+        } else {
+            return (double) hits / total;
+        }
+    }
+
+    /**
+     * Writes the statistics of all regions to the log.
+     */
+    public void logStatistics() {
+        getRegionStatistics().forEach(
+            (region, statistics) -> LOGGER.info(
+                "Cache region {}: hits = {}, misses = {}, puts = {}, "
+                    + "elements in memory = {}, size in memory = {} bytes",
+                region,
+                statistics.getHitCount(),
+                statistics.getMissCount(),
+                statistics.getPutCount(),
+                statistics.getElementCountInMemory(),
+                statistics.getSizeInMemory()
+            )
+        );
+        LOGGER.info("Query cache hit ratio: {}", getQueryCacheHitRatio());
+    }
+
+    /**
+     * Resets all statistics.
+     */
+    public void reset() {
+        getStatistics().clear();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.jpa;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import static org.libreccm.core.CoreConstants.DB_SCHEMA;
+
+/**
+ * A named counter stored in the database. Application wide caches use version
+ * stamps to detect changes done by other nodes of a cluster: Each change of the
+ * cached data increments the stamp in the same transaction, and a node
+ * discards its cache if the stamp in the database differs from the stamp the
+ * cache was built for.
+ *
+ * The stamps are managed by {@link VersionStamps}. They are deliberately not
+ * cached in the second level cache.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@Entity
+@Table(name = "VERSION_STAMPS", schema = DB_SCHEMA)
+@NamedQueries({
+    @NamedQuery(
+        name = "VersionStamp.increment",
+        query = "UPDATE VersionStamp s SET s.stamp = s.stamp + 1 "
+                    + "WHERE s.name = :name"
+    )
+})
+public class VersionStamp implements Serializable {
+
+    private static final long serialVersionUID = 3407153839557466216L;
+
+    /**
+     * The name of the stamp.
+     */
+    @Id
+    @Column(name = "NAME", length = 255)
+    private String name;
+
+    /**
+     * The current value of the stamp.
+     */
+    @Column(name = "STAMP", nullable = false)
+    private long stamp;
+
+    public String getName() {
+        return name;
+    }
+
+    protected void setName(final String name) {
+        this.name = name;
+    }
+
+    public long getStamp() {
+        return stamp;
+    }
+
+    protected void setStamp(final long stamp) {
+        this.stamp = stamp;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(name);
+        hash = 29 * hash + Long.hashCode(stamp);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof VersionStamp)) {
+            return false;
+        }
+        final VersionStamp other = (VersionStamp) obj;
+        if (stamp != other.getStamp()) {
+            return false;
+        }
+        return Objects.equals(name, other.getName());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "name = \"%s\", "
+                                 + "stamp = %d"
+                                 + " }",
+                             super.toString(),
+                             name,
+                             stamp);
+    }
+
+}
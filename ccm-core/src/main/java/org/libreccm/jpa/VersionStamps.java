@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.jpa;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+/**
+ * Reads and increments {@link VersionStamp}s.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@RequestScoped
+public class VersionStamps {
+
+    @Inject
+    private EntityManager entityManager;
+
+    /**
+     * Gets the current value of a version stamp.
+     *
+     * @param name The name of the stamp.
+     *
+     * @return The current value of the stamp, {@code 0} if the stamp has never
+     *         been incremented.
+     */
+    public long getStamp(final String name) {
+        final VersionStamp stamp = entityManager.find(VersionStamp.class,
+                                                      name);
+        if (stamp == null) {
+            return 0;
+        } else {
+            return stamp.getStamp();
+        }
+    }
+
+    /**
+     * Increments a version stamp. If the current transaction is rolled back
+     * the stamp keeps its old value.
+     *
+     * The stamps used by ccm-core are created by the database migration which
+     * creates the table. A stamp which does not exist yet is created by this
+     * method. If two transactions create the same stamp at the same time one
+     * of them fails, therefore modules should also create their stamps in a
+     * migration.
+     *
+     * @param name The name of the stamp.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void increment(final String name) {
+        final int updated = entityManager
+            .createNamedQuery("VersionStamp.increment")
+            .setParameter("name", name)
+            .executeUpdate();
+
+        if (updated == 0) {
+            final VersionStamp stamp = new VersionStamp();
+            stamp.setName(name);
+            stamp.setStamp(1);
+            entityManager.persist(stamp);
+        }
+    }
+
+}
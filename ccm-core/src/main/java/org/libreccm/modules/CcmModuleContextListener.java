@@ -20,6 +20,7 @@ package org.libreccm.modules;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.libreccm.web.ApplicationRoutingTable;
 
 import javax.inject.Inject;
 import javax.servlet.ServletContextEvent;
@@ -44,10 +45,15 @@ public class CcmModuleContextListener implements ServletContextListener {
     @Inject
     private ModuleManager moduleManager;
 
+    @Inject
+    private ApplicationRoutingTable routingTable;
+
     @Override
     public void contextInitialized(final ServletContextEvent event) {
         LOGGER.info("ServletContext initalised. Initalising modules...");
         moduleManager.initModules();
+        LOGGER.info("Modules initalised. Building application routing table...");
+        routingTable.refresh();
     }
 
     @Override
@@ -18,10 +18,16 @@
  */
 package org.libreccm.pagemodel;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import org.libreccm.core.CoreConstants;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.l10n.LocalizedString;
 import org.libreccm.web.CcmApplication;
 
+import javax.persistence.Cacheable;
+import javax.persistence.QueryHint;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.validation.constraints.NotNull;
@@ -67,6 +73,9 @@ import javax.xml.bind.annotation.XmlTransient;
  * @see PageRenderer
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = CacheRegions.PAGE_MODELS)
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name = "PAGE_MODELS", schema = CoreConstants.DB_SCHEMA)
 @NamedQueries({
@@ -105,7 +114,12 @@ import javax.xml.bind.annotation.XmlTransient;
                       query = "SELECT p FROM PageModel p "
                               + "WHERE p.modelUuid = :uuid "
                               + "AND p.version = org.libreccm.pagemodel"
-                              + ".PageModelVersion.LIVE")
+                              + ".PageModelVersion.LIVE",
+                      hints = {
+                          @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                          @QueryHint(name = QueryHints.CACHE_REGION,
+                                     value = CacheRegions.PAGE_MODELS_QUERIES)
+                      })
                   ,
                   @NamedQuery(
                       name = "PageModel.findDraftByApplication",
@@ -161,7 +175,12 @@ import javax.xml.bind.annotation.XmlTransient;
                               + "WHERE p.name = :name "
                               + "AND p.application = :application "
                               + "AND p.version = org.libreccm.pagemodel"
-                              + ".PageModelVersion.LIVE"
+                              + ".PageModelVersion.LIVE",
+                      hints = {
+                          @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                          @QueryHint(name = QueryHints.CACHE_REGION,
+                                     value = CacheRegions.PAGE_MODELS_QUERIES)
+                      }
                   )
                   ,
                   @NamedQuery(
@@ -35,6 +35,7 @@ import org.libreccm.web.CcmApplication;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -81,6 +82,9 @@ public class PageModelManager {
     @Inject
     private ContainerModelManager containerModelManager;
 
+    @Inject
+    private Event<PageModelPublishedEvent> pageModelPublishedEvent;
+
     @Inject
     private PageModelRepository pageModelRepo;
 
@@ -330,6 +334,10 @@ public class PageModelManager {
         //    entityManager.persist(liveModel);
         //}
 
+        pageModelPublishedEvent.fire(
+            new PageModelPublishedEvent(liveModel.getModelUuid())
+        );
+
         LOGGER.debug("Successfully published PageModel \"{}\".",
                      liveModel.getName());
         return liveModel;
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.pagemodel;
+
+/**
+ * Event fired by {@link PageModelManager#publish(org.libreccm.pagemodel.PageModel)}
+ * after the live version of a {@link PageModel} has been created or updated.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class PageModelPublishedEvent {
+
+    /**
+     * The UUID of the published {@link PageModel}. The UUID is shared by the
+     * draft and the live version.
+     *
+     * @see PageModel#getModelUuid()
+     */
+    private final String modelUuid;
+
+    public PageModelPublishedEvent(final String modelUuid) {
+        this.modelUuid = modelUuid;
+    }
+
+    public String getModelUuid() {
+        return modelUuid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "modelUuid = %s"
+                                 + " }",
+                             super.toString(),
+                             modelUuid);
+    }
+
+}
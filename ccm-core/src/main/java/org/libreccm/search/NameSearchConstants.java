@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.search;
+
+/**
+ * Names of the analyzers and index fields used to search the display names of
+ * {@link org.libreccm.core.CcmObject}s using the search index instead of
+ * {@code LIKE} queries with a leading wildcard.
+ *
+ * The display name is indexed three times: Split into n-grams (for substring
+ * searches), as lower case keyword (for prefix searches) and unchanged (for
+ * sorting). The ID of the object is indexed as sortable field to provide a
+ * stable order for items with the same display name.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class NameSearchConstants {
+
+    /**
+     * Name of the analyzer which splits a name into n-grams of
+     * {@link #GRAM_SIZE} characters.
+     */
+    public static final String NGRAM_ANALYZER = "ccm_name_ngram";
+
+    /**
+     * Name of the analyzer which converts the complete name to lower case
+     * without splitting it into tokens.
+     */
+    public static final String KEYWORD_ANALYZER = "ccm_name_keyword";
+
+    /**
+     * The size of the n-grams. Search terms shorter than this can't be
+     * answered from the n-gram field.
+     */
+    public static final int GRAM_SIZE = 3;
+
+    /**
+     * {@link #GRAM_SIZE} as string for use in the analyzer definition.
+     */
+    public static final String GRAM_SIZE_PARAM = "" + GRAM_SIZE;
+
+    /**
+     * Field containing the n-grams of the display name.
+     */
+    public static final String DISPLAY_NAME_NGRAMS = "displayNameNgrams";
+
+    /**
+     * Field containing the display name as lower case keyword.
+     */
+    public static final String DISPLAY_NAME_KEYWORD = "displayNameKeyword";
+
+    /**
+     * Sortable field containing the unchanged display name.
+     */
+    public static final String DISPLAY_NAME_SORT = "displayNameSort";
+
+    /**
+     * Sortable field containing the ID of the object.
+     */
+    public static final String OBJECT_ID_SORT = "objectIdSort";
+
+    private NameSearchConstants() {
+        //Nothing
+    }
+
+}
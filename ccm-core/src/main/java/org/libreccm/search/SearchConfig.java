@@ -42,6 +42,18 @@ public final class SearchConfig {
     @Setting
     private String indexBase;
 
+    /**
+     * If enabled, searches for objects by their name (for example the filter
+     * of the content item listings) use the search index instead of
+     * {@code LIKE} queries. The index must be complete when this option is
+     * enabled, therefore this option should only be enabled if a persistent
+     * directory provider is used and the index has been rebuilt. Content
+     * items are only added to the index while this option is enabled,
+     * therefore the index must be rebuilt after enabling it.
+     */
+    @Setting
+    private boolean nameSearchEnabled = false;
+
     public String getDirectoryProvider() {
         return directoryProvider;
     }
@@ -58,11 +70,20 @@ public final class SearchConfig {
         this.indexBase = indexBase;
     }
 
+    public boolean isNameSearchEnabled() {
+        return nameSearchEnabled;
+    }
+
+    public void setNameSearchEnabled(final boolean nameSearchEnabled) {
+        this.nameSearchEnabled = nameSearchEnabled;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 83 * hash + Objects.hashCode(directoryProvider);
         hash = 83 * hash + Objects.hashCode(indexBase);
+        hash = 83 * hash + (nameSearchEnabled ? 1 : 0);
         return hash;
     }
 
@@ -82,18 +103,23 @@ public final class SearchConfig {
                             other.getDirectoryProvider())) {
             return false;
         }
-        return Objects.equals(this.indexBase, other.getIndexBase());
+        if (!Objects.equals(this.indexBase, other.getIndexBase())) {
+            return false;
+        }
+        return nameSearchEnabled == other.isNameSearchEnabled();
     }
 
     @Override
     public String toString() {
         return String.format("%s{ "
                                  + "directoryProvider = \"%s\", "
-                                 + "indexBase = \"%s\""
+                                 + "indexBase = \"%s\", "
+                                 + "nameSearchEnabled = %b"
                                  + " }",
                              super.toString(),
                              directoryProvider,
-                             indexBase);
+                             indexBase,
+                             nameSearchEnabled);
     }
 
 }
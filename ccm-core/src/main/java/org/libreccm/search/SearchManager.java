@@ -18,13 +18,18 @@
  */
 package org.libreccm.search;
 
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.search.Query;
 import org.hibernate.search.MassIndexer;
 import org.hibernate.search.SearchFactory;
 import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.QueryBuilder;
 import org.libreccm.core.CoreConstants;
+import org.libreccm.core.UnexpectedErrorException;
 import org.libreccm.security.AuthorizationRequired;
 import org.libreccm.security.RequiresPrivilege;
 
@@ -33,6 +38,8 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 
@@ -86,6 +93,75 @@ public class SearchManager {
         return searchFactory.buildQueryBuilder().forEntity(entityClass).get();
     }
 
+    /**
+     * Checks if entities of the provided class are added to the search index.
+     *
+     * @param entityClass The entity class.
+     *
+     * @return {@code true} if the entity class is indexed, {@code false}
+     *         otherwise.
+     */
+    public boolean isIndexed(final Class<?> entityClass) {
+        return fullTextEntityManager
+            .getSearchFactory()
+            .getIndexedTypes()
+            .contains(entityClass);
+    }
+
+    /**
+     * Splits a text into the terms created by an analyzer defined using
+     * {@link org.hibernate.search.annotations.AnalyzerDef}. Useful for
+     * creating queries from the terms directly, for example to require that
+     * all n-grams of a search term are present.
+     *
+     * @param analyzerName The name of the analyzer.
+     * @param fieldName    The name of the field for which the text is
+     *                     analyzed.
+     * @param text         The text to analyze.
+     *
+     * @return The terms created by the analyzer, in the order they were
+     *         emitted.
+     */
+    public List<String> analyze(final String analyzerName,
+                                final String fieldName,
+                                final String text) {
+        final Analyzer analyzer = fullTextEntityManager
+            .getSearchFactory()
+            .getAnalyzer(analyzerName);
+
+        final List<String> terms = new ArrayList<>();
+        try (final TokenStream tokenStream = analyzer.tokenStream(fieldName,
+                                                                  text)) {
+            final CharTermAttribute term = tokenStream
+                .addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        return terms;
+    }
+
+    /**
+     * Wraps a Hibernate Search/Lucene query into a {@link FullTextQuery}. In
+     * contrast to {@link #executeQuery(org.apache.lucene.search.Query)} the
+     * returned query can be customised before it is executed, for example by
+     * setting a sort order, a projection or the range of the results.
+     *
+     * @param query    The query to wrap.
+     * @param entities The entity classes to search for.
+     *
+     * @return The {@link FullTextQuery}.
+     */
+    public FullTextQuery createFullTextQuery(final Query query,
+                                             final Class<?>... entities) {
+        return fullTextEntityManager.createFullTextQuery(query, entities);
+    }
+
     /**
      * Executes a Hibernate Search/Lucene query. This method contains uses the
      * {@link #fullTextEntityManager} to wrap the Lucene query into an
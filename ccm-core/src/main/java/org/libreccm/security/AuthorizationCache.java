@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.libreccm.cache.GenerationCache;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+/**
+ * Application wide cache for the authorization data used by the
+ * {@link CcmShiroRealm}. The cache consists of two parts:
+ *
+ * <ul>
+ * <li>The IDs of the roles assigned to a user, directly or via the groups of
+ * the user, keyed by the user identifier used as principal.</li>
+ * <li>The {@link AuthorizationInfo} (role names and permissions) for a set of
+ * roles. Users with the same roles share the same {@link AuthorizationInfo}
+ * instance.</li>
+ * </ul>
+ *
+ * The entries are invalidated by {@link AuthorizationChangedEvent}s fired by
+ * the {@link PermissionManager}, {@link RoleManager}, {@link GroupManager} and
+ * the repositories for users, groups and roles. The entries are removed
+ * immediately when the event is fired (so that changes are visible in the
+ * current transaction) and again after the transaction has been completed.
+ * After a successful commit the event is published to the other nodes of a
+ * cluster using the {@link AuthorizationCacheInvalidationChannel}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class AuthorizationCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        AuthorizationCache.class
+    );
+
+    @Inject
+    private AuthorizationCacheInvalidationChannel invalidationChannel;
+
+    private final GenerationCache<String, UserRoles> userRoles
+        = new GenerationCache<>();
+
+    private final GenerationCache<Set<Long>, AuthorizationInfo>
+        authorizationInfos = new GenerationCache<>();
+
+    @PostConstruct
+    void init() {
+        getInvalidationChannel().addListener(this::invalidate);
+    }
+
+    /**
+     * Provides the channel used to exchange invalidations with the other
+     * nodes. Overwritten by the unit tests.
+     *
+     * @return The {@link AuthorizationCacheInvalidationChannel} to use.
+     */
+    AuthorizationCacheInvalidationChannel getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    /**
+     * Retrieves the {@link AuthorizationInfo} for a user.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param rolesLoader    Loads the roles of the user if they are not in
+     *                       the cache.
+     * @param infoBuilder    Creates the {@link AuthorizationInfo} for a set of
+     *                       role IDs if there is no cache entry for the set.
+     *                       The returned {@link AuthorizationInfo} is shared
+     *                       and must not be modified.
+     *
+     * @return The {@link AuthorizationInfo} for the user.
+     */
+    public AuthorizationInfo getAuthorizationInfo(
+        final String userIdentifier,
+        final Function<String, UserRoles> rolesLoader,
+        final Function<Set<Long>, AuthorizationInfo> infoBuilder) {
+
+        Objects.requireNonNull(userIdentifier);
+        Objects.requireNonNull(rolesLoader);
+        Objects.requireNonNull(infoBuilder);
+
+        final UserRoles roles = getUserRoles(userIdentifier, rolesLoader);
+        return authorizationInfos.get(roles.getRoleIds(), infoBuilder);
+    }
+
+    /**
+     * Retrieves the roles of a user.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param rolesLoader    Loads the roles of the user if they are not in
+     *                       the cache.
+     *
+     * @return The roles of the user.
+     */
+    public UserRoles getUserRoles(
+        final String userIdentifier,
+        final Function<String, UserRoles> rolesLoader) {
+
+        Objects.requireNonNull(userIdentifier);
+        Objects.requireNonNull(rolesLoader);
+
+        return userRoles.get(userIdentifier, rolesLoader);
+    }
+
+    /**
+     * Removes the entries affected by the provided event.
+     *
+     * @param event The event.
+     */
+    public void invalidate(final AuthorizationChangedEvent event) {
+        // Both caches are invalidated even if the event affects no entries
+        // of a cache. This ensures that no entry loaded while the change
+        // took place is kept.
+        final Set<Long> partyIds = event.getPartyIds();
+        userRoles.invalidateIf(
+            (userIdentifier, roles) -> partyIds.contains(roles.getPartyId())
+        );
+
+        final Set<Long> roleIds = event.getRoleIds();
+        authorizationInfos.invalidateIf(
+            (key, info) -> !Collections.disjoint(key, roleIds)
+        );
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        userRoles.invalidateAll();
+        authorizationInfos.invalidateAll();
+    }
+
+    /**
+     * Invalidates the affected entries immediately to make the change visible
+     * inside the current transaction.
+     *
+     * @param event The event.
+     */
+    protected void onAuthorizationChanged(
+        @Observes final AuthorizationChangedEvent event) {
+
+        invalidate(event);
+    }
+
+    /**
+     * Invalidates the affected entries again after the transaction has been
+     * committed and publishes the invalidation to the other nodes.
+     *
+     * @param event The event.
+     */
+    protected void onAuthorizationChangeCommitted(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final AuthorizationChangedEvent event) {
+
+        LOGGER.debug("Publishing authorization cache invalidation {}.",
+                     event);
+        invalidate(event);
+        getInvalidationChannel().publish(event);
+    }
+
+    /**
+     * Removes entries which may have been created from uncommitted data in
+     * a transaction which was rolled back.
+     *
+     * @param event The event.
+     */
+    protected void onAuthorizationChangeFailed(
+        @Observes(during = TransactionPhase.AFTER_FAILURE)
+        final AuthorizationChangedEvent event) {
+
+        invalidate(event);
+    }
+
+    /**
+     * @return The number of users in the cache.
+     */
+    public int getUserCount() {
+        return userRoles.getSize();
+    }
+
+    /**
+     * @return The number of role sets in the cache.
+     */
+    public int getRoleSetCount() {
+        return authorizationInfos.getSize();
+    }
+
+    /**
+     * @return The number of {@link AuthorizationInfo}s served from the cache.
+     */
+    public long getHitCount() {
+        return authorizationInfos.getHitCount();
+    }
+
+    /**
+     * @return The number of {@link AuthorizationInfo}s which were created.
+     */
+    public long getMissCount() {
+        return authorizationInfos.getMissCount();
+    }
+
+    /**
+     * The roles of a user.
+     */
+    public static final class UserRoles {
+
+        private final long partyId;
+
+        private final Set<Long> roleIds;
+
+        public UserRoles(final long partyId, final Set<Long> roleIds) {
+            this.partyId = partyId;
+            this.roleIds = Collections.unmodifiableSet(new HashSet<>(roleIds));
+        }
+
+        public long getPartyId() {
+            return partyId;
+        }
+
+        public Set<Long> getRoleIds() {
+            return roleIds;
+        }
+
+    }
+
+}
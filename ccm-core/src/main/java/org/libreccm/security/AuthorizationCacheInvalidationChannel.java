@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel used by the {@link AuthorizationCache} to propagate invalidations to
+ * the other nodes of a cluster. The default implementation
+ * {@link LocalAuthorizationCacheInvalidationChannel} delivers the messages
+ * only inside the current JVM. Installations running more than one node
+ * provide an implementation using a messaging system (for example JMS or
+ * JGroups) as CDI alternative.
+ *
+ * Delivering a message to the node which has published it is allowed, the
+ * invalidation of the {@link AuthorizationCache} is idempotent.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public interface AuthorizationCacheInvalidationChannel {
+
+    /**
+     * Sends an invalidation to all nodes.
+     *
+     * @param event The invalidation to send.
+     */
+    void publish(AuthorizationChangedEvent event);
+
+    /**
+     * Registers a listener which is called for every invalidation received
+     * from the channel.
+     *
+     * @param listener The listener to register.
+     */
+    void addListener(Consumer<AuthorizationChangedEvent> listener);
+
+}
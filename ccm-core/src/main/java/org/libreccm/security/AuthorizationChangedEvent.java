@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Event fired when the permissions of roles or the role assignments of parties
+ * have changed. The event is used to invalidate the entries of the
+ * {@link AuthorizationCache}. The event is also the message which is send to
+ * the other nodes of a cluster using an
+ * {@link AuthorizationCacheInvalidationChannel}, therefore it is
+ * {@link Serializable}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class AuthorizationChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * IDs of the roles which permissions have changed.
+     */
+    private final Set<Long> roleIds;
+
+    /**
+     * IDs of the parties which roles (directly or via a group) have changed.
+     */
+    private final Set<Long> partyIds;
+
+    public AuthorizationChangedEvent(final Collection<Long> roleIds,
+                                     final Collection<Long> partyIds) {
+        this.roleIds = Collections.unmodifiableSet(new HashSet<>(roleIds));
+        this.partyIds = Collections.unmodifiableSet(new HashSet<>(partyIds));
+    }
+
+    /**
+     * Creates an event for a change of the permissions granted to a role.
+     *
+     * @param role The role.
+     *
+     * @return The event.
+     */
+    public static AuthorizationChangedEvent forRole(final Role role) {
+        return new AuthorizationChangedEvent(
+            Collections.singleton(role.getRoleId()),
+            Collections.emptySet()
+        );
+    }
+
+    /**
+     * Creates an event for a change of the roles assigned to a party. If the
+     * party is a {@link Group} the members of the group are affected.
+     *
+     * @param party The party.
+     *
+     * @return The event.
+     */
+    public static AuthorizationChangedEvent forParty(final Party party) {
+        final Set<Long> partyIds = new HashSet<>();
+        partyIds.add(party.getPartyId());
+        if (party instanceof Group) {
+            for (final GroupMembership membership : ((Group) party)
+                .getMemberships()) {
+                partyIds.add(membership.getMember().getPartyId());
+            }
+        }
+        return new AuthorizationChangedEvent(Collections.emptySet(),
+                                             partyIds);
+    }
+
+    public Set<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    public Set<Long> getPartyIds() {
+        return partyIds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "roleIds = %s, "
+                                 + "partyIds = %s"
+                                 + " }",
+                             super.toString(),
+                             roleIds,
+                             partyIds);
+    }
+
+}
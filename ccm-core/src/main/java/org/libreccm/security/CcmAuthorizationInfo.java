@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link AuthorizationInfo} used by the {@link CcmShiroRealm}. Instead of a
+ * list of permission strings which Shiro has to parse and compare one by one
+ * the permissions are stored in two indexes: A set containing the privileges
+ * granted without an object, and a map from the privileges granted on objects
+ * to a primitive set of the IDs of these objects. Checking a
+ * {@link PrivilegePermission} is therefore a constant time operation which
+ * does not depend on the number of permissions granted to the subject.
+ *
+ * Instances are immutable and shared by all users with the same roles (see
+ * {@link AuthorizationCache}). Use {@link Builder} to create an instance.
+ *
+ * For compatibility {@link #getStringPermissions()} still provides the
+ * permissions in the string format used by Shiro.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class CcmAuthorizationInfo implements AuthorizationInfo {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> roles;
+
+    private final boolean allPrivileges;
+
+    private final Set<String> globalPrivileges;
+
+    /**
+     * Maps privileges to the IDs of the objects on which they are granted.
+     * The {@link LongHashSet}s are never modified after the instance has been
+     * created and can therefore be read concurrently.
+     */
+    private final Map<String, LongHashSet> objectPrivileges;
+
+    private transient volatile Set<String> stringPermissions;
+
+    private CcmAuthorizationInfo(
+        final Set<String> roles,
+        final Set<String> globalPrivileges,
+        final Map<String, LongHashSet> objectPrivileges) {
+
+        this.roles = Collections.unmodifiableSet(roles);
+        this.globalPrivileges = Collections.unmodifiableSet(globalPrivileges);
+        this.objectPrivileges = Collections.unmodifiableMap(objectPrivileges);
+        allPrivileges = globalPrivileges.contains(
+            PrivilegePermission.ALL_PRIVILEGES
+        );
+    }
+
+    /**
+     * Checks if the provided permission is granted.
+     *
+     * @param permission The permission to check.
+     *
+     * @return {@code true} if the permission is granted, {@code false}
+     *         otherwise.
+     */
+    boolean isPermitted(final PrivilegePermission permission) {
+        if (allPrivileges) {
+            return true;
+        }
+
+        final String privilege = permission.getPrivilege();
+        if (globalPrivileges.contains(privilege)) {
+            return true;
+        }
+        if (permission.isGlobal()) {
+            return false;
+        }
+
+        return isGrantedOnObject(privilege, permission.getObjectId())
+                   || isGrantedOnObject(PrivilegePermission.ALL_PRIVILEGES,
+                                        permission.getObjectId());
+    }
+
+    private boolean isGrantedOnObject(final String privilege,
+                                      final long objectId) {
+        final LongHashSet objectIds = objectPrivileges.get(privilege);
+        return objectIds != null && objectIds.contains(objectId);
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Creates the permission strings on the first call. Not used by the
+     * {@link CcmShiroRealm} for checking {@link PrivilegePermission}s.
+     *
+     * @return The permissions in the string format used by Shiro.
+     */
+    @Override
+    public Collection<String> getStringPermissions() {
+        Set<String> result = stringPermissions;
+        if (result == null) {
+            final Set<String> permissions = new HashSet<>(globalPrivileges);
+            for (final Map.Entry<String, LongHashSet> entry
+                     : objectPrivileges.entrySet()) {
+                for (final long objectId : entry.getValue().toArray()) {
+                    permissions.add(String.format("%s:%d",
+                                                  entry.getKey(),
+                                                  objectId));
+                }
+            }
+            result = Collections.unmodifiableSet(permissions);
+            stringPermissions = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<Permission> getObjectPermissions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "roles = %s, "
+                                 + "globalPrivileges = %s, "
+                                 + "objectPrivileges = %s"
+                                 + " }",
+                             super.toString(),
+                             roles,
+                             globalPrivileges,
+                             objectPrivileges.keySet());
+    }
+
+    /**
+     * Builder for {@link CcmAuthorizationInfo}. Not thread safe.
+     */
+    static class Builder {
+
+        private final Set<String> roles = new HashSet<>();
+
+        private final Set<String> globalPrivileges = new HashSet<>();
+
+        private final Map<String, LongHashSet> objectPrivileges
+                                                   = new HashMap<>();
+
+        private boolean built;
+
+        Builder addRole(final String role) {
+            checkNotBuilt();
+            roles.add(role);
+            return this;
+        }
+
+        /**
+         * Adds a privilege granted without an object.
+         *
+         * @param privilege The privilege.
+         *
+         * @return This builder.
+         */
+        Builder addPrivilege(final String privilege) {
+            checkNotBuilt();
+            globalPrivileges.add(privilege.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * Adds a privilege granted on an object.
+         *
+         * @param privilege The privilege.
+         * @param objectId  The ID of the object.
+         *
+         * @return This builder.
+         */
+        Builder addPrivilege(final String privilege, final long objectId) {
+            checkNotBuilt();
+            objectPrivileges
+                .computeIfAbsent(privilege.toLowerCase(Locale.ROOT),
+                                 key -> new LongHashSet())
+                .add(objectId);
+            return this;
+        }
+
+        /**
+         * Adds a {@link Permission} entity.
+         *
+         * @param permission The permission to add.
+         *
+         * @return This builder.
+         */
+        Builder addPermission(
+            final org.libreccm.security.Permission permission) {
+
+            if (permission.getObject() == null) {
+                return addPrivilege(permission.getGrantedPrivilege());
+            } else {
+                return addPrivilege(permission.getGrantedPrivilege(),
+                                    permission.getObject().getObjectId());
+            }
+        }
+
+        CcmAuthorizationInfo build() {
+            checkNotBuilt();
+            // The sets of the builder are handed over to the info, therefore
+            // the builder can't be used anymore.
+            built = true;
+            return new CcmAuthorizationInfo(roles,
+                                            globalPrivileges,
+                                            objectPrivileges);
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException(
+                    "The AuthorizationInfo has already been built.");
+            }
+        }
+
+    }
+
+}
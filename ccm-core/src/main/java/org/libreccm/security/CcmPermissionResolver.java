@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.PermissionResolver;
+import org.apache.shiro.authz.permission.WildcardPermission;
+
+/**
+ * Resolves the permission strings created by
+ * {@link PermissionChecker#generatePermissionString(java.lang.String)} and
+ * {@link PermissionChecker#generatePermissionString(java.lang.String, org.libreccm.core.CcmObject)}
+ * to {@link PrivilegePermission}s which can be checked by the
+ * {@link CcmShiroRealm} without scanning all permissions of a subject. All
+ * other strings, for example strings containing wildcards or lists, are
+ * resolved to a {@link WildcardPermission} as before.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+class CcmPermissionResolver implements PermissionResolver {
+
+    @Override
+    public Permission resolvePermission(final String permissionString) {
+        if (permissionString == null || permissionString.trim().isEmpty()) {
+            return new WildcardPermission(permissionString);
+        }
+
+        if (PrivilegePermission.ALL_PRIVILEGES.equals(permissionString)) {
+            return PrivilegePermission.forPrivilege(permissionString);
+        }
+
+        final int separator = permissionString.indexOf(':');
+        final int privilegeEnd = separator < 0
+                                     ? permissionString.length()
+                                     : separator;
+        if (privilegeEnd == 0
+                || !isPlainPrivilege(permissionString, privilegeEnd)) {
+            return new WildcardPermission(permissionString);
+        }
+
+        if (separator < 0) {
+            return PrivilegePermission.forPrivilege(permissionString);
+        }
+
+        final long objectId = parseObjectId(permissionString, separator + 1);
+        if (objectId < 0) {
+            return new WildcardPermission(permissionString);
+        }
+        return PrivilegePermission.forObject(
+            permissionString.substring(0, separator), objectId
+        );
+    }
+
+    private boolean isPlainPrivilege(final String permissionString,
+                                     final int end) {
+        for (int i = 0; i < end; i++) {
+            final char character = permissionString.charAt(i);
+            if (character == '*'
+                    || character == ','
+                    || Character.isWhitespace(character)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the object ID part of a permission string.
+     *
+     * @return The object ID or {@code -1} if the part is not a valid ID.
+     */
+    private long parseObjectId(final String permissionString,
+                               final int start) {
+        final int length = permissionString.length();
+        // Object IDs are positive and have at most 18 digits here, which
+        // avoids overflow checks.
+        if (start >= length || length - start > 18) {
+            return -1;
+        }
+        long objectId = 0;
+        for (int i = start; i < length; i++) {
+            final char character = permissionString.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            objectId = objectId * 10 + (character - '0');
+        }
+        return objectId;
+    }
+
+}
@@ -24,7 +24,7 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.SimpleAuthenticationInfo;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.libreccm.cdi.utils.CdiUtil;
@@ -42,6 +42,42 @@ import java.util.List;
                    "PMD.StdCyclomaticComplexity"})
 public class CcmShiroRealm extends AuthorizingRealm {
 
+    public CcmShiroRealm() {
+        super();
+        // The authorization data is cached by the AuthorizationCache which is
+        // invalidated if permissions or role assignments are changed. Shiro's
+        // own cache is never invalidated and would serve outdated data.
+        setAuthorizationCachingEnabled(false);
+        // Resolves the permission strings used by LibreCCM to
+        // PrivilegePermissions which are checked using the indexes of the
+        // CcmAuthorizationInfo.
+        setPermissionResolver(new CcmPermissionResolver());
+    }
+
+    /**
+     * Checks {@link PrivilegePermission}s using the indexes of the
+     * {@link CcmAuthorizationInfo} instead of comparing the permission with
+     * each permission of the subject. All other permissions are checked by
+     * Shiro as usual.
+     *
+     * @param permission The permission to check.
+     * @param info       The {@link AuthorizationInfo} of the subject.
+     *
+     * @return {@code true} if the permission is granted, {@code false}
+     *         otherwise.
+     */
+    @Override
+    protected boolean isPermitted(final Permission permission,
+                                  final AuthorizationInfo info) {
+        if (permission instanceof PrivilegePermission
+                && info instanceof CcmAuthorizationInfo) {
+            return ((CcmAuthorizationInfo) info)
+                .isPermitted((PrivilegePermission) permission);
+        } else {
+            return super.isPermitted(permission, info);
+        }
+    }
+
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(
         final PrincipalCollection principals) {
@@ -75,12 +111,14 @@ public class CcmShiroRealm extends AuthorizingRealm {
 
             final List<Role> roles = controller.retrieveAllRoles();
 
-            final SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+            final CcmAuthorizationInfo.Builder builder
+                                                    = new CcmAuthorizationInfo.Builder();
             for (final Role role : roles) {
-                info.addRole(role.getName());
+                builder.addRole(role.getName());
             }
-            info.addStringPermission("*");
+            builder.addPrivilege(PrivilegePermission.ALL_PRIVILEGES);
 
+            final AuthorizationInfo info = builder.build();
             return info;
         }
 
@@ -21,14 +21,16 @@ package org.libreccm.security;
 import com.arsdigita.kernel.KernelConfig;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.libreccm.configuration.ConfigurationManager;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * This bean provides several services for the {@link CcmShiroRealm}. It wraps
@@ -55,6 +57,9 @@ class CcmShiroRealmController {
     @Inject
     private ConfigurationManager confManager;
 
+    @Inject
+    private AuthorizationCache authorizationCache;
+
     @Transactional(Transactional.TxType.REQUIRED)
     protected List<Role> retrieveAllRoles() {
         return roleRepo.findAll();
@@ -95,67 +100,96 @@ class CcmShiroRealmController {
         return user.get();
     }
 
+    /**
+     * Creates the {@link AuthorizationInfo} for a user. The roles of the user
+     * and the {@link AuthorizationInfo} for the roles are retrieved from the
+     * {@link AuthorizationCache} if possible.
+     *
+     * @param userIdentifier The identifier of the user.
+     *
+     * @return The {@link AuthorizationInfo} for the user.
+     */
     @Transactional(Transactional.TxType.REQUIRED)
     protected AuthorizationInfo createAuthorizationInfo(
         final String userIdentifier) {
 
+        return authorizationCache.getAuthorizationInfo(
+            userIdentifier, this::findRolesOfUser, this::buildAuthorizationInfo
+        );
+    }
+
+    /**
+     * Retrieves the IDs of the roles assigned to a user, either directly or
+     * via the groups of which the user is a member.
+     *
+     * @param userIdentifier The identifier of the user.
+     *
+     * @return The IDs of the roles of the user.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    protected Set<Long> findRoleIds(final String userIdentifier) {
+        return authorizationCache
+            .getUserRoles(userIdentifier, this::findRolesOfUser)
+            .getRoleIds();
+    }
+
+    /**
+     * Helper method for collecting the IDs of the roles assigned to a user,
+     * either directly or via the groups of which the user is a member.
+     *
+     * @param userIdentifier The identifier of the user.
+     *
+     * @return The roles of the user.
+     */
+    private AuthorizationCache.UserRoles findRolesOfUser(
+        final String userIdentifier) {
+
         final User user = findUser(userIdentifier);
 
-        // Create a SimpleAuthorizationInfo instance. Contains the information
-        // from the database in the format expected by Shiro.
-        final SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+        final Set<Long> roleIds = new HashSet<>();
         // Get the Roles directly assigned to the user.
         for (final RoleMembership roleMembership : user.getRoleMemberships()) {
-            // Add the role to the AuthorizationInfo object.
-            final Role role = roleMembership.getRole();
-            info.addRole(role.getName());
-
-            final List<Permission> permissions = permissionManager
-                .findPermissionsForRole(role);
-
-            // Add the permissions assigned to the role to the AuthorizatonInfo. )
-//            for (final Permission permission : roleMembership.getRole()
-//                .getPermissions()) {
-            for (final Permission permission : permissions) {
-                info.addStringPermission(permissionToString(permission));
-            }
+            roleIds.add(roleMembership.getRole().getRoleId());
         }
-
         //Get the Roles assigned to the groups of which the user is member of.
         for (final GroupMembership membership : user.getGroupMemberships()) {
-            // Get the roles assigned to the group
             for (final RoleMembership roleMembership : membership.getGroup()
                 .getRoleMemberships()) {
-                // Add the role to the AuthorizationInfo
-                info.addRole(roleMembership.getRole().getName());
-                // Add the permissions assigned to the role to the 
-                // AuthorizationInfo
-                for (final Permission permission : roleMembership.getRole()
-                    .getPermissions()) {
-                    info.addStringPermission(permissionToString(permission));
-                }
+                roleIds.add(roleMembership.getRole().getRoleId());
             }
         }
 
-        return info;
+        return new AuthorizationCache.UserRoles(user.getPartyId(), roleIds);
     }
 
     /**
-     * Helper method for converting a {@link Permission} to the string format
-     * used by Shiro.
+     * Helper method for creating the {@link AuthorizationInfo} for a set of
+     * roles. The returned {@link AuthorizationInfo} is shared by all users
+     * with the same roles and is therefore immutable. The permissions are
+     * indexed by privilege and object ID, see {@link CcmAuthorizationInfo}.
      *
-     * @param permission The permission to convert.
+     * @param roleIds The IDs of the roles.
      *
-     * @return A Shiro permission string.
+     * @return An unmodifiable {@link AuthorizationInfo} containing the names
+     *         of the roles and the permissions granted to them.
      */
-    private String permissionToString(final Permission permission) {
-        if (permission.getObject() == null) {
-            return permission.getGrantedPrivilege();
-        } else {
-            return String.format("%s:%d",
-                                 permission.getGrantedPrivilege(),
-                                 permission.getObject().getObjectId());
+    private AuthorizationInfo buildAuthorizationInfo(final Set<Long> roleIds) {
+
+        final CcmAuthorizationInfo.Builder builder
+                                                = new CcmAuthorizationInfo.Builder();
+        for (final Long roleId : roleIds) {
+            final Optional<Role> role = roleRepo.findById(roleId);
+            if (!role.isPresent()) {
+                continue;
+            }
+            builder.addRole(role.get().getName());
+            for (final Permission permission : permissionManager
+                .findPermissionsForRole(role.get())) {
+                builder.addPermission(permission);
+            }
         }
+
+        return builder.build();
     }
 
 }
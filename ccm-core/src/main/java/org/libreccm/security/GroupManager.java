@@ -21,6 +21,7 @@ package org.libreccm.security;
 import org.libreccm.core.CoreConstants;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -50,6 +51,9 @@ public class GroupManager implements Serializable {
     @Inject
     private EntityManager entityManager;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     /**
      * Adds a member to group and saves the changed group and user entities.
      * 
@@ -87,6 +91,10 @@ public class GroupManager implements Serializable {
         entityManager.persist(membership);
         groupRepository.save(group);
         userRepository.save(user);
+
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(user)
+        );
     }
 
     /**
@@ -130,6 +138,10 @@ public class GroupManager implements Serializable {
         entityManager.remove(delete);
         groupRepository.save(group);
         userRepository.save(member);
+
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(member)
+        );
     }
 
     /**
@@ -22,6 +22,8 @@ import org.libreccm.core.AbstractEntityRepository;
 import org.libreccm.core.CoreConstants;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
@@ -39,6 +41,9 @@ public class GroupRepository extends AbstractEntityRepository<Long, Group> {
 
     private static final long serialVersionUID = 115864505126792697L;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     @Override
     public Class<Group> getEntityClass() {
         return Group.class;
@@ -153,11 +158,16 @@ public class GroupRepository extends AbstractEntityRepository<Long, Group> {
         final Group delete = getEntityManager().find(Group.class,
                                                      entity.getPartyId());
 
+        final AuthorizationChangedEvent event = AuthorizationChangedEvent
+            .forParty(delete);
+
         delete.getMemberships().forEach(m -> {
             getEntityManager().remove(m);
         });
 
         getEntityManager().remove(delete);
+
+        authorizationChangedEvent.fire(event);
     }
 
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * {@link AuthorizationCacheInvalidationChannel} which delivers the messages
+ * synchronously to the listeners in the current JVM. Sufficient for single
+ * node installations and for tests.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class LocalAuthorizationCacheInvalidationChannel
+    implements AuthorizationCacheInvalidationChannel {
+
+    private final List<Consumer<AuthorizationChangedEvent>> listeners
+        = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(final AuthorizationChangedEvent event) {
+        Objects.requireNonNull(event);
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void addListener(
+        final Consumer<AuthorizationChangedEvent> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A minimal set of primitive {@code long} values using open addressing with
+ * linear probing. Used to store object IDs without boxing them into
+ * {@link Long} objects, for example for the results of
+ * {@link PermissionChecker#filterPermitted(java.lang.String, java.util.Collection)}.
+ *
+ * This class is not thread safe.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+final class LongHashSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Marker for empty slots. The value itself is tracked by
+     * {@link #containsEmptyValue}.
+     */
+    private static final long EMPTY = 0L;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slots;
+
+    private boolean containsEmptyValue;
+
+    private int size;
+
+    LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    LongHashSet(final int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value The value to add.
+     *
+     * @return {@code true} if the value was not in the set before.
+     */
+    boolean add(final long value) {
+        if (value == EMPTY) {
+            if (containsEmptyValue) {
+                return false;
+            }
+            containsEmptyValue = true;
+            size++;
+            return true;
+        }
+
+        if ((size + 1) * 4L > slots.length * 3L) {
+            rehash(slots.length * 2);
+        }
+
+        final int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks if the set contains a value.
+     *
+     * @param value The value.
+     *
+     * @return {@code true} if the set contains the value, {@code false}
+     *         otherwise.
+     */
+    boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmptyValue;
+        }
+
+        final int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The values of the set in no particular order.
+     */
+    long[] toArray() {
+        final long[] result = new long[size];
+        int index = 0;
+        if (containsEmptyValue) {
+            result[index++] = EMPTY;
+        }
+        for (final long value : slots) {
+            if (value != EMPTY) {
+                result[index++] = value;
+            }
+        }
+        return result;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldSlots = slots;
+        slots = new long[capacity];
+        final int mask = capacity - 1;
+        for (final long value : oldSlots) {
+            if (value != EMPTY) {
+                int index = hash(value) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L < expectedSize * 4L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(final long value) {
+        // Spread the bits, object IDs are usually consecutive numbers.
+        final long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ size = %d, values = %s }",
+                             super.toString(),
+                             size,
+                             Arrays.toString(toArray()));
+    }
+
+}
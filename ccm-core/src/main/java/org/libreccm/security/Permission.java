@@ -20,6 +20,9 @@ package org.libreccm.security;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import org.hibernate.search.annotations.ContainedIn;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.IndexedEmbedded;
@@ -39,7 +42,9 @@ import static org.libreccm.core.CoreConstants.DB_SCHEMA;
 
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import org.libreccm.imexport.Exportable;
+import org.libreccm.jpa.CacheRegions;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -50,6 +55,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToOne;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -61,6 +67,9 @@ import javax.persistence.TemporalType;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = CacheRegions.SECURITY)
 @Table(name = "PERMISSIONS", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(name = "Permission.findByUuid",
@@ -74,7 +83,18 @@ import javax.persistence.TemporalType;
                 query = "SELECT COUNT(p) FROM Permission p "
                             + "WHERE p.grantedPrivilege = :privilege "
                             + "AND p.grantee = :grantee "
-                            + "AND p.object = :object"),
+                            + "AND p.object = :object",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.SECURITY_QUERIES)
+                }),
+    @NamedQuery(name = "Permission.findPermittedObjectIds",
+                query = "SELECT DISTINCT p.object.objectId FROM Permission p "
+                            + "WHERE LOWER(p.grantedPrivilege) "
+                            + "IN (:privilege, :allPrivileges) "
+                            + "AND p.grantee.roleId IN :roleIds "
+                            + "AND p.object.objectId IN :objectIds"),
     @NamedQuery(name = "Permission.existsDirectForPrivilegeRoleObject",
                 query = "SELECT COUNT(p) FROM Permission p "
                             + "WHERE p.grantedPrivilege = :privilege "
@@ -97,7 +117,12 @@ import javax.persistence.TemporalType;
                             + "WHERE p.grantee = :grantee"),
     @NamedQuery(name = "Permission.findPermissionsForCcmObject",
                 query = "SELECT p FROM Permission p "
-                            + "WHERE p.object = :object"),
+                            + "WHERE p.object = :object",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.SECURITY_QUERIES)
+                }),
     @NamedQuery(name = "Permission.findPermissionsForRoleAndObject",
                 query = "SELECT p FROM Permission p "
                             + "WHERE p.object = :object and p.grantee = :grantee")
@@ -20,6 +20,7 @@ package org.libreccm.security;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authz.AuthorizationException;
 import org.apache.shiro.subject.Subject;
 import org.libreccm.core.CcmObject;
@@ -29,7 +30,14 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.libreccm.core.CoreConstants.ACCESS_DENIED;
 
@@ -45,6 +53,12 @@ public class PermissionChecker {
     private static final Logger LOGGER = LogManager.getLogger(
         PermissionChecker.class);
 
+    /**
+     * Maximum number of object IDs passed to one query by
+     * {@link #findPermittedObjectIds(java.lang.String, java.util.Collection)}.
+     */
+    private static final int OBJECT_ID_BATCH_SIZE = 1000;
+
     /**
      * The current subject as provided by {@link Shiro#getSubject()}.
      */
@@ -60,9 +74,14 @@ public class PermissionChecker {
     @Inject
     private RoleRepository roleRepo;
 
+    @Inject
+    private CcmShiroRealmController realmController;
+
     /**
      * Checks if the current subject has a permission granting the provided
-     * {@code privilege}.
+     * {@code privilege}. The check is done using a {@link PrivilegePermission}
+     * which is looked up in the indexes of the {@link CcmAuthorizationInfo}
+     * of the subject instead of parsing a permission string.
      *
      * @param privilege The privilege granted by the permission.
      *
@@ -74,11 +93,12 @@ public class PermissionChecker {
             if (shiro.isSystemUser()) {
                 return true;
             } else {
-                 return subject.isPermitted(generatePermissionString(privilege));
+                return subject.isPermitted(
+                    PrivilegePermission.forPrivilege(privilege));
             }
         } else {
-            return shiro.getPublicUser().isPermitted(generatePermissionString(
-                privilege));
+            return shiro.getPublicUser().isPermitted(
+                PrivilegePermission.forPrivilege(privilege));
         }
     }
 
@@ -139,15 +159,131 @@ public class PermissionChecker {
             if (shiro.isSystemUser()) {
                 return true;
             } else {
-                return subject.isPermitted(generatePermissionString(
-                    privilege, object));
+                return subject.isPermitted(PrivilegePermission.forObject(
+                    privilege, object.getObjectId()));
             }
         } else {
-            return shiro.getPublicUser().isPermitted(generatePermissionString(
-                privilege, object));
+            return shiro.getPublicUser().isPermitted(
+                PrivilegePermission.forObject(privilege, object.getObjectId()));
         }
     }
 
+    /**
+     * Filters a collection of objects and returns only the objects on which
+     * the current subject has a permission granting the provided
+     * {@code privilege}. In contrast to calling
+     * {@link #isPermitted(java.lang.String, org.libreccm.core.CcmObject)} for
+     * each object the permissions for all objects are retrieved with a single
+     * query (for very large collections one query per 1000 objects).
+     *
+     * @param <T>       The type of the objects.
+     * @param privilege The privilege to check for.
+     * @param objects   The objects to filter.
+     *
+     * @return A list of the objects the current subject is permitted to
+     *         access, in the iteration order of {@code objects}.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public <T extends CcmObject> List<T> filterPermitted(
+        final String privilege, final Collection<T> objects) {
+
+        final LongHashSet permitted = findPermittedObjectIds(privilege,
+                                                             objects);
+        return objects
+            .stream()
+            .filter(object -> object != null)
+            .filter(object -> permitted.contains(object.getObjectId()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Determines the IDs of the objects in the provided collection on which
+     * the current subject has a permission granting the provided
+     * {@code privilege}. Like {@link CcmAuthorizationInfo} the privileges
+     * are compared case insensitive and a permission granting
+     * {@link PrivilegePermission#ALL_PRIVILEGES} on an object permits every
+     * privilege on that object.
+     *
+     * @param privilege The privilege to check for.
+     * @param objects   The objects to check.
+     *
+     * @return The IDs of the objects the current subject is permitted to
+     *         access.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    protected LongHashSet findPermittedObjectIds(
+        final String privilege, final Collection<? extends CcmObject> objects) {
+
+        if (privilege == null || privilege.trim().isEmpty()) {
+            throw new IllegalArgumentException(
+                "Can't check permission null (or empty)");
+        }
+
+        if (objects == null) {
+            throw new IllegalArgumentException(
+                "Can't check permissions for collection null.");
+        }
+
+        final LongHashSet objectIds = new LongHashSet(objects.size());
+        for (final CcmObject object : objects) {
+            if (object != null) {
+                objectIds.add(object.getObjectId());
+            }
+        }
+
+        // The system user and subjects with a permission granting the
+        // privilege without an object are permitted to access all objects.
+        if (objectIds.isEmpty() || isPermitted(privilege)) {
+            return objectIds;
+        }
+
+        final Object principal;
+        if (subject.isAuthenticated()) {
+            principal = subject.getPrincipal();
+        } else {
+            principal = shiro.getPublicUser().getPrincipal();
+        }
+
+        final Set<Long> roleIds;
+        try {
+            roleIds = realmController.findRoleIds((String) principal);
+        } catch (AuthenticationException ex) {
+            LOGGER.warn("Failed to retrieve the roles of principal \"{}\".",
+                        principal,
+                        ex);
+            return new LongHashSet();
+        }
+
+        final LongHashSet permitted = new LongHashSet();
+        if (roleIds.isEmpty()) {
+            return permitted;
+        }
+
+        final long[] ids = objectIds.toArray();
+        for (int start = 0; start < ids.length; start += OBJECT_ID_BATCH_SIZE) {
+            final int end = Math.min(start + OBJECT_ID_BATCH_SIZE, ids.length);
+            final List<Long> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                batch.add(ids[i]);
+            }
+
+            final TypedQuery<Long> query = entityManager.createNamedQuery(
+                "Permission.findPermittedObjectIds", Long.class);
+            query.setParameter("privilege",
+                               privilege.toLowerCase(Locale.ROOT));
+            query.setParameter("allPrivileges",
+                               PrivilegePermission.ALL_PRIVILEGES);
+            query.setParameter("roleIds", roleIds);
+            query.setParameter("objectIds", batch);
+
+            for (final Long objectId : query.getResultList()) {
+                permitted.add(objectId);
+            }
+        }
+
+        return permitted;
+    }
+
     /**
      * Checks if the provided {@code role} has a permission granting the
      * provided {@code privilege} on the provided object.
@@ -202,11 +338,12 @@ public class PermissionChecker {
         throws AuthorizationException {
         if (subject.isAuthenticated()) {
             if (!shiro.isSystemUser()) {
-                subject.checkPermission(generatePermissionString(privilege));
+                subject.checkPermission(
+                    PrivilegePermission.forPrivilege(privilege));
             }
         } else {
-            shiro.getPublicUser().checkPermission(generatePermissionString(
-                privilege));
+            shiro.getPublicUser().checkPermission(
+                PrivilegePermission.forPrivilege(privilege));
         }
     }
 
@@ -227,12 +364,12 @@ public class PermissionChecker {
 
         if (subject.isAuthenticated()) {
             if (!shiro.isSystemUser()) {
-                subject.checkPermission(generatePermissionString(privilege,
-                                                                 object));
+                subject.checkPermission(PrivilegePermission.forObject(
+                    privilege, object.getObjectId()));
             }
         } else {
-            shiro.getPublicUser().checkPermission(generatePermissionString(
-                privilege, object));
+            shiro.getPublicUser().checkPermission(
+                PrivilegePermission.forObject(privilege, object.getObjectId()));
         }
     }
 
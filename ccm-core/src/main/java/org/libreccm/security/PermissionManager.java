@@ -26,6 +26,7 @@ import org.libreccm.core.CoreConstants;
 import org.libreccm.core.UnexpectedErrorException;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -71,6 +72,9 @@ public class PermissionManager implements Serializable {
     @Inject
     private PermissionRepository permissionRepository;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     /**
      * Retrieves a permission by its ID. Useful for UI classes.
      *
@@ -184,6 +188,10 @@ public class PermissionManager implements Serializable {
 
             grantRecursive(privilege, grantee, object, object.getClass(), object);
 
+            authorizationChangedEvent.fire(
+                AuthorizationChangedEvent.forRole(grantee)
+            );
+
             return permission;
         }
     }
@@ -409,6 +417,10 @@ public class PermissionManager implements Serializable {
             permission.setUuid(UUID.randomUUID().toString());
 
             entityManager.persist(permission);
+
+            authorizationChangedEvent.fire(
+                AuthorizationChangedEvent.forRole(grantee)
+            );
         }
     }
 
@@ -476,6 +488,10 @@ public class PermissionManager implements Serializable {
             deleteInheritedQuery.setParameter("object", object);
             final int deletedInherited = deleteInheritedQuery.executeUpdate();
             LOGGER.debug("{} inherited permissions deleted.", deletedInherited);
+
+            authorizationChangedEvent.fire(
+                AuthorizationChangedEvent.forRole(grantee)
+            );
         } else {
             LOGGER.warn("No permission granting privilege \"{}\" "
                             + "on object \"{}\" to role \"{}\". Ignoring.",
@@ -516,6 +532,10 @@ public class PermissionManager implements Serializable {
             query.setParameter(QUERY_PARAM_PRIVILEGE, privilege);
             query.setParameter(QUERY_PARAM_GRANTEE, grantee);
             query.executeUpdate();
+
+            authorizationChangedEvent.fire(
+                AuthorizationChangedEvent.forRole(grantee)
+            );
         }
     }
 
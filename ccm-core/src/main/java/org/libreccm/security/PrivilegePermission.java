@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.WildcardPermission;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A Shiro {@link Permission} for a privilege, either granted globally or on a
+ * specific object. This is the typed equivalent of the permission strings
+ * {@code privilege} and {@code privilege:objectId} created by
+ * {@link PermissionChecker#generatePermissionString(java.lang.String)} and
+ * {@link PermissionChecker#generatePermissionString(java.lang.String, org.libreccm.core.CcmObject)}.
+ *
+ * The {@link CcmShiroRealm} checks instances of this class using the indexes
+ * of {@link CcmAuthorizationInfo} instead of comparing them with each
+ * permission of the subject. Like Shiro's {@code WildcardPermission} the
+ * privilege is case insensitive.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class PrivilegePermission implements Permission {
+
+    /**
+     * Privilege which implies all other privileges.
+     */
+    public static final String ALL_PRIVILEGES = "*";
+
+    private final String privilege;
+
+    private final boolean global;
+
+    private final long objectId;
+
+    private PrivilegePermission(final String privilege,
+                                final boolean global,
+                                final long objectId) {
+        if (privilege == null || privilege.trim().isEmpty()) {
+            throw new IllegalArgumentException(
+                "Can't create a permission for privilege null (or empty).");
+        }
+        // toLowerCase returns the same string if there is nothing to convert.
+        this.privilege = privilege.toLowerCase(Locale.ROOT);
+        this.global = global;
+        this.objectId = objectId;
+    }
+
+    /**
+     * Creates a permission for a privilege without an object.
+     *
+     * @param privilege The privilege.
+     *
+     * @return A permission for the privilege.
+     */
+    public static PrivilegePermission forPrivilege(final String privilege) {
+        return new PrivilegePermission(privilege, true, 0);
+    }
+
+    /**
+     * Creates a permission for a privilege on an object.
+     *
+     * @param privilege The privilege.
+     * @param objectId  The ID of the object.
+     *
+     * @return A permission for the privilege on the object.
+     */
+    public static PrivilegePermission forObject(final String privilege,
+                                                final long objectId) {
+        return new PrivilegePermission(privilege, false, objectId);
+    }
+
+    public String getPrivilege() {
+        return privilege;
+    }
+
+    /**
+     * @return {@code true} if this permission is not restricted to a specific
+     *         object.
+     */
+    public boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * @return The ID of the object. Only meaningful if {@link #isGlobal()}
+     *         returns {@code false}.
+     */
+    public long getObjectId() {
+        return objectId;
+    }
+
+    /**
+     * Checks if this permission implies another permission. Other
+     * {@code PrivilegePermission}s are compared directly. All other
+     * permissions, for example {@link WildcardPermission}s like
+     * {@code admin_users:*}, are checked using the
+     * {@link WildcardPermission} equivalent of this permission, because
+     * the {@link CcmShiroRealm} resolves the stored permission strings of a
+     * subject into {@code PrivilegePermission}s.
+     *
+     * @param permission The permission to check.
+     *
+     * @return {@code true} if this permission implies the provided
+     *         permission, {@code false} otherwise.
+     */
+    @Override
+    public boolean implies(final Permission permission) {
+        if (!(permission instanceof PrivilegePermission)) {
+            return new WildcardPermission(toString()).implies(permission);
+        }
+
+        final PrivilegePermission other = (PrivilegePermission) permission;
+        final boolean privilegeImplied
+                          = ALL_PRIVILEGES.equals(privilege)
+                                || privilege.equals(other.getPrivilege());
+        if (!privilegeImplied) {
+            return false;
+        }
+
+        return global || (!other.isGlobal() && objectId == other.getObjectId());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 41 * hash + Objects.hashCode(privilege);
+        hash = 41 * hash + (global ? 1 : 0);
+        hash = 41 * hash + Long.hashCode(objectId);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PrivilegePermission)) {
+            return false;
+        }
+        final PrivilegePermission other = (PrivilegePermission) obj;
+        return global == other.isGlobal()
+                   && objectId == other.getObjectId()
+                   && privilege.equals(other.getPrivilege());
+    }
+
+    /**
+     * @return The permission in the string format used by Shiro.
+     */
+    @Override
+    public String toString() {
+        if (global) {
+            return privilege;
+        } else {
+            return String.format("%s:%d", privilege, objectId);
+        }
+    }
+
+}
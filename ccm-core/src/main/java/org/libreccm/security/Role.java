@@ -21,7 +21,11 @@ package org.libreccm.security;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import org.hibernate.search.annotations.Field;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.l10n.LocalizedString;
 import org.libreccm.workflow.TaskAssignment;
 
@@ -39,6 +43,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import javax.persistence.AssociationOverride;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
@@ -55,6 +60,7 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.xml.bind.annotation.XmlAccessType;
@@ -69,13 +75,26 @@ import javax.xml.bind.annotation.XmlRootElement;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = CacheRegions.SECURITY)
 @Table(name = "CCM_ROLES", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(name = "Role.findByUuid",
-                query = "SELECT r FROM Role r WHERE r.uuid = :uuid"),
+                query = "SELECT r FROM Role r WHERE r.uuid = :uuid",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.SECURITY_QUERIES)
+                }),
     @NamedQuery(name = "Role.findByName",
                 query = "SELECT r FROM Role r "
-                            + "WHERE r.name = :name")
+                            + "WHERE r.name = :name",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.SECURITY_QUERIES)
+                })
     ,
     @NamedQuery(
         name = "Role.count",
@@ -122,7 +141,12 @@ import javax.xml.bind.annotation.XmlRootElement;
     @NamedQuery(
         name = "Role.findRolesOfUser",
         query = "SELECT r.role FROM RoleMembership r "
-                    + "WHERE r.member = :user")
+                    + "WHERE r.member = :user",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.SECURITY_QUERIES)
+        })
     ,
     @NamedQuery(
         name = "Role.findByParty",
@@ -207,6 +231,8 @@ public class Role implements Serializable, Exportable {
      */
     @OneToMany(mappedBy = "grantee")
     @OrderBy("grantedPrivilege ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+           region = CacheRegions.SECURITY)
     @XmlElementWrapper(name = "permissions", namespace = CORE_XML_NS)
     @XmlElement(name = "permission", namespace = CORE_XML_NS)
     @JsonIgnore
@@ -23,6 +23,7 @@ import org.libreccm.core.CoreConstants;
 import java.io.Serializable;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -59,6 +60,9 @@ public class RoleManager implements Serializable {
     @Inject
     private PermissionChecker permissionChecker;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     /**
      * Assigns a role to a party and saves the changed {@code Role} and
      * {@code Party} entities. If the provided {@code role} has already been
@@ -94,6 +98,10 @@ public class RoleManager implements Serializable {
         entityManager.persist(membership);
         roleRepository.save(role);
         partyRepository.save(party);
+
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(party)
+        );
     }
 
     /**
@@ -134,6 +142,10 @@ public class RoleManager implements Serializable {
         entityManager.remove(delete);
         roleRepository.save(role);
         partyRepository.save(party);
+
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(party)
+        );
     }
 
     /**
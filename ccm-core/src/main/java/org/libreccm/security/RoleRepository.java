@@ -23,12 +23,17 @@ import org.libreccm.core.CcmObject;
 import org.libreccm.core.CoreConstants;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -41,6 +46,9 @@ public class RoleRepository extends AbstractEntityRepository<Long, Role> {
 
     private static final long serialVersionUID = 2285369521940062504L;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     @Override
     public Class<Role> getEntityClass() {
         return Role.class;
@@ -185,6 +193,9 @@ public class RoleRepository extends AbstractEntityRepository<Long, Role> {
     @Override
     public void save(final Role role) {
         super.save(role);
+
+        // The name of the role is part of the cached authorization data.
+        authorizationChangedEvent.fire(AuthorizationChangedEvent.forRole(role));
     }
 
     @AuthorizationRequired
@@ -199,11 +210,19 @@ public class RoleRepository extends AbstractEntityRepository<Long, Role> {
         final Role delete = getEntityManager().find(Role.class,
                                                     role.getRoleId());
 
+        final Set<Long> memberIds = new HashSet<>();
         delete.getMemberships().forEach(m -> {
+            memberIds.addAll(AuthorizationChangedEvent
+                .forParty(m.getMember())
+                .getPartyIds());
             getEntityManager().remove(m);
         });
 
         getEntityManager().remove(delete);
+
+        authorizationChangedEvent.fire(new AuthorizationChangedEvent(
+            Collections.singleton(delete.getRoleId()), memberIds
+        ));
     }
 
 }
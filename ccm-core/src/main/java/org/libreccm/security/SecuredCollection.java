@@ -18,7 +18,6 @@
  */
 package org.libreccm.security;
 
-import org.libreccm.cdi.utils.CdiUtil;
 import org.libreccm.core.CcmObject;
 
 import java.util.Collection;
@@ -55,18 +54,8 @@ public class SecuredCollection<E extends CcmObject> implements Collection<E> {
     private final Collection<E> collection;
 
     /**
-     * The class of the objects in the collection. Required for creating the
-     * virtual <em>Access denied</em> object
-     */
-    private final Class<E> clazz;
-
-    /**
-     * The privilege required for accessing the objects in the collection.
-     */
-    private final String requiredPrivilege;
-
-    /**
-     * Helper class for creating the <em>Access denied</em> object.
+     * Helper class for checking the permissions and for creating the
+     * <em>Access denied</em> object.
      */
     private final SecuredHelper<E> securedHelper;
 
@@ -82,9 +71,17 @@ public class SecuredCollection<E extends CcmObject> implements Collection<E> {
                              final Class<E> clazz,
                              final String requiredPrivilege) {
         this.collection = collection;
-        this.clazz = clazz;
-        this.requiredPrivilege = requiredPrivilege;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = new SecuredHelper<>(clazz,
+                                                 requiredPrivilege,
+                                                 collection);
+    }
+
+    /**
+     * @return The {@link SecuredHelper} of this collection. The helper checks
+     *         the permissions for all objects of the collection in bulk.
+     */
+    SecuredHelper<E> getSecuredHelper() {
+        return securedHelper;
     }
 
     @Override
@@ -104,20 +101,15 @@ public class SecuredCollection<E extends CcmObject> implements Collection<E> {
 
     @Override
     public Iterator<E> iterator() {
-        return new SecuredIterator<>(collection.iterator(), clazz,
-                                     requiredPrivilege);
+        return new SecuredIterator<>(collection.iterator(), securedHelper);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Object[] toArray() {
-        final PermissionChecker permissionChecker = CdiUtil.createCdiUtil()
-            .findBean(PermissionChecker.class);
-
         final Object[] objects = collection.toArray();
         for (int i = 0; i < objects.length; i++) {
-            if (!permissionChecker
-                .isPermitted(requiredPrivilege, (E) objects[i])) {
+            if (!securedHelper.isPermitted((E) objects[i])) {
                 objects[i] = securedHelper.generateAccessDeniedObject();
             }
         }
@@ -128,13 +120,9 @@ public class SecuredCollection<E extends CcmObject> implements Collection<E> {
     @Override
     @SuppressWarnings({"unchecked", "PMD.UseVarargs"})
     public <T> T[] toArray(final T[] array) {
-        final PermissionChecker permissionChecker = CdiUtil.createCdiUtil()
-            .findBean(PermissionChecker.class);
-
         final T[] objects = collection.toArray(array);
         for (int i = 0; i < objects.length; i++) {
-            if (!permissionChecker.isPermitted(requiredPrivilege,
-                                               (CcmObject) objects[i])) {
+            if (!securedHelper.isPermitted((CcmObject) objects[i])) {
                 objects[i] = (T) securedHelper.generateAccessDeniedObject();
             }
         }
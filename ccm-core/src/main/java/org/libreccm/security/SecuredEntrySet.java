@@ -18,7 +18,6 @@
  */
 package org.libreccm.security;
 
-import org.libreccm.cdi.utils.CdiUtil;
 import org.libreccm.core.CcmObject;
 
 import java.util.Collection;
@@ -90,14 +89,10 @@ class SecuredEntrySet<E extends Map.Entry<K, V>, K, V extends CcmObject>
     @Override
     @SuppressWarnings("unchecked")
     public Object[] toArray() {
-        final PermissionChecker permissionChecker = CdiUtil.createCdiUtil()
-            .findBean(PermissionChecker.class);
-
         final Object[] entries = set.toArray();
         for (int i = 0; i < entries.length; i++) {
             final E entry = (E) entries[i];
-            if (!permissionChecker.isPermitted(requiredPrivilege,
-                                               entry.getValue())) {
+            if (!securedHelper.isPermitted(entry.getValue())) {
                 entries[i] = securedHelper.generateAccessDeniedObject();
             }
         }
@@ -108,13 +103,9 @@ class SecuredEntrySet<E extends Map.Entry<K, V>, K, V extends CcmObject>
     @Override
     @SuppressWarnings({"unchecked", "PMD.UseVarargs"})
     public <T> T[] toArray(final T[] array) {
-        final PermissionChecker permissionChecker = CdiUtil.createCdiUtil()
-            .findBean(PermissionChecker.class);
-
         final E[] entries = (E[]) set.toArray(array);
         for (int i = 0; i < entries.length; i++) {
-            if (!permissionChecker.isPermitted(requiredPrivilege,
-                                               entries[i].getValue())) {
+            if (!securedHelper.isPermitted(entries[i].getValue())) {
                 entries[i] = (E) securedHelper.generateAccessDeniedObject();
             }
         }
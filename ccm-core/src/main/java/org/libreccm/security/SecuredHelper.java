@@ -23,6 +23,8 @@ import org.apache.logging.log4j.Logger;
 import org.libreccm.cdi.utils.CdiUtil;
 import org.libreccm.core.CcmObject;
 
+import java.util.Collection;
+
 import static org.libreccm.core.CoreConstants.ACCESS_DENIED;
 
 /**
@@ -43,11 +45,45 @@ class SecuredHelper<E extends CcmObject> {
      * Privilege required to access the objects in the collection.
      */
     private final String requiredPrivilege;
+    /**
+     * The objects of the secured collection. If not {@code null} the
+     * permissions for all objects in the collection are retrieved using
+     * {@link PermissionChecker#findPermittedObjectIds(java.lang.String, java.util.Collection)}
+     * when the first object is checked.
+     */
+    private final Collection<? extends E> source;
+    /**
+     * The IDs of the objects checked in bulk. {@code null} until the first
+     * check.
+     */
+    private LongHashSet checkedObjectIds;
+    /**
+     * The IDs of the objects from {@link #checkedObjectIds} which the current
+     * subject is permitted to access.
+     */
+    private LongHashSet permittedObjectIds;
 
     protected SecuredHelper(final Class<E> clazz,
                             final String requiredPrivilege) {
+        this(clazz, requiredPrivilege, null);
+    }
+
+    /**
+     * Creates a helper which checks the permissions for all objects in the
+     * provided collection with one query when the first object is accessed.
+     * Objects added to the collection later are checked individually. The
+     * result of the bulk check is kept for the lifetime of the helper.
+     *
+     * @param clazz             Class of the objects in the collection.
+     * @param requiredPrivilege Privilege required to access the objects.
+     * @param source            The collection.
+     */
+    protected SecuredHelper(final Class<E> clazz,
+                            final String requiredPrivilege,
+                            final Collection<? extends E> source) {
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
+        this.source = source;
     }
 
     /**
@@ -67,16 +103,60 @@ class SecuredHelper<E extends CcmObject> {
             return null;
         }
 
-        final PermissionChecker permissionChecker = CdiUtil.createCdiUtil()
-            .findBean(PermissionChecker.class);
-
-        if (permissionChecker.isPermitted(requiredPrivilege, object)) {
+        if (isPermitted(object)) {
             return object;
         } else {
             return generateAccessDeniedObject();
         }
     }
 
+    /**
+     * Checks if the current subject has the permission to access the provided
+     * object with the privilege of this helper.
+     *
+     * @param object The object to check. If the object is {@code null} the
+     *               method returns {@code true}.
+     *
+     * @return {@code true} if the current subject is permitted to access the
+     *         object, {@code false} otherwise.
+     */
+    protected boolean isPermitted(final CcmObject object) {
+        if (object == null) {
+            return true;
+        }
+
+        final PermissionChecker permissionChecker = getPermissionChecker();
+
+        if (source != null) {
+            if (checkedObjectIds == null) {
+                checkedObjectIds = new LongHashSet(source.size());
+                for (final E element : source) {
+                    if (element != null) {
+                        checkedObjectIds.add(element.getObjectId());
+                    }
+                }
+                permittedObjectIds = permissionChecker.findPermittedObjectIds(
+                    requiredPrivilege, source
+                );
+            }
+            if (checkedObjectIds.contains(object.getObjectId())) {
+                return permittedObjectIds.contains(object.getObjectId());
+            }
+        }
+
+        return permissionChecker.isPermitted(requiredPrivilege, object);
+    }
+
+    /**
+     * Retrieves the {@link PermissionChecker} used for checking the
+     * permissions. Overwritten by the unit tests.
+     *
+     * @return The {@link PermissionChecker} of the current request.
+     */
+    PermissionChecker getPermissionChecker() {
+        return CdiUtil.createCdiUtil().findBean(PermissionChecker.class);
+    }
+
     /**
      * Helper method for creating an <em>Access denied</em> placeholder object.
      *
@@ -46,8 +46,20 @@ public class SecuredIterator<E extends CcmObject> implements Iterator<E> {
     public SecuredIterator(final Iterator<E> iterator,
                            final Class<E> clazz,
                            final String requiredPrivilege) {
+        this(iterator, new SecuredHelper<>(clazz, requiredPrivilege));
+    }
+
+    /**
+     * Create a new secured iterator using the {@link SecuredHelper} of the
+     * secured collection from which the iterator was obtained.
+     *
+     * @param iterator      The iterator to secure.
+     * @param securedHelper The {@link SecuredHelper} to use.
+     */
+    SecuredIterator(final Iterator<E> iterator,
+                    final SecuredHelper<E> securedHelper) {
         this.iterator = iterator;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = securedHelper;
     }
 
     /**
@@ -69,7 +69,7 @@ public class SecuredList<E extends CcmObject>
         this.list = list;
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = getSecuredHelper();
     }
 
     @Override
@@ -110,16 +110,13 @@ public class SecuredList<E extends CcmObject>
 
     @Override
     public ListIterator<E> listIterator() {
-        return new SecuredListIterator<>(list.listIterator(),
-                                         clazz,
-                                         requiredPrivilege);
+        return new SecuredListIterator<>(list.listIterator(), securedHelper);
     }
 
     @Override
     public ListIterator<E> listIterator(final int index) {
         return new SecuredListIterator<>(list.listIterator(index),
-                                         clazz,
-                                         requiredPrivilege);
+                                         securedHelper);
     }
 
     @Override
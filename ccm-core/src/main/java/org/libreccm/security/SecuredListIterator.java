@@ -54,9 +54,21 @@ public class SecuredListIterator<E extends CcmObject>
     public SecuredListIterator(final ListIterator<E> iterator,
                                final Class<E> clazz,
                                final String requiredPrivilege) {
-        super(iterator, clazz, requiredPrivilege);
+        this(iterator, new SecuredHelper<>(clazz, requiredPrivilege));
+    }
+
+    /**
+     * Creates a new secured list iterator using the {@link SecuredHelper} of
+     * the secured list from which the iterator was obtained.
+     *
+     * @param iterator      The iterator to secure.
+     * @param securedHelper The {@link SecuredHelper} to use.
+     */
+    SecuredListIterator(final ListIterator<E> iterator,
+                        final SecuredHelper<E> securedHelper) {
+        super(iterator, securedHelper);
         this.iterator = iterator;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = securedHelper;
     }
 
     @Override
@@ -67,7 +67,17 @@ public class SecuredMap<K, V extends CcmObject> implements Map<K, V> {
         this.map = map;
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = new SecuredHelper<>(clazz,
+                                                 requiredPrivilege,
+                                                 map.values());
+    }
+
+    /**
+     * @return The {@link SecuredHelper} of this map. The helper checks the
+     *         permissions for all values of the map in bulk.
+     */
+    SecuredHelper<V> getSecuredHelper() {
+        return securedHelper;
     }
 
     @Override
@@ -69,7 +69,7 @@ public class SecuredNavigableMap<K, V extends CcmObject>
         this.navigableMap = navigableMap;
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
-        securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        securedHelper = getSecuredHelper();
     }
 
     @Override
@@ -69,7 +69,7 @@ public class SecuredNavigableSet<E extends CcmObject>
         this.set = set;
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = getSecuredHelper();
     }
 
     @Override
@@ -112,8 +112,7 @@ public class SecuredNavigableSet<E extends CcmObject>
     @Override
     public Iterator<E> descendingIterator() {
         return new SecuredIterator<>(set.descendingIterator(),
-                                     clazz,
-                                     requiredPrivilege);
+                                     securedHelper);
     }
 
     @Override
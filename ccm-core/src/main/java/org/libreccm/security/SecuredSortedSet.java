@@ -68,7 +68,7 @@ public class SecuredSortedSet<E extends CcmObject>
         this.set = set;
         this.clazz = clazz;
         this.requiredPrivilege = requiredPrivilege;
-        this.securedHelper = new SecuredHelper<>(clazz, requiredPrivilege);
+        this.securedHelper = getSecuredHelper();
     }
 
     @Override
@@ -22,6 +22,8 @@ import org.libreccm.core.AbstractEntityRepository;
 import org.libreccm.core.CoreConstants;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.persistence.EntityGraph;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
@@ -40,6 +42,9 @@ public class UserRepository extends AbstractEntityRepository<Long, User> {
 
     private static final long serialVersionUID = 5787091134411376455L;
 
+    @Inject
+    private Event<AuthorizationChangedEvent> authorizationChangedEvent;
+
     @Override
     public Class<User> getEntityClass() {
         return User.class;
@@ -202,6 +207,12 @@ public class UserRepository extends AbstractEntityRepository<Long, User> {
     @Override
     public void save(final User entity) {
         super.save(entity);
+
+        // The cached roles of a user are keyed by the user name or the email
+        // address of the user which may have changed.
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(entity)
+        );
     }
 
     @Override
@@ -233,6 +244,10 @@ public class UserRepository extends AbstractEntityRepository<Long, User> {
         });
 
         getEntityManager().remove(delete);
+
+        authorizationChangedEvent.fire(
+            AuthorizationChangedEvent.forParty(delete)
+        );
     }
 
 }
@@ -20,7 +20,9 @@ package org.libreccm.sites;
 
 import static org.libreccm.core.CoreConstants.*;
 
+import org.hibernate.annotations.QueryHints;
 import org.libreccm.core.CcmObject;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.theming.Themes;
 
 import java.util.ArrayList;
@@ -28,12 +30,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 
 /**
@@ -42,6 +46,7 @@ import javax.persistence.Table;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
 @Table(name = "SITES", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(
@@ -52,21 +57,36 @@ import javax.persistence.Table;
         name = "Site.findByDomain",
         query = "SELECT s FROM Site s "
                     + "WHERE s.domainOfSite = :domain "
-                    + "ORDER BY s.domainOfSite"
+                    + "ORDER BY s.domainOfSite",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.SITES_QUERIES)
+        }
     )
     ,
     @NamedQuery(
         name = "Site.findDefaultSite",
         query = "SELECT s FROM Site s "
                     + "WHERE s.defaultSite = true "
-                    + "ORDER BY s.domainOfSite"
+                    + "ORDER BY s.domainOfSite",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.SITES_QUERIES)
+        }
     )
     ,
     @NamedQuery(
         name = "Site.hasSiteForDomain",
         query = "SELECT (CASE WHEN COUNT(s) > 0 THEN true ELSE false END) "
                     + "FROM Site s "
-                    + "WHERE s.domainOfSite = :domain")
+                    + "WHERE s.domainOfSite = :domain",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION,
+                       value = CacheRegions.SITES_QUERIES)
+        })
 })
 public class Site extends CcmObject {
 
@@ -31,6 +31,7 @@ import org.libreccm.files.InsufficientPermissionsException;
 import org.libreccm.theming.manifest.ThemeManifest;
 import org.libreccm.theming.manifest.ThemeManifestUtil;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +45,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 /**
@@ -77,6 +79,9 @@ public class FileSystemThemeProvider implements ThemeProvider {
     @Inject
     private ThemeFileInfoUtil themeFileInfoUtil;
 
+    @Inject
+    private Event<ThemeChangedEvent> themeChangedEvent;
+
     @Override
     public String getName() {
         return "FileSystemThemeProvider";
@@ -202,6 +207,11 @@ public class FileSystemThemeProvider implements ThemeProvider {
             throw new UnexpectedErrorException(ex);
         }
 
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(themeName,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.CREATED));
+
         return getThemeInfo(themeName, ThemeVersion.DRAFT).get();
     }
 
@@ -236,6 +246,11 @@ public class FileSystemThemeProvider implements ThemeProvider {
                      | InsufficientPermissionsException ex) {
             throw new UnexpectedErrorException(ex);
         }
+
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(themeName,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.DELETED));
     }
 
     @Override
@@ -327,7 +342,9 @@ public class FileSystemThemeProvider implements ThemeProvider {
 
         try {
 
-            return ccmFiles.createOutputStream(filePath);
+            return new ThemeFileOutputStream(
+                theme, path, ccmFiles.createOutputStream(filePath)
+            );
 
         } catch (FileAccessException
                      | InsufficientPermissionsException ex) {
@@ -352,6 +369,11 @@ public class FileSystemThemeProvider implements ThemeProvider {
             throw new UnexpectedErrorException(ex);
         }
 
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(theme,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.FILE_DELETED,
+                                  path));
     }
 
     @Override
@@ -401,6 +423,11 @@ public class FileSystemThemeProvider implements ThemeProvider {
                      | InsufficientPermissionsException ex) {
             throw new UnexpectedErrorException(ex);
         }
+
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(theme,
+                                  ThemeVersion.LIVE,
+                                  ThemeChangedEvent.ChangeType.PUBLISHED));
     }
 
     @Override
@@ -416,6 +443,11 @@ public class FileSystemThemeProvider implements ThemeProvider {
                      | InsufficientPermissionsException ex) {
             throw new UnexpectedErrorException(ex);
         }
+
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(theme,
+                                  ThemeVersion.LIVE,
+                                  ThemeChangedEvent.ChangeType.UNPUBLISHED));
     }
 
     private String createThemePath(final String theme,
@@ -503,4 +535,41 @@ public class FileSystemThemeProvider implements ThemeProvider {
         }
     }
 
+    /**
+     * Wraps the {@link OutputStream} for a theme file and fires a
+     * {@link ThemeChangedEvent} when the stream is closed.
+     */
+    private class ThemeFileOutputStream extends FilterOutputStream {
+
+        private final String theme;
+
+        private final String path;
+
+        private ThemeFileOutputStream(final String theme,
+                                      final String path,
+                                      final OutputStream outputStream) {
+            super(outputStream);
+            this.theme = theme;
+            this.path = path;
+        }
+
+        @Override
+        public void write(final byte[] bytes,
+                          final int offset,
+                          final int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            themeChangedEvent.fire(
+                new ThemeChangedEvent(theme,
+                                      ThemeVersion.DRAFT,
+                                      ThemeChangedEvent.ChangeType.FILE_CHANGED,
+                                      path));
+        }
+
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * CDI event fired by the {@link ThemeProvider} implementations if a theme or a
+ * file of a theme has changed. Components caching data derived from the files
+ * of a theme (compiled templates, parsed settings etc.) observe this event to
+ * invalidate their caches.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ThemeChangedEvent {
+
+    /**
+     * The possible types of changes.
+     */
+    public enum ChangeType {
+
+        /**
+         * The theme was created.
+         */
+        CREATED,
+        /**
+         * The theme was deleted.
+         */
+        DELETED,
+        /**
+         * A file of the theme was created or updated.
+         */
+        FILE_CHANGED,
+        /**
+         * A file of the theme was deleted.
+         */
+        FILE_DELETED,
+        /**
+         * The draft version of the theme was published.
+         */
+        PUBLISHED,
+        /**
+         * The live version of the theme was removed.
+         */
+        UNPUBLISHED
+
+    }
+
+    /**
+     * The name of the changed theme.
+     */
+    private final String themeName;
+
+    /**
+     * The version of the theme which was changed.
+     */
+    private final ThemeVersion version;
+
+    /**
+     * The type of the change.
+     */
+    private final ChangeType changeType;
+
+    /**
+     * The path of the changed file. {@code null} if the change affects the
+     * complete theme.
+     */
+    private final String path;
+
+    public ThemeChangedEvent(final String themeName,
+                             final ThemeVersion version,
+                             final ChangeType changeType) {
+        this(themeName, version, changeType, null);
+    }
+
+    public ThemeChangedEvent(final String themeName,
+                             final ThemeVersion version,
+                             final ChangeType changeType,
+                             final String path) {
+        this.themeName = Objects.requireNonNull(themeName);
+        this.version = Objects.requireNonNull(version);
+        this.changeType = Objects.requireNonNull(changeType);
+        this.path = path;
+    }
+
+    public String getThemeName() {
+        return themeName;
+    }
+
+    public ThemeVersion getVersion() {
+        return version;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * The path of the changed file.
+     *
+     * @return An {@link Optional} with the path of the changed file, or an
+     *         empty {@link Optional} if the change affects the complete theme.
+     */
+    public Optional<String> getPath() {
+        return Optional.ofNullable(path);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "themeName = \"%s\", "
+                                 + "version = %s, "
+                                 + "changeType = %s, "
+                                 + "path = \"%s\" }",
+                             super.toString(),
+                             themeName,
+                             Objects.toString(version),
+                             Objects.toString(changeType),
+                             path);
+    }
+
+}
@@ -19,9 +19,14 @@
 package org.libreccm.theming;
 
 import org.libreccm.theming.manifest.ThemeManifest;
+import org.libreccm.theming.manifest.ThemeTemplate;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Informations about a theme.
@@ -48,12 +53,48 @@ public class ThemeInfo implements Serializable {
      */
     private Class<? extends ThemeProvider> provider;
 
+    /**
+     * The templates of the theme by their name. Created from the manifest
+     * on the first call of {@link #getTemplate(java.lang.String)}.
+     */
+    private transient volatile Map<String, ThemeTemplate> templatesByName;
+
     public ThemeManifest getManifest() {
         return manifest;
     }
 
     public void setManifest(final ThemeManifest manifest) {
         this.manifest = manifest;
+        templatesByName = null;
+    }
+
+    /**
+     * Finds a template of the theme by its name.
+     *
+     * @param name The name of the template.
+     *
+     * @return An {@link Optional} with the template or an empty
+     *         {@link Optional} if the manifest of the theme has no template
+     *         with the provided name.
+     */
+    public Optional<ThemeTemplate> getTemplate(final String name) {
+        Map<String, ThemeTemplate> templates = templatesByName;
+        if (templates == null) {
+            templates = indexTemplates();
+            templatesByName = templates;
+        }
+        return Optional.ofNullable(templates.get(name));
+    }
+
+    private Map<String, ThemeTemplate> indexTemplates() {
+        if (manifest == null || manifest.getTemplates() == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, ThemeTemplate> templates = new HashMap<>();
+        for (final ThemeTemplate template : manifest.getTemplates()) {
+            templates.putIfAbsent(template.getName(), template);
+        }
+        return Collections.unmodifiableMap(templates);
     }
 
     /**
@@ -18,7 +18,9 @@
  */
 package org.libreccm.theming;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.util.Map;
 
 import javax.enterprise.context.RequestScoped;
@@ -51,4 +53,28 @@ public interface ThemeProcessor extends Serializable {
                    ThemeInfo theme,
                    ThemeProvider themeProvider);
 
+    /**
+     * Process the provided {@link PageModel} {@code page} and write the HTML
+     * to the provided {@link Writer}. Implementations should override this
+     * method to write the HTML directly to the {@code writer}. The default
+     * implementation creates the complete HTML using
+     * {@link #process(java.util.Map, org.libreccm.theming.ThemeInfo, org.libreccm.theming.ThemeProvider)}
+     * and writes it to the {@code writer}.
+     *
+     * @param page          The page to convert the HTML.
+     * @param theme         The theme to use.
+     * @param themeProvider The {@link ThemeProvider} which provides the the
+     *                      theme.
+     * @param writer        The {@link Writer} for the HTML. The writer is not
+     *                      closed by this method.
+     *
+     * @throws IOException If writing the HTML fails.
+     */
+    default void process(final Map<String, Object> page,
+                         final ThemeInfo theme,
+                         final ThemeProvider themeProvider,
+                         final Writer writer) throws IOException {
+        writer.write(process(page, theme, themeProvider));
+    }
+
 }
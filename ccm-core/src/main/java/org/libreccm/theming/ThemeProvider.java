@@ -32,6 +32,9 @@ import javax.enterprise.context.RequestScoped;
  * the location and method of loading. Implementation must be CDI beans.
  * Recommanded scope: {@link RequestScoped}.
  *
+ * Implementations which support changes must fire a {@link ThemeChangedEvent}
+ * after a theme or a file of a theme has been changed.
+ *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 public interface ThemeProvider extends Serializable {
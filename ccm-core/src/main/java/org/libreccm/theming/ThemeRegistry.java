@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.jpa.VersionStamps;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+/**
+ * Application wide registry of the {@link ThemeInfo}s of the available themes.
+ * Creating a {@link ThemeInfo} requires the {@link ThemeProvider}s to check
+ * if they provide the theme and to parse the manifest of the theme. The
+ * registry keeps the parsed {@link ThemeInfo} for each name and
+ * {@link ThemeVersion} so that this is only done once.
+ *
+ * Changes of a theme which affect its {@link ThemeInfo} (creating, deleting,
+ * publishing or unpublishing a theme and changes of the manifest file) are
+ * signalled by a {@link ThemeChangedEvent}. These changes increment the
+ * version stamp {@link #VERSION_STAMP} in the same transaction. The other
+ * nodes of a cluster detect the change by comparing the stamp in the database
+ * with the stamp for which their registry was built (see
+ * {@link #synchronize()}).
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ThemeRegistry {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ThemeRegistry.class
+    );
+
+    /**
+     * Name of the {@link org.libreccm.jpa.VersionStamp} used by the registry.
+     */
+    public static final String VERSION_STAMP = "themes";
+
+    @Inject
+    private VersionStamps versionStamps;
+
+    private final GenerationCache<ThemeKey, ThemeInfo> cache
+        = new GenerationCache<>();
+
+    /**
+     * Retrieves the {@link ThemeInfo} for a theme. If the registry has no
+     * entry for the theme the provided {@code loader} is used to create the
+     * {@link ThemeInfo}. If the loader does not find the theme the result is
+     * not stored in the registry.
+     *
+     * @param name    The name of the theme.
+     * @param version The version of the theme.
+     * @param loader  Creates the {@link ThemeInfo} if the registry has no
+     *                entry for the theme.
+     *
+     * @return An {@link Optional} with the {@link ThemeInfo} of the theme or
+     *         an empty {@link Optional} if there is no such theme.
+     */
+    public Optional<ThemeInfo> getTheme(
+        final String name,
+        final ThemeVersion version,
+        final Supplier<Optional<ThemeInfo>> loader
+    ) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(version);
+        Objects.requireNonNull(loader);
+
+        return Optional.ofNullable(
+            cache.get(new ThemeKey(name, version),
+                      key -> loader.get().orElse(null))
+        );
+    }
+
+    /**
+     * Compares the version stamp in the database with the stamp for which the
+     * registry was built. If the stamps differ another node (or this node)
+     * has changed a theme and all entries are removed from the registry.
+     */
+    public void synchronize() {
+        final long previousStamp = cache.getStamp();
+        final long currentStamp = getVersionStamps().getStamp(VERSION_STAMP);
+        if (cache.synchronize(currentStamp)) {
+            LOGGER.debug("Version stamp of themes changed from {} to {}. "
+                             + "Cleared theme registry.",
+                         previousStamp,
+                         currentStamp);
+        }
+    }
+
+    /**
+     * Removes all versions of a theme from the registry.
+     *
+     * @param themeName The name of the theme.
+     */
+    public void invalidate(final String themeName) {
+        cache.invalidateIf((key, themeInfo) -> key
+            .getThemeName()
+            .equals(themeName));
+    }
+
+    /**
+     * Removes all entries from the registry.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Increments the version stamp if a change affects the {@link ThemeInfo}
+     * of a theme. The observer is invoked in the transaction in which the
+     * theme was changed, therefore the stamp is only changed if the
+     * transaction is committed.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanging(@Observes final ThemeChangedEvent event) {
+        if (affectsThemeInfo(event)) {
+            getVersionStamps().increment(VERSION_STAMP);
+        }
+    }
+
+    /**
+     * Removes the entries of the changed theme after the transaction in which
+     * the theme was changed was committed.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event
+    ) {
+        if (affectsThemeInfo(event)) {
+            LOGGER.debug("Removing theme \"{}\" from registry after {}.",
+                         event.getThemeName(),
+                         event.getChangeType());
+            invalidate(event.getThemeName());
+        }
+    }
+
+    /**
+     * The value of the version stamp for which the registry is valid. Other
+     * caches of data derived from themes can compare this value with the
+     * value for which they were built to detect changes done by other nodes
+     * without querying the database again.
+     *
+     * @return The value of the version stamp read by the last call of
+     *         {@link #synchronize()}, {@code -1} if the stamp has not been
+     *         read yet.
+     */
+    public long getStamp() {
+        return cache.getStamp();
+    }
+
+    /**
+     * @return The number of {@link ThemeInfo}s currently in the registry.
+     */
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    /**
+     * @return The number of lookups served from the registry.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return The number of lookups which required the
+     *         {@link ThemeProvider}s.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Overwritten by the unit tests.
+     *
+     * @return The {@link VersionStamps} used by the registry.
+     */
+    VersionStamps getVersionStamps() {
+        return versionStamps;
+    }
+
+    private boolean affectsThemeInfo(final ThemeChangedEvent event) {
+        switch (event.getChangeType()) {
+            case FILE_CHANGED:
+            case FILE_DELETED:
+                return event
+                    .getPath()
+                    .map(this::isManifest)
+                    .orElse(true);
+            default:
+                return true;
+        }
+    }
+
+    private boolean isManifest(final String path) {
+        final String relativePath;
+        if (path.startsWith("/")) {
+            relativePath = path.substring(1);
+        } else {
+            relativePath = path;
+        }
+        return ThemeConstants.THEME_MANIFEST_JSON.equals(relativePath)
+                   || ThemeConstants.THEME_MANIFEST_XML.equals(relativePath);
+    }
+
+    private static final class ThemeKey {
+
+        private final String themeName;
+
+        private final ThemeVersion version;
+
+        private ThemeKey(final String themeName,
+                         final ThemeVersion version) {
+            this.themeName = themeName;
+            this.version = version;
+        }
+
+        public String getThemeName() {
+            return themeName;
+        }
+
+        public ThemeVersion getVersion() {
+            return version;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 53 * hash + Objects.hashCode(themeName);
+            hash = 53 * hash + Objects.hashCode(version);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ThemeKey)) {
+                return false;
+            }
+            final ThemeKey other = (ThemeKey) obj;
+            return Objects.equals(themeName, other.themeName)
+                       && version == other.version;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s", themeName, version);
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import javax.enterprise.context.RequestScoped;
+import javax.transaction.Transactional;
+
+/**
+ * Processes the pages returned by
+ * {@link Themes#processAsStream(java.util.Map, org.libreccm.theming.ThemeInfo)}.
+ * The page is processed while JAX-RS is writing the response, after the
+ * transaction of the resource method has ended. The {@link ThemeProvider}s
+ * (for example the {@link org.libreccm.theming.db.DatabaseThemeProvider}) and
+ * the {@link ThemeProcessor}s may access the database while a page is
+ * processed. Therefore the page is processed in its own transaction.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@RequestScoped
+class ThemeStreamWriter {
+
+    /**
+     * Processes a page and writes the HTML to the provided {@link Writer}.
+     *
+     * @param processor The {@link ThemeProcessor} to use.
+     * @param page      The page to convert to HTML.
+     * @param theme     The theme to use.
+     * @param provider  The {@link ThemeProvider} of the theme.
+     * @param writer    The {@link Writer} for the HTML.
+     *
+     * @throws IOException If writing the HTML fails.
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void writePage(final ThemeProcessor processor,
+                          final Map<String, Object> page,
+                          final ThemeInfo theme,
+                          final ThemeProvider provider,
+                          final Writer writer) throws IOException {
+
+        processor.process(page, theme, provider, writer);
+        writer.flush();
+    }
+
+}
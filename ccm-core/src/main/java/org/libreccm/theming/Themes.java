@@ -23,8 +23,13 @@ import org.apache.logging.log4j.Logger;
 import org.libreccm.core.UnexpectedErrorException;
 import org.libreccm.pagemodel.PageModel;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +41,7 @@ import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * Central interface for using themes. In most cases users of the theming system
@@ -54,11 +60,22 @@ public class Themes implements Serializable {
     @Inject
     @Any
     private Instance<ThemeProvider> providers;
-//
 
     @Inject
     private ThemeProcessors themeProcessors;
 
+    @Inject
+    private ThemeRegistry themeRegistry;
+
+    @Inject
+    private ThemeStreamWriter streamWriter;
+
+    /**
+     * Set to {@code true} after the {@link ThemeRegistry} was synchronized
+     * with the database for the current request.
+     */
+    private boolean registrySynchronized;
+
     /**
      * Retrieve all available themes.
      *
@@ -102,6 +119,19 @@ public class Themes implements Serializable {
     public Optional<ThemeInfo> getTheme(final String name,
                                         final ThemeVersion version) {
 
+        if (!registrySynchronized) {
+            themeRegistry.synchronize();
+            registrySynchronized = true;
+        }
+
+        return themeRegistry.getTheme(name,
+                                      version,
+                                      () -> findTheme(name, version));
+    }
+
+    private Optional<ThemeInfo> findTheme(final String name,
+                                          final ThemeVersion version) {
+
         for (final ThemeProvider provider : providers) {
             if (provider.providesTheme(name, version)) {
                 return provider.getThemeInfo(name, version);
@@ -216,6 +246,63 @@ public class Themes implements Serializable {
     public String process(final Map<String, Object> page,
                           final ThemeInfo theme) {
 
+        final ThemeProvider provider = findProviderForTheme(theme);
+        final ThemeProcessor processor = findProcessorForTheme(theme);
+
+        return processor.process(page, theme, provider);
+    }
+
+    /**
+     * Creates HTML from the result of rendering a {@link PageModel} and
+     * writes the HTML directly to the response. Unlike
+     * {@link #process(java.util.Map, org.libreccm.theming.ThemeInfo)} the HTML
+     * is not buffered in memory. The {@link ThemeProvider} and the
+     * {@link ThemeProcessor} for the theme are resolved when this method is
+     * called, the page is processed in a new transaction when the returned
+     * {@link StreamingOutput} is written by JAX-RS.
+     *
+     * At this time the status and the headers of the response may already
+     * have been sent to the client. If processing the page fails the error is
+     * logged and the response is aborted by throwing an {@link IOException},
+     * so that the client does not receive an incomplete page as a successful
+     * response.
+     *
+     * @param page  The page to convert to HTML.
+     * @param theme The theme to use.
+     *
+     * @return A {@link StreamingOutput} writing the HTML representation of
+     *         the page, encoded as UTF-8.
+     */
+    public StreamingOutput processAsStream(final Map<String, Object> page,
+                                           final ThemeInfo theme) {
+
+        final ThemeProvider provider = findProviderForTheme(theme);
+        final ThemeProcessor processor = findProcessorForTheme(theme);
+
+        return outputStream -> {
+            final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)
+            );
+            try {
+                streamWriter.writePage(
+                    processor, page, theme, provider, writer
+                );
+            } catch (RuntimeException ex) {
+                LOGGER.error("Failed to process page using theme \"{}\". "
+                                 + "Aborting response.",
+                             theme.getName());
+                LOGGER.error(ex);
+                throw new IOException(
+                    String.format("Failed to process page using theme \"%s\".",
+                                  theme.getName()),
+                    ex
+                );
+            }
+        };
+    }
+
+    private ThemeProvider findProviderForTheme(final ThemeInfo theme) {
+
         final Instance<? extends ThemeProvider> forTheme = providers.select(
             theme.getProvider());
 
@@ -227,16 +314,18 @@ public class Themes implements Serializable {
                 theme.getProvider().getName()));
         }
 
-        final ThemeProcessor processor = themeProcessors
+        return forTheme.get();
+    }
+
+    private ThemeProcessor findProcessorForTheme(final ThemeInfo theme) {
+
+        return themeProcessors
             .findThemeProcessorForType(theme.getType())
             .orElseThrow(() -> new UnexpectedErrorException(String
             .format("No ThemeProcessor implementation for type \"%s\" of "
                         + "theme \"%s\".",
                     theme.getType(),
                     theme.getName())));
-        final ThemeProvider provider = forTheme.get();
-
-        return processor.process(page, theme, provider);
     }
 
     /**
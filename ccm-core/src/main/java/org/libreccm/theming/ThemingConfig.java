@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming;
+
+import org.libreccm.configuration.Configuration;
+import org.libreccm.configuration.Setting;
+
+/**
+ * Configuration options for the theming system.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@Configuration
+public final class ThemingConfig {
+
+    /**
+     * If set to {@code true} the XSLT theme processor converts the data of a
+     * page directly into SAX events used as input for the transformation.
+     * Otherwise the page is serialised to an (indented) XML string which is
+     * parsed into a DOM tree. Themes relying on the whitespace used for the
+     * indentation may need to be adjusted when the streaming mode is enabled.
+     */
+    @Setting
+    private boolean streamPageXml = false;
+
+    public boolean isStreamPageXml() {
+        return streamPageXml;
+    }
+
+    public void setStreamPageXml(final boolean streamPageXml) {
+        this.streamPageXml = streamPageXml;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 37 * hash + (streamPageXml ? 1 : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ThemingConfig)) {
+            return false;
+        }
+        final ThemingConfig other = (ThemingConfig) obj;
+        return streamPageXml == other.isStreamPageXml();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "streamPageXml = %b"
+                                 + " }",
+                             super.toString(),
+                             streamPageXml);
+    }
+
+}
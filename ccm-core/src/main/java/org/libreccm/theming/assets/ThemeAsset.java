@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.assets;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * A file of the live version of a theme which is stored in the local asset
+ * cache of {@link ThemeAssets}. Instances of this class are immutable.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class ThemeAsset {
+
+    /**
+     * The name of the theme providing the asset.
+     */
+    private final String themeName;
+
+    /**
+     * The path of the asset in the theme.
+     */
+    private final String path;
+
+    /**
+     * Fingerprint of the asset, created from a hash of the content of the
+     * asset.
+     */
+    private final String fingerprint;
+
+    /**
+     * The mime type of the asset.
+     */
+    private final String mimeType;
+
+    /**
+     * The local copy of the asset.
+     */
+    private final Path file;
+
+    /**
+     * The gzip compressed local copy of the asset. {@code null} if the asset
+     * is not compressible.
+     */
+    private final Path gzipFile;
+
+    /**
+     * When the asset was added to the cache.
+     */
+    private final long created;
+
+    ThemeAsset(final String themeName,
+               final String path,
+               final String fingerprint,
+               final String mimeType,
+               final Path file,
+               final Path gzipFile,
+               final long created) {
+        this.themeName = themeName;
+        this.path = path;
+        this.fingerprint = fingerprint;
+        this.mimeType = mimeType;
+        this.file = file;
+        this.gzipFile = gzipFile;
+        this.created = created;
+    }
+
+    public String getThemeName() {
+        return themeName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Optional<Path> getGzipFile() {
+        return Optional.ofNullable(gzipFile);
+    }
+
+    public Date getLastModified() {
+        // HTTP dates have a precision of one second.
+        return new Date(created / 1000 * 1000);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "themeName = \"%s\", "
+                                 + "path = \"%s\", "
+                                 + "fingerprint = \"%s\", "
+                                 + "mimeType = \"%s\", "
+                                 + "file = \"%s\", "
+                                 + "gzipFile = \"%s\""
+                                 + " }",
+                             super.toString(),
+                             themeName,
+                             path,
+                             fingerprint,
+                             mimeType,
+                             file,
+                             gzipFile);
+    }
+
+}
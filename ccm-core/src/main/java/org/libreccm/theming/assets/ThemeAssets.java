@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.assets;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.core.UnexpectedErrorException;
+import org.libreccm.jpa.VersionStamps;
+import org.libreccm.theming.ThemeChangedEvent;
+import org.libreccm.theming.ThemeFileInfo;
+import org.libreccm.theming.ThemeProvider;
+import org.libreccm.theming.ThemeRegistry;
+import org.libreccm.theming.ThemeVersion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+/**
+ * Local cache for the files of the live versions of the themes. The first
+ * time a file of the live version of a theme is requested the file is copied
+ * from the {@link ThemeProvider} into a local directory. While copying the
+ * file a fingerprint is created from a hash of its content. Compressible
+ * files (stylesheets, scripts, SVG images etc.) are also stored gzip
+ * compressed.
+ *
+ * The fingerprint is used as entity tag and for creating URLs for the asset
+ * which contain the fingerprint (see {@link #getAssetPath}). Because the
+ * content for such an URL never changes the response for these URLs can be
+ * cached by clients without revalidation.
+ *
+ * Publishing, unpublishing or deleting a theme removes the files of the theme
+ * from the cache. Changes done by other nodes of a cluster are detected using
+ * the version stamp of the {@link ThemeRegistry}. The files of removed
+ * assets are not deleted immediately because a response for the asset may
+ * still be written. They are deleted after {@link #DELETE_DELAY}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ThemeAssets {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ThemeAssets.class
+    );
+
+    /**
+     * Number of hex digits of the hash of the content used for the
+     * fingerprint.
+     */
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    /**
+     * Time in milliseconds for which the files of an asset removed from the
+     * cache are kept.
+     */
+    static final long DELETE_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    @Inject
+    private VersionStamps versionStamps;
+
+    private final GenerationCache<AssetKey, ThemeAsset> cache
+        = new GenerationCache<>(this::scheduleDeletion);
+
+    /**
+     * The files of removed assets, in the order in which the assets were
+     * removed.
+     */
+    private final Queue<RemovedFile> removedFiles
+        = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The directory containing the local copies of the assets.
+     */
+    private Path directory;
+
+    @PostConstruct
+    void init() {
+        try {
+            directory = Files.createTempDirectory("ccm-theme-assets");
+        } catch (IOException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+        LOGGER.debug("Storing theme assets in {}.", directory);
+    }
+
+    @PreDestroy
+    void destroy() {
+        invalidateAll();
+        removedFiles.clear();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::deleteFile);
+            Files.deleteIfExists(directory);
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to delete theme asset directory {}.",
+                        directory);
+            LOGGER.warn(ex);
+        }
+    }
+
+    /**
+     * Retrieves an asset from the live version of a theme. If the asset is
+     * not in the cache yet it is retrieved from the provided
+     * {@link ThemeProvider}.
+     *
+     * @param themeProvider The provider of the theme.
+     * @param themeName     The name of the theme.
+     * @param path          The path of the asset in the theme.
+     *
+     * @return An {@link Optional} with the asset, or an empty {@link Optional}
+     *         if the live version of the theme has no file with the provided
+     *         path.
+     */
+    public Optional<ThemeAsset> getAsset(final ThemeProvider themeProvider,
+                                         final String themeName,
+                                         final String path) {
+
+        Objects.requireNonNull(themeProvider);
+        Objects.requireNonNull(themeName);
+        Objects.requireNonNull(path);
+
+        deleteRemovedFiles();
+
+        final AssetKey key = new AssetKey(themeName, normalizePath(path));
+        final ThemeAsset asset = cache.get(
+            key, current -> createAsset(current, themeProvider)
+        );
+        if (asset != null && cache.getIfPresent(key) != asset) {
+            // The theme was changed while the asset was created. The asset
+            // is only used by the current requests.
+            scheduleDeletion(asset);
+        }
+        return Optional.ofNullable(asset);
+    }
+
+    /**
+     * Creates the path for an asset of a theme. For the live version of a
+     * theme the path contains the fingerprint of the asset. Responses for
+     * these paths can be cached by clients without revalidation. For the
+     * draft version of a theme, or if the theme does not contain the asset,
+     * the normal path of the asset is returned.
+     *
+     * @param themeProvider The provider of the theme.
+     * @param themeName     The name of the theme.
+     * @param version       The version of the theme.
+     * @param path          The path of the asset in the theme.
+     *
+     * @return The path for the asset, relative to the context path of the
+     *         application.
+     */
+    public String getAssetPath(final ThemeProvider themeProvider,
+                               final String themeName,
+                               final ThemeVersion version,
+                               final String path) {
+
+        final String assetPath = normalizePath(path);
+        if (version == ThemeVersion.LIVE) {
+            final Optional<ThemeAsset> asset = getAsset(themeProvider,
+                                                        themeName,
+                                                        assetPath);
+            if (asset.isPresent()) {
+                return String.format("/@themes/%s/assets/%s/%s",
+                                     themeName,
+                                     asset.get().getFingerprint(),
+                                     assetPath);
+            }
+        }
+
+        return String.format("/@themes/%s/%s/%s",
+                             themeName,
+                             version,
+                             assetPath);
+    }
+
+    /**
+     * Compares the version stamp of the {@link ThemeRegistry} in the database
+     * with the stamp for which the cache was built. If the stamps differ
+     * another node (or this node) has changed a theme and all assets are
+     * removed from the cache.
+     */
+    public void synchronize() {
+        deleteRemovedFiles();
+
+        final long previousStamp = cache.getStamp();
+        final long currentStamp = versionStamps.getStamp(
+            ThemeRegistry.VERSION_STAMP
+        );
+        if (cache.synchronize(currentStamp)) {
+            LOGGER.debug("Version stamp of themes changed from {} to {}. "
+                             + "Cleared theme asset cache.",
+                         previousStamp,
+                         currentStamp);
+        }
+    }
+
+    /**
+     * Removes all assets of a theme from the cache.
+     *
+     * @param themeName The name of the theme.
+     */
+    public void invalidate(final String themeName) {
+        cache.invalidateIf((key, asset) -> key
+            .getThemeName()
+            .equals(themeName));
+    }
+
+    /**
+     * Removes all assets from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Observer for {@link ThemeChangedEvent}s. Changes of the draft version
+     * of a theme have no effect on the live version and are therefore
+     * ignored.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event
+    ) {
+        if (affectsLiveVersion(event)) {
+            LOGGER.debug("Removing assets of theme \"{}\" after {}.",
+                         event.getThemeName(),
+                         event.getChangeType());
+            invalidate(event.getThemeName());
+        }
+    }
+
+    /**
+     * @return The number of assets currently in the cache.
+     */
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    private ThemeAsset createAsset(final AssetKey key,
+                                   final ThemeProvider themeProvider) {
+
+        final Optional<ThemeFileInfo> fileInfo = themeProvider
+            .getThemeFileInfo(key.getThemeName(),
+                              ThemeVersion.LIVE,
+                              key.getPath());
+        if (!fileInfo.isPresent() || fileInfo.get().isDirectory()) {
+            return null;
+        }
+
+        final Optional<InputStream> source = themeProvider
+            .getThemeFileAsStream(key.getThemeName(),
+                                  ThemeVersion.LIVE,
+                                  key.getPath());
+        if (!source.isPresent()) {
+            return null;
+        }
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        Path file = null;
+        Path gzipFile = null;
+        try {
+            file = Files.createTempFile(directory, "asset", null);
+            try (InputStream inputStream = new DigestInputStream(
+                source.get(), digest
+            )) {
+                Files.copy(inputStream,
+                           file,
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            final String mimeType = fileInfo.get().getMimeType();
+            if (isCompressible(mimeType)) {
+                gzipFile = Files.createTempFile(directory, "asset", ".gz");
+                try (OutputStream outputStream = new GZIPOutputStream(
+                    Files.newOutputStream(gzipFile)
+                )) {
+                    Files.copy(file, outputStream);
+                }
+                if (Files.size(gzipFile) >= Files.size(file)) {
+                    Files.delete(gzipFile);
+                    gzipFile = null;
+                }
+            }
+
+            final ThemeAsset asset = new ThemeAsset(
+                key.getThemeName(),
+                key.getPath(),
+                toHex(digest.digest()).substring(0, FINGERPRINT_LENGTH),
+                mimeType,
+                file,
+                gzipFile,
+                currentTimeMillis()
+            );
+            LOGGER.debug("Added asset {} to theme asset cache.", asset);
+            return asset;
+        } catch (IOException ex) {
+            deleteFile(file);
+            deleteFile(gzipFile);
+            throw new UnexpectedErrorException(ex);
+        }
+    }
+
+    private boolean affectsLiveVersion(final ThemeChangedEvent event) {
+        switch (event.getChangeType()) {
+            case DELETED:
+            case PUBLISHED:
+            case UNPUBLISHED:
+                return true;
+            default:
+                return event.getVersion() == ThemeVersion.LIVE;
+        }
+    }
+
+    private boolean isCompressible(final String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        return mimeType.startsWith("text/")
+                   || mimeType.contains("javascript")
+                   || mimeType.contains("json")
+                   || mimeType.contains("xml");
+    }
+
+    /**
+     * Overwritten by the unit tests.
+     *
+     * @return The current time in milliseconds.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void scheduleDeletion(final ThemeAsset asset) {
+        final long removed = currentTimeMillis();
+        removedFiles.add(new RemovedFile(asset.getFile(), removed));
+        asset
+            .getGzipFile()
+            .ifPresent(file -> removedFiles.add(new RemovedFile(file,
+                                                                removed)));
+    }
+
+    private void deleteRemovedFiles() {
+        final long now = currentTimeMillis();
+        RemovedFile removedFile = removedFiles.peek();
+        while (removedFile != null
+                   && now - removedFile.getRemoved() >= DELETE_DELAY) {
+            // Only the thread which removes the entry deletes the file.
+            if (removedFiles.remove(removedFile)) {
+                deleteFile(removedFile.getFile());
+            }
+            removedFile = removedFiles.peek();
+        }
+    }
+
+    private void deleteFile(final Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to delete theme asset file {}.", file);
+            LOGGER.warn(ex);
+        }
+    }
+
+    private String normalizePath(final String path) {
+        if (path.startsWith("/")) {
+            return path.substring(1);
+        } else {
+            return path;
+        }
+    }
+
+    private String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (final byte value : bytes) {
+            builder.append(String.format("%02x", value));
+        }
+        return builder.toString();
+    }
+
+    private static final class RemovedFile {
+
+        private final Path file;
+
+        private final long removed;
+
+        private RemovedFile(final Path file, final long removed) {
+            this.file = file;
+            this.removed = removed;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getRemoved() {
+            return removed;
+        }
+
+    }
+
+    private static final class AssetKey {
+
+        private final String themeName;
+
+        private final String path;
+
+        private AssetKey(final String themeName, final String path) {
+            this.themeName = themeName;
+            this.path = path;
+        }
+
+        public String getThemeName() {
+            return themeName;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 67 * hash + Objects.hashCode(themeName);
+            hash = 67 * hash + Objects.hashCode(path);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof AssetKey)) {
+                return false;
+            }
+            final AssetKey other = (AssetKey) obj;
+            return Objects.equals(themeName, other.themeName)
+                       && Objects.equals(path, other.path);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s", themeName, path);
+        }
+
+    }
+
+}
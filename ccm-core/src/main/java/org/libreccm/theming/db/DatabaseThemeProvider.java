@@ -19,6 +19,7 @@
 package org.libreccm.theming.db;
 
 import org.libreccm.core.UnexpectedErrorException;
+import org.libreccm.theming.ThemeChangedEvent;
 import org.libreccm.theming.ThemeConstants;
 import org.libreccm.theming.ThemeFileInfo;
 import org.libreccm.theming.ThemeInfo;
@@ -33,13 +34,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
@@ -71,6 +72,9 @@ public class DatabaseThemeProvider implements ThemeProvider {
     @Inject
     private ThemeRepository themeRepository;
 
+    @Inject
+    private Event<ThemeChangedEvent> themeChangedEvent;
+
     @Override
     public String getName() {
         return "DatabaseThemeProvider";
@@ -128,6 +132,10 @@ public class DatabaseThemeProvider implements ThemeProvider {
         }
 
         final Theme theme = themeManager.createTheme(themeName);
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(themeName,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.CREATED));
 
         return createThemeInfo(theme);
     }
@@ -148,6 +156,10 @@ public class DatabaseThemeProvider implements ThemeProvider {
             "No theme with name \"%s\" is managed by this provider.",
             themeName)));
         themeManager.deleteTheme(theme);
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(themeName,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.DELETED));
     }
 
     @Override
@@ -222,10 +234,10 @@ public class DatabaseThemeProvider implements ThemeProvider {
 
                     final DataFile dataFile = (DataFile) file.get();
 
-                    final byte[] data = Arrays
-                        .copyOf(dataFile.getData(), dataFile.getData().length);
-
-                    return Optional.of(new ByteArrayInputStream(data));
+                    // DataFile#getData already returns a copy of the data.
+                    return Optional.of(
+                        new ByteArrayInputStream(dataFile.getData())
+                    );
                 } else {
                     return Optional.empty();
                 }
@@ -263,7 +275,7 @@ public class DatabaseThemeProvider implements ThemeProvider {
             .orElse(createDataFile(theme, path));
 
         if (file instanceof DataFile) {
-            return new DataFileOutputStream((DataFile) file);
+            return new DataFileOutputStream(themeName, path, (DataFile) file);
         } else {
             throw new IllegalArgumentException(String
                 .format("The path \"%s\" does not point to a DataFile.",
@@ -329,6 +341,11 @@ public class DatabaseThemeProvider implements ThemeProvider {
         } else if (file instanceof Directory) {
             fileManager.deleteRecursive(file);
         }
+        themeChangedEvent.fire(
+            new ThemeChangedEvent(themeName,
+                                  ThemeVersion.DRAFT,
+                                  ThemeChangedEvent.ChangeType.FILE_DELETED,
+                                  path));
     }
 
     @Override
@@ -344,17 +361,29 @@ public class DatabaseThemeProvider implements ThemeProvider {
     @Override
     public void publishTheme(final String themeName) {
 
-        themeRepository
-            .findThemeByName(themeName, ThemeVersion.DRAFT)
-            .ifPresent(themeManager::publishTheme);
+        final Optional<Theme> theme = themeRepository
+            .findThemeByName(themeName, ThemeVersion.DRAFT);
+        if (theme.isPresent()) {
+            themeManager.publishTheme(theme.get());
+            themeChangedEvent.fire(
+                new ThemeChangedEvent(themeName,
+                                      ThemeVersion.LIVE,
+                                      ThemeChangedEvent.ChangeType.PUBLISHED));
+        }
     }
 
     @Override
     public void unpublishTheme(final String themeName) {
 
-        themeRepository
-            .findThemeByName(themeName, ThemeVersion.LIVE)
-            .ifPresent(themeManager::unpublishTheme);
+        final Optional<Theme> theme = themeRepository
+            .findThemeByName(themeName, ThemeVersion.LIVE);
+        if (theme.isPresent()) {
+            themeManager.unpublishTheme(theme.get());
+            themeChangedEvent.fire(
+                new ThemeChangedEvent(themeName,
+                                      ThemeVersion.LIVE,
+                                      ThemeChangedEvent.ChangeType.UNPUBLISHED));
+        }
     }
 
     private ThemeInfo createThemeInfo(final Theme theme) {
@@ -423,11 +452,19 @@ public class DatabaseThemeProvider implements ThemeProvider {
 
     private class DataFileOutputStream extends OutputStream {
 
+        private final String themeName;
+
+        private final String path;
+
         private final DataFile dataFile;
 
         private final ByteArrayOutputStream outputStream;
 
-        private DataFileOutputStream(final DataFile dataFile) {
+        private DataFileOutputStream(final String themeName,
+                                     final String path,
+                                     final DataFile dataFile) {
+            this.themeName = themeName;
+            this.path = path;
             this.dataFile = dataFile;
             outputStream = new ByteArrayOutputStream();
         }
@@ -436,6 +473,11 @@ public class DatabaseThemeProvider implements ThemeProvider {
         public void close() throws IOException {
             flush();
             outputStream.close();
+            themeChangedEvent.fire(
+                new ThemeChangedEvent(themeName,
+                                      ThemeVersion.DRAFT,
+                                      ThemeChangedEvent.ChangeType.FILE_CHANGED,
+                                      path));
         }
 
         @Override
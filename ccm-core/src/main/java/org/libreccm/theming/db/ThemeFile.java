@@ -18,12 +18,17 @@
  */
 package org.libreccm.theming.db;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import org.libreccm.core.CoreConstants;
+import org.libreccm.jpa.CacheRegions;
 import org.libreccm.theming.ThemeVersion;
 
 import java.io.Serializable;
 import java.util.Objects;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -37,6 +42,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
@@ -46,6 +52,9 @@ import javax.validation.constraints.NotNull;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+       region = CacheRegions.THEMES)
 @Table(name = "THEME_FILES", schema = CoreConstants.DB_SCHEMA)
 @Inheritance(strategy = InheritanceType.JOINED)
 @NamedQueries({
@@ -57,7 +66,12 @@ import javax.validation.constraints.NotNull;
     @NamedQuery(name = "ThemeFile.findByPath",
                 query = "SELECT f FROM ThemeFile f "
                             + "WHERE f.path = :path "
-                            + "AND f.version = :version")
+                            + "AND f.version = :version",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.THEMES_QUERIES)
+                })
     ,
     @NamedQuery(name = "ThemeFile.findByNameAndParent",
                 query = "SELECT f FROM ThemeFile f "
@@ -24,18 +24,25 @@ import freemarker.cache.TemplateLoader;
 import freemarker.cache.WebappTemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateExceptionHandler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.theming.ThemeChangedEvent;
 import org.libreccm.theming.ThemeInfo;
+import org.libreccm.theming.ThemeRegistry;
+import org.libreccm.theming.ThemeVersion;
 import org.libreccm.theming.Themes;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
 import javax.servlet.ServletContext;
 
@@ -43,69 +50,155 @@ import javax.servlet.ServletContext;
  * CDI bean providing the Freemarker configuration for the
  * {@link FreemarkerThemeProcessor}.
  *
+ * There is one {@link Configuration} for each theme and {@link ThemeVersion}.
+ * The template cache of a configuration never checks the theme for changed
+ * templates by itself. Instead the configuration of a theme is discarded if a
+ * {@link ThemeChangedEvent} for the theme (or its master theme) is fired, or
+ * if the {@link ThemeRegistry} detects a change done by another node. Because
+ * of this templates are only parsed again if the theme has changed.
+ *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @ApplicationScoped
 class FreemarkerConfigurationProvider {
 
+    private static final Logger LOGGER = LogManager.getLogger(
+        FreemarkerConfigurationProvider.class
+    );
+
     @Inject
     private ServletContext servletContext;
 
+    @Inject
+    private ThemeRegistry themeRegistry;
+
     @Inject
     private Themes themes;
 
-    private final Map<ThemeInfo, Configuration> configurations = new HashMap<>();
+    private final GenerationCache<ConfigurationKey, CachedConfiguration> configurations
+        = new GenerationCache<>();
 
     protected Configuration getConfiguration(final ThemeInfo forTheme) {
 
-        if (configurations.containsKey(forTheme)) {
-
-            return configurations.get(forTheme);
-        } else {
-
-            final Configuration configuration = new Configuration(
-                Configuration.VERSION_2_3_27);
-            configuration.setDefaultEncoding("UTF-8");
-            configuration
-                .setTemplateExceptionHandler(
-                    TemplateExceptionHandler.RETHROW_HANDLER);
-            configuration.setLogTemplateExceptions(false);
-            configuration.setWrapUncheckedExceptions(false);
-            configuration.setLocalizedLookup(false);
-
-            configuration.setTemplateLoader(
-                new MultiTemplateLoader(new TemplateLoader[]{
-                // For for files from themes
-                new CcmTemplateLoader(forTheme),
-                // Loader for MacroLibs provided by CCM modules
-                new WebappTemplateLoader(
-                servletContext, "/themes/freemarker"
-                ),
-                new ClassTemplateLoader(getClass(), "/themes/freemarker")
-            })
-            );
+        // Changes of themes done by other nodes are detected by the
+        // ThemeRegistry.
+        configurations.synchronize(themeRegistry.getStamp());
 
-            configurations.put(forTheme, configuration);
+        final ConfigurationKey key = new ConfigurationKey(
+            forTheme.getName(), forTheme.getVersion()
+        );
+        return configurations
+            .get(key, current -> createConfiguration(current, forTheme))
+            .getConfiguration();
+    }
 
-            return configuration;
-        }
+    /**
+     * Removes the configurations of a theme and of all themes using the theme
+     * as master theme.
+     *
+     * @param themeName The name of the theme.
+     * @param version   The version of the theme.
+     */
+    public void invalidate(final String themeName,
+                           final ThemeVersion version) {
+        configurations.invalidateIf(
+            (key, cached) -> key.getVersion() == version
+                                 && (key.getThemeName().equals(themeName)
+                                     || themeName.equals(
+                                         cached.getMasterTheme()))
+        );
+    }
+
+    /**
+     * Removes all configurations.
+     */
+    public void invalidateAll() {
+        configurations.invalidateAll();
+    }
+
+    /**
+     * Observer for {@link ThemeChangedEvent}s. The event is processed after
+     * the transaction in which the theme was changed was committed to ensure
+     * that the templates are not parsed from outdated data.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event) {
+
+        LOGGER.debug("Discarding Freemarker configuration of theme \"{}\" "
+                         + "(version {}) after {}.",
+                     event.getThemeName(),
+                     event.getVersion(),
+                     event.getChangeType());
+        invalidate(event.getThemeName(), event.getVersion());
+    }
+
+    private CachedConfiguration createConfiguration(
+        final ConfigurationKey key, final ThemeInfo forTheme
+    ) {
+        // The templates of a configuration are never updated, the
+        // configuration is replaced instead. The creation time of the
+        // configuration is therefore used as modification time of all
+        // templates loaded by the configuration.
+        final long created = System.currentTimeMillis();
+
+        final Configuration configuration = new Configuration(
+            Configuration.VERSION_2_3_27);
+        configuration.setDefaultEncoding("UTF-8");
+        configuration
+            .setTemplateExceptionHandler(
+                TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+        configuration.setWrapUncheckedExceptions(false);
+        configuration.setLocalizedLookup(false);
+        // Changes are detected using the ThemeChangedEvent, therefore the
+        // template cache never has to check for updated templates.
+        configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+
+        configuration.setTemplateLoader(
+            new MultiTemplateLoader(new TemplateLoader[]{
+            // For for files from themes
+            new CcmTemplateLoader(key, created),
+            // Loader for MacroLibs provided by CCM modules
+            new WebappTemplateLoader(
+            servletContext, "/themes/freemarker"
+            ),
+            new ClassTemplateLoader(getClass(), "/themes/freemarker")
+        })
+        );
+
+        return new CachedConfiguration(configuration,
+                                       forTheme.getManifest().getMasterTheme());
     }
 
     private class CcmTemplateLoader implements TemplateLoader {
 
-        private final ThemeInfo fromTheme;
+        private final ConfigurationKey fromTheme;
 
-        public CcmTemplateLoader(final ThemeInfo fromTheme) {
+        private final long version;
+
+        public CcmTemplateLoader(final ConfigurationKey fromTheme,
+                                 final long version) {
             this.fromTheme = fromTheme;
+            this.version = version;
         }
 
         @Override
         public Object findTemplateSource(final String name) throws IOException {
 
+            final Optional<ThemeInfo> theme = themes.getTheme(
+                fromTheme.getThemeName(), fromTheme.getVersion()
+            );
+            if (!theme.isPresent()) {
+                return null;
+            }
+
             final Optional<InputStream> source = themes.getFileFromTheme(
-                fromTheme, name);
+                theme.get(), name);
             if (source.isPresent()) {
-                return source.get();
+                return new ThemeTemplateSource(name, version, source.get());
             } else {
                 return null;
             }
@@ -114,14 +207,16 @@ class FreemarkerConfigurationProvider {
         @Override
         public long getLastModified(final Object templateSource) {
 
-            return -1;
+            return ((ThemeTemplateSource) templateSource).getVersion();
         }
 
         @Override
         public Reader getReader(final Object templateSource,
                                 final String encoding) throws IOException {
 
-            final InputStream inputStream = (InputStream) templateSource;
+            final InputStream inputStream
+                                  = ((ThemeTemplateSource) templateSource)
+                    .getInputStream();
             return new InputStreamReader(inputStream, encoding);
         }
 
@@ -129,8 +224,137 @@ class FreemarkerConfigurationProvider {
         public void closeTemplateSource(final Object templateSource)
             throws IOException {
 
-            final InputStream inputStream = (InputStream) templateSource;
-            inputStream.close();
+            ((ThemeTemplateSource) templateSource).getInputStream().close();
+        }
+
+    }
+
+    /**
+     * A template from a theme. Two sources are equal if they have the same
+     * name and version, which allows the template cache of Freemarker to
+     * recognise unchanged templates.
+     */
+    private static final class ThemeTemplateSource {
+
+        private final String name;
+
+        private final long version;
+
+        private final InputStream inputStream;
+
+        private ThemeTemplateSource(final String name,
+                                    final long version,
+                                    final InputStream inputStream) {
+            this.name = name;
+            this.version = version;
+            this.inputStream = inputStream;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 5;
+            hash = 17 * hash + Objects.hashCode(name);
+            hash = 17 * hash + Long.hashCode(version);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ThemeTemplateSource)) {
+                return false;
+            }
+            final ThemeTemplateSource other = (ThemeTemplateSource) obj;
+            return version == other.version
+                       && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s@%d", name, version);
+        }
+
+    }
+
+    private static final class ConfigurationKey {
+
+        private final String themeName;
+
+        private final ThemeVersion version;
+
+        private ConfigurationKey(final String themeName,
+                                 final ThemeVersion version) {
+            this.themeName = themeName;
+            this.version = version;
+        }
+
+        public String getThemeName() {
+            return themeName;
+        }
+
+        public ThemeVersion getVersion() {
+            return version;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 37 * hash + Objects.hashCode(themeName);
+            hash = 37 * hash + Objects.hashCode(version);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConfigurationKey)) {
+                return false;
+            }
+            final ConfigurationKey other = (ConfigurationKey) obj;
+            return Objects.equals(themeName, other.themeName)
+                       && version == other.version;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s", themeName, version);
+        }
+
+    }
+
+    private static final class CachedConfiguration {
+
+        private final Configuration configuration;
+
+        /**
+         * The master theme of the theme when the configuration was created.
+         */
+        private final String masterTheme;
+
+        private CachedConfiguration(final Configuration configuration,
+                                    final String masterTheme) {
+            this.configuration = configuration;
+            this.masterTheme = masterTheme;
+        }
+
+        public Configuration getConfiguration() {
+            return configuration;
+        }
+
+        public String getMasterTheme() {
+            return masterTheme;
         }
 
     }
@@ -31,6 +31,7 @@ import org.libreccm.theming.ProcessesThemes;
 import org.libreccm.theming.ThemeInfo;
 import org.libreccm.theming.ThemeProcessor;
 import org.libreccm.theming.ThemeProvider;
+import org.libreccm.theming.assets.ThemeAssets;
 import org.libreccm.theming.manifest.ThemeTemplate;
 import org.libreccm.theming.utils.L10NUtils;
 import org.libreccm.theming.utils.SettingsUtils;
@@ -39,6 +40,7 @@ import org.libreccm.theming.utils.TextUtils;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -72,11 +74,30 @@ public class FreemarkerThemeProcessor implements ThemeProcessor {
     @Inject
     private TextUtils textUtils;
 
+    @Inject
+    private ThemeAssets themeAssets;
+
     @Override
     public String process(final Map<String, Object> page,
                           final ThemeInfo theme,
                           final ThemeProvider themeProvider) {
 
+        final StringWriter writer = new StringWriter();
+        try {
+            process(page, theme, themeProvider, writer);
+        } catch (IOException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        return writer.toString();
+    }
+
+    @Override
+    public void process(final Map<String, Object> page,
+                        final ThemeInfo theme,
+                        final ThemeProvider themeProvider,
+                        final Writer writer) throws IOException {
+
         final String pathToTemplate;
         if (page.containsKey(PAGE_PARAMETER_TEMPLATE)) {
 
@@ -84,11 +105,7 @@ public class FreemarkerThemeProcessor implements ThemeProcessor {
                 .get(PAGE_PARAMETER_TEMPLATE);
 
             final Optional<ThemeTemplate> template = theme
-                .getManifest()
-                .getTemplates()
-                .stream()
-                .filter(current -> current.getName().equals(templateName))
-                .findAny();
+                .getTemplate(templateName);
 
             if (template.isPresent()) {
                 pathToTemplate = template.get().getPath();
@@ -103,6 +120,7 @@ public class FreemarkerThemeProcessor implements ThemeProcessor {
         }
 
         page.put("getContextPath", new GetContextPathMethod());
+        page.put("getAssetUrl", new GetAssetUrlMethod(theme, themeProvider));
         page.put("getSetting", new GetSettingMethod(theme, themeProvider));
         page.put("localize", new LocalizeMethod(theme, themeProvider));
         page.put("truncateText", new TruncateTextMethod());
@@ -116,14 +134,11 @@ public class FreemarkerThemeProcessor implements ThemeProcessor {
             throw new UnexpectedErrorException(ex);
         }
 
-        final StringWriter writer = new StringWriter();
         try {
             template.process(page, writer);
-        } catch (TemplateException | IOException ex) {
+        } catch (TemplateException ex) {
             throw new UnexpectedErrorException(ex);
         }
-
-        return writer.toString();
     }
 
     private class GetContextPathMethod implements TemplateMethodModelEx {
@@ -136,6 +151,37 @@ public class FreemarkerThemeProcessor implements ThemeProcessor {
 
     }
 
+    private class GetAssetUrlMethod implements TemplateMethodModelEx {
+
+        private final ThemeInfo fromTheme;
+        private final ThemeProvider themeProvider;
+
+        public GetAssetUrlMethod(final ThemeInfo fromTheme,
+                                 final ThemeProvider themeProvider) {
+            this.fromTheme = fromTheme;
+            this.themeProvider = themeProvider;
+        }
+
+        @Override
+        public Object exec(final List arguments) throws TemplateModelException {
+
+            if (arguments.size() != 1) {
+                throw new TemplateModelException(
+                    "Illegal number of arguments.");
+            }
+
+            final String path = ((TemplateScalarModel) arguments.get(0))
+                .getAsString();
+
+            return systemInfoUtils.getContextPath()
+                       + themeAssets.getAssetPath(themeProvider,
+                                                  fromTheme.getName(),
+                                                  fromTheme.getVersion(),
+                                                  path);
+        }
+
+    }
+
     private class GetSettingMethod implements TemplateMethodModelEx {
 
         private final ThemeInfo fromTheme;
@@ -21,11 +21,15 @@ package org.libreccm.theming.mvc;
 import org.libreccm.theming.ThemeFileInfo;
 import org.libreccm.theming.ThemeProvider;
 import org.libreccm.theming.ThemeVersion;
+import org.libreccm.theming.assets.ThemeAsset;
+import org.libreccm.theming.assets.ThemeAssets;
 
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Any;
@@ -34,6 +38,11 @@ import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 /**
@@ -47,6 +56,12 @@ import javax.ws.rs.core.Response;
 @Path("/")
 public class ThemeResourceProvider {
 
+    /**
+     * Max age of fingerprinted assets (one year).
+     */
+    private static final int FINGERPRINTED_MAX_AGE = (int) TimeUnit.DAYS
+        .toSeconds(365);
+
     /**
      * Injection point for the available {@link ThemeProvider}s.
      */
@@ -54,6 +69,18 @@ public class ThemeResourceProvider {
     @Any
     private Instance<ThemeProvider> providers;
 
+    /**
+     * Local cache for the files of the live versions of the themes.
+     */
+    @Inject
+    private ThemeAssets themeAssets;
+
+    @Context
+    private Request request;
+
+    @Context
+    private HttpHeaders headers;
+
     /**
      * Serves a resources from a theme. This endpoint is mounted at
      * {@code /@themes/{theme}/{themeVersion}/{path:.+}}. If the provided theme
@@ -62,6 +89,10 @@ public class ThemeResourceProvider {
      * endpoint will response with a 404 response. If the response is found, a
      * response with the asset and the correct mime type is returned.
      *
+     * Files of the {@code LIVE} version are served from the {@link ThemeAssets}
+     * cache. The response has an entity tag and must be revalidated by
+     * clients, which allows responding with {@code 304 Not Modified}.
+     *
      * @param themeName         The name of the theme providing the resource.
      * @param themeVersionParam The version of the theme to use (either
      *                          {@code LIVE} or {@code DRAFT}.
@@ -84,6 +115,16 @@ public class ThemeResourceProvider {
         );
 
         if (provider.isPresent()) {
+            if (themeVersion == ThemeVersion.LIVE) {
+                themeAssets.synchronize();
+                final Optional<ThemeAsset> asset = themeAssets.getAsset(
+                    provider.get(), themeName, pathParam
+                );
+                if (asset.isPresent()) {
+                    return serveAsset(asset.get(), false);
+                }
+            }
+
             final Optional<ThemeFileInfo> fileInfo = provider
                 .get()
                 .getThemeFileInfo(themeName, themeVersion, pathParam);
@@ -142,6 +183,187 @@ public class ThemeResourceProvider {
         }
     }
 
+    /**
+     * Serves a fingerprinted asset from the live version of a theme. This
+     * endpoint is mounted at
+     * {@code /@themes/{theme}/assets/{fingerprint}/{path:.+}}. The URLs for
+     * this endpoint are created by
+     * {@link ThemeAssets#getAssetPath(org.libreccm.theming.ThemeProvider, java.lang.String, org.libreccm.theming.ThemeVersion, java.lang.String)}.
+     * Because the content for such an URL never changes, clients are allowed
+     * to cache the response without revalidating it. If the fingerprint does
+     * not match the current version of the asset the current version is served
+     * without these caching headers.
+     *
+     * @param themeName   The name of the theme providing the asset.
+     * @param fingerprint The fingerprint of the asset.
+     * @param pathParam   The path of the asset to serve.
+     *
+     * @return A response with the asset, or a 404 response if the asset or the
+     *         theme is not available.
+     */
+    @GET
+    @Path("/{theme}/assets/{fingerprint}/{path:.+}")
+    public Response getThemeAsset(
+        @PathParam("theme") final String themeName,
+        @PathParam("fingerprint") final String fingerprint,
+        @PathParam("path") final String pathParam
+    ) {
+        final Optional<ThemeProvider> provider = findProvider(themeName);
+        if (!provider.isPresent()) {
+            return Response
+                .status(Response.Status.NOT_FOUND)
+                .entity(String.format("Theme \"%s\" does not exist.",
+                                      themeName))
+                .build();
+        }
+
+        Optional<ThemeAsset> asset = themeAssets.getAsset(
+            provider.get(), themeName, pathParam
+        );
+        if (asset.isPresent()
+                && !asset.get().getFingerprint().equals(fingerprint)) {
+            // The cache of this node may be outdated.
+            themeAssets.synchronize();
+            asset = themeAssets.getAsset(provider.get(), themeName, pathParam);
+        }
+
+        if (asset.isPresent()) {
+            return serveAsset(
+                asset.get(),
+                asset.get().getFingerprint().equals(fingerprint)
+            );
+        } else {
+            return Response
+                .status(Response.Status.NOT_FOUND)
+                .entity(
+                    String.format(
+                        "File \"%s\" does not exist in the %s "
+                            + "version of theme %s.",
+                        pathParam,
+                        ThemeVersion.LIVE,
+                        themeName
+                    )
+                )
+                .build();
+        }
+    }
+
+    /**
+     * Helper method for creating the response for an asset from the
+     * {@link ThemeAssets} cache. If the client accepts gzip encoded content
+     * and the asset is compressible, the precompressed version of the asset is
+     * served.
+     *
+     * @param asset         The asset.
+     * @param fingerprinted {@code true} if the asset was requested using an
+     *                      URL containing its fingerprint.
+     *
+     * @return The response for the asset, or a {@code 304 Not Modified}
+     *         response if the asset was not modified.
+     */
+    private Response serveAsset(final ThemeAsset asset,
+                                final boolean fingerprinted) {
+
+        final List<String> acceptEncoding = headers.getRequestHeader(
+            HttpHeaders.ACCEPT_ENCODING
+        );
+        final boolean gzip = asset.getGzipFile().isPresent()
+                                 && acceptsGzip(acceptEncoding);
+        final EntityTag entityTag = new EntityTag(
+            buildEntityTag(asset.getFingerprint(), gzip)
+        );
+        final java.nio.file.Path file;
+        if (gzip) {
+            file = asset.getGzipFile().get();
+        } else {
+            file = asset.getFile();
+        }
+
+        final CacheControl cacheControl = new CacheControl();
+        if (fingerprinted) {
+            cacheControl.setMaxAge(FINGERPRINTED_MAX_AGE);
+            cacheControl.getCacheExtension().put("immutable", null);
+        } else {
+            cacheControl.setNoCache(true);
+        }
+
+        final Response.ResponseBuilder notModified = request
+            .evaluatePreconditions(asset.getLastModified(), entityTag);
+        final Response.ResponseBuilder builder;
+        if (notModified == null) {
+            if (!Files.isReadable(file)) {
+                // The local copy of the asset was deleted, for example by
+                // a cleanup of the temporary directory.
+                return Response
+                    .status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, 1)
+                    .build();
+            }
+            builder = Response
+                .ok(file.toFile())
+                .type(asset.getMimeType())
+                .lastModified(asset.getLastModified())
+                .tag(entityTag);
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        } else {
+            builder = notModified;
+        }
+        if (asset.getGzipFile().isPresent()) {
+            builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        return builder.cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Helper method for creating the value of the entity tag of an asset. The
+     * gzip compressed representation of an asset has a different entity tag
+     * than the uncompressed one. Otherwise a client could get a
+     * {@code 304 Not Modified} response for a representation with another
+     * encoding than the one it has cached.
+     *
+     * @param fingerprint The fingerprint of the asset.
+     * @param gzip        Is the gzip compressed representation served?
+     *
+     * @return The value of the entity tag.
+     */
+    static String buildEntityTag(final String fingerprint,
+                                 final boolean gzip) {
+        if (gzip) {
+            return String.format("%s-gzip", fingerprint);
+        } else {
+            return fingerprint;
+        }
+    }
+
+    /**
+     * Helper method for checking if the client accepts gzip encoded content.
+     *
+     * @param acceptEncoding The values of the {@code Accept-Encoding} header
+     *                       of the request. May be {@code null}.
+     *
+     * @return {@code true} if the client accepts gzip encoded content,
+     *         {@code false} otherwise.
+     */
+    static boolean acceptsGzip(final List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String value : acceptEncoding) {
+            for (final String encoding : value.split(",")) {
+                final String[] parts = encoding.trim().split(";");
+                if ("gzip".equalsIgnoreCase(parts[0].trim())
+                        && !(parts.length > 1
+                             && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Helper method for finding the provider of a theme.
      *
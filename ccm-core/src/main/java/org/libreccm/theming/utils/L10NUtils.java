@@ -39,7 +39,9 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 
 /**
- * Utility for getting localized texts for a theme.
+ * Utility for getting localized texts for a theme. The bundles are loaded
+ * only once per theme and locale and are cached by the {@link ThemeFilesCache}
+ * until the theme is changed.
  * 
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
@@ -51,16 +53,23 @@ public class L10NUtils implements Serializable {
     @Inject
     private GlobalizationHelper globalizationHelper;
 
+    @Inject
+    private ThemeFilesCache themeFilesCache;
+
     public ResourceBundle getBundle(final ThemeInfo fromTheme,
                                     final ThemeProvider themeProvider,
                                     final String bundleName) {
 
-        return ResourceBundle
-            .getBundle(
+        final Locale locale = globalizationHelper.getNegotiatedLocale();
+        return themeFilesCache.getBundle(
+            fromTheme,
+            bundleName,
+            locale,
+            () -> ResourceBundle.getBundle(
                 bundleName,
-                globalizationHelper.getNegotiatedLocale(),
-                new LocalizedResourceBundleControl(fromTheme,
-                                                   themeProvider));
+                locale,
+                new LocalizedResourceBundleControl(fromTheme, themeProvider))
+        );
     }
 
     public String getText(final ThemeInfo fromTheme,
@@ -102,6 +111,17 @@ public class L10NUtils implements Serializable {
             this.themeProvider = themeProvider;
         }
 
+        /**
+         * The bundles are cached by the {@link ThemeFilesCache}. The cache of
+         * {@link ResourceBundle} is not used because it does not distinguish
+         * between the bundles of different themes.
+         */
+        @Override
+        public long getTimeToLive(final String baseName,
+                                  final Locale locale) {
+            return TTL_DONT_CACHE;
+        }
+
         @Override
         public List<String> getFormats(final String baseName) {
             Objects.requireNonNull(baseName);
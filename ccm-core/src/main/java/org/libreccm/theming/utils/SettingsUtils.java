@@ -29,6 +29,8 @@ import org.libreccm.theming.ThemeProvider;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -36,9 +38,12 @@ import java.util.Optional;
 import java.util.Properties;
 
 import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
 
 /**
  * Methods for reading configuration options from the theme. Most themes have
@@ -65,6 +70,9 @@ import javax.json.JsonReader;
  *
  * The file type is determined by the file extension of the file to read.
  *
+ * The settings files are only parsed once. The parsed settings are cached by
+ * the {@link ThemeFilesCache} until the theme is changed.
+ *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @RequestScoped
@@ -75,6 +83,9 @@ public class SettingsUtils implements Serializable {
     private static final Logger LOGGER = LogManager
         .getLogger(SettingsUtils.class);
 
+    @Inject
+    private ThemeFilesCache themeFilesCache;
+
     /**
      * Retrieve the value of a setting.
      *
@@ -133,33 +144,22 @@ public class SettingsUtils implements Serializable {
                 "The name of the settings file can't be empty.");
         }
 
-        final Optional<InputStream> fileInputStream = themeProvider
-            .getThemeFileAsStream(fromTheme.getName(),
-                                  fromTheme.getVersion(),
-                                  filePath);
-        if (!fileInputStream.isPresent()) {
-            LOGGER.warn(
-                "Configuration file \"{}\" was not found in theme \"{}\".",
-                filePath,
-                fromTheme.getName());
-            return defaultValue;
-        }
-
-        if (filePath.toLowerCase(Locale.ROOT).endsWith(".properties")) {
-            return getSettingFromPropertiesFile(fileInputStream.get(),
-                                                settingName)
-                .orElse(defaultValue);
-        } else if (filePath.toLowerCase(Locale.ROOT).endsWith(".xml")) {
-            return getSettingFromXmlFile(fileInputStream.get(), settingName)
-                .orElse(defaultValue);
-        } else if (filePath.toLowerCase(Locale.ROOT).endsWith(".json")) {
-            return getSettingFromJsonFile(fileInputStream.get(), settingName)
-                .orElse(defaultValue);
-        } else {
+        final String lowerCasePath = filePath.toLowerCase(Locale.ROOT);
+        if (!lowerCasePath.endsWith(".properties")
+                && !lowerCasePath.endsWith(".xml")
+                && !lowerCasePath.endsWith(".json")) {
             throw new IllegalArgumentException(
                 "The file path must point to file in a supported format. "
                     + "Supported formats are \".properties\", \".xml\" and \".json\".");
         }
+
+        final Map<String, String> settings = themeFilesCache.getSettings(
+            fromTheme,
+            filePath,
+            () -> readSettingsFile(fromTheme, themeProvider, filePath)
+        );
+
+        return settings.getOrDefault(settingName, defaultValue);
     }
 
     /**
@@ -266,54 +266,94 @@ public class SettingsUtils implements Serializable {
         return Double.parseDouble(result);
     }
 
-    private Optional<String> getSettingFromJsonFile(
-        final InputStream fileInputStream,
-        final String settingName) {
+    /**
+     * Reads and parses a settings file. The settings file is only read if
+     * the {@link ThemeFilesCache} has no entry for the file.
+     *
+     * @param fromTheme     The theme from which the file is read.
+     * @param themeProvider The provider of the theme.
+     * @param filePath      The path of the settings file.
+     *
+     * @return An unmodifiable map containing the settings from the file. If
+     *         the file does not exist or can't be parsed an empty map is
+     *         returned.
+     */
+    private Map<String, String> readSettingsFile(
+        final ThemeInfo fromTheme,
+        final ThemeProvider themeProvider,
+        final String filePath) {
+
+        final Optional<InputStream> fileInputStream = themeProvider
+            .getThemeFileAsStream(fromTheme.getName(),
+                                  fromTheme.getVersion(),
+                                  filePath);
+        if (!fileInputStream.isPresent()) {
+            LOGGER.warn(
+                "Configuration file \"{}\" was not found in theme \"{}\".",
+                filePath,
+                fromTheme.getName());
+            return Collections.emptyMap();
+        }
+
+        final String lowerCasePath = filePath.toLowerCase(Locale.ROOT);
+        try (final InputStream inputStream = fileInputStream.get()) {
+            if (lowerCasePath.endsWith(".properties")) {
+                return readPropertiesFile(inputStream);
+            } else if (lowerCasePath.endsWith(".xml")) {
+                return readXmlFile(inputStream);
+            } else {
+                return readJsonFile(inputStream);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to close settings file \"{}\" of theme "
+                            + "\"{}\".",
+                        filePath,
+                        fromTheme.getName());
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, String> readJsonFile(
+        final InputStream fileInputStream) {
 
         final JsonReader jsonReader = Json.createReader(fileInputStream);
         final JsonObject settings = jsonReader.readObject();
-        final String result = settings.getString(settingName);
+        final Map<String, String> result = new HashMap<>();
+        for (final Map.Entry<String, JsonValue> entry : settings.entrySet()) {
+            if (entry.getValue() instanceof JsonString) {
+                result.put(entry.getKey(),
+                           ((JsonString) entry.getValue()).getString());
+            } else {
+                result.put(entry.getKey(), entry.getValue().toString());
+            }
+        }
 
-        return Optional.ofNullable(result);
+        return Collections.unmodifiableMap(result);
     }
 
-    private Optional<String> getSettingFromPropertiesFile(
-        final InputStream fileInputStream,
-        final String settingName) {
+    private Map<String, String> readPropertiesFile(
+        final InputStream fileInputStream) {
 
         final Properties settings = new Properties();
         try {
             settings.load(fileInputStream);
         } catch (IOException ex) {
             LOGGER.warn("Failed to load setting file.");
-            return Optional.empty();
+            return Collections.emptyMap();
         }
 
-        if (settings.containsKey(settingName)) {
-            return Optional.of(settings.getProperty(settingName));
-        } else {
-            return Optional.empty();
+        final Map<String, String> result = new HashMap<>();
+        for (final String name : settings.stringPropertyNames()) {
+            result.put(name, settings.getProperty(name));
         }
+
+        return Collections.unmodifiableMap(result);
     }
 
-    private Optional<String> getSettingFromXmlFile(
-        final InputStream fileInputStream,
-        final String settingName) {
+    private Map<String, String> readXmlFile(
+        final InputStream fileInputStream) {
 
         final Map<String, String> settings;
-//        = new HashMap<>();
-//        final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
-//        final XMLStreamReader xmlStreamReader;
-//        try {
-//            xmlStreamReader = xmlInputFactory
-//                .createXMLStreamReader(fileInputStream);
-//        } catch (XMLStreamException ex) {
-//            LOGGER.error("Failed to read XML settings file.");
-//            return Optional.empty();
-//        }
-//
-//        while
-
         final JacksonXmlModule xmlModule = new JacksonXmlModule();
         final ObjectMapper mapper = new XmlMapper(xmlModule);
         try {
@@ -323,14 +363,10 @@ public class SettingsUtils implements Serializable {
                 .readValue(fileInputStream);
         } catch (IOException ex) {
             LOGGER.error("Failed to read Xfinal XML settings file.");
-            return Optional.empty();
+            return Collections.emptyMap();
         }
 
-        if (settings.containsKey(settingName)) {
-            return Optional.of(settings.get(settingName));
-        } else {
-            return Optional.empty();
-        }
+        return Collections.unmodifiableMap(settings);
     }
 
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.theming.ThemeChangedEvent;
+import org.libreccm.theming.ThemeInfo;
+import org.libreccm.theming.ThemeVersion;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+
+/**
+ * Application wide cache for the parsed settings files and localisation
+ * bundles of the themes used by {@link SettingsUtils} and {@link L10NUtils}.
+ * The cache is keyed by the name of the theme, the {@link ThemeVersion}, the
+ * path of the file (or the name of the bundle) and the locale (for bundles
+ * only).
+ *
+ * Settings and bundles which are not found in a theme are looked up in its
+ * master theme. The entries of a theme are therefore removed if a
+ * {@link ThemeChangedEvent} for the theme or its master theme is fired by a
+ * {@link org.libreccm.theming.ThemeProvider}, for example if the theme is
+ * published or if a file of the theme has been written.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ThemeFilesCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ThemeFilesCache.class
+    );
+
+    private final GenerationCache<FileKey, CachedFile> cache
+        = new GenerationCache<>();
+
+    /**
+     * Retrieves the parsed settings file from the cache. If the cache has no
+     * entry for the settings file the provided {@code parser} is used to read
+     * the file.
+     *
+     * @param theme    The theme.
+     * @param filePath The path of the settings file in the theme.
+     * @param parser   Reads and parses the settings file. The parser returns
+     *                 an empty map if the file does not exist.
+     *
+     * @return An unmodifiable map with the settings from the file.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getSettings(
+        final ThemeInfo theme,
+        final String filePath,
+        final Supplier<Map<String, String>> parser) {
+
+        return (Map<String, String>) get(theme, filePath, null, parser);
+    }
+
+    /**
+     * Retrieves a localisation bundle of a theme from the cache. If the cache
+     * has no entry for the bundle the provided {@code loader} is used to load
+     * the bundle.
+     *
+     * @param theme      The theme.
+     * @param bundleName The name of the bundle.
+     * @param locale     The locale of the bundle.
+     * @param loader     Loads the bundle.
+     *
+     * @return The bundle.
+     */
+    public ResourceBundle getBundle(final ThemeInfo theme,
+                                    final String bundleName,
+                                    final Locale locale,
+                                    final Supplier<ResourceBundle> loader) {
+
+        Objects.requireNonNull(locale);
+        return (ResourceBundle) get(theme, bundleName, locale, loader);
+    }
+
+    /**
+     * Removes all cached files of a theme and of all themes using the theme as
+     * master theme.
+     *
+     * @param themeName The name of the theme.
+     * @param version   The version of the theme.
+     */
+    public void invalidate(final String themeName,
+                           final ThemeVersion version) {
+        cache.invalidateIf(
+            (key, cached) -> key.getVersion() == version
+                                 && (key.getThemeName().equals(themeName)
+                                     || themeName.equals(
+                                         cached.getMasterTheme()))
+        );
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Observer for {@link ThemeChangedEvent}s. The event is processed after
+     * the transaction in which the theme was changed was committed to ensure
+     * that the files are not parsed again from outdated data.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event) {
+
+        LOGGER.debug("Invalidating settings and bundles of theme \"{}\" "
+                         + "(version {}) after {}.",
+                     event.getThemeName(),
+                     event.getVersion(),
+                     event.getChangeType());
+        invalidate(event.getThemeName(), event.getVersion());
+    }
+
+    /**
+     * @return The number of files currently in the cache.
+     */
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    /**
+     * @return The number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return The number of requests which required reading a file.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    private Object get(final ThemeInfo theme,
+                       final String path,
+                       final Locale locale,
+                       final Supplier<?> loader) {
+
+        Objects.requireNonNull(theme);
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(loader);
+
+        final FileKey key = new FileKey(theme.getName(),
+                                        theme.getVersion(),
+                                        path,
+                                        locale);
+        return cache
+            .get(key,
+                 current -> new CachedFile(
+                     loader.get(), theme.getManifest().getMasterTheme()
+                 ))
+            .getValue();
+    }
+
+    private static final class FileKey {
+
+        private final String themeName;
+
+        private final ThemeVersion version;
+
+        private final String path;
+
+        private final Locale locale;
+
+        private FileKey(final String themeName,
+                        final ThemeVersion version,
+                        final String path,
+                        final Locale locale) {
+            this.themeName = themeName;
+            this.version = version;
+            this.path = path;
+            this.locale = locale;
+        }
+
+        public String getThemeName() {
+            return themeName;
+        }
+
+        public ThemeVersion getVersion() {
+            return version;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + Objects.hashCode(themeName);
+            hash = 41 * hash + Objects.hashCode(version);
+            hash = 41 * hash + Objects.hashCode(path);
+            hash = 41 * hash + Objects.hashCode(locale);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FileKey)) {
+                return false;
+            }
+            final FileKey other = (FileKey) obj;
+            return Objects.equals(themeName, other.themeName)
+                       && version == other.version
+                       && Objects.equals(path, other.path)
+                       && Objects.equals(locale, other.locale);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s:%s:%s",
+                                 themeName,
+                                 version,
+                                 path,
+                                 locale);
+        }
+
+    }
+
+    private static final class CachedFile {
+
+        private final Object value;
+
+        /**
+         * The master theme of the theme when the file was read.
+         */
+        private final String masterTheme;
+
+        private CachedFile(final Object value, final String masterTheme) {
+            this.value = value;
+            this.masterTheme = masterTheme;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public String getMasterTheme() {
+            return masterTheme;
+        }
+
+    }
+
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.xslt;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * A minimal {@link XMLStreamWriter} which converts the calls to SAX events
+ * passed to a {@link ContentHandler}. Used by {@link PageXmlReader} to feed the
+ * output of Jackson's {@code XmlMapper} directly into a XSL transformation
+ * without creating a string or a DOM tree first.
+ *
+ * Only the subset of the StAX API used by Jackson is supported. Start and end
+ * of the document are managed by the caller, therefore
+ * {@link #writeStartDocument()} and {@link #writeEndDocument()} do nothing.
+ * Comments are passed to the {@link ContentHandler} if it also implements
+ * {@link LexicalHandler}, otherwise they are dropped.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+class ContentHandlerStreamWriter implements XMLStreamWriter {
+
+    private final ContentHandler contentHandler;
+
+    /**
+     * The qualified names of the open elements.
+     */
+    private final Deque<String[]> openElements;
+
+    /**
+     * Attributes of the current start element which have not been sent yet.
+     */
+    private final AttributesImpl pendingAttributes;
+
+    /**
+     * Namespace URI, local name and qualified name of a start tag which has
+     * not been sent yet. Start tags are send to the {@link ContentHandler}
+     * when the next event after the attributes is written.
+     */
+    private String[] pendingElement;
+
+    /**
+     * Is the pending element an empty element?
+     */
+    private boolean pendingEmpty;
+
+    private NamespaceContext namespaceContext;
+
+    ContentHandlerStreamWriter(final ContentHandler contentHandler) {
+        this.contentHandler = Objects.requireNonNull(contentHandler);
+        openElements = new ArrayDeque<>();
+        pendingAttributes = new AttributesImpl();
+    }
+
+    @Override
+    public void writeStartElement(final String localName)
+        throws XMLStreamException {
+
+        writeStartElement(XMLConstants.NULL_NS_URI, localName);
+    }
+
+    @Override
+    public void writeStartElement(final String namespaceURI,
+                                  final String localName)
+        throws XMLStreamException {
+
+        writeStartElement(XMLConstants.DEFAULT_NS_PREFIX,
+                          localName,
+                          namespaceURI);
+    }
+
+    @Override
+    public void writeStartElement(final String prefix,
+                                  final String localName,
+                                  final String namespaceURI)
+        throws XMLStreamException {
+
+        flushPendingElement();
+        pendingElement = new String[]{
+            nullToEmpty(namespaceURI),
+            localName,
+            buildQName(prefix, localName)
+        };
+        pendingEmpty = false;
+    }
+
+    @Override
+    public void writeEmptyElement(final String localName)
+        throws XMLStreamException {
+
+        writeEmptyElement(XMLConstants.NULL_NS_URI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(final String namespaceURI,
+                                  final String localName)
+        throws XMLStreamException {
+
+        writeEmptyElement(XMLConstants.DEFAULT_NS_PREFIX,
+                          localName,
+                          namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(final String prefix,
+                                  final String localName,
+                                  final String namespaceURI)
+        throws XMLStreamException {
+
+        writeStartElement(prefix, localName, namespaceURI);
+        pendingEmpty = true;
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        flushPendingElement();
+        final String[] element = openElements.pop();
+        try {
+            contentHandler.endElement(element[0], element[1], element[2]);
+        } catch (SAXException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        flushPendingElement();
+        while (!openElements.isEmpty()) {
+            writeEndElement();
+        }
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        //Nothing
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        //Nothing
+    }
+
+    @Override
+    public void writeAttribute(final String localName,
+                               final String value)
+        throws XMLStreamException {
+
+        writeAttribute(XMLConstants.DEFAULT_NS_PREFIX,
+                       XMLConstants.NULL_NS_URI,
+                       localName,
+                       value);
+    }
+
+    @Override
+    public void writeAttribute(final String prefix,
+                               final String namespaceURI,
+                               final String localName,
+                               final String value)
+        throws XMLStreamException {
+
+        if (pendingElement == null) {
+            throw new XMLStreamException(
+                "Attributes can only be written directly after a start "
+                    + "element.");
+        }
+        pendingAttributes.addAttribute(nullToEmpty(namespaceURI),
+                                       localName,
+                                       buildQName(prefix, localName),
+                                       "CDATA",
+                                       value);
+    }
+
+    @Override
+    public void writeAttribute(final String namespaceURI,
+                               final String localName,
+                               final String value)
+        throws XMLStreamException {
+
+        writeAttribute(getPrefix(namespaceURI), namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(final String prefix,
+                               final String namespaceURI)
+        throws XMLStreamException {
+
+        if (namespaceURI == null || namespaceURI.isEmpty()) {
+            return;
+        }
+        try {
+            contentHandler.startPrefixMapping(nullToEmpty(prefix),
+                                              namespaceURI);
+        } catch (SAXException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    @Override
+    public void writeDefaultNamespace(final String namespaceURI)
+        throws XMLStreamException {
+
+        writeNamespace(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+    }
+
+    @Override
+    public void writeComment(final String data) throws XMLStreamException {
+        flushPendingElement();
+        if (contentHandler instanceof LexicalHandler) {
+            final char[] chars = nullToEmpty(data).toCharArray();
+            try {
+                ((LexicalHandler) contentHandler).comment(chars,
+                                                          0,
+                                                          chars.length);
+            } catch (SAXException ex) {
+                throw new XMLStreamException(ex);
+            }
+        }
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target)
+        throws XMLStreamException {
+
+        writeProcessingInstruction(target, "");
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target,
+                                           final String data)
+        throws XMLStreamException {
+
+        flushPendingElement();
+        try {
+            contentHandler.processingInstruction(target, data);
+        } catch (SAXException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    @Override
+    public void writeCData(final String data) throws XMLStreamException {
+        writeCharacters(data);
+    }
+
+    @Override
+    public void writeDTD(final String dtd) throws XMLStreamException {
+        //Nothing
+    }
+
+    /**
+     * SAX has no event for entity references, therefore only references to
+     * the predefined entities of XML are supported. They are written as the
+     * character they represent.
+     *
+     * @param name The name of the entity.
+     *
+     * @throws XMLStreamException If the entity is not one of the predefined
+     *                            entities.
+     */
+    @Override
+    public void writeEntityRef(final String name) throws XMLStreamException {
+        final String value;
+        switch (nullToEmpty(name)) {
+            case "amp":
+                value = "&";
+                break;
+            case "lt":
+                value = "<";
+                break;
+            case "gt":
+                value = ">";
+                break;
+            case "quot":
+                value = "\"";
+                break;
+            case "apos":
+                value = "'";
+                break;
+            default:
+                throw new XMLStreamException(String.format(
+                    "Reference to entity \"%s\" can't be written. Only "
+                        + "references to the predefined entities are "
+                        + "supported.",
+                    name));
+        }
+        writeCharacters(value);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        //Nothing, managed by the caller
+    }
+
+    @Override
+    public void writeStartDocument(final String version)
+        throws XMLStreamException {
+        //Nothing, managed by the caller
+    }
+
+    @Override
+    public void writeStartDocument(final String encoding,
+                                   final String version)
+        throws XMLStreamException {
+        //Nothing, managed by the caller
+    }
+
+    @Override
+    public void writeCharacters(final String text) throws XMLStreamException {
+        if (text == null || text.isEmpty()) {
+            flushPendingElement();
+            return;
+        }
+        final char[] chars = text.toCharArray();
+        writeCharacters(chars, 0, chars.length);
+    }
+
+    @Override
+    public void writeCharacters(final char[] text,
+                                final int start,
+                                final int len)
+        throws XMLStreamException {
+
+        flushPendingElement();
+        try {
+            contentHandler.characters(text, start, len);
+        } catch (SAXException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    @Override
+    public String getPrefix(final String uri) throws XMLStreamException {
+        if (namespaceContext == null) {
+            return XMLConstants.DEFAULT_NS_PREFIX;
+        } else {
+            return namespaceContext.getPrefix(uri);
+        }
+    }
+
+    @Override
+    public void setPrefix(final String prefix,
+                          final String uri) throws XMLStreamException {
+        //Nothing
+    }
+
+    @Override
+    public void setDefaultNamespace(final String uri)
+        throws XMLStreamException {
+        //Nothing
+    }
+
+    @Override
+    public void setNamespaceContext(final NamespaceContext context)
+        throws XMLStreamException {
+
+        namespaceContext = context;
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return namespaceContext;
+    }
+
+    /**
+     * This writer does not repair namespaces, all other properties are
+     * unknown.
+     *
+     * @param name The name of the property.
+     *
+     * @return {@link Boolean#FALSE} for
+     *         {@link XMLOutputFactory#IS_REPAIRING_NAMESPACES}, {@code null}
+     *         for all other properties.
+     */
+    @Override
+    public Object getProperty(final String name) {
+        if (XMLOutputFactory.IS_REPAIRING_NAMESPACES.equals(name)) {
+            return Boolean.FALSE;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a pending start tag to the {@link ContentHandler}.
+     *
+     * @throws XMLStreamException
+     */
+    private void flushPendingElement() throws XMLStreamException {
+        if (pendingElement == null) {
+            return;
+        }
+
+        final String[] element = pendingElement;
+        pendingElement = null;
+        try {
+            contentHandler.startElement(element[0],
+                                        element[1],
+                                        element[2],
+                                        pendingAttributes);
+            pendingAttributes.clear();
+            if (pendingEmpty) {
+                pendingEmpty = false;
+                contentHandler.endElement(element[0], element[1], element[2]);
+            } else {
+                openElements.push(element);
+            }
+        } catch (SAXException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    private String buildQName(final String prefix, final String localName) {
+        if (prefix == null || prefix.isEmpty()) {
+            return localName;
+        } else {
+            return String.format("%s:%s", prefix, localName);
+        }
+    }
+
+    private String nullToEmpty(final String value) {
+        if (value == null) {
+            return "";
+        } else {
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.xslt;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLReader;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * An {@link XMLReader} which does not parse anything but generates SAX events
+ * for the data of a page. Used as input for XSL transformations using a
+ * {@link javax.xml.transform.sax.SAXSource}. The page is converted by the same
+ * {@link XmlMapper} used to create the XML string in the non streaming mode,
+ * therefore the structure of the XML is the same (without the indentation).
+ *
+ * The {@link InputSource} passed to {@link #parse(org.xml.sax.InputSource)} is
+ * ignored.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+class PageXmlReader implements XMLReader {
+
+    private static final String FEATURE_NAMESPACES
+                                    = "http://xml.org/sax/features/namespaces";
+
+    private static final String FEATURE_NAMESPACE_PREFIXES
+                                    = "http://xml.org/sax/features/namespace-prefixes";
+
+    private final XmlMapper xmlMapper;
+
+    private final Map<String, Object> page;
+
+    private ContentHandler contentHandler;
+
+    private DTDHandler dtdHandler;
+
+    private EntityResolver entityResolver;
+
+    private ErrorHandler errorHandler;
+
+    PageXmlReader(final XmlMapper xmlMapper, final Map<String, Object> page) {
+        this.xmlMapper = Objects.requireNonNull(xmlMapper);
+        this.page = Objects.requireNonNull(page);
+    }
+
+    @Override
+    public boolean getFeature(final String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+
+        switch (name) {
+            case FEATURE_NAMESPACES:
+                return true;
+            case FEATURE_NAMESPACE_PREFIXES:
+                return false;
+            default:
+                throw new SAXNotRecognizedException(name);
+        }
+    }
+
+    @Override
+    public void setFeature(final String name, final boolean value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+
+        if (getFeature(name) != value) {
+            throw new SAXNotSupportedException(String.format(
+                "Feature \"%s\" can't be set to %b.", name, value));
+        }
+    }
+
+    @Override
+    public Object getProperty(final String name)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+
+        throw new SAXNotRecognizedException(name);
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value)
+        throws SAXNotRecognizedException, SAXNotSupportedException {
+
+        throw new SAXNotRecognizedException(name);
+    }
+
+    @Override
+    public void setEntityResolver(final EntityResolver resolver) {
+        entityResolver = resolver;
+    }
+
+    @Override
+    public EntityResolver getEntityResolver() {
+        return entityResolver;
+    }
+
+    @Override
+    public void setDTDHandler(final DTDHandler handler) {
+        dtdHandler = handler;
+    }
+
+    @Override
+    public DTDHandler getDTDHandler() {
+        return dtdHandler;
+    }
+
+    @Override
+    public void setContentHandler(final ContentHandler handler) {
+        contentHandler = handler;
+    }
+
+    @Override
+    public ContentHandler getContentHandler() {
+        return contentHandler;
+    }
+
+    @Override
+    public void setErrorHandler(final ErrorHandler handler) {
+        errorHandler = handler;
+    }
+
+    @Override
+    public ErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    @Override
+    public void parse(final InputSource input)
+        throws IOException, SAXException {
+
+        if (contentHandler == null) {
+            throw new SAXException("No ContentHandler set.");
+        }
+
+        final ContentHandlerStreamWriter streamWriter
+            = new ContentHandlerStreamWriter(contentHandler);
+        final ObjectWriter writer = xmlMapper
+            .writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .withRootName("page");
+
+        contentHandler.startDocument();
+        try (final ToXmlGenerator generator = xmlMapper
+            .getFactory()
+            .createGenerator(streamWriter)) {
+
+            writer.writeValue(generator, page);
+        }
+        try {
+            streamWriter.writeEndDocument();
+        } catch (XMLStreamException ex) {
+            throw new SAXException(ex);
+        }
+        contentHandler.endDocument();
+    }
+
+    @Override
+    public void parse(final String systemId)
+        throws IOException, SAXException {
+
+        parse(new InputSource(systemId));
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.xslt;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.theming.ThemeChangedEvent;
+import org.libreccm.theming.ThemeInfo;
+import org.libreccm.theming.ThemeVersion;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.xml.transform.Templates;
+
+/**
+ * Application wide cache for the compiled XSL stylesheets of the themes. The
+ * compiled stylesheets ({@link Templates}) are thread safe and can be reused
+ * for any number of transformations. The cache is keyed by the name of the
+ * theme, the {@link ThemeVersion} and the path of the stylesheet.
+ *
+ * A stylesheet and the stylesheets it imports are loaded from the master theme
+ * if the theme does not contain them. The entries of a theme are therefore
+ * removed if a {@link ThemeChangedEvent} for the theme or its master theme is
+ * fired by a {@link org.libreccm.theming.ThemeProvider}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class XsltTemplatesCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        XsltTemplatesCache.class
+    );
+
+    private final GenerationCache<TemplatesKey, CachedTemplates> cache
+        = new GenerationCache<>();
+
+    /**
+     * Retrieves the compiled stylesheet for the provided theme and path. If
+     * the cache has no entry for the stylesheet the provided {@code compiler}
+     * is used to compile the stylesheet.
+     *
+     * @param theme    The theme.
+     * @param path     The path of the stylesheet in the theme.
+     * @param compiler Compiles the stylesheet if there is no cache entry for
+     *                 the stylesheet.
+     *
+     * @return The compiled stylesheet.
+     */
+    public Templates getTemplates(final ThemeInfo theme,
+                                  final String path,
+                                  final Supplier<Templates> compiler) {
+
+        Objects.requireNonNull(theme);
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(compiler);
+
+        final TemplatesKey key = new TemplatesKey(theme.getName(),
+                                                  theme.getVersion(),
+                                                  path);
+        return cache
+            .get(key, current -> compile(current, theme, compiler))
+            .getTemplates();
+    }
+
+    /**
+     * Removes all cached stylesheets of a theme and of all themes using the
+     * theme as master theme.
+     *
+     * @param themeName The name of the theme.
+     * @param version   The version of the theme.
+     */
+    public void invalidate(final String themeName,
+                           final ThemeVersion version) {
+        cache.invalidateIf(
+            (key, cached) -> key.getVersion() == version
+                                 && (key.getThemeName().equals(themeName)
+                                     || themeName.equals(
+                                         cached.getMasterTheme()))
+        );
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Observer for {@link ThemeChangedEvent}s. The event is processed after
+     * the transaction in which the theme was changed was committed to ensure
+     * that the stylesheets are not recompiled from outdated data.
+     *
+     * @param event The event.
+     */
+    protected void onThemeChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ThemeChangedEvent event) {
+
+        LOGGER.debug("Invalidating compiled stylesheets of theme \"{}\" "
+                         + "(version {}) after {}.",
+                     event.getThemeName(),
+                     event.getVersion(),
+                     event.getChangeType());
+        invalidate(event.getThemeName(), event.getVersion());
+    }
+
+    /**
+     * @return The number of stylesheets currently in the cache.
+     */
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    /**
+     * @return The number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return The number of requests which required the compilation of a
+     *         stylesheet.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return The total time spent compiling stylesheets in milliseconds.
+     */
+    public long getTotalCompileTime() {
+        return cache.getTotalLoadTime();
+    }
+
+    private CachedTemplates compile(final TemplatesKey key,
+                                    final ThemeInfo theme,
+                                    final Supplier<Templates> compiler) {
+
+        final long start = System.nanoTime();
+        final Templates templates = compiler.get();
+        LOGGER.debug("Compiled stylesheet {} in {} ms.",
+                     key,
+                     TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return new CachedTemplates(templates,
+                                   theme.getManifest().getMasterTheme());
+    }
+
+    private static final class TemplatesKey {
+
+        private final String themeName;
+
+        private final ThemeVersion version;
+
+        private final String path;
+
+        private TemplatesKey(final String themeName,
+                             final ThemeVersion version,
+                             final String path) {
+            this.themeName = themeName;
+            this.version = version;
+            this.path = path;
+        }
+
+        public String getThemeName() {
+            return themeName;
+        }
+
+        public ThemeVersion getVersion() {
+            return version;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + Objects.hashCode(themeName);
+            hash = 41 * hash + Objects.hashCode(version);
+            hash = 41 * hash + Objects.hashCode(path);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TemplatesKey)) {
+                return false;
+            }
+            final TemplatesKey other = (TemplatesKey) obj;
+            return Objects.equals(themeName, other.themeName)
+                       && version == other.version
+                       && Objects.equals(path, other.path);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s:%s", themeName, version, path);
+        }
+
+    }
+
+    private static final class CachedTemplates {
+
+        private final Templates templates;
+
+        /**
+         * The master theme of the theme when the stylesheet was compiled.
+         */
+        private final String masterTheme;
+
+        private CachedTemplates(final Templates templates,
+                                final String masterTheme) {
+            this.templates = templates;
+            this.masterTheme = masterTheme;
+        }
+
+        public Templates getTemplates() {
+            return templates;
+        }
+
+        public String getMasterTheme() {
+            return masterTheme;
+        }
+
+    }
+
+}
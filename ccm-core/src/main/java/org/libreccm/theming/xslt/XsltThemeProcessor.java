@@ -19,14 +19,16 @@
 package org.libreccm.theming.xslt;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.libreccm.configuration.ConfigurationManager;
 import org.libreccm.core.UnexpectedErrorException;
 import org.libreccm.theming.ThemeInfo;
 import org.libreccm.theming.ThemeProcessor;
 import org.libreccm.theming.ThemeProvider;
+import org.libreccm.theming.ThemingConfig;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import java.io.IOException;
@@ -56,6 +58,7 @@ import org.apache.logging.log4j.Logger;
 import org.libreccm.l10n.GlobalizationHelper;
 import org.libreccm.theming.ProcessesThemes;
 import org.libreccm.theming.Themes;
+import org.libreccm.theming.assets.ThemeAssets;
 import org.libreccm.theming.manifest.ThemeTemplate;
 import org.libreccm.theming.utils.L10NUtils;
 import org.libreccm.theming.utils.SettingsUtils;
@@ -67,7 +70,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.PropertyResourceBundle;
@@ -76,11 +79,14 @@ import java.util.ResourceBundle;
 import javax.inject.Inject;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -101,6 +107,17 @@ public class XsltThemeProcessor implements ThemeProcessor {
     private static final Logger LOGGER = LogManager
         .getLogger(XsltThemeProcessor.class);
 
+    /**
+     * Used to convert the page to XML. {@link XmlMapper} is thread safe after
+     * it has been configured, therefore one instance is shared.
+     */
+    private static final XmlMapper XML_MAPPER = new XmlMapper(
+        new JacksonXmlModule()
+    );
+
+    @Inject
+    private ConfigurationManager confManager;
+
     @Inject
     private L10NUtils l10nUtils;
 
@@ -113,23 +130,135 @@ public class XsltThemeProcessor implements ThemeProcessor {
     @Inject
     private TextUtils textUtils;
 
+    @Inject
+    private ThemeAssets themeAssets;
+
     @Inject
     private Themes themes;
 
+    @Inject
+    private XsltTemplatesCache templatesCache;
+
     @Override
     public String process(final Map<String, Object> page,
                           final ThemeInfo theme,
                           final ThemeProvider themeProvider) {
 
-        //Convert page to XML
-        final JacksonXmlModule xmlModule = new JacksonXmlModule();
-        final ObjectMapper mapper = new XmlMapper(xmlModule);
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        final StringWriter writer = new StringWriter();
+        try {
+            process(page, theme, themeProvider, writer);
+        } catch (IOException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+
+        return writer.toString();
+    }
+
+    @Override
+    public void process(final Map<String, Object> page,
+                        final ThemeInfo theme,
+                        final ThemeProvider themeProvider,
+                        final Writer writer) throws IOException {
+
+        final String pathToTemplate;
+        if (page.containsKey(PAGE_PARAMETER_TEMPLATE)) {
+
+            final String templateName = (String) page
+                .get(PAGE_PARAMETER_TEMPLATE);
+
+            final Optional<ThemeTemplate> template = theme
+                .getTemplate(templateName);
+
+            if (template.isPresent()) {
+                pathToTemplate = template.get().getPath();
+            } else {
+                throw new UnexpectedErrorException(String
+                    .format("Theme \"%s\" does provide template \"%s\".",
+                            theme.getName(),
+                            templateName));
+            }
+        } else {
+            pathToTemplate = theme.getManifest().getDefaultTemplate();
+        }
+
+        final Templates templates = templatesCache.getTemplates(
+            theme,
+            pathToTemplate,
+            () -> compileTemplates(theme, themeProvider, pathToTemplate));
+
+        final Transformer transformer;
+        try {
+            transformer = templates.newTransformer();
+        } catch (TransformerConfigurationException ex) {
+            throw new UnexpectedErrorException(ex);
+        }
+        transformer.setErrorListener(new ErrorListener() {
+
+            @Override
+            public void warning(final TransformerException te)
+                throws TransformerException {
+
+                LOGGER.warn("A WARNING was reported by the "
+                                + "XSLT Transformer:",
+                            te);
+            }
+
+            @Override
+            public void error(final TransformerException te)
+                throws TransformerException {
+
+                LOGGER.warn("An ERROR was reported by the "
+                                + "XSLT Transformer:",
+                            te);
+            }
+
+            @Override
+            public void fatalError(final TransformerException te)
+                throws TransformerException {
+
+                LOGGER.warn("An FATAL ERROR was reported by the "
+                                + "XSLT Transformer:",
+                            te);
+            }
+
+        });
+
+        final Source source;
+        if (confManager
+            .findConfiguration(ThemingConfig.class)
+            .isStreamPageXml()) {
+            source = new SAXSource(new PageXmlReader(XML_MAPPER, page),
+                                   new InputSource());
+        } else {
+            source = new DOMSource(convertPageToDocument(page));
+        }
+
+        final Result result = new StreamResult(writer);
+        try {
+            transformer.transform(source, result);
+        } catch (TransformerException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new UnexpectedErrorException(ex);
+        }
+    }
+
+    /**
+     * Converts the page to a DOM {@link Document} by serialising it to an
+     * indented XML string which is parsed again.
+     *
+     * @param page The page to convert.
+     *
+     * @return A DOM {@link Document} containing the data of the page.
+     */
+    private Document convertPageToDocument(final Map<String, Object> page) {
 
         final String pageAsXml;
         try {
-            pageAsXml = mapper
+            pageAsXml = XML_MAPPER
                 .writer()
+                .with(SerializationFeature.INDENT_OUTPUT)
                 .withRootName("page")
                 .writeValueAsString(page);
         } catch (JsonProcessingException ex) {
@@ -145,39 +274,32 @@ public class XsltThemeProcessor implements ThemeProcessor {
             throw new UnexpectedErrorException(ex);
         }
 
-        final Document document;
         try {
             final InputStream xmlBytesStream = new ByteArrayInputStream(
                 pageAsXml.getBytes(StandardCharsets.UTF_8));
-            document = documentBuilder.parse(xmlBytesStream);
+            return documentBuilder.parse(xmlBytesStream);
         } catch (SAXException | IOException ex) {
             throw new UnexpectedErrorException(ex);
         }
+    }
 
-        final String pathToTemplate;
-        if (page.containsKey(PAGE_PARAMETER_TEMPLATE)) {
-
-            final String templateName = (String) page
-                .get(PAGE_PARAMETER_TEMPLATE);
-
-            final Optional<ThemeTemplate> template = theme
-                .getManifest()
-                .getTemplates()
-                .stream()
-                .filter(current -> current.getName().equals(templateName))
-                .findAny();
-
-            if (template.isPresent()) {
-                pathToTemplate = template.get().getPath();
-            } else {
-                throw new UnexpectedErrorException(String
-                    .format("Theme \"%s\" does provide template \"%s\".",
-                            theme.getName(),
-                            templateName));
-            }
-        } else {
-            pathToTemplate = theme.getManifest().getDefaultTemplate();
-        }
+    /**
+     * Compiles a XSL file of a theme. The extension functions provided by this
+     * class are registered in the configuration of the
+     * {@link TransformerFactory} used to compile the stylesheet. The compiled
+     * stylesheet is cached by {@link XsltTemplatesCache}, therefore the
+     * extension functions must not hold references to request specific
+     * objects.
+     *
+     * @param theme          The theme.
+     * @param themeProvider  The provider of the theme.
+     * @param pathToTemplate The path of the XSL file.
+     *
+     * @return The compiled stylesheet.
+     */
+    private Templates compileTemplates(final ThemeInfo theme,
+                                       final ThemeProvider themeProvider,
+                                       final String pathToTemplate) {
 
         final InputStream xslFileInputStream = themes
             .getFileFromTheme(theme,
@@ -188,14 +310,6 @@ public class XsltThemeProcessor implements ThemeProcessor {
                     pathToTemplate,
                     theme.getName())));
 
-        final Reader reader;
-        try {
-            reader = new InputStreamReader(xslFileInputStream, "UTF-8");
-        } catch (UnsupportedEncodingException ex) {
-            throw new UnexpectedErrorException(ex);
-        }
-
-        final StreamSource xslFileStreamSource = new StreamSource(reader);
         final TransformerFactory transformerFactory = TransformerFactory
             .newInstance(TransformerFactoryImpl.class.getName(),
                          getClass().getClassLoader());
@@ -207,66 +321,47 @@ public class XsltThemeProcessor implements ThemeProcessor {
         final Configuration configuration = transformerFactoryImpl
             .getConfiguration();
         configuration
-            .registerExtensionFunction(new GetContextPathFunctionDefinition());
+            .registerExtensionFunction(
+                new GetContextPathFunctionDefinition(systemInfoUtils));
         configuration
             .registerExtensionFunction(
-                new GetSettingFunctionDefinition(theme, themeProvider));
+                new GetSettingFunctionDefinition(settingsUtils,
+                                                 theme,
+                                                 themeProvider));
         configuration
             .registerExtensionFunction(
-                new LocalizeFunctionDefinition(theme, themeProvider));
+                new LocalizeFunctionDefinition(l10nUtils,
+                                               theme,
+                                               themeProvider));
         configuration
-            .registerExtensionFunction(new TruncateTextFunctionDefinition());
-        final Transformer transformer;
-        try {
-            transformer = transformerFactory.newTransformer(xslFileStreamSource);
-            transformer.setErrorListener(new ErrorListener() {
-
-                @Override
-                public void warning(final TransformerException te)
-                    throws TransformerException {
-
-                    LOGGER.warn("A WARNING was reported by the "
-                                    + "XSLT Transformer:",
-                                te);
-                }
-
-                @Override
-                public void error(final TransformerException te)
-                    throws TransformerException {
-
-                    LOGGER.warn("An ERROR was reported by the "
-                                    + "XSLT Transformer:",
-                                te);
-                }
+            .registerExtensionFunction(
+                new TruncateTextFunctionDefinition(textUtils));
+        configuration
+            .registerExtensionFunction(
+                new GetAssetUrlFunctionDefinition(themeAssets,
+                                                  systemInfoUtils,
+                                                  theme,
+                                                  themeProvider));
 
-                @Override
-                public void fatalError(final TransformerException te)
-                    throws TransformerException {
+        try (final Reader reader = new InputStreamReader(
+            xslFileInputStream, StandardCharsets.UTF_8)) {
 
-                    LOGGER.warn("An FATAL ERROR was reported by the "
-                                    + "XSLT Transformer:",
-                                te);
-                }
-
-            });
-        } catch (TransformerConfigurationException ex) {
+            return transformerFactory.newTemplates(new StreamSource(reader));
+        } catch (TransformerConfigurationException | IOException ex) {
             throw new UnexpectedErrorException(ex);
         }
-
-        final StringWriter resultWriter = new StringWriter();
-        final Result result = new StreamResult(resultWriter);
-        try {
-            transformer.transform(new DOMSource(document), result);
-        } catch (TransformerException ex) {
-            throw new UnexpectedErrorException(ex);
-        }
-
-        return resultWriter.toString();
     }
 
-    private class GetContextPathFunctionDefinition
+    private static class GetContextPathFunctionDefinition
         extends ExtensionFunctionDefinition {
 
+        private final SystemInfoUtils systemInfoUtils;
+
+        public GetContextPathFunctionDefinition(
+            final SystemInfoUtils systemInfoUtils) {
+            this.systemInfoUtils = systemInfoUtils;
+        }
+
         @Override
         public StructuredQName getFunctionQName() {
             return new StructuredQName(FUNCTION_XMLNS_PREFIX,
@@ -302,14 +397,17 @@ public class XsltThemeProcessor implements ThemeProcessor {
 
     }
 
-    private class GetSettingFunctionDefinition
+    private static class GetSettingFunctionDefinition
         extends ExtensionFunctionDefinition {
 
+        private final SettingsUtils settingsUtils;
         private final ThemeInfo theme;
         private final ThemeProvider themeProvider;
 
-        public GetSettingFunctionDefinition(final ThemeInfo themeInfo,
+        public GetSettingFunctionDefinition(final SettingsUtils settingsUtils,
+                                            final ThemeInfo themeInfo,
                                             final ThemeProvider themeProvider) {
+            this.settingsUtils = settingsUtils;
             this.theme = themeInfo;
             this.themeProvider = themeProvider;
         }
@@ -421,15 +519,18 @@ public class XsltThemeProcessor implements ThemeProcessor {
      * is the the locale returned by
      * {@link GlobalizationHelper#getNegotiatedLocale()}.
      */
-    private class LocalizeFunctionDefinition
+    private static class LocalizeFunctionDefinition
         extends ExtensionFunctionDefinition {
 
+        private final L10NUtils l10nUtils;
         private final ThemeInfo theme;
         private final ThemeProvider themeProvider;
 
-        public LocalizeFunctionDefinition(final ThemeInfo theme,
+        public LocalizeFunctionDefinition(final L10NUtils l10nUtils,
+                                          final ThemeInfo theme,
                                           final ThemeProvider themeProvider) {
             super();
+            this.l10nUtils = l10nUtils;
             this.theme = theme;
             this.themeProvider = themeProvider;
         }
@@ -489,9 +590,15 @@ public class XsltThemeProcessor implements ThemeProcessor {
 
     }
 
-    private class TruncateTextFunctionDefinition
+    private static class TruncateTextFunctionDefinition
         extends ExtensionFunctionDefinition {
 
+        private final TextUtils textUtils;
+
+        public TruncateTextFunctionDefinition(final TextUtils textUtils) {
+            this.textUtils = textUtils;
+        }
+
         @Override
         public StructuredQName getFunctionQName() {
             return new StructuredQName(FUNCTION_XMLNS_PREFIX,
@@ -531,4 +638,66 @@ public class XsltThemeProcessor implements ThemeProcessor {
 
     }
 
+    private static class GetAssetUrlFunctionDefinition
+        extends ExtensionFunctionDefinition {
+
+        private final ThemeAssets themeAssets;
+        private final SystemInfoUtils systemInfoUtils;
+        private final ThemeInfo theme;
+        private final ThemeProvider themeProvider;
+
+        public GetAssetUrlFunctionDefinition(
+            final ThemeAssets themeAssets,
+            final SystemInfoUtils systemInfoUtils,
+            final ThemeInfo theme,
+            final ThemeProvider themeProvider) {
+
+            this.themeAssets = themeAssets;
+            this.systemInfoUtils = systemInfoUtils;
+            this.theme = theme;
+            this.themeProvider = themeProvider;
+        }
+
+        @Override
+        public StructuredQName getFunctionQName() {
+            return new StructuredQName(FUNCTION_XMLNS_PREFIX,
+                                       FUNCTION_XMLNS,
+                                       "getAssetUrl");
+        }
+
+        @Override
+        public SequenceType[] getArgumentTypes() {
+            return new SequenceType[]{SequenceType.SINGLE_STRING};
+        }
+
+        @Override
+        public SequenceType getResultType(final SequenceType[] arguments) {
+            return SequenceType.SINGLE_STRING;
+        }
+
+        @Override
+        public ExtensionFunctionCall makeCallExpression() {
+            return new ExtensionFunctionCall() {
+
+                @Override
+                public Sequence call(final XPathContext xPathContext,
+                                     final Sequence[] arguments)
+                    throws XPathException {
+
+                    final String path = ((Item) arguments[0]).getStringValue();
+                    final String assetPath = themeAssets
+                        .getAssetPath(themeProvider,
+                                      theme.getName(),
+                                      theme.getVersion(),
+                                      path);
+                    return StringValue
+                        .makeStringValue(systemInfoUtils.getContextPath()
+                                             + assetPath);
+                }
+
+            };
+        }
+
+    }
+
 }
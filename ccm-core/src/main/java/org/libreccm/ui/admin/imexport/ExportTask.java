@@ -42,9 +42,9 @@ public class ExportTask {
     private final LocalDate started;
 
     /**
-     * The entities to export.
+     * The types of the entities to export.
      */
-    private final Collection<Exportable> entities;
+    private final Collection<Class<? extends Exportable>> types;
     
     /**
      * The status of the export task.
@@ -54,12 +54,12 @@ public class ExportTask {
     public ExportTask(
         final String name,
         final LocalDate started,
-        final Collection<Exportable> entities,
+        final Collection<Class<? extends Exportable>> types,
         final ExportTaskStatus status
     ) {
         this.name = name;
         this.started = started;
-        this.entities = entities;
+        this.types = types;
         this.status = status;
     }
 
@@ -71,8 +71,8 @@ public class ExportTask {
         return started;
     }
 
-    public Collection<Exportable> getEntities() {
-        return Collections.unmodifiableCollection(entities);
+    public Collection<Class<? extends Exportable>> getTypes() {
+        return Collections.unmodifiableCollection(types);
     }
 
     public ExportTaskStatus getStatus() {
@@ -26,11 +26,12 @@ import java.util.Collection;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.ObservesAsync;
 import javax.inject.Inject;
-import javax.transaction.Transactional;
 
 /**
  * Listens for CDI events fired by {@link org.libreccm.ui.admin.imexport.ImportExportTaskManager}
- * and executes tasks.
+ * and executes tasks. The tasks are not executed in a transaction because
+ * {@link ImportExport} processes the entities in batches using a separate
+ * transaction for each batch.
  *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
@@ -46,12 +47,11 @@ public class ImExportTasks {
      * @param task The task to execute.
      * @return The task.
      */
-    @Transactional(Transactional.TxType.REQUIRED)
     public ExportTask exportEntities(@ObservesAsync final ExportTask task) {
-        final Collection<Exportable> entities = task.getEntities();
+        final Collection<Class<? extends Exportable>> types = task.getTypes();
         final String exportName = task.getName();
 
-        importExport.exportEntities(entities, exportName);
+        importExport.exportEntities(types, exportName);
         task.getStatus().setStatus(ImExportTaskStatus.FINISHED);
         return task;
     }
@@ -62,7 +62,6 @@ public class ImExportTasks {
      * @param task The task to execute.
      * @return The task.
      */
-    @Transactional(Transactional.TxType.REQUIRED)
     public void importEntitites(@ObservesAsync final ImportTask task) {
         final String importName = task.getName();
 
@@ -37,14 +37,11 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Named;
-import javax.persistence.EntityManager;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
-import javax.transaction.Transactional;
 
 /**
- * Provides the backend for importing and exporting entities.
+ * Provides the backend for importing and exporting entities. To execute import
+ * and export tasks concurrently CDI events are used which are processed by the
+ * {@link ImExportTasks} class.
  *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
@@ -56,14 +53,6 @@ public class ImportExportTaskManager {
         ImportExportTaskManager.class
     );
 
-    /**
-     * Entity manager used for some special queries. To execute import and
-     * export tasks concurrently CDI events are used which are processed by the
-     * {@link ImExportTasks} class.
-     */
-    @Inject
-    private EntityManager entityManager;
-
     /**
      * CDI event sender for export tasks.
      */
@@ -118,31 +107,25 @@ public class ImportExportTaskManager {
     }
 
     /**
-     * Export all entities of the selected entity types.
+     * Export all entities of the selected entity types. The entities are
+     * retrieved by the export task page by page.
      *
      * @param exportTypes The entity types to export.
      * @param exportName  Name of the export archive.
      *
      */
-    @Transactional(Transactional.TxType.REQUIRED)
     public void exportEntities(
         final Set<Class<? extends Exportable>> exportTypes,
         final String exportName
     ) {
-        final Set<Exportable> entities = new HashSet<>();
-        for (final Class<? extends Exportable> type : exportTypes) {
-            @SuppressWarnings("unchecked")
-            final Set<? extends Exportable> entitiesOfType = collectEntities(
-                (Class<Exportable>) type
-            );
-            entities.addAll(entitiesOfType);
-        }
-
         final ExportTaskStatus taskStatus = new ExportTaskStatus();
         taskStatus.setName(exportName);
         taskStatus.setStarted(LocalDateTime.now());
         exportTaskSender.fireAsync(
-            new ExportTask(exportName, LocalDate.now(), entities, taskStatus)
+            new ExportTask(exportName,
+                           LocalDate.now(),
+                           new HashSet<>(exportTypes),
+                           taskStatus)
         ).handle((task, ex) -> handleExportTaskResult(task, ex, taskStatus));
 
         taskStatus.setStatus(ImExportTaskStatus.RUNNING);
@@ -174,27 +157,6 @@ public class ImportExportTaskManager {
         );
     }
 
-    /**
-     * Collects the entities of the provided types for exporting.
-     *
-     * @param ofType The entity type.
-     *
-     * @return All entities of the provided type.
-     */
-    private Set<? extends Exportable> collectEntities(
-        final Class<Exportable> ofType
-    ) {
-        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        final CriteriaQuery<Exportable> query = builder.createQuery(ofType);
-        final Root<Exportable> from = query.from(ofType);
-
-        return new HashSet<>(
-            entityManager.createQuery(
-                query.select(from)
-            ).getResultList()
-        );
-    }
-
     /**
      * Handler function for processing the result of an export tasks.
      *
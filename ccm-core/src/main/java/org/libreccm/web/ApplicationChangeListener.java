@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.web;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for {@link CcmApplication}s. Fires an
+ * {@link ApplicationChangedEvent} each time an application is persisted,
+ * updated or removed. Because applications are created and mounted by
+ * several classes (application setups, the creators for the application types,
+ * the repositories for the specific application types) the event is fired by
+ * an entity listener instead of by the {@link ApplicationManager} or the
+ * {@link ApplicationRepository}.
+ *
+ * Observers which maintain data derived from the applications, for example
+ * the {@link ApplicationRoutingTable}, should observe the event only after
+ * the transaction has been completed successfully.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ApplicationChangeListener {
+
+    @Inject
+    private Event<ApplicationChangedEvent> applicationChangedEvent;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void applicationChanged(final CcmApplication application) {
+        applicationChangedEvent.fire(
+            new ApplicationChangedEvent(application.getObjectId(),
+                                        application.getPrimaryUrl())
+        );
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.web;
+
+/**
+ * Event fired if an application instance has been created, deleted or mounted
+ * at another path. Fired by the {@link ApplicationChangeListener} for all
+ * changes of {@link CcmApplication} entities, including the changes done
+ * by {@link ApplicationManager#createInstance(org.libreccm.web.ApplicationType, java.lang.String, java.lang.Class)}
+ * and {@link ApplicationManager#deleteInstance(org.libreccm.web.CcmApplication)}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ApplicationChangedEvent {
+
+    /**
+     * The ID of the changed application.
+     */
+    private final long applicationId;
+
+    /**
+     * The primary URL of the application after the change.
+     */
+    private final String primaryUrl;
+
+    public ApplicationChangedEvent(final long applicationId,
+                                   final String primaryUrl) {
+        this.applicationId = applicationId;
+        this.primaryUrl = primaryUrl;
+    }
+
+    public long getApplicationId() {
+        return applicationId;
+    }
+
+    public String getPrimaryUrl() {
+        return primaryUrl;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "applicationId = %d, "
+                                 + "primaryUrl = \"%s\""
+                                 + " }",
+                             super.toString(),
+                             applicationId,
+                             primaryUrl);
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.web;
+
+import java.util.Objects;
+
+/**
+ * An entry of the {@link ApplicationRoutingTable}. Contains the data of a
+ * {@link CcmApplication} which are required to dispatch a request to the
+ * application without loading the application from the database.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public final class ApplicationRoute {
+
+    private final long applicationId;
+
+    private final String primaryUrl;
+
+    private final String applicationType;
+
+    private final Class<? extends CcmApplication> applicationClass;
+
+    ApplicationRoute(final CcmApplication application) {
+        applicationId = application.getObjectId();
+        primaryUrl = application.getPrimaryUrl();
+        applicationType = application.getApplicationType();
+        applicationClass = application.getClass();
+    }
+
+    /**
+     * @return The ID of the application.
+     */
+    public long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * @return The primary URL (the path at which the application is mounted)
+     *         of the application.
+     */
+    public String getPrimaryUrl() {
+        return primaryUrl;
+    }
+
+    /**
+     * @return The name of the application type of the application.
+     */
+    public String getApplicationType() {
+        return applicationType;
+    }
+
+    /**
+     * @return The class of the application.
+     */
+    public Class<? extends CcmApplication> getApplicationClass() {
+        return applicationClass;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 53 * hash + Long.hashCode(applicationId);
+        hash = 53 * hash + Objects.hashCode(primaryUrl);
+        hash = 53 * hash + Objects.hashCode(applicationType);
+        hash = 53 * hash + Objects.hashCode(applicationClass);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ApplicationRoute)) {
+            return false;
+        }
+        final ApplicationRoute other = (ApplicationRoute) obj;
+        if (applicationId != other.getApplicationId()) {
+            return false;
+        }
+        if (!Objects.equals(primaryUrl, other.getPrimaryUrl())) {
+            return false;
+        }
+        if (!Objects.equals(applicationType, other.getApplicationType())) {
+            return false;
+        }
+        return Objects.equals(applicationClass, other.getApplicationClass());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "applicationId = %d, "
+                                 + "primaryUrl = \"%s\", "
+                                 + "applicationType = \"%s\", "
+                                 + "applicationClass = %s"
+                                 + " }",
+                             super.toString(),
+                             applicationId,
+                             primaryUrl,
+                             applicationType,
+                             applicationClass.getName());
+    }
+
+}
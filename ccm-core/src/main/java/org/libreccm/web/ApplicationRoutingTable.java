@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.web;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+import org.libreccm.jpa.VersionStamps;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+/**
+ * In-memory routing table mapping the primary URLs of all
+ * {@link CcmApplication}s to {@link ApplicationRoute}s. Used by the
+ * {@code CCMDispatcherServlet} to find the application responsible for a
+ * request without querying the database.
+ *
+ * The routing table is a trie of the segments of the primary URLs. A lookup
+ * returns the application with the longest primary URL which is a prefix of
+ * the requested path. The trie is immutable after it has been built,
+ * therefore lookups don't require any locking.
+ *
+ * The table is built at startup by the
+ * {@link org.libreccm.modules.CcmModuleContextListener} and is rebuilt after
+ * an application has been created, deleted or mounted at another path (see
+ * {@link ApplicationChangedEvent}). If the table has not been built yet or has
+ * been invalidated it is rebuilt by the next lookup.
+ *
+ * The {@link ApplicationChangedEvent} is only fired on the node on which the
+ * application was changed. Therefore each change also increments the version
+ * stamp {@link #VERSION_STAMP}. The other nodes of a cluster detect the change
+ * by comparing the stamp in the database with the stamp for which their table
+ * was built (see {@link #synchronize()}).
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ApplicationRoutingTable {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ApplicationRoutingTable.class
+    );
+
+    /**
+     * Key of the root of the trie in {@link #table}.
+     */
+    private static final String ROOT = "root";
+
+    /**
+     * Name of the {@link org.libreccm.jpa.VersionStamp} used by the routing
+     * table.
+     */
+    public static final String VERSION_STAMP = "applications";
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private VersionStamps versionStamps;
+
+    /**
+     * Holds the root of the trie. There is no entry if the table has not
+     * been built yet or has been invalidated. If several requests arrive
+     * before the table has been built, the table is built by one of them
+     * and the others wait for it.
+     */
+    private final GenerationCache<String, RouteNode> table
+        = new GenerationCache<>();
+
+    /**
+     * Finds the application responsible for the provided path. The path is
+     * split into its segments and the application with the longest primary
+     * URL matching the first segments of the path is returned.
+     *
+     * @param path The path, for example {@code /content-center/items/}.
+     *
+     * @return An {@link Optional} with the route of the application
+     *         responsible for the path, or an empty {@link Optional} if there
+     *         is no such application.
+     */
+    public Optional<ApplicationRoute> findRoute(final String path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+
+        RouteNode current = getRoot();
+        ApplicationRoute result = null;
+        for (final String segment : splitPath(path)) {
+            current = current.children.get(segment);
+            if (current == null) {
+                break;
+            }
+            if (current.route != null) {
+                result = current.route;
+            }
+        }
+
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Rebuilds the routing table from the database.
+     */
+    public void refresh() {
+        invalidate();
+        getRoot();
+    }
+
+    /**
+     * Compares the version stamp in the database with the stamp for which the
+     * routing table was built. If the stamps differ another node (or this
+     * node) has changed an application and the table is rebuilt by the next
+     * lookup.
+     */
+    public void synchronize() {
+        final long previousStamp = table.getStamp();
+        final long currentStamp = readVersionStamp();
+        if (table.synchronize(currentStamp)) {
+            LOGGER.debug("Version stamp of applications changed from {} to "
+                             + "{}. Invalidated routing table.",
+                         previousStamp,
+                         currentStamp);
+        }
+    }
+
+    /**
+     * Invalidates the routing table after an application has been changed
+     * and increments the version stamp for the other nodes. The table is
+     * rebuilt by the next lookup.
+     *
+     * The event is fired by a JPA entity listener while the changes are
+     * flushed. Queries are not allowed at this point, therefore the stamp is
+     * incremented in a new transaction after the change has been committed.
+     *
+     * @param event The event fired for the changed application.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    protected void onApplicationChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ApplicationChangedEvent event) {
+
+        LOGGER.debug("Application {} changed, invalidating routing table.",
+                     event.getApplicationId());
+        invalidate();
+        incrementVersionStamp();
+    }
+
+    private void invalidate() {
+        table.invalidateAll();
+    }
+
+    private RouteNode getRoot() {
+        return table.get(ROOT, key -> buildTable());
+    }
+
+    /**
+     * Reads the current value of {@link #VERSION_STAMP}.
+     *
+     * @return The current value of the version stamp.
+     */
+    long readVersionStamp() {
+        return versionStamps.getStamp(VERSION_STAMP);
+    }
+
+    /**
+     * Increments {@link #VERSION_STAMP}.
+     */
+    void incrementVersionStamp() {
+        versionStamps.increment(VERSION_STAMP);
+    }
+
+    /**
+     * Retrieves the applications from which the routing table is built.
+     *
+     * @return All applications.
+     */
+    List<CcmApplication> findApplications() {
+        return entityManager
+            .createNamedQuery("CcmApplication.findAll", CcmApplication.class)
+            .getResultList();
+    }
+
+    private RouteNode buildTable() {
+        final List<CcmApplication> applications = findApplications();
+
+        final RouteNode newRoot = new RouteNode();
+        for (final CcmApplication application : applications) {
+            final String primaryUrl = application.getPrimaryUrl();
+            // Only primary URLs of the form /path/ are valid mount points.
+            if (primaryUrl == null
+                    || primaryUrl.length() < 2
+                    || !primaryUrl.startsWith("/")
+                    || !primaryUrl.endsWith("/")) {
+                LOGGER.warn("Application {} has the invalid primary URL \"{}\". "
+                                + "Ignoring it.",
+                            application.getObjectId(),
+                            primaryUrl);
+                continue;
+            }
+
+            RouteNode node = newRoot;
+            for (final String segment : splitPath(primaryUrl)) {
+                node = node.children.computeIfAbsent(segment,
+                                                     key -> new RouteNode());
+            }
+            if (node.route != null) {
+                LOGGER.warn("Ambiguous path \"{}\": Mounted applications {} "
+                                + "and {}. Using application {}.",
+                            primaryUrl,
+                            node.route.getApplicationId(),
+                            application.getObjectId(),
+                            node.route.getApplicationId());
+                continue;
+            }
+            node.route = new ApplicationRoute(application);
+        }
+
+        LOGGER.info("Built routing table for {} applications.",
+                    applications.size());
+        return newRoot;
+    }
+
+    private static String[] splitPath(final String path) {
+        if (path.startsWith("/")) {
+            return path.substring(1).split("/");
+        } else {
+            return path.split("/");
+        }
+    }
+
+    /**
+     * A node of the trie. The nodes are only modified while the table is
+     * built and are never modified after the table has been published.
+     */
+    private static class RouteNode {
+
+        private final Map<String, RouteNode> children = new HashMap<>();
+
+        private ApplicationRoute route;
+
+    }
+
+}
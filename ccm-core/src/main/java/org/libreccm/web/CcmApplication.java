@@ -21,11 +21,14 @@ package org.libreccm.web;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import org.hibernate.annotations.QueryHints;
 import org.libreccm.categorization.Domain;
 import org.libreccm.categorization.DomainManager;
 import org.libreccm.categorization.DomainOwnership;
 import org.libreccm.core.Resource;
 
+import javax.persistence.Cacheable;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
@@ -41,6 +44,7 @@ import static org.libreccm.core.CoreConstants.DB_SCHEMA;
 import static org.libreccm.web.WebConstants.WEB_XML_NS;
 
 import org.libreccm.imexport.Exportable;
+import org.libreccm.jpa.CacheRegions;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -50,6 +54,7 @@ import javax.persistence.NamedEntityGraphs;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 
 /**
@@ -58,17 +63,26 @@ import javax.persistence.Table;
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 @Entity
+@Cacheable
+@EntityListeners(ApplicationChangeListener.class)
 @Table(name = "APPLICATIONS", schema = DB_SCHEMA)
 @NamedQueries({
     @NamedQuery(name = "CcmApplication.retrieveApplicationForPath",
                 query = "SELECT a FROM CcmApplication a "
-                            + "WHERE a.primaryUrl = :path"),
+                            + "WHERE a.primaryUrl = :path",
+                hints = {
+                    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                    @QueryHint(name = QueryHints.CACHE_REGION,
+                               value = CacheRegions.SITES_QUERIES)
+                }),
     @NamedQuery(name = "CcmApplication.findByType",
                 query = "SELECT A FROM CcmApplication a "
                             + "WHERE a.applicationType = :type"),
     @NamedQuery(name = "CcmApplication.findByUuid",
                 query = "SELECT a FROM CcmApplication a "
-                            + "WHERE a.uuid = :uuid")
+                            + "WHERE a.uuid = :uuid"),
+    @NamedQuery(name = "CcmApplication.findAll",
+                query = "SELECT a FROM CcmApplication a")
 })
 @NamedEntityGraphs({
     @NamedEntityGraph(
@@ -0,0 +1,4 @@
+-- Version stamp used by the ApplicationRoutingTable to detect applications
+-- changed by other nodes of a cluster.
+insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+    values ('applications', 0);
@@ -0,0 +1,36 @@
+alter table CCM_CORE.CATEGORIES
+    add column ROOT_CATEGORY_ID int8;
+
+alter table CCM_CORE.CATEGORIES
+    add column CATEGORY_PATH varchar(2048);
+
+alter table CCM_CORE.CATEGORIES
+    add constraint FK_CATEGORIES_ROOT_CATEGORY_ID
+    foreign key (ROOT_CATEGORY_ID)
+    references CCM_CORE.CATEGORIES;
+
+create index CATEGORIES_PATH_IDX
+    on CCM_CORE.CATEGORIES(ROOT_CATEGORY_ID, CATEGORY_PATH);
+
+with recursive CATEGORY_PATHS(OBJECT_ID, ROOT_ID, CATEGORY_PATH) as (
+    select OBJECT_ID, OBJECT_ID, cast('/' as varchar(2048))
+    from CCM_CORE.CATEGORIES
+    where PARENT_CATEGORY_ID is null
+    union all
+    select CATEGORIES.OBJECT_ID,
+           CATEGORY_PATHS.ROOT_ID,
+           cast(
+               case when CATEGORY_PATHS.CATEGORY_PATH = '/'
+                    then '/' || CATEGORIES.NAME
+                    else CATEGORY_PATHS.CATEGORY_PATH || '/' || CATEGORIES.NAME
+               end as varchar(2048)
+           )
+    from CCM_CORE.CATEGORIES
+    join CATEGORY_PATHS
+        on CATEGORIES.PARENT_CATEGORY_ID = CATEGORY_PATHS.OBJECT_ID
+)
+update CCM_CORE.CATEGORIES
+    set ROOT_CATEGORY_ID = CATEGORY_PATHS.ROOT_ID,
+        CATEGORY_PATH = CATEGORY_PATHS.CATEGORY_PATH
+    from CATEGORY_PATHS
+    where CATEGORIES.OBJECT_ID = CATEGORY_PATHS.OBJECT_ID;
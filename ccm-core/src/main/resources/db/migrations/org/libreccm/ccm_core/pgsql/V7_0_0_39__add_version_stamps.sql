@@ -0,0 +1,13 @@
+create table CCM_CORE.VERSION_STAMPS (
+    NAME varchar(255) not null,
+    STAMP int8 not null,
+    primary key (NAME)
+);
+
+-- The stamps used by ccm-core are created here. Otherwise the first
+-- concurrent increments of a stamp would both try to insert it.
+insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+    values ('configuration', 0);
+
+insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+    values ('themes', 0);
@@ -0,0 +1,11 @@
+-- The CategoryManager leaves a gap of 1024 (SparseOrder.GAP) between the
+-- order values of consecutive sub categories and objects of a category.
+-- Existing dense values are multiplied by the gap so that entries can be
+-- moved without shifting their siblings.
+update CCM_CORE.CATEGORIES
+    set CATEGORY_ORDER = CATEGORY_ORDER * 1024
+    where CATEGORY_ORDER is not null;
+
+update CCM_CORE.CATEGORIZATIONS
+    set OBJECT_ORDER = OBJECT_ORDER * 1024
+    where OBJECT_ORDER is not null;
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package com.arsdigita.templating;
+
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import javax.xml.transform.ErrorListener;
+import javax.xml.transform.TransformerException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link XSLTemplateCache}. Compiling real stylesheets requires
+ * a running CCM, therefore the tests use simple placeholder templates.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class XSLTemplateCacheTest {
+
+    private static final int MAX_AGE = 60;
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    public XSLTemplateCacheTest() {
+    }
+
+    @Test
+    public void compilesOnlyOnce() throws MalformedURLException {
+        final TestCache cache = new TestCache(10);
+        final URL source = url("start.xsl");
+
+        final TestTemplate first = cache
+            .getTemplate(source, false, compiler())
+            .getTemplate();
+        final TestTemplate second = cache
+            .getTemplate(source, false, compiler())
+            .getTemplate();
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(compilations.get(), is(1));
+        assertThat(cache.getSize(), is(1));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws MalformedURLException {
+        final TestCache cache = new TestCache(2);
+        final URL first = url("first.xsl");
+        final URL second = url("second.xsl");
+        final URL third = url("third.xsl");
+
+        final TestTemplate firstTemplate = cache
+            .getTemplate(first, false, compiler())
+            .getTemplate();
+        cache.advance(1);
+        final TestTemplate secondTemplate = cache
+            .getTemplate(second, false, compiler())
+            .getTemplate();
+        cache.advance(1);
+        // Makes the first template the most recently used one.
+        cache.getTemplate(first, false, compiler());
+        cache.advance(1);
+        cache.getTemplate(third, false, compiler());
+
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.getTemplate(first, false, compiler()).getTemplate(),
+                   is(sameInstance(firstTemplate)));
+        assertThat(cache.getTemplate(second, false, compiler()).getTemplate(),
+                   is(not(sameInstance(secondTemplate))));
+        assertThat(compilations.get(), is(4));
+    }
+
+    @Test
+    public void recompilesExpiredTemplates() throws MalformedURLException {
+        final TestCache cache = new TestCache(10);
+        final URL source = url("start.xsl");
+
+        final TestTemplate first = cache
+            .getTemplate(source, false, compiler())
+            .getTemplate();
+        cache.advance(MAX_AGE);
+        assertThat(cache.getTemplate(source, false, compiler()).getTemplate(),
+                   is(sameInstance(first)));
+
+        cache.advance(1);
+        final TestTemplate recompiled = cache
+            .getTemplate(source, false, compiler())
+            .getTemplate();
+
+        assertThat(recompiled, is(not(sameInstance(first))));
+        assertThat(compilations.get(), is(2));
+        assertThat(cache.getSize(), is(1));
+    }
+
+    @Test
+    public void recompilesModifiedTemplates() throws MalformedURLException {
+        final TestCache cache = new TestCache(10);
+        final URL source = url("start.xsl");
+
+        final TestTemplate first = cache
+            .getTemplate(source, true, compiler())
+            .getTemplate();
+        first.setModified(true);
+
+        assertThat(cache.getTemplate(source, false, compiler()).getTemplate(),
+                   is(sameInstance(first)));
+        assertThat(cache.getTemplate(source, true, compiler()).getTemplate(),
+                   is(not(sameInstance(first))));
+        assertThat(compilations.get(), is(2));
+    }
+
+    @Test
+    public void removeAndClear() throws MalformedURLException {
+        final TestCache cache = new TestCache(10);
+        final URL first = url("first.xsl");
+        final URL second = url("second.xsl");
+
+        final TestTemplate firstTemplate = cache
+            .getTemplate(first, false, compiler())
+            .getTemplate();
+        final TestTemplate secondTemplate = cache
+            .getTemplate(second, false, compiler())
+            .getTemplate();
+
+        cache.remove(first);
+        assertThat(cache.getSize(), is(1));
+        assertThat(cache.getTemplate(first, false, compiler()).getTemplate(),
+                   is(not(sameInstance(firstTemplate))));
+        assertThat(cache.getTemplate(second, false, compiler()).getTemplate(),
+                   is(sameInstance(secondTemplate)));
+
+        cache.clear();
+        assertThat(cache.getSize(), is(0));
+        assertThat(cache.getTemplate(second, false, compiler()).getTemplate(),
+                   is(not(sameInstance(secondTemplate))));
+        assertThat(compilations.get(), is(4));
+    }
+
+    @Test
+    public void keepsCompilationErrors() throws MalformedURLException {
+        final TestCache cache = new TestCache(10);
+        final URL source = url("start.xsl");
+        final TransformerException warning = new TransformerException(
+            "A warning");
+        final BiFunction<URL, ErrorListener, TestTemplate> compiler
+            = (url, listener) -> {
+                try {
+                    listener.warning(warning);
+                } catch (TransformerException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return compiler().apply(url, listener);
+            };
+
+        assertThat(cache.getTemplate(source, false, compiler).getErrors(),
+                   contains(warning));
+        assertThat(cache.getTemplate(source, false, compiler).getErrors(),
+                   contains(warning));
+        assertThat(compilations.get(), is(1));
+    }
+
+    @Test(timeout = 10000)
+    public void compilesWithoutBlockingOtherStylesheets()
+        throws Exception {
+
+        final TestCache cache = new TestCache(10);
+        final URL slow = url("slow.xsl");
+        final URL fast = url("fast.xsl");
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final BiFunction<URL, ErrorListener, TestTemplate> slowCompiler
+            = (url, listener) -> {
+                compiling.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+                return compiler().apply(url, listener);
+            };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<TestTemplate> first = executor.submit(
+                () -> cache.getTemplate(slow, false, slowCompiler)
+                    .getTemplate());
+            compiling.await();
+            final Future<TestTemplate> second = executor.submit(
+                () -> cache.getTemplate(slow, false, slowCompiler)
+                    .getTemplate());
+
+            // Another stylesheet can be compiled while the slow one is
+            // compiled.
+            assertThat(cache.getTemplate(fast, false, compiler())
+                .getTemplate(), is(notNullValue()));
+            assertThat(first.isDone(), is(false));
+
+            release.countDown();
+            assertThat(second.get(5, TimeUnit.SECONDS),
+                       is(sameInstance(first.get(5, TimeUnit.SECONDS))));
+            assertThat(compilations.get(), is(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static URL url(final String name) throws MalformedURLException {
+        return new URL(String.format("http://localhost/themes/%s", name));
+    }
+
+    private BiFunction<URL, ErrorListener, TestTemplate> compiler() {
+        return (url, listener) -> new TestTemplate(
+            url, compilations.incrementAndGet()
+        );
+    }
+
+    /**
+     * A placeholder for a compiled stylesheet.
+     */
+    private static class TestTemplate {
+
+        private final URL source;
+
+        private final int compilation;
+
+        private volatile boolean modified;
+
+        public TestTemplate(final URL source, final int compilation) {
+            this.source = source;
+            this.compilation = compilation;
+        }
+
+        public URL getSource() {
+            return source;
+        }
+
+        public int getCompilation() {
+            return compilation;
+        }
+
+        public boolean isModified() {
+            return modified;
+        }
+
+        public void setModified(final boolean modified) {
+            this.modified = modified;
+        }
+
+    }
+
+    /**
+     * A cache using a clock controlled by the test.
+     */
+    private static class TestCache extends XSLTemplateCache<TestTemplate> {
+
+        private volatile long now = 1000000L;
+
+        public TestCache(final int maxSize) {
+            super(maxSize, MAX_AGE, TestTemplate::isModified);
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+
+        public void advance(final int seconds) {
+            now += TimeUnit.SECONDS.toMillis(seconds);
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for loading, invalidating and removing values of a
+ * {@link GenerationCache}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class GenerationCacheTest {
+
+    private final List<String> removed = new ArrayList<>();
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private GenerationCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        removed.clear();
+        loadCount.set(0);
+        cache = new GenerationCache<>(removed::add);
+    }
+
+    @Test
+    public void loadsValueOnce() {
+        assertThat(cache.get("a", this::load), is("value-a"));
+        assertThat(cache.get("a", this::load), is("value-a"));
+        assertThat(cache.get("b", this::load), is("value-b"));
+
+        assertThat(loadCount.get(), is(2));
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void doesNotCacheMissingValues() {
+        assertThat(cache.get("a", key -> null), is(nullValue()));
+        assertThat(cache.getSize(), is(0));
+
+        assertThat(cache.get("a", this::load), is("value-a"));
+    }
+
+    @Test
+    public void doesNotCacheFailedLoads() {
+        try {
+            cache.get("a", key -> {
+                throw new IllegalArgumentException("Failed.");
+            });
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage(), is("Failed."));
+        }
+        assertThat(cache.getSize(), is(0));
+
+        assertThat(cache.get("a", this::load), is("value-a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void detectsRecursiveLoad() {
+        cache.get("a", key -> cache.get("a", this::load));
+    }
+
+    @Test
+    public void getIfPresentDoesNotLoad() {
+        assertThat(cache.getIfPresent("a"), is(nullValue()));
+
+        cache.get("a", this::load);
+
+        assertThat(cache.getIfPresent("a"), is("value-a"));
+        assertThat(loadCount.get(), is(1));
+    }
+
+    @Test
+    public void invalidatesSingleKey() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        cache.invalidate("a");
+
+        assertThat(cache.getIfPresent("a"), is(nullValue()));
+        assertThat(cache.getIfPresent("b"), is("value-b"));
+        assertThat(removed, contains("value-a"));
+    }
+
+    @Test
+    public void invalidatesMatchingValues() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("c", this::load);
+
+        cache.invalidateIf((key, value) -> !"b".equals(key));
+
+        assertThat(cache.getValues().keySet(), contains("b"));
+        assertThat(removed, containsInAnyOrder("value-a", "value-c"));
+    }
+
+    @Test
+    public void invalidatesAllValues() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        cache.invalidateAll();
+
+        assertThat(cache.getSize(), is(0));
+        assertThat(removed, containsInAnyOrder("value-a", "value-b"));
+    }
+
+    @Test
+    public void removesOnlyCurrentValue() {
+        cache.get("a", this::load);
+
+        assertThat(cache.remove("a", "other"), is(false));
+        assertThat(cache.getIfPresent("a"), is("value-a"));
+
+        assertThat(cache.remove("a", "value-a"), is(true));
+        assertThat(cache.getIfPresent("a"), is(nullValue()));
+        assertThat(removed, contains("value-a"));
+    }
+
+    /**
+     * A value loaded while an invalidation took place is returned but not
+     * kept in the cache, even if the invalidation affected another key.
+     */
+    @Test
+    public void discardsValueLoadedDuringInvalidation() {
+        cache.get("b", this::load);
+
+        final String value = cache.get("a", key -> {
+            cache.invalidate("b");
+            return load(key);
+        });
+
+        assertThat(value, is("value-a"));
+        assertThat(cache.getIfPresent("a"), is(nullValue()));
+        assertThat(cache.getSize(), is(0));
+        // The discarded value belongs to the request which loaded it.
+        assertThat(removed, contains("value-b"));
+
+        assertThat(cache.get("a", this::load), is("value-a"));
+        assertThat(cache.getIfPresent("a"), is("value-a"));
+    }
+
+    @Test
+    public void clearsCacheIfStampChanges() {
+        assertThat(cache.getStamp(), is(-1L));
+        assertThat(cache.synchronize(1), is(true));
+        cache.get("a", this::load);
+
+        assertThat(cache.synchronize(1), is(false));
+        assertThat(cache.getIfPresent("a"), is("value-a"));
+
+        assertThat(cache.synchronize(2), is(true));
+        assertThat(cache.getIfPresent("a"), is(nullValue()));
+        assertThat(cache.getStamp(), is(2L));
+    }
+
+    /**
+     * Threads requesting a value which is currently loaded wait for the
+     * value instead of loading it again.
+     */
+    @Test(timeout = 10000)
+    public void concurrentRequestsWaitForLoad() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<String> first = executor.submit(
+                () -> cache.get("a", key -> {
+                    loading.countDown();
+                    await(release);
+                    return load(key);
+                })
+            );
+            loading.await();
+
+            final List<Future<String>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> cache.get("a", this::load)));
+            }
+            // Give the other threads a chance to reach the cache.
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+
+            assertThat(first.get(), is("value-a"));
+            for (final Future<String> other : others) {
+                assertThat(other.get(), is("value-a"));
+            }
+            assertThat(loadCount.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String load(final String key) {
+        loadCount.incrementAndGet();
+        return "value-" + key;
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
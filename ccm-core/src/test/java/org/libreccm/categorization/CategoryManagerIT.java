@@ -20,6 +20,7 @@ package org.libreccm.categorization;
 
 import org.apache.shiro.authc.UsernamePasswordToken;
 import org.apache.shiro.authz.UnauthorizedException;
+import org.apache.shiro.subject.ExecutionException;
 import org.apache.shiro.subject.Subject;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.container.test.api.ShouldThrowException;
@@ -43,6 +44,7 @@ import org.libreccm.core.CcmObject;
 import org.libreccm.core.CcmObjectRepository;
 import org.libreccm.security.Shiro;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -778,4 +780,242 @@ public class CategoryManagerIT {
         assertThat(objects, hasItem("object1"));
     }
 
+    /**
+     * Moves two objects to the start of the list of objects assigned to a
+     * category using
+     * {@link CategoryManager#moveObjectsTo(java.util.List, org.libreccm.categorization.Category, int)}
+     * and verifies that only the moved objects get new order values.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-move-objects-to-start.yml")
+    @InSequence(8000)
+    public void moveObjectsToStart() throws Exception {
+        final Category foo = categoryRepo.findById(2100L).get();
+        final List<CcmObject> objects = Arrays.asList(
+            ccmObjectRepo.findById(3300L).get(),
+            ccmObjectRepo.findById(3400L).get());
+
+        shiro.getSystemUser().execute(() -> {
+            categoryManager.moveObjectsTo(objects, foo, 0);
+            return null;
+        });
+    }
+
+    /**
+     * Moves an object between two other objects using
+     * {@link CategoryManager#moveObjectTo(org.libreccm.core.CcmObject, org.libreccm.categorization.Category, int)}.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-move-object.yml")
+    @InSequence(8010)
+    public void moveObjectToPosition() throws Exception {
+        final Category foo = categoryRepo.findById(2100L).get();
+        final CcmObject object1 = ccmObjectRepo.findById(3100L).get();
+
+        shiro.getSystemUser().execute(() -> {
+            categoryManager.moveObjectTo(object1, foo, 2);
+            return null;
+        });
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#increaseObjectOrder(org.libreccm.core.CcmObject, org.libreccm.categorization.Category)}
+     * moves the object behind the next object.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-increase-object-order.yml")
+    @InSequence(8020)
+    public void increaseObjectOrder() throws Exception {
+        final Category foo = categoryRepo.findById(2100L).get();
+        final CcmObject object1 = ccmObjectRepo.findById(3100L).get();
+
+        shiro.getSystemUser().execute(() -> {
+            categoryManager.increaseObjectOrder(object1, foo);
+            return null;
+        });
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#decreaseObjectOrder(org.libreccm.core.CcmObject, org.libreccm.categorization.Category)}
+     * moves the object before the previous object.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-decrease-object-order.yml")
+    @InSequence(8030)
+    public void decreaseObjectOrder() throws Exception {
+        final Category foo = categoryRepo.findById(2100L).get();
+        final CcmObject object4 = ccmObjectRepo.findById(3400L).get();
+
+        shiro.getSystemUser().execute(() -> {
+            categoryManager.decreaseObjectOrder(object4, foo);
+            return null;
+        });
+    }
+
+    /**
+     * Moves an object in a category with dense order values. There is no free
+     * order value between the neighbours of the new position, therefore the
+     * objects following the new position are shifted.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-move-object-shift.yml")
+    @InSequence(8040)
+    public void moveObjectShiftsFollowingObjects() throws Exception {
+        final Category bar = categoryRepo.findById(2200L).get();
+        final CcmObject object3 = ccmObjectRepo.findById(3300L).get();
+
+        shiro.getSystemUser().execute(() -> {
+            categoryManager.moveObjectTo(object3, bar, 1);
+            return null;
+        });
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#moveObjectTo(org.libreccm.core.CcmObject, org.libreccm.categorization.Category, int)}
+     * throws an {@link IllegalArgumentException} for a position behind the
+     * last object.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldThrowException(IllegalArgumentException.class)
+    @InSequence(8050)
+    public void moveObjectToInvalidPosition() throws Throwable {
+        final Category foo = categoryRepo.findById(2100L).get();
+        final CcmObject object1 = ccmObjectRepo.findById(3100L).get();
+
+        try {
+            shiro.getSystemUser().execute(() -> {
+                categoryManager.moveObjectTo(object1, foo, 4);
+                return null;
+            });
+        } catch (ExecutionException ex) {
+            // Shiro wraps exceptions thrown by a Callable.
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Moves two sub categories between two other sub categories using
+     * {@link CategoryManager#moveSubCategoriesTo(java.util.List, org.libreccm.categorization.Category, int)}.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-move-subcategories.yml")
+    @InSequence(8100)
+    public void moveSubCategoriesTo() {
+        final Category root = categoryRepo.findById(2000L).get();
+        final List<Category> categories = Arrays.asList(
+            categoryRepo.findById(2300L).get(),
+            categoryRepo.findById(2400L).get());
+
+        shiro.getSystemUser().execute(
+            () -> categoryManager.moveSubCategoriesTo(categories, root, 1));
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#increaseCategoryOrder(org.libreccm.categorization.Category, org.libreccm.categorization.Category)}
+     * moves the category behind the next category.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-increase-category-order.yml")
+    @InSequence(8110)
+    public void increaseCategoryOrder() {
+        final Category root = categoryRepo.findById(2000L).get();
+        final Category foo = categoryRepo.findById(2100L).get();
+
+        shiro.getSystemUser().execute(
+            () -> categoryManager.increaseCategoryOrder(foo, root));
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#decreaseCategoryOrder(org.libreccm.categorization.Category, org.libreccm.categorization.Category)}
+     * moves the category before the previous category.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-decrease-category-order.yml")
+    @InSequence(8120)
+    public void decreaseCategoryOrder() {
+        final Category root = categoryRepo.findById(2000L).get();
+        final Category bar = categoryRepo.findById(2200L).get();
+
+        shiro.getSystemUser().execute(
+            () -> categoryManager.decreaseCategoryOrder(bar, root));
+    }
+
+    /**
+     * Verifies that
+     * {@link CategoryManager#decreaseCategoryOrder(org.libreccm.categorization.Category, org.libreccm.categorization.Category)}
+     * does not change anything if the category is the first one.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "data-ordering.yml")
+    @InSequence(8130)
+    public void decreaseCategoryOrderOfFirst() {
+        final Category root = categoryRepo.findById(2000L).get();
+        final Category foo = categoryRepo.findById(2100L).get();
+
+        shiro.getSystemUser().execute(
+            () -> categoryManager.decreaseCategoryOrder(foo, root));
+    }
+
+    /**
+     * Moves a sub category of a category with dense order values. The sub
+     * categories following the new position are shifted.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/categorization/CategoryManagerTest/"
+                      + "data-ordering.yml")
+    @ShouldMatchDataSet(
+        value = "datasets/org/libreccm/categorization/CategoryManagerTest/"
+                    + "after-move-subcategory-shift.yml")
+    @InSequence(8140)
+    public void moveSubCategoryShiftsFollowingCategories() {
+        final Category bar = categoryRepo.findById(2200L).get();
+        final Category bar3 = categoryRepo.findById(2230L).get();
+
+        shiro.getSystemUser().execute(
+            () -> categoryManager.moveSubCategoryTo(bar3, bar, 1));
+    }
+
 }
@@ -74,6 +74,9 @@ public class CategoryRepositoryIT {
     @Inject
     private CategoryRepository categoryRepo;
 
+    @Inject
+    private CategoryManager categoryManager;
+
     @Inject
     private DomainRepository domainRepo;
 
@@ -235,6 +238,116 @@ public class CategoryRepositoryIT {
         assertThat(doesNotExist.isPresent(), is(false));
     }
 
+    /**
+     * Categories which are already indexed are found using the path index.
+     */
+    @Test
+    @UsingDataSet(
+        "datasets/org/libreccm/categorization/CategoryRepositoryTest/"
+            + "data-path-index.yml")
+    @InSequence(2200)
+    public void findByPathUsingPathIndex() {
+        final Domain domain = domainRepo.findByDomainKey("test").get();
+
+        final Optional<Category> root = categoryRepo.findByPath(domain, "/");
+        final Optional<Category> foo = categoryRepo.findByPath(domain, "foo");
+        final Optional<Category> bar = categoryRepo.findByPath(domain,
+                                                               "foo.bar");
+        final Optional<Category> barAgain = categoryRepo
+            .findByPath(domain, "/foo/bar/");
+        final Optional<Category> notFound = categoryRepo
+            .findByPath(domain, "/foo/baz");
+
+        assertThat(root.isPresent(), is(true));
+        assertThat(root.get().getObjectId(), is(2000L));
+
+        assertThat(foo.isPresent(), is(true));
+        assertThat(foo.get().getObjectId(), is(2100L));
+
+        assertThat(bar.isPresent(), is(true));
+        assertThat(bar.get().getObjectId(), is(2200L));
+
+        assertThat(barAgain.isPresent(), is(true));
+        assertThat(barAgain.get().getObjectId(), is(2200L));
+
+        assertThat(notFound.isPresent(), is(false));
+    }
+
+    /**
+     * Categories which are not indexed yet are found by traversing the tree.
+     * Looking up a category must not modify it.
+     */
+    @Test
+    @UsingDataSet(
+        "datasets/org/libreccm/categorization/CategoryRepositoryTest/data.yml")
+    @InSequence(2300)
+    public void findByPathDoesNotIndexCategory() {
+        final Domain domain = domainRepo.findByDomainKey("test").get();
+
+        final Optional<Category> bar = categoryRepo.findByPath(domain,
+                                                               "/foo/bar");
+
+        assertThat(bar.isPresent(), is(true));
+        assertThat(bar.get().getObjectId(), is(2200L));
+        assertThat(bar.get().getRootCategory(), is(nullValue()));
+        assertThat(bar.get().getCategoryPath(), is(nullValue()));
+    }
+
+    @Test
+    @UsingDataSet(
+        "datasets/org/libreccm/categorization/CategoryRepositoryTest/"
+            + "data-path-index.yml")
+    @InSequence(2400)
+    public void findByPathNewSubCategory() {
+        final Domain domain = domainRepo.findByDomainKey("test").get();
+        final Category bar = categoryRepo.findById(2200L).get();
+
+        final Category baz = new Category();
+        baz.setDisplayName("baz");
+        baz.setName("baz");
+        baz.setUniqueId("test0004");
+        shiro.getSystemUser().execute(() -> {
+            categoryRepo.save(baz);
+            categoryManager.addSubCategoryToCategory(baz, bar);
+        });
+
+        assertThat(baz.getRootCategory().getObjectId(), is(2000L));
+        assertThat(baz.getCategoryPath(), is(equalTo("/foo/bar/baz")));
+
+        final Optional<Category> found = categoryRepo
+            .findByPath(domain, "/foo/bar/baz");
+        assertThat(found.isPresent(), is(true));
+        assertThat(found.get().getObjectId(), is(baz.getObjectId()));
+    }
+
+    /**
+     * Renaming a category updates the path index of its sub categories.
+     */
+    @Test
+    @UsingDataSet(
+        "datasets/org/libreccm/categorization/CategoryRepositoryTest/"
+            + "data-path-index.yml")
+    @InSequence(2500)
+    public void findByPathAfterRename() {
+        final Domain domain = domainRepo.findByDomainKey("test").get();
+        assertThat(categoryRepo.findByPath(domain, "/foo/bar").isPresent(),
+                   is(true));
+
+        final Category foo = categoryRepo.findById(2100L).get();
+        foo.setName("renamed");
+        shiro.getSystemUser().execute(() -> categoryRepo.save(foo));
+
+        final Optional<Category> bar = categoryRepo
+            .findByPath(domain, "/renamed/bar");
+        assertThat(bar.isPresent(), is(true));
+        assertThat(bar.get().getObjectId(), is(2200L));
+        assertThat(bar.get().getCategoryPath(),
+                   is(equalTo("/renamed/bar")));
+
+        assertThat(categoryRepo.findByPath(domain, "/foo/bar").isPresent(),
+                   is(false));
+    }
+
     @Test
     @UsingDataSet(
         "datasets/org/libreccm/categorization/CategoryRepositoryTest/data.yml")
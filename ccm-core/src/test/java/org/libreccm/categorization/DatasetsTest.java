@@ -42,10 +42,21 @@ public class DatasetsTest extends DatasetsVerifier {
             "/datasets/org/libreccm/categorization/CategoryManagerTest/after-add-obj-to-category.yml",
             "/datasets/org/libreccm/categorization/CategoryManagerTest/after-add-subcategory.yml",
             "/datasets/org/libreccm/categorization/CategoryManagerTest/after-create-multiple-categories.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-decrease-category-order.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-decrease-object-order.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-increase-category-order.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-increase-object-order.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-move-object.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-move-object-shift.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-move-objects-to-start.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-move-subcategories.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/after-move-subcategory-shift.yml",
+            "/datasets/org/libreccm/categorization/CategoryManagerTest/data-ordering.yml",
             "/datasets/org/libreccm/categorization/CategoryManagerTest/after-remove-obj-from-category.yml",
             "/datasets/org/libreccm/categorization/CategoryManagerTest/after-remove-subcategory.yml",
             "/datasets/org/libreccm/categorization/CategoryManagerTest/data.yml",
             "/datasets/org/libreccm/categorization/CategoryRepositoryTest/data.yml",
+            "/datasets/org/libreccm/categorization/CategoryRepositoryTest/data-path-index.yml",
             "/datasets/org/libreccm/categorization/CategoryRepositoryTest/after-save-new-category.yml"
         });
     }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.categorization;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class SparseOrderTest {
+
+    public SparseOrderTest() {
+    }
+
+    @Test
+    public void appendLeavesGap() {
+        assertThat(SparseOrder.after(null), is(SparseOrder.GAP));
+        assertThat(SparseOrder.after(3L), is(3L + SparseOrder.GAP));
+    }
+
+    @Test
+    public void betweenTwoEntries() {
+        assertThat(SparseOrder.between(1024L, 2048L, 1),
+                   is(equalTo(new long[]{1536L})));
+        assertThat(SparseOrder.between(1000L, 1004L, 3),
+                   is(equalTo(new long[]{1001L, 1002L, 1003L})));
+    }
+
+    @Test
+    public void noRoomBetweenEntries() {
+        assertThat(SparseOrder.between(1L, 2L, 1), is(nullValue()));
+        assertThat(SparseOrder.between(5L, 5L, 1), is(nullValue()));
+        assertThat(SparseOrder.between(1000L, 1003L, 3), is(nullValue()));
+    }
+
+    @Test
+    public void shiftMakesRoom() {
+        assertThat(SparseOrder.shift(1), is(2 * SparseOrder.GAP));
+        assertThat(SparseOrder.between(1L, 2L + SparseOrder.shift(1), 1),
+                   is(equalTo(new long[]{1025L})));
+        assertThat(SparseOrder.between(5L, 5L + SparseOrder.shift(2), 2),
+                   is(equalTo(new long[]{1029L, 2053L})));
+    }
+
+    @Test
+    public void atStartAndEnd() {
+        assertThat(SparseOrder.between(null, 2048L, 2),
+                   is(equalTo(new long[]{0L, 1024L})));
+        assertThat(SparseOrder.between(2048L, null, 2),
+                   is(equalTo(new long[]{3072L, 4096L})));
+        assertThat(SparseOrder.between(null, null, 2),
+                   is(equalTo(new long[]{1024L, 2048L})));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void countMustBePositive() {
+        SparseOrder.between(1L, 2048L, 0);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ConfigurationSetters}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ConfigurationSettersTest {
+
+    @Test
+    public void createsSettersForSettingsOnly() {
+        final ConfigurationSetters setters = ConfigurationSetters.forClass(
+            TestSnapshotConfiguration.class
+        );
+
+        assertThat(setters.getConfigurationClass(),
+                   is(equalTo(TestSnapshotConfiguration.class)));
+        assertThat(setters.getSetter("itemsPerPage"), is(notNullValue()));
+        assertThat(setters.getSetter("title"), is(notNullValue()));
+        assertThat(setters.getSetter("notASetting"), is(nullValue()));
+    }
+
+    @Test
+    public void usesNameOfSettingAnnotation() {
+        final ConfigurationSetters setters = ConfigurationSetters.forClass(
+            TestSnapshotConfiguration.class
+        );
+
+        assertThat(setters.getSetter("allowedHosts"), is(notNullValue()));
+        assertThat(setters.getSetter("hosts"), is(nullValue()));
+    }
+
+    @Test
+    public void createsInstanceUsingDefaultConstructor() {
+        final Object configuration = ConfigurationSetters
+            .forClass(TestSnapshotConfiguration.class)
+            .newInstance();
+
+        assertThat(configuration,
+                   is(instanceOf(TestSnapshotConfiguration.class)));
+        assertThat(
+            ((TestSnapshotConfiguration) configuration).getItemsPerPage(),
+            is(20L)
+        );
+    }
+
+    @Test
+    public void settersUnboxPrimitiveValues() throws Throwable {
+        final ConfigurationSetters setters = ConfigurationSetters.forClass(
+            TestSnapshotConfiguration.class
+        );
+        final Object configuration = setters.newInstance();
+
+        final MethodHandle itemsPerPage = setters.getSetter("itemsPerPage");
+        itemsPerPage.invokeExact(configuration, (Object) Long.valueOf(42));
+        final MethodHandle enabled = setters.getSetter("enabled");
+        enabled.invokeExact(configuration, (Object) Boolean.TRUE);
+        final MethodHandle minTemperature = setters
+            .getSetter("minTemperature");
+        minTemperature.invokeExact(configuration,
+                                   (Object) Double.valueOf(-2.5));
+
+        final TestSnapshotConfiguration result
+            = (TestSnapshotConfiguration) configuration;
+        assertThat(result.getItemsPerPage(), is(42L));
+        assertThat(result.isEnabled(), is(true));
+        assertThat(result.getMinTemperature(), is(-2.5));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void settersRejectValuesOfWrongType() throws Throwable {
+        final ConfigurationSetters setters = ConfigurationSetters.forClass(
+            TestSnapshotConfiguration.class
+        );
+        final Object configuration = setters.newInstance();
+
+        setters
+            .getSetter("itemsPerPage")
+            .invokeExact(configuration, (Object) "many");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsClassWithoutDefaultConstructor() {
+        ConfigurationSetters.forClass(NoDefaultConstructor.class);
+    }
+
+    public static class NoDefaultConstructor {
+
+        @Setting
+        private String value;
+
+        public NoDefaultConstructor(final String value) {
+            this.value = value;
+        }
+
+    }
+
+}
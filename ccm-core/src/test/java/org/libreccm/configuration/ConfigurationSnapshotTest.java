@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.junit.Test;
+import org.libreccm.l10n.LocalizedString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for creating configurations from a {@link ConfigurationSnapshot}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ConfigurationSnapshotTest {
+
+    private final ConfigurationSetters setters = ConfigurationSetters
+        .forClass(TestSnapshotConfiguration.class);
+
+    @Test
+    public void setsPrimitiveSettings() {
+        final TestSnapshotConfiguration configuration = createConfiguration(
+            setting(new LongSetting(), "itemsPerPage", 42L),
+            setting(new BooleanSetting(), "enabled", true),
+            setting(new DoubleSetting(), "minTemperature", -2.5),
+            setting(new StringSetting(), "helpUrl", "http://example.org")
+        );
+
+        assertThat(configuration.getItemsPerPage(), is(42L));
+        assertThat(configuration.isEnabled(), is(true));
+        assertThat(configuration.getMinTemperature(), is(-2.5));
+        assertThat(configuration.getHelpUrl(), is("http://example.org"));
+    }
+
+    /**
+     * A value which can't be assigned to the field of a setting is ignored.
+     * The field keeps its default value and the other settings are still
+     * set.
+     */
+    @Test
+    public void ignoresValuesOfWrongType() {
+        final TestSnapshotConfiguration configuration = createConfiguration(
+            setting(new StringSetting(), "itemsPerPage", "many"),
+            setting(new BooleanSetting(), "enabled", null),
+            setting(new StringSetting(), "helpUrl", "http://example.org")
+        );
+
+        assertThat(configuration.getItemsPerPage(), is(20L));
+        assertThat(configuration.isEnabled(), is(false));
+        assertThat(configuration.getHelpUrl(), is("http://example.org"));
+    }
+
+    @Test
+    public void ignoresUnknownSettings() {
+        final TestSnapshotConfiguration configuration = createConfiguration(
+            setting(new StringSetting(), "unknown", "value"),
+            setting(new StringSetting(), "notASetting", "value")
+        );
+
+        assertThat(configuration.getNotASetting(), is(nullValue()));
+    }
+
+    @Test
+    public void usesNameOfSettingAnnotation() {
+        final TestSnapshotConfiguration configuration = createConfiguration(
+            setting(new StringListSetting(),
+                    "allowedHosts",
+                    Arrays.asList("example.org", "example.com"))
+        );
+
+        assertThat(configuration.getHosts(),
+                   contains("example.org", "example.com"));
+    }
+
+    /**
+     * Each configuration gets its own copies of mutable values. Modifying
+     * the values of one configuration or of the setting entity must not
+     * affect the snapshot.
+     */
+    @Test
+    public void copiesMutableValues() {
+        final LocalizedString title = new LocalizedString();
+        title.addValue(Locale.ENGLISH, "Title");
+
+        final ConfigurationSnapshot snapshot = createSnapshot(
+            setting(new StringListSetting(),
+                    "allowedHosts",
+                    new ArrayList<>(Arrays.asList("example.org"))),
+            setting(new EnumSetting(),
+                    "languages",
+                    new HashSet<>(Arrays.asList("de", "en"))),
+            setting(new LocalizedStringSetting(), "title", title)
+        );
+        title.addValue(Locale.GERMAN, "Titel");
+
+        final TestSnapshotConfiguration first = newConfiguration(snapshot);
+        first.getHosts().add("example.com");
+        first.getLanguages().remove("de");
+        first.getTitle().addValue(Locale.FRENCH, "Titre");
+
+        final TestSnapshotConfiguration second = newConfiguration(snapshot);
+        assertThat(second.getHosts(), contains("example.org"));
+        assertThat(second.getLanguages(), containsInAnyOrder("de", "en"));
+        assertThat(second.getTitle().getAvailableLocales(),
+                   contains(Locale.ENGLISH));
+        assertThat(second.getTitle(), is(not(sameInstance(title))));
+    }
+
+    @Test
+    public void createsNewConfigurationEachTime() {
+        final ConfigurationSnapshot snapshot = createSnapshot(
+            setting(new LongSetting(), "itemsPerPage", 42L)
+        );
+
+        assertThat(snapshot.getConfigurationClass(),
+                   is(equalTo(TestSnapshotConfiguration.class)));
+        assertThat(snapshot.newConfiguration(),
+                   is(not(sameInstance(snapshot.newConfiguration()))));
+    }
+
+    private <T> AbstractSetting<T> setting(final AbstractSetting<T> setting,
+                                           final String name,
+                                           final T value) {
+        setting.setConfigurationClass(TestSnapshotConfiguration.class
+            .getName());
+        setting.setName(name);
+        setting.setValue(value);
+        return setting;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ConfigurationSnapshot createSnapshot(
+        final AbstractSetting... settings) {
+
+        final List<AbstractSetting> settingList = Arrays.asList(settings);
+        return ConfigurationSnapshot.create(setters, settingList);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private TestSnapshotConfiguration createConfiguration(
+        final AbstractSetting... settings) {
+
+        return newConfiguration(createSnapshot(settings));
+    }
+
+    private TestSnapshotConfiguration newConfiguration(
+        final ConfigurationSnapshot snapshot) {
+
+        return (TestSnapshotConfiguration) snapshot.newConfiguration();
+    }
+
+}
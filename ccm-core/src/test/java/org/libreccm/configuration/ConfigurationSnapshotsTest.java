@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for creating and invalidating the snapshots of the
+ * {@link ConfigurationSnapshots}. The settings are provided by the test
+ * instead of the database.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ConfigurationSnapshotsTest {
+
+    private static final String CONF_NAME = TestSnapshotConfiguration.class
+        .getName();
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private volatile long itemsPerPage;
+
+    private ConfigurationSnapshots snapshots;
+
+    @Before
+    public void setUp() {
+        loadCount.set(0);
+        itemsPerPage = 42;
+        snapshots = new ConfigurationSnapshots();
+    }
+
+    @Test
+    public void createsSnapshotOnce() {
+        final ConfigurationSnapshot first = getSnapshot(this::loadSettings);
+        final ConfigurationSnapshot second = getSnapshot(this::loadSettings);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(loadCount.get(), is(1));
+        assertThat(snapshots.getHitCount(), is(1L));
+        assertThat(snapshots.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void recreatesSnapshotAfterSettingChanged() {
+        assertThat(getItemsPerPage(), is(42L));
+
+        itemsPerPage = 10;
+        snapshots.onSettingChanged(
+            new SettingChangedEvent(CONF_NAME, "itemsPerPage")
+        );
+
+        assertThat(getItemsPerPage(), is(10L));
+        assertThat(loadCount.get(), is(2));
+    }
+
+    @Test
+    public void invalidationOfOtherConfigurationKeepsSnapshot() {
+        getSnapshot(this::loadSettings);
+
+        snapshots.invalidate("org.libreccm.OtherConfiguration");
+        getSnapshot(this::loadSettings);
+
+        assertThat(loadCount.get(), is(1));
+    }
+
+    /**
+     * A setting is changed while another thread creates the snapshot from
+     * the old settings. The snapshot is used by the request which created it
+     * but must not be kept.
+     */
+    @Test(timeout = 10000)
+    public void discardsSnapshotCreatedDuringInvalidation() throws Exception {
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final CountDownLatch invalidated = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<ConfigurationSnapshot> racing = executor.submit(
+                () -> getSnapshot(() -> {
+                    final List<AbstractSetting> settings = loadSettings();
+                    loaded.countDown();
+                    await(invalidated);
+                    return settings;
+                })
+            );
+
+            loaded.await();
+            itemsPerPage = 10;
+            snapshots.onSettingChanged(
+                new SettingChangedEvent(CONF_NAME, "itemsPerPage")
+            );
+            invalidated.countDown();
+
+            final TestSnapshotConfiguration old
+                = (TestSnapshotConfiguration) racing.get().newConfiguration();
+            assertThat(old.getItemsPerPage(), is(42L));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(getItemsPerPage(), is(10L));
+        assertThat(loadCount.get(), is(2));
+    }
+
+    private long getItemsPerPage() {
+        final TestSnapshotConfiguration configuration
+            = (TestSnapshotConfiguration) getSnapshot(this::loadSettings)
+                .newConfiguration();
+        return configuration.getItemsPerPage();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ConfigurationSnapshot getSnapshot(
+        final Supplier<List<AbstractSetting>> settingsLoader) {
+
+        return snapshots.getSnapshot(TestSnapshotConfiguration.class,
+                                     settingsLoader);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<AbstractSetting> loadSettings() {
+        loadCount.incrementAndGet();
+
+        final LongSetting setting = new LongSetting();
+        setting.setConfigurationClass(CONF_NAME);
+        setting.setName("itemsPerPage");
+        setting.setValue(itemsPerPage);
+
+        final List<AbstractSetting> settings = new ArrayList<>();
+        settings.add(setting);
+        return settings;
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.configuration;
+
+import org.libreccm.l10n.LocalizedString;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A configuration with primitive and mutable settings used by the tests for
+ * {@link ConfigurationSetters} and {@link ConfigurationSnapshot}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@Configuration
+public class TestSnapshotConfiguration {
+
+    @Setting
+    private long itemsPerPage = 20;
+
+    @Setting
+    private boolean enabled;
+
+    @Setting
+    private double minTemperature;
+
+    @Setting
+    private String helpUrl;
+
+    @Setting(name = "allowedHosts")
+    private List<String> hosts;
+
+    @Setting
+    private Set<String> languages;
+
+    @Setting
+    private LocalizedString title;
+
+    private String notASetting;
+
+    public long getItemsPerPage() {
+        return itemsPerPage;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getMinTemperature() {
+        return minTemperature;
+    }
+
+    public String getHelpUrl() {
+        return helpUrl;
+    }
+
+    public List<String> getHosts() {
+        return hosts;
+    }
+
+    public Set<String> getLanguages() {
+        return languages;
+    }
+
+    public LocalizedString getTitle() {
+        return title;
+    }
+
+    public String getNotASetting() {
+        return notASetting;
+    }
+
+}
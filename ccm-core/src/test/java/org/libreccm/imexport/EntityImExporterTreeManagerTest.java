@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.imexport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for grouping the {@link AbstractEntityImExporter}s into levels of
+ * independent imExporters (see
+ * {@link EntityImExporterTreeManager#orderImExportersByLevel(java.util.List)}).
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class EntityImExporterTreeManagerTest {
+
+    private final EntityImExporterTreeManager treeManager
+        = new EntityImExporterTreeManager();
+
+    @Test
+    public void putsImExportersWithoutDependenciesIntoOneLevel()
+        throws DependencyException {
+
+        final List<List<String>> levels = orderByLevel(new ImExporterA(),
+                                                       new ImExporterB(),
+                                                       new ImExporterC());
+
+        assertThat(levels, hasSize(1));
+        assertThat(levels.get(0), containsInAnyOrder("A", "B", "C"));
+    }
+
+    @Test
+    public void groupsImExportersByDependencyLevel()
+        throws DependencyException {
+
+        final List<List<String>> levels = orderByLevel(
+            new ImExporterA(),
+            new ImExporterB(),
+            new ImExporterC(EntityA.class),
+            new ImExporterD(EntityC.class),
+            new ImExporterE(EntityB.class, EntityC.class)
+        );
+
+        assertThat(levels, hasSize(3));
+        assertThat(levels.get(0), containsInAnyOrder("A", "B"));
+        assertThat(levels.get(1), contains("C"));
+        assertThat(levels.get(2), containsInAnyOrder("D", "E"));
+    }
+
+    /**
+     * An imExporter which depends on imExporters in different levels is put
+     * into the level after the last of them.
+     */
+    @Test
+    public void putsImExporterAfterAllRequiredImExporters()
+        throws DependencyException {
+
+        final List<List<String>> levels = orderByLevel(
+            new ImExporterA(),
+            new ImExporterB(EntityA.class),
+            new ImExporterC(EntityB.class),
+            new ImExporterD(EntityA.class, EntityC.class)
+        );
+
+        assertThat(levels, hasSize(4));
+        assertThat(levels.get(0), contains("A"));
+        assertThat(levels.get(1), contains("B"));
+        assertThat(levels.get(2), contains("C"));
+        assertThat(levels.get(3), contains("D"));
+    }
+
+    @Test
+    public void returnsNoLevelsForEmptyTree() throws DependencyException {
+        assertThat(orderByLevel(), is(empty()));
+    }
+
+    /**
+     * The nodes are not modified, therefore the ordered list can still be
+     * created from the same nodes.
+     */
+    @Test
+    public void doesNotModifyNodes() throws DependencyException {
+        final List<EntityImExporterTreeNode> nodes = treeManager.generateTree(
+            Arrays.asList(new ImExporterA(),
+                          new ImExporterB(EntityA.class),
+                          new ImExporterC(EntityA.class, EntityB.class))
+        );
+
+        treeManager.orderImExportersByLevel(nodes);
+
+        assertThat(countDependencies(nodes), is(3));
+        assertThat(treeManager.orderImExporters(nodes), hasSize(3));
+    }
+
+    @Test(expected = DependencyException.class)
+    public void detectsCycle() throws DependencyException {
+        orderByLevel(new ImExporterA(),
+                     new ImExporterB(EntityA.class, EntityD.class),
+                     new ImExporterC(EntityB.class),
+                     new ImExporterD(EntityC.class));
+    }
+
+    @Test(expected = DependencyException.class)
+    public void detectsImExporterDependingOnItself()
+        throws DependencyException {
+
+        orderByLevel(new ImExporterA(), new ImExporterB(EntityB.class));
+    }
+
+    /**
+     * Generates the tree for the provided imExporters and groups it into
+     * levels.
+     *
+     * @param imExporters The imExporters.
+     *
+     * @return The levels, containing the simple names of the entity classes
+     *         without the {@code Entity} prefix.
+     *
+     * @throws DependencyException
+     */
+    private List<List<String>> orderByLevel(
+        final AbstractEntityImExporter<?>... imExporters)
+        throws DependencyException {
+
+        final List<EntityImExporterTreeNode> nodes = treeManager
+            .generateTree(Arrays.asList(imExporters));
+
+        return treeManager
+            .orderImExportersByLevel(nodes)
+            .stream()
+            .map(level -> level
+                .stream()
+                .map(node -> node
+                    .getEntityImExporter()
+                    .getEntityClass()
+                    .getSimpleName()
+                    .substring("Entity".length()))
+                .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+    }
+
+    private int countDependencies(final List<EntityImExporterTreeNode> nodes) {
+        return nodes
+            .stream()
+            .mapToInt(node -> node.getDependsOn().size())
+            .sum();
+    }
+
+    /**
+     * Base class for the imExporters used by the tests. The nodes of the tree
+     * are identified by the class of their imExporter, therefore each entity
+     * type needs its own imExporter class.
+     *
+     * @param <T> The entity type.
+     */
+    private abstract static class TestImExporter<T extends Exportable>
+        extends AbstractEntityImExporter<T> {
+
+        private final Class<T> entityClass;
+
+        private final Set<Class<? extends Exportable>> requiredEntities;
+
+        @SafeVarargs
+        TestImExporter(final Class<T> entityClass,
+                       final Class<? extends Exportable>... requiredEntities) {
+            this.entityClass = entityClass;
+            this.requiredEntities = new HashSet<>(Arrays
+                .asList(requiredEntities));
+        }
+
+        @Override
+        public Class<T> getEntityClass() {
+            return entityClass;
+        }
+
+        @Override
+        protected Set<Class<? extends Exportable>> getRequiredEntities() {
+            return requiredEntities;
+        }
+
+        @Override
+        protected void saveImportedEntity(final T entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected T reloadEntity(final T entity) {
+            return entity;
+        }
+
+    }
+
+    private static class ImExporterA extends TestImExporter<EntityA> {
+
+        @SafeVarargs
+        ImExporterA(final Class<? extends Exportable>... requiredEntities) {
+            super(EntityA.class, requiredEntities);
+        }
+
+    }
+
+    private static class ImExporterB extends TestImExporter<EntityB> {
+
+        @SafeVarargs
+        ImExporterB(final Class<? extends Exportable>... requiredEntities) {
+            super(EntityB.class, requiredEntities);
+        }
+
+    }
+
+    private static class ImExporterC extends TestImExporter<EntityC> {
+
+        @SafeVarargs
+        ImExporterC(final Class<? extends Exportable>... requiredEntities) {
+            super(EntityC.class, requiredEntities);
+        }
+
+    }
+
+    private static class ImExporterD extends TestImExporter<EntityD> {
+
+        @SafeVarargs
+        ImExporterD(final Class<? extends Exportable>... requiredEntities) {
+            super(EntityD.class, requiredEntities);
+        }
+
+    }
+
+    private static class ImExporterE extends TestImExporter<EntityE> {
+
+        @SafeVarargs
+        ImExporterE(final Class<? extends Exportable>... requiredEntities) {
+            super(EntityE.class, requiredEntities);
+        }
+
+    }
+
+    private abstract static class TestEntity implements Exportable {
+
+        @Override
+        public String getUuid() {
+            return null;
+        }
+
+    }
+
+    private static class EntityA extends TestEntity {
+    }
+
+    private static class EntityB extends TestEntity {
+    }
+
+    private static class EntityC extends TestEntity {
+    }
+
+    private static class EntityD extends TestEntity {
+    }
+
+    private static class EntityE extends TestEntity {
+    }
+
+}
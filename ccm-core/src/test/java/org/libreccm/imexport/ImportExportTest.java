@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.imexport;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for exporting the entities of a type page by page (see
+ * {@link ImportExport#exportPages(org.libreccm.imexport.AbstractEntityImExporter, java.io.Writer, int)}).
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ImportExportTest {
+
+    @Test
+    public void exportsAllPages() throws ExportException {
+        final TestImExporter imExporter = new TestImExporter(7);
+        final StringWriter writer = new StringWriter();
+
+        final long count = ImportExport.exportPages(imExporter, writer, 3);
+
+        assertThat(count, is(7L));
+        assertThat(imExporter.getRequestedPages(),
+                   contains("-/3", "30/3", "60/3"));
+        assertThat(writer.toString(),
+                   is(equalTo("e0\ne1\ne2\ne3\ne4\ne5\ne6\n")));
+    }
+
+    @Test
+    public void exportsAllPagesIfLastPageIsFull() throws ExportException {
+        final TestImExporter imExporter = new TestImExporter(6);
+        final StringWriter writer = new StringWriter();
+
+        final long count = ImportExport.exportPages(imExporter, writer, 3);
+
+        assertThat(count, is(6L));
+        assertThat(imExporter.getRequestedPages(),
+                   contains("-/3", "30/3", "60/3"));
+        assertThat(writer.toString().split("\n").length, is(6));
+    }
+
+    /**
+     * Entities without a single ID attribute are exported at once. The export
+     * must not request further pages.
+     */
+    @Test
+    public void exportsEntitiesWithoutIdAtOnce() throws ExportException {
+        final TestImExporter imExporter = new TestImExporter(3, false);
+        final StringWriter writer = new StringWriter();
+
+        final long count = ImportExport.exportPages(imExporter, writer, 3);
+
+        assertThat(count, is(3L));
+        assertThat(imExporter.getRequestedPages(), contains("-/3"));
+    }
+
+    @Test
+    public void exportsNoEntities() throws ExportException {
+        final TestImExporter imExporter = new TestImExporter(0);
+        final StringWriter writer = new StringWriter();
+
+        final long count = ImportExport.exportPages(imExporter, writer, 3);
+
+        assertThat(count, is(0L));
+        assertThat(imExporter.getRequestedPages(), contains("-/3"));
+        assertThat(writer.toString(), is(equalTo("")));
+    }
+
+    /**
+     * Exporter providing a number of entities without a database. Records
+     * the pages requested by the export.
+     */
+    private static class TestImExporter
+        extends AbstractEntityImExporter<TestEntity> {
+
+        private final int size;
+
+        private final boolean withIds;
+
+        private final List<String> requestedPages = new ArrayList<>();
+
+        TestImExporter(final int size) {
+            this(size, true);
+        }
+
+        TestImExporter(final int size, final boolean withIds) {
+            this.size = size;
+            this.withIds = withIds;
+        }
+
+        List<String> getRequestedPages() {
+            return requestedPages;
+        }
+
+        @Override
+        public Class<TestEntity> getEntityClass() {
+            return TestEntity.class;
+        }
+
+        @Override
+        protected Set<Class<? extends Exportable>> getRequiredEntities() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        protected void saveImportedEntity(final TestEntity entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected TestEntity reloadEntity(final TestEntity entity) {
+            return entity;
+        }
+
+        /**
+         * The entities have the IDs 10, 20, 30 and so on.
+         */
+        @Override
+        public ExportedPage exportEntities(final Object lastId,
+                                           final int maxResults,
+                                           final Writer writer)
+            throws ExportException {
+            if (lastId == null) {
+                requestedPages.add(String.format("-/%d", maxResults));
+            } else {
+                requestedPages.add(String.format("%d/%d", lastId, maxResults));
+            }
+
+            final int first;
+            if (lastId == null) {
+                first = 0;
+            } else {
+                first = (int) (((Long) lastId) / 10);
+            }
+            final int last = Math.min(size, first + maxResults);
+            try {
+                for (int i = first; i < last; i++) {
+                    writer.write(String.format("e%d\n", i));
+                }
+            } catch (IOException ex) {
+                throw new ExportException(ex);
+            }
+
+            final int count = Math.max(0, last - first);
+            if (count == 0 || !withIds) {
+                return new ExportedPage(count, null);
+            } else {
+                return new ExportedPage(count, (long) last * 10);
+            }
+        }
+
+    }
+
+    private static class TestEntity implements Exportable {
+
+        @Override
+        public String getUuid() {
+            return null;
+        }
+
+    }
+
+}
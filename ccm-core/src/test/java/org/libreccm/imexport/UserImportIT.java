@@ -49,6 +49,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -273,4 +274,69 @@ public class UserImportIT {
         );
     }
 
+    /**
+     * An import which was interrupted after the user has been imported
+     * continues after the last imported entity, therefore the user is not
+     * imported again.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/imexport/UserImportTest/data.yml")
+    @ShouldMatchDataSet(
+        excludeColumns = {"party_id"},
+        orderBy = {"users.user_id", "parties.party_id"},
+        value = "datasets/org/libreccm/imexport/UserImportTest/data.yml"
+    )
+    @InSequence(300)
+    public void resumeImportAfterImportedEntities() throws IOException {
+        writeImportProgress(
+            "{\"org.libreccm.security.User\":"
+                + "{\"imported\":1,\"completed\":false}}"
+        );
+
+        shiro.getSystemUser().execute(()
+            -> importExport.importEntities(
+                "org.libreccm.imexport.UserImportTest")
+        );
+
+        assertThat(Files.exists(getImportProgressPath()), is(false));
+    }
+
+    /**
+     * Types which have been imported completely before the import was
+     * interrupted are skipped.
+     */
+    @Test
+    @UsingDataSet("datasets/org/libreccm/imexport/UserImportTest/data.yml")
+    @ShouldMatchDataSet(
+        excludeColumns = {"party_id"},
+        orderBy = {"users.user_id", "parties.party_id"},
+        value = "datasets/org/libreccm/imexport/UserImportTest/data.yml"
+    )
+    @InSequence(310)
+    public void resumeImportSkipsCompletedTypes() throws IOException {
+        writeImportProgress(
+            "{\"org.libreccm.security.User\":"
+                + "{\"imported\":0,\"completed\":true}}"
+        );
+
+        shiro.getSystemUser().execute(()
+            -> importExport.importEntities(
+                "org.libreccm.imexport.UserImportTest")
+        );
+
+        assertThat(Files.exists(getImportProgressPath()), is(false));
+    }
+
+    private Path getImportProgressPath() {
+        return Paths
+            .get(USER_IMPORT_TEST_DIR)
+            .resolve("ccm-import-progress.json");
+    }
+
+    private void writeImportProgress(final String progress)
+        throws IOException {
+        Files.write(getImportProgressPath(),
+                    progress.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreccm.security.AuthorizationCache.UserRoles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link AuthorizationCache}. The roles of the users are
+ * provided by a map instead of the database, the nodes of a cluster are
+ * simulated by several caches sharing a
+ * {@link LocalAuthorizationCacheInvalidationChannel}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class AuthorizationCacheTest {
+
+    private static final long JDOE_ID = 10001L;
+
+    private static final long MMUSTER_ID = 10002L;
+
+    private static final long AUTHORS_ID = 10003L;
+
+    private static final long ROLE1_ID = 20001L;
+
+    private static final long ROLE2_ID = 20002L;
+
+    private Map<String, UserRoles> roles;
+
+    private List<String> loadedUsers;
+
+    private List<Set<Long>> builtRoleSets;
+
+    public AuthorizationCacheTest() {
+    }
+
+    @Before
+    public void setUp() {
+        roles = new HashMap<>();
+        roles.put("jdoe", new UserRoles(JDOE_ID, createSet(ROLE1_ID)));
+        roles.put("mmuster", new UserRoles(MMUSTER_ID, createSet(ROLE1_ID)));
+        roles.put("public-user",
+                  new UserRoles(10004L, createSet(ROLE2_ID)));
+
+        loadedUsers = new ArrayList<>();
+        builtRoleSets = new ArrayList<>();
+    }
+
+    @Test
+    public void usersWithSameRolesShareInfo() {
+        final AuthorizationCache cache = new TestAuthorizationCache(
+            new LocalAuthorizationCacheInvalidationChannel());
+
+        final AuthorizationInfo jdoe = getInfo(cache, "jdoe");
+        final AuthorizationInfo mmuster = getInfo(cache, "mmuster");
+        final AuthorizationInfo publicUser = getInfo(cache, "public-user");
+
+        assertThat(mmuster, is(sameInstance(jdoe)));
+        assertThat(publicUser, is(not(sameInstance(jdoe))));
+        assertThat(builtRoleSets, hasSize(2));
+        assertThat(cache.getUserCount(), is(3));
+        assertThat(cache.getRoleSetCount(), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+
+        assertThat(getInfo(cache, "jdoe"), is(sameInstance(jdoe)));
+        assertThat(loadedUsers, hasSize(3));
+    }
+
+    @Test
+    public void invalidateByParty() {
+        final AuthorizationCache cache = new TestAuthorizationCache(
+            new LocalAuthorizationCacheInvalidationChannel());
+        final AuthorizationInfo jdoe = getInfo(cache, "jdoe");
+        getInfo(cache, "mmuster");
+
+        cache.invalidate(new AuthorizationChangedEvent(
+            Collections.emptySet(), Collections.singleton(JDOE_ID)));
+
+        assertThat(cache.getUserCount(), is(1));
+        assertThat(cache.getRoleSetCount(), is(1));
+
+        roles.put("jdoe", new UserRoles(JDOE_ID,
+                                        createSet(ROLE1_ID, ROLE2_ID)));
+        final AuthorizationInfo changed = getInfo(cache, "jdoe");
+
+        assertThat(changed, is(not(sameInstance(jdoe))));
+        assertThat(loadedUsers, contains("jdoe", "mmuster", "jdoe"));
+        assertThat(builtRoleSets.get(1), is(equalTo(createSet(ROLE1_ID,
+                                                             ROLE2_ID))));
+        assertThat(getInfo(cache, "mmuster"), is(sameInstance(jdoe)));
+    }
+
+    @Test
+    public void invalidateByRole() {
+        final AuthorizationCache cache = new TestAuthorizationCache(
+            new LocalAuthorizationCacheInvalidationChannel());
+        final AuthorizationInfo jdoe = getInfo(cache, "jdoe");
+        final AuthorizationInfo publicUser = getInfo(cache, "public-user");
+
+        cache.invalidate(AuthorizationChangedEvent.forRole(createRole(
+            ROLE1_ID)));
+
+        assertThat(cache.getUserCount(), is(2));
+        assertThat(cache.getRoleSetCount(), is(1));
+        assertThat(getInfo(cache, "public-user"),
+                   is(sameInstance(publicUser)));
+        assertThat(getInfo(cache, "jdoe"), is(not(sameInstance(jdoe))));
+        assertThat(loadedUsers, hasSize(2));
+        assertThat(builtRoleSets, hasSize(3));
+    }
+
+    @Test
+    public void invalidateAll() {
+        final AuthorizationCache cache = new TestAuthorizationCache(
+            new LocalAuthorizationCacheInvalidationChannel());
+        getInfo(cache, "jdoe");
+        getInfo(cache, "public-user");
+
+        cache.invalidateAll();
+
+        assertThat(cache.getUserCount(), is(0));
+        assertThat(cache.getRoleSetCount(), is(0));
+    }
+
+    @Test
+    public void invalidationPhases() {
+        final RecordingChannel channel = new RecordingChannel();
+        final AuthorizationCache cache = new TestAuthorizationCache(channel);
+        final AuthorizationChangedEvent event = AuthorizationChangedEvent
+            .forRole(createRole(ROLE1_ID));
+
+        getInfo(cache, "jdoe");
+        cache.onAuthorizationChanged(event);
+        assertThat(cache.getRoleSetCount(), is(0));
+        assertThat(channel.getPublished(), is(empty()));
+
+        getInfo(cache, "jdoe");
+        cache.onAuthorizationChangeFailed(event);
+        assertThat(cache.getRoleSetCount(), is(0));
+        assertThat(channel.getPublished(), is(empty()));
+
+        getInfo(cache, "jdoe");
+        cache.onAuthorizationChangeCommitted(event);
+        assertThat(cache.getRoleSetCount(), is(0));
+        assertThat(channel.getPublished(), contains(event));
+
+        assertThat(builtRoleSets, hasSize(3));
+    }
+
+    @Test
+    public void forPartyExpandsGroupMembers() {
+        final User jdoe = createUser(JDOE_ID, "jdoe");
+        final User mmuster = createUser(MMUSTER_ID, "mmuster");
+        final Group authors = new Group();
+        authors.setPartyId(AUTHORS_ID);
+        authors.setName("authors");
+        addMember(authors, jdoe);
+        addMember(authors, mmuster);
+
+        final AuthorizationChangedEvent groupEvent = AuthorizationChangedEvent
+            .forParty(authors);
+        final AuthorizationChangedEvent userEvent = AuthorizationChangedEvent
+            .forParty(jdoe);
+
+        assertThat(groupEvent.getPartyIds(),
+                   containsInAnyOrder(AUTHORS_ID, JDOE_ID, MMUSTER_ID));
+        assertThat(groupEvent.getRoleIds(), is(empty()));
+        assertThat(userEvent.getPartyIds(), contains(JDOE_ID));
+
+        final AuthorizationCache cache = new TestAuthorizationCache(
+            new LocalAuthorizationCacheInvalidationChannel());
+        getInfo(cache, "jdoe");
+        getInfo(cache, "mmuster");
+        getInfo(cache, "public-user");
+
+        cache.invalidate(groupEvent);
+
+        assertThat(cache.getUserCount(), is(1));
+        getInfo(cache, "public-user");
+        assertThat(loadedUsers, hasSize(3));
+    }
+
+    @Test
+    public void localChannelRoundTrip() {
+        final LocalAuthorizationCacheInvalidationChannel channel
+            = new LocalAuthorizationCacheInvalidationChannel();
+        final AuthorizationCache node1 = new TestAuthorizationCache(channel);
+        final AuthorizationCache node2 = new TestAuthorizationCache(channel);
+
+        getInfo(node1, "jdoe");
+        getInfo(node2, "jdoe");
+        getInfo(node2, "public-user");
+
+        node1.onAuthorizationChangeCommitted(AuthorizationChangedEvent
+            .forRole(createRole(ROLE1_ID)));
+
+        assertThat(node1.getRoleSetCount(), is(0));
+        assertThat(node2.getRoleSetCount(), is(1));
+        assertThat(node2.getUserCount(), is(2));
+
+        node2.onAuthorizationChangeCommitted(new AuthorizationChangedEvent(
+            Collections.emptySet(), Collections.singleton(JDOE_ID)));
+
+        assertThat(node1.getUserCount(), is(0));
+        assertThat(node2.getUserCount(), is(1));
+    }
+
+    private AuthorizationInfo getInfo(final AuthorizationCache cache,
+                                      final String userIdentifier) {
+        return cache.getAuthorizationInfo(userIdentifier,
+                                          this::loadRoles,
+                                          this::buildInfo);
+    }
+
+    private UserRoles loadRoles(final String userIdentifier) {
+        loadedUsers.add(userIdentifier);
+        return roles.get(userIdentifier);
+    }
+
+    private AuthorizationInfo buildInfo(final Set<Long> roleIds) {
+        builtRoleSets.add(roleIds);
+        final SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+        for (final Long roleId : roleIds) {
+            info.addRole(Long.toString(roleId));
+        }
+        return info;
+    }
+
+    private static Set<Long> createSet(final Long... roleIds) {
+        return new HashSet<>(Arrays.asList(roleIds));
+    }
+
+    private static Role createRole(final long roleId) {
+        final Role role = new Role();
+        role.setRoleId(roleId);
+        return role;
+    }
+
+    private static User createUser(final long partyId, final String name) {
+        final User user = new User();
+        user.setPartyId(partyId);
+        user.setName(name);
+        return user;
+    }
+
+    private static void addMember(final Group group, final User member) {
+        final GroupMembership membership = new GroupMembership();
+        membership.setGroup(group);
+        membership.setMember(member);
+        group.addMembership(membership);
+    }
+
+    /**
+     * {@link AuthorizationCache} using the provided channel instead of an
+     * injected one.
+     */
+    private static class TestAuthorizationCache extends AuthorizationCache {
+
+        private final AuthorizationCacheInvalidationChannel channel;
+
+        public TestAuthorizationCache(
+            final AuthorizationCacheInvalidationChannel channel) {
+            this.channel = channel;
+            init();
+        }
+
+        @Override
+        AuthorizationCacheInvalidationChannel getInvalidationChannel() {
+            return channel;
+        }
+
+    }
+
+    /**
+     * Channel which records the published events without delivering them.
+     */
+    private static class RecordingChannel
+        implements AuthorizationCacheInvalidationChannel {
+
+        private final List<AuthorizationChangedEvent> published
+            = new ArrayList<>();
+
+        @Override
+        public void publish(final AuthorizationChangedEvent event) {
+            published.add(event);
+        }
+
+        @Override
+        public void addListener(
+            final Consumer<AuthorizationChangedEvent> listener) {
+            // Nothing to do
+        }
+
+        public List<AuthorizationChangedEvent> getPublished() {
+            return Collections.unmodifiableList(published);
+        }
+
+    }
+
+}
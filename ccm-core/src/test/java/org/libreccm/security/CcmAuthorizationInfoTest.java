@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class CcmAuthorizationInfoTest {
+
+    public CcmAuthorizationInfoTest() {
+    }
+
+    private CcmAuthorizationInfo createInfo() {
+        return new CcmAuthorizationInfo.Builder()
+            .addRole("editor")
+            .addPrivilege("admin_users")
+            .addPrivilege("edit_items", -42L)
+            .addPrivilege("edit_items", 1001L)
+            .addPrivilege("Publish_Items", 1001L)
+            .build();
+    }
+
+    @Test
+    public void globalPrivileges() {
+        final CcmAuthorizationInfo info = createInfo();
+
+        assertThat(info.isPermitted(PrivilegePermission
+            .forPrivilege("admin_users")), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("admin_users", 1L)), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forPrivilege("edit_items")), is(false));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forPrivilege("*")), is(false));
+    }
+
+    @Test
+    public void objectPrivileges() {
+        final CcmAuthorizationInfo info = createInfo();
+
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("edit_items", 1001L)), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("edit_items", -42L)), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("edit_items", 1002L)), is(false));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("publish_items", 1001L)), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("PUBLISH_ITEMS", 1001L)), is(true));
+    }
+
+    @Test
+    public void allPrivileges() {
+        final CcmAuthorizationInfo info = new CcmAuthorizationInfo.Builder()
+            .addPrivilege("*")
+            .addPrivilege("*", 17L)
+            .build();
+
+        assertThat(info.isPermitted(PrivilegePermission
+            .forPrivilege("*")), is(true));
+        assertThat(info.isPermitted(PrivilegePermission
+            .forObject("edit_items", 5L)), is(true));
+
+        final CcmAuthorizationInfo objectInfo
+                                       = new CcmAuthorizationInfo.Builder()
+                .addPrivilege("*", 17L)
+                .build();
+        assertThat(objectInfo.isPermitted(PrivilegePermission
+            .forObject("edit_items", 17L)), is(true));
+        assertThat(objectInfo.isPermitted(PrivilegePermission
+            .forObject("edit_items", 18L)), is(false));
+        assertThat(objectInfo.isPermitted(PrivilegePermission
+            .forPrivilege("edit_items")), is(false));
+    }
+
+    @Test
+    public void stringPermissions() {
+        final CcmAuthorizationInfo info = createInfo();
+
+        assertThat(info.getRoles(), contains("editor"));
+        assertThat(info.getStringPermissions(),
+                   containsInAnyOrder("admin_users",
+                                      "edit_items:-42",
+                                      "edit_items:1001",
+                                      "publish_items:1001"));
+    }
+
+    @Test
+    public void resolvePermissionStrings() {
+        final CcmPermissionResolver resolver = new CcmPermissionResolver();
+
+        assertThat(resolver.resolvePermission("edit_items"),
+                   is(equalTo(PrivilegePermission.forPrivilege("edit_items"))));
+        assertThat(resolver.resolvePermission("edit_items:1001"),
+                   is(equalTo(PrivilegePermission.forObject("edit_items",
+                                                            1001L))));
+        assertThat(resolver.resolvePermission("*"),
+                   is(equalTo(PrivilegePermission.forPrivilege("*"))));
+        assertThat(resolver.resolvePermission("edit_items:*"),
+                   is(instanceOf(WildcardPermission.class)));
+        assertThat(resolver.resolvePermission("edit_items,publish_items"),
+                   is(instanceOf(WildcardPermission.class)));
+        assertThat(resolver.resolvePermission("edit_items:abc"),
+                   is(instanceOf(WildcardPermission.class)));
+    }
+
+    @Test
+    public void realmUsesIndexes() {
+        final CcmShiroRealm realm = new CcmShiroRealm();
+        final CcmAuthorizationInfo info = createInfo();
+
+        assertThat(realm.isPermitted(
+            realm.getPermissionResolver().resolvePermission("edit_items:1001"),
+            info),
+                   is(true));
+        assertThat(realm.isPermitted(
+            realm.getPermissionResolver().resolvePermission("edit_items:1002"),
+            info),
+                   is(false));
+        // Wildcard permissions are still checked against the string
+        // permissions.
+        assertThat(realm.isPermitted(
+            new WildcardPermission("edit_items:1001,1002"), info),
+                   is(false));
+        assertThat(realm.isPermitted(
+            new WildcardPermission("admin_users:*"), info),
+                   is(true));
+    }
+
+    @Test
+    public void privilegePermissionImpliesWildcardPermissions() {
+        assertThat(PrivilegePermission.forPrivilege("admin_users")
+            .implies(new WildcardPermission("admin_users:*")), is(true));
+        assertThat(PrivilegePermission.forPrivilege("admin_users")
+            .implies(new WildcardPermission("edit_items")), is(false));
+        assertThat(PrivilegePermission.forObject("edit_items", 1001L)
+            .implies(new WildcardPermission("edit_items:1001")), is(true));
+        assertThat(PrivilegePermission.forObject("edit_items", 1001L)
+            .implies(new WildcardPermission("edit_items:1001,1002")),
+                   is(false));
+        assertThat(PrivilegePermission.forPrivilege("*")
+            .implies(new WildcardPermission("edit_items:1001,1002")),
+                   is(true));
+    }
+
+}
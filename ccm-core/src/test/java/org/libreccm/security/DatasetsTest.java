@@ -61,6 +61,8 @@ public class DatasetsTest extends DatasetsVerifier {
             "/datasets/org/libreccm/security/PermissionManagerTest/after-revoke.yml",
             "/datasets/org/libreccm/security/PermissionManagerTest/after-revoke-recursivly.yml",
             "/datasets/org/libreccm/security/PermissionManagerTest/after-copy.yml",
+
+            "/datasets/org/libreccm/security/PermissionCheckerTest/data-filter-permitted.yml",
             
             "/datasets/org/libreccm/security/RoleManagerTest/data.yml",
             "/datasets/org/libreccm/security/RoleManagerTest/after-add.yml",
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class LongHashSetTest {
+
+    public LongHashSetTest() {
+    }
+
+    @Test
+    public void addAndContains() {
+        final LongHashSet set = new LongHashSet();
+
+        assertThat(set.isEmpty(), is(true));
+        assertThat(set.add(-20L), is(true));
+        assertThat(set.add(1001L), is(true));
+        assertThat(set.add(1001L), is(false));
+
+        assertThat(set.size(), is(2));
+        assertThat(set.contains(-20L), is(true));
+        assertThat(set.contains(1001L), is(true));
+        assertThat(set.contains(1002L), is(false));
+    }
+
+    @Test
+    public void zeroIsAValidValue() {
+        final LongHashSet set = new LongHashSet();
+
+        assertThat(set.contains(0L), is(false));
+        assertThat(set.add(0L), is(true));
+        assertThat(set.add(0L), is(false));
+        assertThat(set.contains(0L), is(true));
+        assertThat(set.size(), is(1));
+        assertThat(set.toArray().length, is(1));
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        final LongHashSet set = new LongHashSet(4);
+
+        for (long i = 1; i <= 10000; i++) {
+            set.add(i * 7);
+        }
+
+        assertThat(set.size(), is(10000));
+        for (long i = 1; i <= 10000; i++) {
+            assertThat(set.contains(i * 7), is(true));
+            assertThat(set.contains(i * 7 + 1), is(false));
+        }
+
+        final long[] values = set.toArray();
+        Arrays.sort(values);
+        assertThat(values.length, is(10000));
+        assertThat(values[0], is(7L));
+        assertThat(values[9999], is(70000L));
+    }
+
+}
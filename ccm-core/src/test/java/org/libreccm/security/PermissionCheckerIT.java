@@ -49,6 +49,7 @@ import org.libreccm.core.CcmObject;
 import org.libreccm.core.CcmObjectRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -85,6 +86,12 @@ public class PermissionCheckerIT {
     @Inject
     private CcmObjectRepository objectRepository;
 
+    @Inject
+    private PermissionManager permissionManager;
+
+    @Inject
+    private RoleRepository roleRepository;
+
     public PermissionCheckerIT() {
     }
 
@@ -219,6 +226,102 @@ public class PermissionCheckerIT {
                    is(true));
     }
 
+    @Test
+    @UsingDataSet("datasets/org/libreccm/security/ShiroTest/data.yml")
+    @InSequence(1600)
+    public void filterPermittedAuthenticatedUser() {
+        final CcmObject object1 = objectRepository.findById(20001L).get();
+        final CcmObject object2 = objectRepository.findById(20002L).get();
+        final CcmObject object3 = objectRepository.findById(20003L).get();
+
+        final UsernamePasswordToken token = new UsernamePasswordToken("jdoe",
+                                                                      "foo123");
+        token.setRememberMe(true);
+        subject.login(token);
+
+        assertThat(permissionChecker.filterPermitted(
+            "privilege2", Arrays.asList(object3, object2, object1)),
+                   contains(object2));
+        assertThat(permissionChecker.filterPermitted(
+            "privilege1", Arrays.asList(object1, object2, object3)),
+                   is(empty()));
+    }
+
+    @Test
+    @UsingDataSet(
+        "datasets/org/libreccm/security/PermissionCheckerTest/"
+            + "data-filter-permitted.yml")
+    @InSequence(1700)
+    public void filterPermittedAllPrivilegesAndCase() {
+        final CcmObject object1 = objectRepository.findById(20001L).get();
+        final CcmObject object2 = objectRepository.findById(20002L).get();
+        final CcmObject object3 = objectRepository.findById(20003L).get();
+        final List<CcmObject> objects = Arrays.asList(object1,
+                                                      object2,
+                                                      object3);
+
+        final UsernamePasswordToken token = new UsernamePasswordToken("jdoe",
+                                                                      "foo123");
+        token.setRememberMe(true);
+        subject.login(token);
+
+        assertThat(permissionChecker.filterPermitted("privilege2", objects),
+                   contains(object2, object3));
+        assertThat(permissionChecker.filterPermitted("privilege4", objects),
+                   contains(object1, object3));
+        assertThat(permissionChecker.filterPermitted("PRIVILEGE4", objects),
+                   contains(object1, object3));
+
+        // filterPermitted must agree with the checks for single objects.
+        for (final String privilege : new String[]{"privilege1",
+                                                   "privilege2",
+                                                   "Privilege4"}) {
+            final List<CcmObject> permitted = permissionChecker
+                .filterPermitted(privilege, objects);
+            for (final CcmObject object : objects) {
+                assertThat(permitted.contains(object),
+                           is(permissionChecker.isPermitted(privilege,
+                                                            object)));
+            }
+        }
+    }
+
+    @Test
+    @UsingDataSet("datasets/org/libreccm/security/ShiroTest/data.yml")
+    @InSequence(1800)
+    public void grantAndRevokeVisibleToNextCheck() {
+        final CcmObject object3 = objectRepository.findById(20003L).get();
+        final Role role2 = roleRepository.findByName("role2").get();
+
+        final UsernamePasswordToken token = new UsernamePasswordToken("jdoe",
+                                                                      "foo123");
+        token.setRememberMe(true);
+        subject.login(token);
+
+        // The first checks fill the authorization cache for jdoe.
+        assertThat(permissionChecker.isPermitted("privilege4"), is(false));
+        assertThat(permissionChecker.isPermitted("privilege4", object3),
+                   is(false));
+
+        shiro.getSystemUser().execute(() -> {
+            permissionManager.grantPrivilege("privilege4", role2);
+            permissionManager.grantPrivilege("privilege4", role2, object3);
+        });
+
+        assertThat(permissionChecker.isPermitted("privilege4"), is(true));
+        assertThat(permissionChecker.isPermitted("privilege4", object3),
+                   is(true));
+
+        shiro.getSystemUser().execute(() -> {
+            permissionManager.revokePrivilege("privilege4", role2);
+            permissionManager.revokePrivilege("privilege4", role2, object3);
+        });
+
+        assertThat(permissionChecker.isPermitted("privilege4"), is(false));
+        assertThat(permissionChecker.isPermitted("privilege4", object3),
+                   is(false));
+    }
+
     @Test
     @UsingDataSet("datasets/org/libreccm/security/ShiroTest/data.yml")
     @InSequence(2100)
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.junit.Test;
+import org.libreccm.core.CcmObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PermissionChecker#filterPermitted}.
+ * The database query is replaced by a fixed set of permitted object IDs.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class PermissionCheckerTest {
+
+    public PermissionCheckerTest() {
+    }
+
+    @Test
+    public void filterPermittedKeepsOrder() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20003L, 20001L);
+        final CcmObject object1 = createObject(20001L);
+        final CcmObject object2 = createObject(20002L);
+        final CcmObject object3 = createObject(20003L);
+
+        final List<CcmObject> result = checker.filterPermitted(
+            "privilege1", Arrays.asList(object3, object2, object1));
+
+        assertThat(result, contains(object3, object1));
+        assertThat(checker.getQueries(), is(1));
+        assertThat(checker.getPrivileges(), contains("privilege1"));
+    }
+
+    @Test
+    public void filterPermittedRemovesNull() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L, 20002L);
+        final CcmObject object1 = createObject(20001L);
+        final CcmObject object2 = createObject(20002L);
+
+        final List<CcmObject> result = checker.filterPermitted(
+            "privilege1", Arrays.asList(object1, null, object2));
+
+        assertThat(result, contains(object1, object2));
+    }
+
+    @Test
+    public void filterPermittedKeepsDuplicates() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L);
+        final CcmObject object1 = createObject(20001L);
+        final CcmObject object2 = createObject(20002L);
+
+        final List<CcmObject> result = checker.filterPermitted(
+            "privilege1", Arrays.asList(object1, object2, object1));
+
+        assertThat(result, contains(object1, object1));
+    }
+
+    @Test
+    public void filterPermittedNothingPermitted() {
+        final TestPermissionChecker checker = new TestPermissionChecker();
+
+        final List<CcmObject> result = checker.filterPermitted(
+            "privilege1",
+            Arrays.asList(createObject(20001L), createObject(20002L)));
+
+        assertThat(result, is(empty()));
+    }
+
+    @Test
+    public void filterPermittedEmptyCollection() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L);
+
+        final List<CcmObject> result = checker.filterPermitted(
+            "privilege1", Collections.<CcmObject>emptyList());
+
+        assertThat(result, is(empty()));
+    }
+
+    private static CcmObject createObject(final long objectId) {
+        final CcmObject object = new CcmObject();
+        object.setObjectId(objectId);
+        object.setDisplayName(String.format("object-%d", objectId));
+        return object;
+    }
+
+    /**
+     * A {@link PermissionChecker} which permits access to a fixed set of
+     * objects instead of querying the database.
+     */
+    private static class TestPermissionChecker extends PermissionChecker {
+
+        private final LongHashSet permittedIds = new LongHashSet();
+
+        private final List<String> privileges = new ArrayList<>();
+
+        private int queries;
+
+        public TestPermissionChecker(final long... permittedIds) {
+            for (final long permittedId : permittedIds) {
+                this.permittedIds.add(permittedId);
+            }
+        }
+
+        @Override
+        protected LongHashSet findPermittedObjectIds(
+            final String privilege,
+            final Collection<? extends CcmObject> objects) {
+
+            queries++;
+            privileges.add(privilege);
+
+            final LongHashSet result = new LongHashSet();
+            for (final CcmObject object : objects) {
+                if (object != null
+                        && permittedIds.contains(object.getObjectId())) {
+                    result.add(object.getObjectId());
+                }
+            }
+            return result;
+        }
+
+        public List<String> getPrivileges() {
+            return Collections.unmodifiableList(privileges);
+        }
+
+        public int getQueries() {
+            return queries;
+        }
+
+    }
+
+}
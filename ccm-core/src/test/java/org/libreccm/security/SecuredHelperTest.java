@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.security;
+
+import org.junit.Test;
+import org.libreccm.core.CcmObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.libreccm.core.CoreConstants.ACCESS_DENIED;
+
+/**
+ * Tests for the bulk permission check of {@link SecuredHelper}. The
+ * {@link PermissionChecker} is replaced by an implementation which permits
+ * access to a fixed set of objects and counts the checks.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class SecuredHelperTest {
+
+    private static final String PRIVILEGE = "privilege2";
+
+    private final CcmObject object1 = createObject(20001L);
+
+    private final CcmObject object2 = createObject(20002L);
+
+    private final CcmObject object3 = createObject(20003L);
+
+    public SecuredHelperTest() {
+    }
+
+    @Test
+    public void checksSourceWithOneQuery() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L, 20003L);
+        final SecuredHelper<CcmObject> helper = createHelper(
+            checker, Arrays.asList(object1, object2, object3));
+
+        assertThat(helper.isPermitted(object1), is(true));
+        assertThat(helper.isPermitted(object2), is(false));
+        assertThat(helper.isPermitted(object3), is(true));
+        assertThat(helper.isPermitted(object2), is(false));
+
+        assertThat(checker.getBulkChecks(), is(1));
+        assertThat(checker.getSingleChecks(), is(0));
+        assertThat(checker.getPrivileges(), contains(PRIVILEGE));
+    }
+
+    @Test
+    public void checksUnknownObjectsIndividually() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L, 20003L);
+        final SecuredHelper<CcmObject> helper = createHelper(
+            checker, Arrays.asList(object1, object2));
+
+        assertThat(helper.isPermitted(object3), is(true));
+        assertThat(helper.isPermitted(object1), is(true));
+        assertThat(helper.isPermitted(createObject(20004L)), is(false));
+
+        assertThat(checker.getBulkChecks(), is(1));
+        assertThat(checker.getSingleChecks(), is(2));
+    }
+
+    @Test
+    public void checksIndividuallyWithoutSource() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20002L);
+        final SecuredHelper<CcmObject> helper = createHelper(checker, null);
+
+        assertThat(helper.isPermitted(object1), is(false));
+        assertThat(helper.isPermitted(object2), is(true));
+
+        assertThat(checker.getBulkChecks(), is(0));
+        assertThat(checker.getSingleChecks(), is(2));
+    }
+
+    @Test
+    public void sourceWithNullElements() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L);
+        final SecuredHelper<CcmObject> helper = createHelper(
+            checker, Arrays.asList(object1, null, object2));
+
+        assertThat(helper.isPermitted(object1), is(true));
+        assertThat(helper.isPermitted(object2), is(false));
+        assertThat(helper.isPermitted(null), is(true));
+
+        assertThat(checker.getBulkChecks(), is(1));
+        assertThat(checker.getSingleChecks(), is(0));
+    }
+
+    @Test
+    public void canAccessReturnsPermittedObject() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L);
+        final SecuredHelper<CcmObject> helper = createHelper(
+            checker, Arrays.asList(object1, object2));
+
+        assertThat(helper.canAccess(object1), is(sameInstance(object1)));
+        assertThat(helper.canAccess(null), is(nullValue()));
+    }
+
+    @Test
+    public void canAccessReturnsPlaceholder() {
+        final TestPermissionChecker checker = new TestPermissionChecker(
+            20001L);
+        final SecuredHelper<CcmObject> helper = createHelper(
+            checker, Arrays.asList(object1, object2));
+
+        final CcmObject result = helper.canAccess(object2);
+
+        assertThat(result, is(not(sameInstance(object2))));
+        assertThat(result.getDisplayName(), is(equalTo(ACCESS_DENIED)));
+    }
+
+    private static CcmObject createObject(final long objectId) {
+        final CcmObject object = new CcmObject();
+        object.setObjectId(objectId);
+        object.setDisplayName(String.format("object-%d", objectId));
+        return object;
+    }
+
+    private static SecuredHelper<CcmObject> createHelper(
+        final PermissionChecker checker,
+        final Collection<CcmObject> source) {
+
+        return new SecuredHelper<CcmObject>(CcmObject.class,
+                                            PRIVILEGE,
+                                            source) {
+
+            @Override
+            PermissionChecker getPermissionChecker() {
+                return checker;
+            }
+
+        };
+    }
+
+    /**
+     * A {@link PermissionChecker} which permits access to a fixed set of
+     * objects and counts the bulk and the single checks.
+     */
+    private static class TestPermissionChecker extends PermissionChecker {
+
+        private final LongHashSet permittedIds = new LongHashSet();
+
+        private final List<String> privileges = new ArrayList<>();
+
+        private int bulkChecks;
+
+        private int singleChecks;
+
+        public TestPermissionChecker(final long... permittedIds) {
+            for (final long permittedId : permittedIds) {
+                this.permittedIds.add(permittedId);
+            }
+        }
+
+        @Override
+        protected LongHashSet findPermittedObjectIds(
+            final String privilege,
+            final Collection<? extends CcmObject> objects) {
+
+            bulkChecks++;
+            privileges.add(privilege);
+
+            final LongHashSet result = new LongHashSet();
+            for (final CcmObject object : objects) {
+                if (object != null
+                        && permittedIds.contains(object.getObjectId())) {
+                    result.add(object.getObjectId());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isPermitted(final String privilege,
+                                   final CcmObject object) {
+            singleChecks++;
+            privileges.add(privilege);
+
+            return permittedIds.contains(object.getObjectId());
+        }
+
+        public List<String> getPrivileges() {
+            return privileges;
+        }
+
+        public int getBulkChecks() {
+            return bulkChecks;
+        }
+
+        public int getSingleChecks() {
+            return singleChecks;
+        }
+
+    }
+
+}
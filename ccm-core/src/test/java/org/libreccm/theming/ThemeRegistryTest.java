@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreccm.jpa.VersionStamps;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ThemeRegistry}: The lookup of themes using the
+ * {@link ThemeProvider}s if the registry has no entry for a theme, the
+ * synchronisation with the version stamp in the database and the removal of
+ * changed themes.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ThemeRegistryTest {
+
+    private static final String THEME = "librecms";
+
+    private static final String OTHER_THEME = "foundry";
+
+    private TestVersionStamps versionStamps;
+
+    private ThemeRegistry registry;
+
+    private TestProviders providers;
+
+    public ThemeRegistryTest() {
+    }
+
+    @Before
+    public void setUp() {
+        versionStamps = new TestVersionStamps();
+        registry = new TestThemeRegistry(versionStamps);
+        providers = new TestProviders();
+        providers.addTheme(THEME, ThemeVersion.DRAFT);
+        providers.addTheme(THEME, ThemeVersion.LIVE);
+        providers.addTheme(OTHER_THEME, ThemeVersion.LIVE);
+    }
+
+    @Test
+    public void providersAreOnlyScannedOnMiss() {
+        final ThemeInfo themeInfo = getTheme(THEME, ThemeVersion.LIVE).get();
+
+        assertThat(getTheme(THEME, ThemeVersion.LIVE).get(),
+                   is(sameInstance(themeInfo)));
+        assertThat(providers.getScans(), is(1));
+        assertThat(registry.getSize(), is(1));
+        assertThat(registry.getMissCount(), is(1L));
+        assertThat(registry.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void versionsAreStoredSeparately() {
+        final ThemeInfo draft = getTheme(THEME, ThemeVersion.DRAFT).get();
+        final ThemeInfo live = getTheme(THEME, ThemeVersion.LIVE).get();
+
+        assertThat(draft.getVersion(), is(ThemeVersion.DRAFT));
+        assertThat(live.getVersion(), is(ThemeVersion.LIVE));
+        assertThat(providers.getScans(), is(2));
+        assertThat(registry.getSize(), is(2));
+    }
+
+    @Test
+    public void missingThemesAreNotStored() {
+        assertThat(getTheme(OTHER_THEME, ThemeVersion.DRAFT).isPresent(),
+                   is(false));
+        assertThat(registry.getSize(), is(0));
+
+        // The theme is found by the next scan after it was created.
+        providers.addTheme(OTHER_THEME, ThemeVersion.DRAFT);
+        assertThat(getTheme(OTHER_THEME, ThemeVersion.DRAFT).isPresent(),
+                   is(true));
+        assertThat(providers.getScans(), is(2));
+    }
+
+    @Test
+    public void synchronizeKeepsEntriesIfStampIsUnchanged() {
+        registry.synchronize();
+        final ThemeInfo themeInfo = getTheme(THEME, ThemeVersion.LIVE).get();
+
+        registry.synchronize();
+
+        assertThat(registry.getStamp(), is(0L));
+        assertThat(getTheme(THEME, ThemeVersion.LIVE).get(),
+                   is(sameInstance(themeInfo)));
+        assertThat(providers.getScans(), is(1));
+    }
+
+    @Test
+    public void synchronizeClearsRegistryIfStampChanged() {
+        assertThat(registry.getStamp(), is(-1L));
+        registry.synchronize();
+        final ThemeInfo themeInfo = getTheme(THEME, ThemeVersion.LIVE).get();
+        getTheme(OTHER_THEME, ThemeVersion.LIVE);
+
+        // Another node has published a theme.
+        versionStamps.increment(ThemeRegistry.VERSION_STAMP);
+        registry.synchronize();
+
+        assertThat(registry.getStamp(), is(1L));
+        assertThat(registry.getSize(), is(0));
+        assertThat(getTheme(THEME, ThemeVersion.LIVE).get(),
+                   is(not(sameInstance(themeInfo))));
+        assertThat(providers.getScans(), is(3));
+    }
+
+    @Test
+    public void invalidateRemovesAllVersionsOfTheme() {
+        getTheme(THEME, ThemeVersion.DRAFT);
+        getTheme(THEME, ThemeVersion.LIVE);
+        final ThemeInfo other = getTheme(OTHER_THEME, ThemeVersion.LIVE).get();
+
+        registry.invalidate(THEME);
+
+        assertThat(registry.getSize(), is(1));
+        assertThat(getTheme(OTHER_THEME, ThemeVersion.LIVE).get(),
+                   is(sameInstance(other)));
+        assertThat(providers.getScans(), is(3));
+
+        registry.invalidateAll();
+        assertThat(registry.getSize(), is(0));
+    }
+
+    @Test
+    public void themeChangedDuringScanIsNotStored() {
+        final Optional<ThemeInfo> themeInfo = registry.getTheme(
+            THEME,
+            ThemeVersion.LIVE,
+            () -> {
+                final Optional<ThemeInfo> result = providers
+                    .findTheme(THEME, ThemeVersion.LIVE);
+                // The theme is published while it is scanned.
+                registry.invalidate(THEME);
+                return result;
+            });
+
+        assertThat(themeInfo.isPresent(), is(true));
+        assertThat(registry.getSize(), is(0));
+    }
+
+    @Test
+    public void changesOfManifestIncrementStamp() {
+        registry.onThemeChanging(new ThemeChangedEvent(
+            THEME,
+            ThemeVersion.DRAFT,
+            ThemeChangedEvent.ChangeType.FILE_CHANGED,
+            "/theme.json"));
+        registry.onThemeChanging(new ThemeChangedEvent(
+            THEME,
+            ThemeVersion.DRAFT,
+            ThemeChangedEvent.ChangeType.FILE_DELETED,
+            "theme.xml"));
+        registry.onThemeChanging(new ThemeChangedEvent(
+            THEME,
+            ThemeVersion.LIVE,
+            ThemeChangedEvent.ChangeType.PUBLISHED));
+
+        assertThat(versionStamps.getStamp(ThemeRegistry.VERSION_STAMP),
+                   is(3L));
+    }
+
+    @Test
+    public void changesOfOtherFilesAreIgnored() {
+        getTheme(THEME, ThemeVersion.DRAFT);
+        final ThemeChangedEvent event = new ThemeChangedEvent(
+            THEME,
+            ThemeVersion.DRAFT,
+            ThemeChangedEvent.ChangeType.FILE_CHANGED,
+            "/styles/main.css");
+
+        registry.onThemeChanging(event);
+        registry.onThemeChanged(event);
+
+        assertThat(versionStamps.getStamp(ThemeRegistry.VERSION_STAMP),
+                   is(0L));
+        assertThat(registry.getSize(), is(1));
+    }
+
+    @Test
+    public void changedThemeIsRemovedAfterCommit() {
+        getTheme(THEME, ThemeVersion.DRAFT);
+        getTheme(THEME, ThemeVersion.LIVE);
+        getTheme(OTHER_THEME, ThemeVersion.LIVE);
+
+        registry.onThemeChanged(new ThemeChangedEvent(
+            THEME,
+            ThemeVersion.LIVE,
+            ThemeChangedEvent.ChangeType.UNPUBLISHED));
+
+        assertThat(registry.getSize(), is(1));
+        getTheme(THEME, ThemeVersion.LIVE);
+        assertThat(providers.getScans(), is(4));
+    }
+
+    private Optional<ThemeInfo> getTheme(final String name,
+                                         final ThemeVersion version) {
+        final Supplier<Optional<ThemeInfo>> loader
+            = () -> providers.findTheme(name, version);
+        return registry.getTheme(name, version, loader);
+    }
+
+    private static class TestThemeRegistry extends ThemeRegistry {
+
+        private final VersionStamps versionStamps;
+
+        public TestThemeRegistry(final VersionStamps versionStamps) {
+            this.versionStamps = versionStamps;
+        }
+
+        @Override
+        VersionStamps getVersionStamps() {
+            return versionStamps;
+        }
+
+    }
+
+    private static class TestVersionStamps extends VersionStamps {
+
+        private final Map<String, Long> stamps = new HashMap<>();
+
+        @Override
+        public long getStamp(final String name) {
+            return stamps.getOrDefault(name, 0L);
+        }
+
+        @Override
+        public void increment(final String name) {
+            stamps.put(name, getStamp(name) + 1);
+        }
+
+    }
+
+    /**
+     * Replaces the scan of the {@link ThemeProvider}s done by
+     * {@link Themes#getTheme}.
+     */
+    private static class TestProviders {
+
+        private final Set<String> themes = new HashSet<>();
+
+        private int scans;
+
+        public void addTheme(final String name, final ThemeVersion version) {
+            themes.add(String.format("%s:%s", name, version));
+        }
+
+        public Optional<ThemeInfo> findTheme(final String name,
+                                             final ThemeVersion version) {
+            scans++;
+            if (!themes.contains(String.format("%s:%s", name, version))) {
+                return Optional.empty();
+            }
+            final ThemeInfo themeInfo = new ThemeInfo();
+            themeInfo.setVersion(version);
+            return Optional.of(themeInfo);
+        }
+
+        public int getScans() {
+            return scans;
+        }
+
+    }
+
+}
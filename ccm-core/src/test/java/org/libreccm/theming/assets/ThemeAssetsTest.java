@@ -0,0 +1,387 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.assets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreccm.theming.ThemeFileInfo;
+import org.libreccm.theming.ThemeInfo;
+import org.libreccm.theming.ThemeProvider;
+import org.libreccm.theming.ThemeVersion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ThemeAssets}: The fingerprints of the assets, the
+ * selection of the assets which are stored gzip compressed and the deletion
+ * of the local copies of removed assets.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ThemeAssetsTest {
+
+    private static final String THEME = "librecms";
+
+    private static final String STYLESHEET
+        = "body { margin: 0; padding: 0; }\n"
+              + "main { margin: 0 auto; padding: 0 1em; }\n"
+              + "footer { margin: 0 auto; padding: 0 1em; }\n";
+
+    private TestThemeProvider provider;
+
+    private TestThemeAssets assets;
+
+    public ThemeAssetsTest() {
+    }
+
+    @Before
+    public void setUp() {
+        provider = new TestThemeProvider();
+        assets = new TestThemeAssets();
+        assets.init();
+    }
+
+    @After
+    public void tearDown() {
+        assets.destroy();
+    }
+
+    @Test
+    public void fingerprintIsCreatedFromContent() {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+        provider.addFile("foundry", "styles/main.css", "text/css", STYLESHEET);
+
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+        final ThemeAsset other = getAsset("foundry", "/styles/main.css");
+
+        assertThat(asset.getFingerprint().matches("[0-9a-f]{16}"), is(true));
+        assertThat(other.getFingerprint(),
+                   is(equalTo(asset.getFingerprint())));
+        assertThat(getAsset(THEME, "/styles/main.css"),
+                   is(sameInstance(asset)));
+    }
+
+    @Test
+    public void fingerprintChangesWithContent() {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+
+        provider.addFile(THEME,
+                         "styles/main.css",
+                         "text/css",
+                         STYLESHEET + "nav { display: none; }\n");
+        assertThat(getAsset(THEME, "styles/main.css"),
+                   is(sameInstance(asset)));
+
+        assets.invalidate(THEME);
+        final ThemeAsset changed = getAsset(THEME, "styles/main.css");
+
+        assertThat(changed.getFingerprint(),
+                   is(not(equalTo(asset.getFingerprint()))));
+    }
+
+    @Test
+    public void compressibleAssetsAreStoredGzipCompressed() throws IOException {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+
+        assertThat(new String(Files.readAllBytes(asset.getFile()),
+                              StandardCharsets.UTF_8),
+                   is(equalTo(STYLESHEET)));
+        assertThat(asset.getGzipFile().isPresent(), is(true));
+        assertThat(Files.size(asset.getGzipFile().get()),
+                   is(lessThan(Files.size(asset.getFile()))));
+        assertThat(gunzip(asset.getGzipFile().get()),
+                   is(equalTo(STYLESHEET)));
+    }
+
+    @Test
+    public void incompressibleAssetsAreNotGzipped() {
+        provider.addFile(THEME, "images/logo.png", "image/png", STYLESHEET);
+        provider.addFile(THEME, "scripts/empty.js", "text/javascript", "");
+
+        final ThemeAsset image = getAsset(THEME, "images/logo.png");
+        // The compressed version of an empty file is larger than the file.
+        final ThemeAsset script = getAsset(THEME, "scripts/empty.js");
+
+        assertThat(image.getGzipFile().isPresent(), is(false));
+        assertThat(script.getGzipFile().isPresent(), is(false));
+    }
+
+    @Test
+    public void missingFilesAndDirectoriesAreNotAssets() {
+        provider.addDirectory(THEME, "styles");
+
+        assertThat(assets.getAsset(provider, THEME, "styles").isPresent(),
+                   is(false));
+        assertThat(assets.getAsset(provider, THEME, "missing.css").isPresent(),
+                   is(false));
+        assertThat(assets.getSize(), is(0));
+    }
+
+    @Test
+    public void assetPathsOfLiveThemesContainFingerprint() {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+
+        assertThat(assets.getAssetPath(provider,
+                                       THEME,
+                                       ThemeVersion.LIVE,
+                                       "/styles/main.css"),
+                   is(equalTo(String.format(
+                       "/@themes/librecms/assets/%s/styles/main.css",
+                       asset.getFingerprint()))));
+        assertThat(assets.getAssetPath(provider,
+                                       THEME,
+                                       ThemeVersion.DRAFT,
+                                       "/styles/main.css"),
+                   is(equalTo("/@themes/librecms/DRAFT/styles/main.css")));
+        assertThat(assets.getAssetPath(provider,
+                                       THEME,
+                                       ThemeVersion.LIVE,
+                                       "missing.css"),
+                   is(equalTo("/@themes/librecms/LIVE/missing.css")));
+    }
+
+    @Test
+    public void filesOfRemovedAssetsAreDeletedAfterDelay() {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+        provider.addFile(THEME, "images/logo.png", "image/png", STYLESHEET);
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+        final Path file = asset.getFile();
+        final Path gzipFile = asset.getGzipFile().get();
+
+        assets.invalidate(THEME);
+        assertThat(assets.getSize(), is(0));
+        // A response for the asset may still be written.
+        assertThat(Files.exists(file), is(true));
+        assertThat(Files.exists(gzipFile), is(true));
+
+        assets.now += ThemeAssets.DELETE_DELAY - 1;
+        getAsset(THEME, "images/logo.png");
+        assertThat(Files.exists(file), is(true));
+        assertThat(Files.exists(gzipFile), is(true));
+
+        assets.now += 1;
+        getAsset(THEME, "images/logo.png");
+        assertThat(Files.exists(file), is(false));
+        assertThat(Files.exists(gzipFile), is(false));
+    }
+
+    @Test
+    public void filesOfAssetsNotKeptAreDeletedAfterDelay() {
+        provider.addFile(THEME, "styles/main.css", "text/css", STYLESHEET);
+        // The theme is published while the asset is created.
+        provider.onLoad = () -> assets.invalidate(THEME);
+
+        final ThemeAsset asset = getAsset(THEME, "styles/main.css");
+        provider.onLoad = null;
+
+        assertThat(assets.getSize(), is(0));
+        assertThat(Files.exists(asset.getFile()), is(true));
+
+        assets.now += ThemeAssets.DELETE_DELAY;
+        getAsset(THEME, "styles/main.css");
+        assertThat(Files.exists(asset.getFile()), is(false));
+        assertThat(Files.exists(asset.getGzipFile().get()), is(false));
+        assertThat(assets.getSize(), is(1));
+    }
+
+    private ThemeAsset getAsset(final String themeName, final String path) {
+        return assets
+            .getAsset(provider, themeName, path)
+            .orElseThrow(() -> new AssertionError(String.format(
+            "No asset %s in theme %s.", path, themeName)));
+    }
+
+    private String gunzip(final Path file) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(
+            Files.newInputStream(file)
+        )) {
+            final ByteArrayOutputStream outputStream
+                = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int length = inputStream.read(buffer);
+            while (length >= 0) {
+                outputStream.write(buffer, 0, length);
+                length = inputStream.read(buffer);
+            }
+            return new String(outputStream.toByteArray(),
+                              StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class TestThemeAssets extends ThemeAssets {
+
+        private long now = 1000000;
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+
+    }
+
+    private static class TestThemeProvider implements ThemeProvider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, ThemeFileInfo> fileInfos = new HashMap<>();
+
+        private final Map<String, byte[]> contents = new HashMap<>();
+
+        private Runnable onLoad;
+
+        public void addFile(final String theme,
+                            final String path,
+                            final String mimeType,
+                            final String content) {
+            final byte[] data = content.getBytes(StandardCharsets.UTF_8);
+            final ThemeFileInfo fileInfo = new ThemeFileInfo();
+            fileInfo.setName(path);
+            fileInfo.setMimeType(mimeType);
+            fileInfo.setSize(data.length);
+            fileInfos.put(theme + ":" + path, fileInfo);
+            contents.put(theme + ":" + path, data);
+        }
+
+        public void addDirectory(final String theme, final String path) {
+            final ThemeFileInfo fileInfo = new ThemeFileInfo();
+            fileInfo.setName(path);
+            fileInfo.setDirectory(true);
+            fileInfos.put(theme + ":" + path, fileInfo);
+        }
+
+        @Override
+        public String getName() {
+            return "TestThemeProvider";
+        }
+
+        @Override
+        public List<ThemeInfo> getThemes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<ThemeInfo> getLiveThemes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<ThemeInfo> getThemeInfo(final String theme,
+                                                final ThemeVersion version) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean providesTheme(final String theme,
+                                     final ThemeVersion version) {
+            return true;
+        }
+
+        @Override
+        public ThemeInfo createTheme(final String themeName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteTheme(final String themeName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ThemeFileInfo> listThemeFiles(final String theme,
+                                                  final ThemeVersion version,
+                                                  final String path) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Optional<ThemeFileInfo> getThemeFileInfo(
+            final String theme, final ThemeVersion version, final String path
+        ) {
+            assertThat(version, is(ThemeVersion.LIVE));
+            return Optional.ofNullable(fileInfos.get(theme + ":" + path));
+        }
+
+        @Override
+        public Optional<InputStream> getThemeFileAsStream(
+            final String theme, final ThemeVersion version, final String path
+        ) {
+            assertThat(version, is(ThemeVersion.LIVE));
+            if (onLoad != null) {
+                onLoad.run();
+            }
+            return Optional
+                .ofNullable(contents.get(theme + ":" + path))
+                .map(ByteArrayInputStream::new);
+        }
+
+        @Override
+        public OutputStream getOutputStreamForThemeFile(final String theme,
+                                                        final String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteThemeFile(final String theme, final String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean supportsChanges() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsDraftThemes() {
+            return false;
+        }
+
+        @Override
+        public void publishTheme(final String theme) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void unpublishTheme(final String theme) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
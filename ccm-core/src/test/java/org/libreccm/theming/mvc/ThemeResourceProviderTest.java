@@ -18,42 +18,87 @@
  */
 package org.libreccm.theming.mvc;
 
-import org.junit.After;
-import org.junit.AfterClass;
-import org.junit.Before;
-import org.junit.BeforeClass;
 import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 /**
+ * Tests for the helper methods of the {@link ThemeResourceProvider} used for
+ * selecting the representation of a theme asset and for creating its entity
+ * tag.
  *
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
 public class ThemeResourceProviderTest {
-    
+
+    private static final String FINGERPRINT = "0123456789abcdef";
+
     public ThemeResourceProviderTest() {
     }
-    
-    @BeforeClass
-    public static void setUpClass() {
+
+    @Test
+    public void gzipIsAcceptedIfListed() {
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("gzip")), is(true));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("deflate, GZIP, br")), is(true));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Arrays.asList("br", "gzip;q=0.5")), is(true));
     }
-    
-    @AfterClass
-    public static void tearDownClass() {
+
+    @Test
+    public void gzipIsNotAcceptedIfNotListed() {
+        assertThat(ThemeResourceProvider.acceptsGzip(null), is(false));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.emptyList()), is(false));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("deflate, br")), is(false));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("x-gzip")), is(false));
     }
-    
-    @Before
-    public void setUp() {
+
+    @Test
+    public void gzipIsNotAcceptedWithQualityZero() {
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("gzip;q=0")), is(false));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("br, gzip; q = 0.0")), is(false));
+        assertThat(ThemeResourceProvider.acceptsGzip(
+            Collections.singletonList("gzip;q=0.01")), is(true));
     }
-    
-    @After
-    public void tearDown() {
+
+    @Test
+    public void entityTagIsFingerprint() {
+        assertThat(ThemeResourceProvider.buildEntityTag(FINGERPRINT, false),
+                   is(equalTo(FINGERPRINT)));
+        assertThat(ThemeResourceProvider.buildEntityTag("fedcba9876543210",
+                                                        false),
+                   is(not(equalTo(ThemeResourceProvider.buildEntityTag(
+                       FINGERPRINT, false)))));
     }
 
+    /**
+     * A client which has cached the uncompressed representation of an asset
+     * must not get a {@code 304 Not Modified} response if it requests the
+     * gzip compressed representation, and vice versa.
+     */
     @Test
-    public void testSomeMethod() {
-        // TODO review the generated test code and remove the default call to fail.
-        fail("The test case is a prototype.");
+    public void entityTagsDifferForGzipRepresentation() {
+        final String entityTag = ThemeResourceProvider.buildEntityTag(
+            FINGERPRINT, false
+        );
+        final String gzipEntityTag = ThemeResourceProvider.buildEntityTag(
+            FINGERPRINT, true
+        );
+
+        assertThat(gzipEntityTag, is(not(equalTo(entityTag))));
+        assertThat(gzipEntityTag, startsWith(FINGERPRINT));
+        assertThat(ThemeResourceProvider.buildEntityTag(FINGERPRINT, true),
+                   is(equalTo(gzipEntityTag)));
     }
-    
+
 }
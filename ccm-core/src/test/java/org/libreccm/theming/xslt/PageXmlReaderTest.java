@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.theming.xslt;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the SAX events generated by {@link PageXmlReader} and
+ * {@link ContentHandlerStreamWriter} create the same XML as the non streaming
+ * mode of {@link XsltThemeProcessor}, which serialises the page to a string
+ * and parses it into a DOM tree.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class PageXmlReaderTest {
+
+    private final XmlMapper xmlMapper = new XmlMapper(new JacksonXmlModule());
+
+    public PageXmlReaderTest() {
+    }
+
+    private Map<String, Object> createPage() {
+        final Map<String, Object> page = new LinkedHashMap<>();
+        page.put("application", "content");
+        page.put("title", "Fish & Chips <special> \"quoted\"");
+        page.put("empty", "");
+        page.put("number", 42);
+
+        final Map<String, Object> item = new LinkedHashMap<>();
+        item.put("objectId", 1001L);
+        item.put("name", "fish-and-chips");
+        item.put("description", null);
+        final Map<String, Object> title = new HashMap<>();
+        title.put("en", "Fish & Chips");
+        item.put("title", title);
+        page.put("contentItem", item);
+
+        final List<Map<String, Object>> navigation = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("label", String.format("Category %d", i));
+            entry.put("url", String.format("/category-%d/?a=1&b=2", i));
+            navigation.add(entry);
+        }
+        page.put("navigation", navigation);
+        page.put("tags", Arrays.asList("food", "uk", "fried"));
+
+        return page;
+    }
+
+    private Document createDocument() throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory
+            .newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().newDocument();
+    }
+
+    /**
+     * Removes the whitespace only text nodes created by the indentation of
+     * the string used in the non streaming mode.
+     */
+    private void removeWhitespace(final Node node) {
+        final NodeList children = node.getChildNodes();
+        for (int i = children.getLength() - 1; i >= 0; i--) {
+            final Node child = children.item(i);
+            if (child.getNodeType() == Node.TEXT_NODE
+                    && child.getTextContent().trim().isEmpty()) {
+                node.removeChild(child);
+            } else {
+                removeWhitespace(child);
+            }
+        }
+    }
+
+    private String serialize(final Node node) throws Exception {
+        final Transformer transformer = TransformerFactory
+            .newInstance()
+            .newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        final StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(node), new StreamResult(writer));
+        return writer.toString();
+    }
+
+    @Test
+    public void streamedPageEqualsParsedPage() throws Exception {
+        final Map<String, Object> page = createPage();
+
+        final String pageAsXml = xmlMapper
+            .writer()
+            .with(SerializationFeature.INDENT_OUTPUT)
+            .withRootName("page")
+            .writeValueAsString(page);
+        final DocumentBuilderFactory factory = DocumentBuilderFactory
+            .newInstance();
+        factory.setNamespaceAware(true);
+        final Document parsed = factory
+            .newDocumentBuilder()
+            .parse(new InputSource(new StringReader(pageAsXml)));
+        removeWhitespace(parsed);
+
+        final Document streamed = createDocument();
+        TransformerFactory
+            .newInstance()
+            .newTransformer()
+            .transform(new SAXSource(new PageXmlReader(xmlMapper, page),
+                                     new InputSource()),
+                       new DOMResult(streamed));
+        removeWhitespace(streamed);
+
+        assertThat(serialize(streamed), is(equalTo(serialize(parsed))));
+    }
+
+    @Test
+    public void commentsAndEntityRefs() throws Exception {
+        final SAXTransformerFactory factory
+                                        = (SAXTransformerFactory) TransformerFactory
+                .newInstance();
+        final TransformerHandler handler = factory.newTransformerHandler();
+        final Document document = createDocument();
+        handler.setResult(new DOMResult(document));
+
+        final ContentHandlerStreamWriter writer
+                                             = new ContentHandlerStreamWriter(
+                handler);
+        handler.startDocument();
+        writer.writeStartElement("page");
+        writer.writeComment("a comment");
+        writer.writeCharacters("Fish ");
+        writer.writeEntityRef("amp");
+        writer.writeCharacters(" Chips");
+        writer.writeEndDocument();
+        handler.endDocument();
+
+        final Node root = document.getDocumentElement();
+        assertThat(root.getFirstChild().getNodeType(),
+                   is(Node.COMMENT_NODE));
+        assertThat(root.getFirstChild().getNodeValue(),
+                   is(equalTo("a comment")));
+        assertThat(root.getTextContent(), is(equalTo("Fish & Chips")));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void unknownEntityRef() throws Exception {
+        final TransformerHandler handler
+                                     = ((SAXTransformerFactory) TransformerFactory
+                .newInstance()).newTransformerHandler();
+        handler.setResult(new DOMResult(createDocument()));
+
+        final ContentHandlerStreamWriter writer
+                                             = new ContentHandlerStreamWriter(
+                handler);
+        handler.startDocument();
+        writer.writeStartElement("page");
+        writer.writeEntityRef("nbsp");
+    }
+
+    @Test
+    public void properties() throws Exception {
+        final TransformerHandler handler
+                                     = ((SAXTransformerFactory) TransformerFactory
+                .newInstance()).newTransformerHandler();
+        final ContentHandlerStreamWriter writer
+                                             = new ContentHandlerStreamWriter(
+                handler);
+
+        assertThat(writer.getProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES),
+                   is(equalTo(Boolean.FALSE)));
+        assertThat(writer.getProperty("org.libreccm.unknown"),
+                   is(nullValue()));
+    }
+
+}
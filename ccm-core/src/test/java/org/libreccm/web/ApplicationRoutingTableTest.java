@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.web;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the lookup and invalidation of the {@link ApplicationRoutingTable}.
+ * The applications and the version stamp are provided by the test instead of
+ * the database.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ApplicationRoutingTableTest {
+
+    private final List<CcmApplication> applications = new ArrayList<>();
+
+    /**
+     * The value of the version stamp in the database.
+     */
+    private long versionStamp;
+
+    private TestRoutingTable routingTable;
+
+    @Before
+    public void setUp() {
+        applications.clear();
+        applications.add(createApplication(1, "/content/"));
+        applications.add(createApplication(2, "/content/info/"));
+        applications.add(createApplication(3, "/content/info/archive/"));
+        applications.add(createApplication(4, "/admin/"));
+        versionStamp = 0;
+
+        routingTable = new TestRoutingTable();
+    }
+
+    @Test
+    public void findsLongestMatchingPrefix() {
+        assertThat(findApplicationId("/content/"), is(1L));
+        assertThat(findApplicationId("/content/other/item/"), is(1L));
+        assertThat(findApplicationId("/content/info/"), is(2L));
+        assertThat(findApplicationId("/content/info/news/item"), is(2L));
+        assertThat(findApplicationId("/content/info/archive/2021/"), is(3L));
+        assertThat(findApplicationId("/admin/users/"), is(4L));
+    }
+
+    @Test
+    public void matchesSegmentsOnly() {
+        assertThat(routingTable.findRoute("/contents/").isPresent(),
+                   is(false));
+        assertThat(findApplicationId("/content/information/"), is(1L));
+        assertThat(routingTable.findRoute("/").isPresent(), is(false));
+        assertThat(routingTable.findRoute(null).isPresent(), is(false));
+    }
+
+    @Test
+    public void ignoresTrailingSlash() {
+        assertThat(findApplicationId("/content"), is(1L));
+        assertThat(findApplicationId("/content/info"), is(2L));
+        assertThat(findApplicationId("content/info/"), is(2L));
+        assertThat(findApplicationId("/content/info/archive"), is(3L));
+    }
+
+    @Test
+    public void ignoresInvalidPrimaryUrls() {
+        applications.add(createApplication(5, "/invalid"));
+        applications.add(createApplication(6, "/"));
+        applications.add(createApplication(7, null));
+
+        assertThat(routingTable.findRoute("/invalid/").isPresent(),
+                   is(false));
+        assertThat(findApplicationId("/admin/"), is(4L));
+    }
+
+    @Test
+    public void usesFirstApplicationForAmbiguousPath() {
+        applications.add(createApplication(5, "/admin/"));
+
+        assertThat(findApplicationId("/admin/"), is(4L));
+    }
+
+    @Test
+    public void removedApplicationIsNotFoundAfterChange() {
+        assertThat(findApplicationId("/content/info/news/"), is(2L));
+
+        applications.remove(1);
+        routingTable.onApplicationChanged(
+            new ApplicationChangedEvent(2, "/content/info/")
+        );
+
+        assertThat(findApplicationId("/content/info/news/"), is(1L));
+        assertThat(findApplicationId("/content/info/archive/"), is(3L));
+    }
+
+    @Test
+    public void tableIsBuiltOnce() {
+        findApplicationId("/content/");
+        findApplicationId("/admin/");
+        findApplicationId("/content/info/");
+
+        assertThat(routingTable.getBuildCount(), is(1));
+    }
+
+    /**
+     * An invalidation while the table is built must not leave the table built
+     * from the outdated applications in place.
+     */
+    @Test
+    public void discardsTableBuiltDuringInvalidation() {
+        routingTable.setDuringBuild(() -> {
+            applications.remove(1);
+            routingTable.onApplicationChanged(
+                new ApplicationChangedEvent(2, "/content/info/")
+            );
+        });
+
+        // The lookup during which the invalidation happened still uses the
+        // table built from the old applications.
+        findApplicationId("/content/info/");
+        routingTable.setDuringBuild(null);
+
+        assertThat(findApplicationId("/content/info/"), is(1L));
+        assertThat(routingTable.getBuildCount(), is(2));
+    }
+
+    @Test
+    public void applicationChangeIncrementsVersionStamp() {
+        routingTable.onApplicationChanged(
+            new ApplicationChangedEvent(2, "/content/info/")
+        );
+
+        assertThat(versionStamp, is(1L));
+    }
+
+    /**
+     * Changes done by another node are only visible through the version
+     * stamp.
+     */
+    @Test
+    public void synchronizeRebuildsTableChangedByOtherNode() {
+        routingTable.synchronize();
+        assertThat(findApplicationId("/content/info/news/"), is(2L));
+
+        // Another node removes an application.
+        applications.remove(1);
+        versionStamp++;
+
+        assertThat(findApplicationId("/content/info/news/"), is(2L));
+        routingTable.synchronize();
+        assertThat(findApplicationId("/content/info/news/"), is(1L));
+        assertThat(routingTable.getBuildCount(), is(2));
+    }
+
+    @Test
+    public void synchronizeKeepsTableIfStampIsUnchanged() {
+        routingTable.synchronize();
+        findApplicationId("/content/");
+        routingTable.synchronize();
+        findApplicationId("/admin/");
+
+        assertThat(routingTable.getBuildCount(), is(1));
+    }
+
+    private long findApplicationId(final String path) {
+        final Optional<ApplicationRoute> route = routingTable.findRoute(path);
+        assertThat(String.format("No route for path \"%s\".", path),
+                   route.isPresent(),
+                   is(true));
+        return route.get().getApplicationId();
+    }
+
+    private CcmApplication createApplication(final long objectId,
+                                             final String primaryUrl) {
+        final CcmApplication application = new CcmApplication();
+        application.setObjectId(objectId);
+        application.setPrimaryUrl(primaryUrl);
+        application.setApplicationType("org.libreccm.test.TestApplication");
+        return application;
+    }
+
+    private class TestRoutingTable extends ApplicationRoutingTable {
+
+        private int buildCount;
+
+        private Runnable duringBuild;
+
+        @Override
+        List<CcmApplication> findApplications() {
+            buildCount++;
+            final List<CcmApplication> result = new ArrayList<>(applications);
+            if (duringBuild != null) {
+                duringBuild.run();
+            }
+            return result;
+        }
+
+        @Override
+        long readVersionStamp() {
+            return versionStamp;
+        }
+
+        @Override
+        void incrementVersionStamp() {
+            versionStamp++;
+        }
+
+        public int getBuildCount() {
+            return buildCount;
+        }
+
+        public void setDuringBuild(final Runnable duringBuild) {
+            this.duringBuild = duringBuild;
+        }
+
+    }
+
+}
@@ -18,12 +18,14 @@
     create table CCM_CORE.CATEGORIES (
         ABSTRACT_CATEGORY boolean,
         CATEGORY_ORDER int8,
+        CATEGORY_PATH varchar(2048),
         ENABLED boolean,
         NAME varchar(255) not null,
         UNIQUE_ID varchar(255),
         VISIBLE boolean,
         OBJECT_ID int8 not null,
         PARENT_CATEGORY_ID int8,
+        ROOT_CATEGORY_ID int8,
         primary key (OBJECT_ID)
     );
 
@@ -680,6 +682,21 @@
         primary key (PARTY_ID)
     );
 
+    create table CCM_CORE.VERSION_STAMPS (
+        NAME varchar(255) not null,
+        STAMP int8 not null,
+        primary key (NAME)
+    );
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('configuration', 0);
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('themes', 0);
+
+    insert into CCM_CORE.VERSION_STAMPS (NAME, STAMP)
+        values ('applications', 0);
+
     create table CCM_CORE.WORKFLOW_ASSIGNABLE_TASKS (
         DUE_DATE timestamp,
         DURATION_MINUTES int8,
@@ -841,6 +858,14 @@ create sequence hibernate_sequence start 100000 increment 1;
         foreign key (PARENT_CATEGORY_ID) 
         references CCM_CORE.CATEGORIES;
 
+    alter table CCM_CORE.CATEGORIES 
+        add constraint FK_CATEGORIES_ROOT_CATEGORY_ID 
+        foreign key (ROOT_CATEGORY_ID) 
+        references CCM_CORE.CATEGORIES;
+
+    create index CATEGORIES_PATH_IDX 
+        on CCM_CORE.CATEGORIES (ROOT_CATEGORY_ID, CATEGORY_PATH);
+
     alter table CCM_CORE.CATEGORIES 
         add constraint FKpm291swli2musd0204phta652 
         foreign key (OBJECT_ID) 
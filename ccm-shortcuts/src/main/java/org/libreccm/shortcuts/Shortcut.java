@@ -23,6 +23,7 @@ import java.util.Objects;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -38,7 +39,11 @@ import javax.validation.constraints.NotEmpty;
  */
 @Entity
 @Table(schema = "CCM_SHORTCUTS", name = "SHORTCUTS")
+@EntityListeners(ShortcutChangeListener.class)
 @NamedQueries({
+    @NamedQuery(
+        name = "Shortcut.findAll",
+        query = "SELECT s FROM Shortcut s"),
     @NamedQuery(
         name = "Shortcut.findByUrlKey",
         query = "SELECT s FROM Shortcut s WHERE s.urlKey = :urlKey"),
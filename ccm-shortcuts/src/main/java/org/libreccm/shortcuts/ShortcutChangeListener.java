@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.shortcuts;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for {@link Shortcut}s. Fires a
+ * {@link ShortcutChangedEvent} each time a shortcut is persisted, updated or
+ * removed, regardless of whether the change was done using the
+ * {@link ShortcutManager}, the {@link ShortcutRepository} or the UI.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ShortcutChangeListener {
+
+    @Inject
+    private Event<ShortcutChangedEvent> shortcutChangedEvent;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void shortcutChanged(final Shortcut shortcut) {
+        shortcutChangedEvent.fire(
+            new ShortcutChangedEvent(shortcut.getShortcutId(),
+                                     shortcut.getUrlKey())
+        );
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.shortcuts;
+
+/**
+ * Event fired if a {@link Shortcut} has been created, changed or deleted.
+ * Fired by the {@link ShortcutChangeListener} for all changes of
+ * {@link Shortcut} entities.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ShortcutChangedEvent {
+
+    /**
+     * The ID of the changed shortcut.
+     */
+    private final long shortcutId;
+
+    /**
+     * The URL key of the shortcut after the change.
+     */
+    private final String urlKey;
+
+    public ShortcutChangedEvent(final long shortcutId, final String urlKey) {
+        this.shortcutId = shortcutId;
+        this.urlKey = urlKey;
+    }
+
+    public long getShortcutId() {
+        return shortcutId;
+    }
+
+    public String getUrlKey() {
+        return urlKey;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{ "
+                                 + "shortcutId = %d, "
+                                 + "urlKey = \"%s\""
+                                 + " }",
+                             super.toString(),
+                             shortcutId,
+                             urlKey);
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.shortcuts;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.libreccm.cache.GenerationCache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+/**
+ * In-memory table of all {@link Shortcut}s used by the
+ * {@link ShortcutsFilter} to find the shortcut for a request without querying
+ * the database.
+ *
+ * The table is an immutable snapshot of the URL keys and redirect targets of
+ * all shortcuts. Most requests are not for a shortcut, therefore a compact bit
+ * set of the hash codes of all URL keys is checked first. A URL key whose bit
+ * is not set is certainly not a shortcut.
+ *
+ * The table is rebuilt after a shortcut has been created, changed or deleted
+ * (see {@link ShortcutChangedEvent}). To pick up changes done by other nodes
+ * of a cluster the table is also rebuilt if it is older than
+ * {@link #MAX_AGE}.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+@ApplicationScoped
+public class ShortcutTable {
+
+    private static final Logger LOGGER = LogManager.getLogger(
+        ShortcutTable.class
+    );
+
+    /**
+     * Maximum age of the table in milliseconds.
+     */
+    static final long MAX_AGE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Key of the current snapshot in {@link #snapshots}.
+     */
+    private static final String SNAPSHOT = "snapshot";
+
+    @Inject
+    private EntityManager entityManager;
+
+    /**
+     * Holds the current snapshot. There is no entry if the table has not
+     * been built yet or has been invalidated. A snapshot built while a
+     * shortcut was changed is not kept.
+     */
+    private final GenerationCache<String, Snapshot> snapshots
+        = new GenerationCache<>();
+
+    /**
+     * Set while an expired snapshot is rebuilt.
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Finds the redirect target for a URL key.
+     *
+     * @param urlKey The URL key. Normalised in the same way as the keys of
+     *               the stored shortcuts (see
+     *               {@link ShortcutRepository#cleanUrlKey(String)}).
+     *
+     * @return An {@link Optional} with the redirect target of the shortcut
+     *         for the {@code urlKey}, or an empty {@link Optional} if there
+     *         is no shortcut for the {@code urlKey}.
+     */
+    public Optional<String> findRedirect(final String urlKey) {
+        if (urlKey == null) {
+            return Optional.empty();
+        }
+
+        return getSnapshot().findRedirect(
+            ShortcutRepository.cleanUrlKey(urlKey)
+        );
+    }
+
+    /**
+     * Checks if there are any shortcuts. Allows the {@link ShortcutsFilter} to
+     * skip all further processing if there are no shortcuts.
+     *
+     * @return {@code true} if there is at least one shortcut, {@code false}
+     *         otherwise.
+     */
+    public boolean isEmpty() {
+        return getSnapshot().redirects.isEmpty();
+    }
+
+    /**
+     * Rebuilds the table from the database.
+     */
+    public void refresh() {
+        invalidate();
+        getSnapshot();
+    }
+
+    /**
+     * Invalidates the table after a shortcut has been changed. The table is
+     * rebuilt by the next lookup.
+     *
+     * @param event The event fired for the changed shortcut.
+     */
+    protected void onShortcutChanged(
+        @Observes(during = TransactionPhase.AFTER_SUCCESS)
+        final ShortcutChangedEvent event) {
+
+        LOGGER.debug("Shortcut {} changed, invalidating shortcut table.",
+                     event.getShortcutId());
+        invalidate();
+    }
+
+    private void invalidate() {
+        snapshots.invalidateAll();
+    }
+
+    private Snapshot getSnapshot() {
+        final Snapshot current = snapshots.get(SNAPSHOT,
+                                               key -> buildSnapshot());
+        if (!current.isExpired(currentTimeMillis())) {
+            return current;
+        }
+
+        // The expired snapshot is refreshed by one thread. Threads which
+        // already have the expired snapshot continue to use it, threads
+        // arriving after it has been removed wait for the new one.
+        if (!refreshing.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            snapshots.remove(SNAPSHOT, current);
+            return snapshots.get(SNAPSHOT, key -> buildSnapshot());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Snapshot buildSnapshot() {
+        final List<Shortcut> shortcuts = loadShortcuts();
+
+        // Shortcuts stored before the URL keys were normalised by the
+        // ShortcutRepository may lack the leading or trailing slash.
+        final Map<String, String> redirects = new HashMap<>();
+        for (final Shortcut shortcut : shortcuts) {
+            redirects.put(ShortcutRepository.cleanUrlKey(shortcut.getUrlKey()),
+                          shortcut.getRedirect());
+        }
+
+        LOGGER.debug("Built shortcut table for {} shortcuts.",
+                     redirects.size());
+        return new Snapshot(redirects, currentTimeMillis());
+    }
+
+    /**
+     * Loads all shortcuts from the database. Overwritten by the unit tests.
+     *
+     * @return All shortcuts.
+     */
+    List<Shortcut> loadShortcuts() {
+        return entityManager
+            .createNamedQuery("Shortcut.findAll", Shortcut.class)
+            .getResultList();
+    }
+
+    /**
+     * The current time used to determine the age of the table. Overwritten
+     * by the unit tests.
+     *
+     * @return The current time in milliseconds.
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * An immutable snapshot of the shortcuts.
+     */
+    static final class Snapshot {
+
+        private final Map<String, String> redirects;
+
+        /**
+         * Bit set of the hash codes of the URL keys. The size is a power of
+         * two with at least 16 bits per shortcut, which keeps the rate of
+         * false positives low.
+         */
+        private final long[] filter;
+
+        private final int filterMask;
+
+        private final long created;
+
+        Snapshot(final Map<String, String> redirects, final long created) {
+            this.redirects = Collections.unmodifiableMap(redirects);
+
+            final int bits = Integer.highestOneBit(
+                Math.max(64, redirects.size() * 16 - 1)
+            ) << 1;
+            filter = new long[bits >>> 6];
+            filterMask = bits - 1;
+            for (final String urlKey : redirects.keySet()) {
+                final int bit = bitOf(urlKey);
+                filter[bit >>> 6] |= 1L << bit;
+            }
+
+            this.created = created;
+        }
+
+        /**
+         * Finds the redirect for a normalised URL key.
+         *
+         * @param urlKey The normalised URL key.
+         *
+         * @return The redirect target or an empty {@link Optional}.
+         */
+        Optional<String> findRedirect(final String urlKey) {
+            if (!mightContain(urlKey)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(redirects.get(urlKey));
+        }
+
+        /**
+         * Checks the bit set of the hash codes of the URL keys.
+         *
+         * @param urlKey The URL key to check.
+         *
+         * @return {@code false} if the snapshot certainly does not contain
+         *         the {@code urlKey}, {@code true} if it might contain it.
+         */
+        boolean mightContain(final String urlKey) {
+            final int bit = bitOf(urlKey);
+            return (filter[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        private int bitOf(final String urlKey) {
+            final int hash = urlKey.hashCode();
+            return (hash ^ (hash >>> 16)) & filterMask;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - created > MAX_AGE;
+        }
+
+    }
+
+}
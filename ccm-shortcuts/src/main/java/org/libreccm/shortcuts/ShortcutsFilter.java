@@ -40,6 +40,9 @@ import javax.servlet.http.HttpServletResponse;
  * a shortcut for the requested URL. If there is matching shortcut the request 
  * is redirected to the URL specified in the matching shortcut. If no matching 
  * shortcut is found the next filter in the filter chain is called.
+ *
+ * The shortcuts are looked up in the {@link ShortcutTable}, therefore
+ * requests which are not for a shortcut do not cause a database query.
  * 
  * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
  */
@@ -50,7 +53,7 @@ public class ShortcutsFilter implements Filter {
         ShortcutsFilter.class);
 
     @Inject
-    private ShortcutRepository shortcutRepository;
+    private ShortcutTable shortcutTable;
 
     @Override
     public void init(final FilterConfig filterConfig) throws ServletException {
@@ -66,6 +69,11 @@ public class ShortcutsFilter implements Filter {
         if (request instanceof HttpServletRequest
                 && response instanceof HttpServletResponse) {
 
+            if (shortcutTable.isEmpty()) {
+                chain.doFilter(request, response);
+                return;
+            }
+
             final HttpServletRequest httpRequest = (HttpServletRequest) request;
 
             final String path = httpRequest.getRequestURI();
@@ -82,15 +90,15 @@ public class ShortcutsFilter implements Filter {
                 return;
             }
 
-            final Optional<Shortcut> shortcut = shortcutRepository.findByUrlKey(
+            final Optional<String> redirect = shortcutTable.findRedirect(
                 cleanUrlKey(httpRequest, path));
 
-            if (shortcut.isPresent()) {
+            if (redirect.isPresent()) {
                 LOGGER.debug("Found Shortcut for path {}: {}",
                              path,
-                             shortcut.toString());
-                final StringBuffer targetBuffer = new StringBuffer(shortcut
-                    .get().getRedirect());
+                             redirect.get());
+                final StringBuffer targetBuffer = new StringBuffer(
+                    redirect.get());
 
                 final String queryString = httpRequest.getQueryString();
                 if (queryString != null && !queryString.isEmpty()) {
@@ -121,7 +129,7 @@ public class ShortcutsFilter implements Filter {
 
     private String cleanUrlKey(final HttpServletRequest request,
                                final String requestUri) {
-        String urlKey;
+        final String urlKey;
         if (request.getContextPath() == null
                 || request.getContextPath().isEmpty()) {
             urlKey = requestUri;
@@ -131,15 +139,7 @@ public class ShortcutsFilter implements Filter {
             urlKey = requestUri;
         }
 
-        if (!urlKey.startsWith("/")) {
-            urlKey = String.join("", "/", urlKey);
-        }
-
-        if (!urlKey.endsWith("/")) {
-            urlKey = String.join("", urlKey, "/");
-        }
-
-        return urlKey;
+        return ShortcutRepository.cleanUrlKey(urlKey);
     }
 
     @Override
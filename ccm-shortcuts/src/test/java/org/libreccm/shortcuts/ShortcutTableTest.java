@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2021 LibreCCM Foundation.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.libreccm.shortcuts;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ShortcutTable}. The shortcuts are provided by a list
+ * instead of the database.
+ *
+ * @author <a href="mailto:jens.pelzetter@googlemail.com">Jens Pelzetter</a>
+ */
+public class ShortcutTableTest {
+
+    private List<Shortcut> shortcuts;
+
+    private TestShortcutTable table;
+
+    public ShortcutTableTest() {
+    }
+
+    @Before
+    public void setUp() {
+        shortcuts = new ArrayList<>();
+        shortcuts.add(createShortcut(1L, "/about/", "/info/about-us/"));
+        shortcuts.add(createShortcut(2L, "/news/", "/content/news/"));
+
+        table = new TestShortcutTable();
+    }
+
+    @Test
+    public void snapshotMightContainAllKeys() {
+        final Map<String, String> redirects = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            redirects.put(String.format("/shortcut-%d/", i), "/target/");
+        }
+        final ShortcutTable.Snapshot snapshot = new ShortcutTable.Snapshot(
+            redirects, 0);
+
+        for (final String urlKey : redirects.keySet()) {
+            assertThat(urlKey, snapshot.mightContain(urlKey), is(true));
+            assertThat(snapshot.findRedirect(urlKey),
+                       is(equalTo(Optional.of("/target/"))));
+        }
+    }
+
+    @Test
+    public void snapshotRejectsMostOtherKeys() {
+        final Map<String, String> redirects = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            redirects.put(String.format("/shortcut-%d/", i), "/target/");
+        }
+        final ShortcutTable.Snapshot snapshot = new ShortcutTable.Snapshot(
+            redirects, 0);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            final String urlKey = String.format("/content/page-%d/", i);
+            if (snapshot.mightContain(urlKey)) {
+                falsePositives++;
+            }
+            assertThat(snapshot.findRedirect(urlKey),
+                       is(equalTo(Optional.empty())));
+        }
+        // With at least 16 bits per shortcut about 6 percent of the other
+        // keys hit a set bit.
+        assertThat(falsePositives, is(lessThan(1000)));
+    }
+
+    @Test
+    public void emptySnapshotContainsNothing() {
+        final ShortcutTable.Snapshot snapshot = new ShortcutTable.Snapshot(
+            Collections.emptyMap(), 0);
+
+        assertThat(snapshot.mightContain("/"), is(false));
+        assertThat(snapshot.mightContain("/about/"), is(false));
+    }
+
+    @Test
+    public void findRedirect() {
+        assertThat(table.findRedirect("/about/"),
+                   is(equalTo(Optional.of("/info/about-us/"))));
+        assertThat(table.findRedirect("/news/"),
+                   is(equalTo(Optional.of("/content/news/"))));
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.empty())));
+        assertThat(table.findRedirect(null), is(equalTo(Optional.empty())));
+        assertThat(table.isEmpty(), is(false));
+        assertThat(table.getLoads(), is(1));
+    }
+
+    @Test
+    public void emptyTable() {
+        shortcuts.clear();
+
+        assertThat(table.isEmpty(), is(true));
+        assertThat(table.findRedirect("/about/"),
+                   is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void urlKeysAreNormalisedLikeRepository() {
+        shortcuts.clear();
+        for (final String urlKey : new String[]{"about",
+                                                "/news",
+                                                "events/",
+                                                "/a/b/",
+                                                ""}) {
+            shortcuts.add(createShortcut(
+                shortcuts.size() + 1,
+                ShortcutRepository.cleanUrlKey(urlKey),
+                "/target" + ShortcutRepository.cleanUrlKey(urlKey)));
+        }
+        // Stored before the URL keys were normalised
+        shortcuts.add(createShortcut(10L, "legacy", "/target/legacy/"));
+
+        for (final String requested : new String[]{"about",
+                                                   "/about",
+                                                   "about/",
+                                                   "/about/"}) {
+            assertThat(requested,
+                       table.findRedirect(requested),
+                       is(equalTo(Optional.of("/target/about/"))));
+        }
+        assertThat(table.findRedirect("news"),
+                   is(equalTo(Optional.of("/target/news/"))));
+        assertThat(table.findRedirect("/events"),
+                   is(equalTo(Optional.of("/target/events/"))));
+        assertThat(table.findRedirect("a/b"),
+                   is(equalTo(Optional.of("/target/a/b/"))));
+        assertThat(table.findRedirect(""),
+                   is(equalTo(Optional.of("/target/"))));
+        assertThat(table.findRedirect("/legacy/"),
+                   is(equalTo(Optional.of("/target/legacy/"))));
+    }
+
+    @Test
+    public void cleanUrlKey() {
+        assertThat(ShortcutRepository.cleanUrlKey("about"),
+                   is(equalTo("/about/")));
+        assertThat(ShortcutRepository.cleanUrlKey("/about"),
+                   is(equalTo("/about/")));
+        assertThat(ShortcutRepository.cleanUrlKey("about/"),
+                   is(equalTo("/about/")));
+        assertThat(ShortcutRepository.cleanUrlKey("/about/"),
+                   is(equalTo("/about/")));
+        assertThat(ShortcutRepository.cleanUrlKey("/"), is(equalTo("/")));
+        assertThat(ShortcutRepository.cleanUrlKey(""), is(equalTo("/")));
+    }
+
+    @Test
+    public void rebuiltAfterShortcutChanged() {
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.empty())));
+
+        shortcuts.add(createShortcut(3L, "/contact/", "/info/contact/"));
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.empty())));
+        assertThat(table.getLoads(), is(1));
+
+        table.onShortcutChanged(new ShortcutChangedEvent(3L, "/contact/"));
+
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.of("/info/contact/"))));
+        assertThat(table.findRedirect("/about/"),
+                   is(equalTo(Optional.of("/info/about-us/"))));
+        assertThat(table.getLoads(), is(2));
+    }
+
+    @Test
+    public void refreshRebuildsTable() {
+        table.findRedirect("/about/");
+        shortcuts.remove(0);
+
+        table.refresh();
+
+        assertThat(table.getLoads(), is(2));
+        assertThat(table.findRedirect("/about/"),
+                   is(equalTo(Optional.empty())));
+        assertThat(table.getLoads(), is(2));
+    }
+
+    @Test
+    public void expiredTableIsRebuilt() {
+        table.findRedirect("/about/");
+        shortcuts.add(createShortcut(3L, "/contact/", "/info/contact/"));
+
+        table.advance(ShortcutTable.MAX_AGE);
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.empty())));
+        assertThat(table.getLoads(), is(1));
+
+        table.advance(1);
+        assertThat(table.findRedirect("/contact/"),
+                   is(equalTo(Optional.of("/info/contact/"))));
+        assertThat(table.getLoads(), is(2));
+    }
+
+    private static Shortcut createShortcut(final long shortcutId,
+                                           final String urlKey,
+                                           final String redirect) {
+        final Shortcut shortcut = new Shortcut();
+        shortcut.setShortcutId(shortcutId);
+        shortcut.setUrlKey(urlKey);
+        shortcut.setRedirect(redirect);
+        return shortcut;
+    }
+
+    /**
+     * {@link ShortcutTable} which loads the shortcuts from the list of the
+     * test and uses a clock controlled by the tests.
+     */
+    private class TestShortcutTable extends ShortcutTable {
+
+        private int loads;
+
+        private long now = 1000000L;
+
+        @Override
+        List<Shortcut> loadShortcuts() {
+            loads++;
+            return new ArrayList<>(shortcuts);
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+
+        public void advance(final long millis) {
+            now += millis;
+        }
+
+        public int getLoads() {
+            return loads;
+        }
+
+    }
+
+}